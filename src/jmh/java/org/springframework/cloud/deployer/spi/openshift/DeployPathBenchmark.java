@@ -0,0 +1,221 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.kubernetes.ContainerConfiguration;
+import org.springframework.cloud.deployer.spi.kubernetes.ImagePullPolicy;
+import org.springframework.cloud.deployer.spi.openshift.resources.deploymentConfig.DeploymentConfigFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.pod.OpenShiftContainerFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.route.RouteFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.service.ServiceFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.volumes.VolumeFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.volumes.VolumeMountFactory;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ResourceRequirements;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.Route;
+import io.fabric8.openshift.client.DefaultOpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Measures the CPU and allocation cost of the in-process deploy path, i.e. building the
+ * container and OpenShift objects of a deployment, without calling OpenShift. Run with
+ * <code>-prof gc</code> for allocation rates.
+ * <p>
+ * The number of deployment properties, labels and environment variables is set by
+ * <code>propertyCount</code>. The number of app instances, each with its own
+ * DeploymentConfig, is set by <code>instanceCount</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeployPathBenchmark {
+
+	private static final String APP_ID = "testapp-source";
+
+	private static final int PORT = 8080;
+
+	@Param({ "1", "10", "100" })
+	private int propertyCount;
+
+	@Param({ "1", "5" })
+	private int instanceCount;
+
+	private OpenShiftClient client;
+
+	private OpenShiftDeployerProperties properties;
+
+	private AppDeploymentRequest request;
+
+	private String[] environmentVariables;
+
+	private OpenShiftAppDeployer appDeployer;
+
+	private OpenShiftContainerFactory containerFactory;
+
+	private VolumeFactory volumeFactory;
+
+	private Container container;
+
+	private Map<String, String> labels;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		client = new DefaultOpenShiftClient("http://localhost:8443");
+		properties = new OpenShiftDeployerProperties();
+
+		Map<String, String> deploymentProperties = new HashMap<>();
+		StringBuilder deploymentLabels = new StringBuilder();
+		environmentVariables = new String[propertyCount];
+		for (int i = 0; i < propertyCount; i++) {
+			deploymentProperties.put("spring.cloud.deployer.openshift.test.property" + i,
+					"value" + i);
+			deploymentLabels.append((i == 0) ? "" : ",").append("label").append(i)
+					.append('=').append("value").append(i);
+			environmentVariables[i] = "VARIABLE_" + i + "=value" + i;
+		}
+		deploymentProperties.put(
+				OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_LABELS,
+				deploymentLabels.toString());
+		//@formatter:off
+		deploymentProperties.put(
+				OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_VOLUMES,
+				"["
+					+ "{name: 'testhostpath', hostPath: { path: '/test/hostPath' }},"
+					+ "{name: 'testnfs', nfs: { server: '10.0.0.1:111', path: '/test/nfs' }}"
+				+ "]");
+		deploymentProperties.put(
+				OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_VOLUME_MOUNTS,
+				"["
+					+ "{name: 'testhostpath', mountPath: '/test/hostPath'},"
+					+ "{name: 'testnfs', mountPath: '/test/nfs', readOnly: 'true'}"
+				+ "]");
+		//@formatter:on
+		deploymentProperties.put("spring.cloud.deployer.count",
+				String.valueOf(instanceCount));
+
+		request = new AppDeploymentRequest(new AppDefinition(APP_ID, null),
+				new DockerResource("docker:testapp/testapp-source:latest"),
+				deploymentProperties);
+
+		appDeployer = new OpenShiftAppDeployer(properties, null, null);
+		containerFactory = new OpenShiftContainerFactory(properties,
+				new VolumeMountFactory(properties));
+		volumeFactory = new VolumeFactory(properties);
+		container = createContainer();
+		labels = new HashMap<>();
+		labels.put("spring-app-id", APP_ID);
+		labels.put("spring-deployment-id", APP_ID);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		client.close();
+	}
+
+	@Benchmark
+	public Container createContainer() {
+		return containerFactory.create(new ContainerConfiguration(APP_ID, request)
+				.withHostNetwork(false).withExternalPort(PORT));
+	}
+
+	@Benchmark
+	public void buildDeploymentConfigs(Blackhole blackhole) {
+		DeploymentConfigs deploymentConfigs = new DeploymentConfigs();
+		for (int i = 0; i < instanceCount; i++) {
+			blackhole.consume(deploymentConfigs.build(APP_ID + "-" + i));
+		}
+	}
+
+	@Benchmark
+	public Object buildService() {
+		return new Services().build(APP_ID);
+	}
+
+	@Benchmark
+	public Route buildRoute() {
+		return new Routes().build(APP_ID);
+	}
+
+	@Benchmark
+	public AppDeploymentRequest enableKubernetesDeployerCompatibility() {
+		return appDeployer.enableKubernetesDeployerCompatibility(request);
+	}
+
+	@Benchmark
+	public Object toEnvVars() {
+		return appDeployer.toEnvVars(environmentVariables);
+	}
+
+	@Benchmark
+	public Map<String, String> toLabels() {
+		return appDeployer.toLabels(request.getDeploymentProperties());
+	}
+
+	@Benchmark
+	public Object parseVolumes() {
+		return volumeFactory.addObject(request, APP_ID);
+	}
+
+	private class DeploymentConfigs extends DeploymentConfigFactory {
+
+		DeploymentConfigs() {
+			super(client, container, labels, new ResourceRequirements(),
+					ImagePullPolicy.IfNotPresent, volumeFactory);
+		}
+
+		DeploymentConfig build(String appId) {
+			return build(request, appId, container, labels, new ResourceRequirements(),
+					ImagePullPolicy.IfNotPresent);
+		}
+
+	}
+
+	private class Services extends ServiceFactory {
+
+		Services() {
+			super(client, PORT, labels);
+		}
+
+		Object build(String appId) {
+			return build(request, appId, PORT, labels);
+		}
+
+	}
+
+	private class Routes extends RouteFactory {
+
+		Routes() {
+			super(client, properties, PORT, labels);
+		}
+
+		Route build(String appId) {
+			return build(request, appId, PORT, labels);
+		}
+
+	}
+
+}
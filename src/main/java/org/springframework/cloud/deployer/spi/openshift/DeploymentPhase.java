@@ -0,0 +1,30 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+/**
+ * The phases of an asynchronous deployment, before the deployed resources themselves
+ * reflect the progress of the deployment.
+ */
+public enum DeploymentPhase {
+
+	/**
+	 * Resolving the resource and preparing the OpenShift objects, which for a Maven
+	 * resource includes hashing it and choosing a build strategy.
+	 */
+	preparing,
+
+	/**
+	 * Creating or updating the OpenShift objects.
+	 */
+	applying,
+
+	/**
+	 * Uploading the binary input of an S2I build.
+	 */
+	uploading,
+
+	/**
+	 * The deployment failed before any resource reflected it.
+	 */
+	failed
+
+}
@@ -0,0 +1,156 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs asynchronous deployments on a bounded executor and tracks their
+ * {@link DeploymentPhase} until they complete. A completed deployment is no longer
+ * tracked, as from then on the deployed resources reflect its status. A failed deployment
+ * is tracked, in the {@link DeploymentPhase#failed} phase, until it is cleared, i.e. when
+ * the app is undeployed.
+ */
+public class DeploymentProgress implements Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(DeploymentProgress.class);
+
+	private final ExecutorService executor;
+
+	private final Map<String, Deployment> deployments = new ConcurrentHashMap<>();
+
+	/**
+	 * @param concurrency the maximum number of concurrent deployments
+	 */
+	public DeploymentProgress(int concurrency) {
+		this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				new ThreadFactoryBuilder().setNameFormat("openshift-async-deploy-%d")
+						.setDaemon(true).build());
+	}
+
+	/**
+	 * Run a deployment of the app on the executor, starting in the
+	 * {@link DeploymentPhase#preparing} phase.
+	 * @param appId
+	 * @param deployment the deployment, which may move it to another phase with
+	 * {@link #setPhase(String, DeploymentPhase)}
+	 * @return the app id, completed once the deployment is done or exceptionally if it
+	 * failed
+	 * @throws IllegalStateException if a deployment of the app is already tracked
+	 */
+	public CompletableFuture<String> submit(String appId, Runnable deployment) {
+		Deployment tracked = new Deployment();
+		if (deployments.putIfAbsent(appId, tracked) != null) {
+			throw new IllegalStateException(
+					String.format("App '%s' is already being deployed", appId));
+		}
+
+		// the deployment is untracked or failed before the returned future completes
+		tracked.future = CompletableFuture.runAsync(deployment, executor)
+				.handle((result, e) -> {
+					if (e != null) {
+						Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+						logger.error(String.format("Could not deploy '%s'", appId),
+								cause);
+						tracked.phase = DeploymentPhase.failed;
+						tracked.failure = cause;
+						throw new IllegalStateException(
+								String.format("Could not deploy '%s'", appId), cause);
+					}
+
+					deployments.remove(appId, tracked);
+					return appId;
+				});
+		return tracked.future;
+	}
+
+	public void setPhase(String appId, DeploymentPhase phase) {
+		Deployment deployment = deployments.get(appId);
+		if (deployment != null) {
+			deployment.phase = phase;
+		}
+	}
+
+	/**
+	 * @param appId
+	 * @return the phase of the app's deployment, if it is in progress or failed
+	 */
+	public Optional<DeploymentPhase> getPhase(String appId) {
+		Deployment deployment = deployments.get(appId);
+		return (deployment == null) ? Optional.empty() : Optional.of(deployment.phase);
+	}
+
+	/**
+	 * @param appId
+	 * @return the app's deployment, if it is in progress or failed
+	 */
+	public Optional<CompletableFuture<String>> getDeployment(String appId) {
+		Deployment deployment = deployments.get(appId);
+		return (deployment == null) ? Optional.empty()
+				: Optional.ofNullable(deployment.future);
+	}
+
+	/**
+	 * @param appId
+	 * @return the cause of the app's failed deployment, if any
+	 */
+	public Optional<Throwable> getFailure(String appId) {
+		Deployment deployment = deployments.get(appId);
+		return (deployment == null) ? Optional.empty()
+				: Optional.ofNullable(deployment.failure);
+	}
+
+	/**
+	 * Stop tracking a failed deployment of the app. A deployment in progress is not
+	 * cleared.
+	 * @param appId
+	 */
+	public void clear(String appId) {
+		deployments.computeIfPresent(appId,
+				(id, deployment) -> (deployment.failure != null) ? null : deployment);
+	}
+
+	/**
+	 * @return the number of deployments in progress
+	 */
+	public long getInProgress() {
+		return deployments.values().stream()
+				.filter(deployment -> deployment.phase != DeploymentPhase.failed).count();
+	}
+
+	/**
+	 * @return the number of failed deployments not yet cleared
+	 */
+	public long getFailed() {
+		return deployments.values().stream()
+				.filter(deployment -> deployment.phase == DeploymentPhase.failed).count();
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private static class Deployment {
+
+		private volatile DeploymentPhase phase = DeploymentPhase.preparing;
+
+		private volatile Throwable failure;
+
+		private volatile CompletableFuture<String> future;
+
+	}
+
+}
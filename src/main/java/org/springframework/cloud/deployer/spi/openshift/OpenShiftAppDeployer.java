@@ -1,11 +1,16 @@
 package org.springframework.cloud.deployer.spi.openshift;
 
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationController;
 import io.fabric8.kubernetes.api.model.ResourceRequirements;
 import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.openshift.api.model.Build;
 import io.fabric8.openshift.api.model.DeploymentConfig;
@@ -21,26 +26,54 @@ import org.springframework.cloud.deployer.spi.kubernetes.ContainerFactory;
 import org.springframework.cloud.deployer.spi.kubernetes.ImagePullPolicy;
 import org.springframework.cloud.deployer.spi.kubernetes.KubernetesAppDeployer;
 import org.springframework.cloud.deployer.spi.kubernetes.KubernetesDeployerProperties;
+import org.springframework.cloud.deployer.spi.openshift.cache.OpenShiftResourceCache;
+import org.springframework.cloud.deployer.spi.openshift.metrics.DeployerMetrics;
 import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactoryPipeline;
 import org.springframework.cloud.deployer.spi.openshift.resources.deploymentConfig.DeploymentConfigFactory;
 import org.springframework.cloud.deployer.spi.openshift.resources.deploymentConfig.DeploymentConfigWithIndexSuppportFactory;
 import org.springframework.cloud.deployer.spi.openshift.resources.route.RouteFactory;
 import org.springframework.cloud.deployer.spi.openshift.resources.service.ServiceWithIndexSupportFactory;
+import org.springframework.cloud.deployer.spi.openshift.scale.ScaleDownMode;
+import org.springframework.cloud.deployer.spi.openshift.scale.ScaleDownStrategies;
+import org.springframework.cloud.deployer.spi.openshift.scale.ScaleDownStrategy;
+import org.springframework.cloud.deployer.spi.openshift.timeline.DeploymentTimeline;
+import org.springframework.cloud.deployer.spi.openshift.timeline.Timeline;
+import org.springframework.cloud.deployer.spi.openshift.timeline.TimelineSpan;
 import org.springframework.util.StringUtils;
 
+import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Deploys apps as DeploymentConfigs.
+ * <p>
+ * Components that should exist once across deployers, e.g. the
+ * {@link DeploymentProgress}, are held as a {@link SharedComponent}. Their setters share
+ * an instance, otherwise the deployer creates its own on first use and closes it when it
+ * is closed.
+ */
 public class OpenShiftAppDeployer extends KubernetesAppDeployer
-		implements AppDeployer, OpenShiftSupport {
+		implements AppDeployer, OpenShiftSupport, Closeable {
 
 	private static Logger logger = LoggerFactory.getLogger(OpenShiftAppDeployer.class);
 
@@ -50,7 +83,23 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 
 	private OpenShiftClient client;
 
-	private final ExecutorService executorService = Executors.newCachedThreadPool();
+	private OpenShiftResourceCache resourceCache;
+
+	private final ExecutorService executorService;
+
+	private final ExecutorService deployExecutorService;
+
+	private final ScheduledExecutorService scheduledExecutorService;
+
+	private final ObjectFactoryPipeline objectFactoryPipeline;
+
+	private final ScaleDownStrategies scaleDownStrategies;
+
+	private final SharedComponent<DeploymentProgress> deploymentProgress;
+
+	private DeployerMetrics metrics = DeployerMetrics.noop();
+
+	private final SharedComponent<DeploymentTimeline> deploymentTimeline;
 
 	public OpenShiftAppDeployer(OpenShiftDeployerProperties properties,
 			KubernetesClient client, ContainerFactory containerFactory) {
@@ -59,50 +108,114 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 		this.openShiftDeployerProperties = properties;
 		this.client = (OpenShiftClient) client;
 		this.containerFactory = containerFactory;
+		this.executorService = new ThreadPoolExecutor(properties.getUndeployParallelism(),
+				properties.getUndeployParallelism(), 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+						.setNameFormat("openshift-undeploy-%d").setDaemon(true).build());
+		this.deployExecutorService = new ThreadPoolExecutor(
+				properties.getDeployParallelism(), properties.getDeployParallelism(), 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+						.setNameFormat("openshift-deploy-%d").setDaemon(true).build());
+		this.objectFactoryPipeline = new ObjectFactoryPipeline(deployExecutorService);
+		this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setNameFormat("openshift-scheduler-%d")
+						.setDaemon(true).build());
+		this.scaleDownStrategies = new ScaleDownStrategies(properties, this.client,
+				executorService, scheduledExecutorService);
+		this.deploymentProgress = new SharedComponent<>(
+				() -> new DeploymentProgress(properties.getAsyncDeployConcurrency()));
+		this.deploymentTimeline = new SharedComponent<>(
+				() -> new DeploymentTimeline(properties.getDeploymentTimelineHistory()));
 	}
 
+	/**
+	 * If <code>asyncDeploy</code> is enabled, the request is validated and the app id
+	 * returned immediately, while the deployment continues asynchronously. See
+	 * {@link #deployAsync(AppDeploymentRequest)}.
+	 */
 	@Override
 	public String deploy(AppDeploymentRequest request) {
-		logger.info("Deploying application: {}", request.getDefinition());
+		return metrics.record("app", "deploy", () -> {
+			AppDeploymentRequest compatibleRequest = prepareDeployment(request);
+			String appId = createDeploymentId(compatibleRequest);
 
-		AppDeploymentRequest compatibleRequest = enableKubernetesDeployerCompatibility(
-				request);
-		validate(compatibleRequest);
-
-		String appId = createDeploymentId(compatibleRequest);
+			if (openShiftDeployerProperties.isAsyncDeploy()) {
+				startDeployment(compatibleRequest, appId);
+			}
+			else {
+				Timeline timeline = deploymentTimeline.get().begin(appId);
+				try {
+					List<ObjectFactory> factories = timeline.record("prepare",
+							() -> populateOpenShiftObjectsForDeployment(compatibleRequest,
+									appId));
+					deployObjects(factories, compatibleRequest, appId, timeline);
+				}
+				catch (RuntimeException e) {
+					timeline.fail(e);
+					throw e;
+				}
+			}
 
-		if (!status(appId).getState().equals(DeploymentState.unknown)) {
-			throw new IllegalStateException(
-					String.format("App '%s' is already deployed", appId));
-		}
+			return appId;
+		});
+	}
 
-		List<ObjectFactory> factories = populateOpenShiftObjectsForDeployment(
-				compatibleRequest, appId);
-		factories.forEach(factory -> factory.addObject(compatibleRequest, appId));
-		factories.forEach(factory -> factory.applyObject(compatibleRequest, appId));
+	/**
+	 * Validate the request and deploy the app asynchronously on a bounded executor,
+	 * regardless of <code>asyncDeploy</code>. While the deployment is in progress,
+	 * {@link #status(String)} reports the app as deploying, with the
+	 * {@link DeploymentPhase} as the <code>deployment.phase</code> attribute.
+	 * @param request
+	 * @return the app id, completed once the OpenShift objects are applied or
+	 * exceptionally if the deployment failed
+	 * @throws IllegalStateException if the app is already deployed
+	 */
+	public CompletableFuture<String> deployAsync(AppDeploymentRequest request) {
+		AppDeploymentRequest compatibleRequest = prepareDeployment(request);
+		return startDeployment(compatibleRequest, createDeploymentId(compatibleRequest));
+	}
 
-		return appId;
+	/**
+	 * @param appId
+	 * @return the asynchronous deployment of the app, if it is in progress or failed
+	 */
+	public Optional<CompletableFuture<String>> getDeployment(String appId) {
+		return deploymentProgress.get().getDeployment(appId);
 	}
 
 	@Override
 	public void undeploy(String appId) {
+		metrics.record("app", "undeploy", () -> undeployApp(appId));
+	}
+
+	private void undeployApp(String appId) {
 		logger.info("Undeploying application: {}", appId);
 
-		AppStatus status = status(appId);
+		deploymentProgress.get().clear(appId);
+		AppStatus status = super.status(appId);
 		if (status.getState().equals(DeploymentState.unknown)) {
 			throw new IllegalStateException(
 					String.format("App '%s' is not deployed", appId));
 		}
 
+		ResourceDeletionWatcher deletionWatcher = new ResourceDeletionWatcher(client,
+				appId);
+
 		// don't delete BuildConfig/Builds
 		client.services().withLabelIn(SPRING_APP_KEY, appId).delete();
 		client.routes().withLabelIn(SPRING_APP_KEY, appId).delete();
-		for (DeploymentConfig deploymentConfig : client.deploymentConfigs()
-				.withLabelIn(SPRING_APP_KEY, appId).list().getItems()) {
-			scaleDownPod(client, deploymentConfig);
-			client.deploymentConfigs().withName(deploymentConfig.getMetadata().getName())
-					.cascading(true).withGracePeriod(0).delete();
-		}
+
+		List<DeploymentConfig> deploymentConfigs = client.deploymentConfigs()
+				.withLabelIn(SPRING_APP_KEY, appId).list().getItems();
+		metrics.record("DeploymentConfig", "scaleDown",
+				() -> scaleDownPods(deploymentConfigs));
+		awaitAll(
+				deploymentConfigs.stream()
+						.map(deploymentConfig -> executorService.submit(() -> client
+								.deploymentConfigs()
+								.withName(deploymentConfig.getMetadata().getName())
+								.cascading(true).withGracePeriod(0).delete()))
+						.collect(Collectors.toList()));
 
 		/**
 		 * Explicitly delete the Deployment's Pods. This is actually only relevant when
@@ -111,22 +224,96 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 		 * status. It shouldn't be applicable in an actual "real" OpenShift cluster.
 		 */
 		// @formatter:off
-		this.client.pods().withLabelIn(SPRING_APP_KEY, appId).list().getItems().stream()
+		awaitAll(this.client.pods().withLabelIn(SPRING_APP_KEY, appId).list().getItems().stream()
 			.peek(pod -> logger.debug("Deleting Pod: {}", pod.getMetadata().getName()))
-			.forEach(pod -> this.client.pods()
+			.map(pod -> executorService.submit(() -> this.client.pods()
 				.withName(pod.getMetadata().getName())
 				.cascading(true)
 				.withGracePeriod(0)
-				.delete());
+				.delete()))
+			.collect(Collectors.toList()));
 		//@formatter:on
 
 		try {
-			// Give some time for resources to be deleted.
-			// This is nasty and probably should be investigated for a better solution
-			Thread.sleep(openShiftDeployerProperties.getUndeployDelay());
+			metrics.record("app", "awaitDeletion", () -> deletionWatcher
+					.awaitDeletion(openShiftDeployerProperties.getUndeployTimeout()));
+		}
+		finally {
+			deletionWatcher.close();
 		}
-		catch (InterruptedException e) {
+	}
+
+	/**
+	 * If a {@link OpenShiftResourceCache} is available, the status is resolved from the
+	 * cached resources without any calls to the API server. Deploy and undeploy always
+	 * check the status against the API server.
+	 */
+	@Override
+	public AppStatus status(String appId) {
+		return metrics.record("app", "status", () -> {
+			if (resourceCache == null) {
+				return super.status(appId);
+			}
+
+			return buildAppStatus(appId,
+					new PodListBuilder().withItems(resourceCache.getPods(appId)).build(),
+					new ServiceListBuilder().withItems(resourceCache.getServices(appId))
+							.build());
+		});
+	}
+
+	/**
+	 * Resolve the status of many apps at once. Instead of listing the resources of each
+	 * app individually, one list per resource kind is done for all the apps (using a
+	 * <code>spring-app-id in (...)</code> label selector) and the results grouped by app
+	 * id. If a {@link OpenShiftResourceCache} is available, the cached resources are used
+	 * instead.
+	 * @param appIds
+	 * @return the status of each app, keyed by app id
+	 */
+	public Map<String, AppStatus> statuses(Collection<String> appIds) {
+		return metrics.record("app", "statuses", () -> resolveStatuses(appIds));
+	}
+
+	private Map<String, AppStatus> resolveStatuses(Collection<String> appIds) {
+		Map<String, AppStatus> statuses = new LinkedHashMap<>();
+		if (appIds.isEmpty()) {
+			return statuses;
 		}
+
+		if (resourceCache != null) {
+			appIds.forEach(appId -> statuses.put(appId, status(appId)));
+			return statuses;
+		}
+
+		String[] ids = appIds.toArray(new String[0]);
+		Map<String, List<Pod>> pods = groupByAppId(
+				client.pods().withLabelIn(SPRING_APP_KEY, ids).list().getItems());
+		// the Builds of apps and of the images they are deployed from, in a single list
+		Map<String, String> imageNames = getImageNames(appIds);
+		String[] buildIds = Stream.concat(appIds.stream(), imageNames.values().stream())
+				.distinct().toArray(String[]::new);
+		Map<String, List<Build>> builds = groupByAppId(
+				client.builds().withLabelIn(SPRING_APP_KEY, buildIds).list().getItems());
+
+		// ReplicationControllers are only relevant for apps without any Pods
+		String[] idsWithoutPods = appIds.stream()
+				.filter(appId -> !pods.containsKey(appId)).toArray(String[]::new);
+		Map<String, List<ReplicationController>> replicationControllers = (idsWithoutPods.length == 0)
+				? Collections.emptyMap() : groupByAppId(client.replicationControllers()
+						.withLabelIn(SPRING_APP_KEY, idsWithoutPods).list().getItems());
+
+		for (String appId : appIds) {
+			statuses.put(appId,
+					buildAppStatus(appId,
+							pods.getOrDefault(appId, Collections.emptyList()),
+							builds.getOrDefault(imageNames.getOrDefault(appId, appId),
+									Collections.emptyList()),
+							() -> replicationControllers.getOrDefault(appId,
+									Collections.emptyList())));
+		}
+
+		return statuses;
 	}
 
 	/**
@@ -136,19 +323,41 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 	 */
 	@Override
 	protected AppStatus buildAppStatus(String appId, PodList list, ServiceList services) {
+		String imageName = getImageNames(Collections.singleton(appId))
+				.getOrDefault(appId, appId);
+		return metrics.record("app", "buildAppStatus",
+				() -> buildAppStatus(appId, (list == null) ? null : list.getItems(),
+						getBuilds(imageName), () -> getReplicationControllers(appId)));
+	}
+
+	/**
+	 * @param appIds
+	 * @return the image of each app whose image is built by Builds labelled with another
+	 * name than the app id, e.g. an image shared by many apps. The Builds of the image
+	 * report the build status of the app.
+	 */
+	protected Map<String, String> getImageNames(Collection<String> appIds) {
+		return Collections.emptyMap();
+	}
+
+	protected AppStatus buildAppStatus(String appId, List<Pod> pods, List<Build> builds,
+			Supplier<List<ReplicationController>> replicationControllers) {
 		AppStatus.Builder statusBuilder = AppStatus.of(appId);
 
-		List<Build> builds = client.builds().withLabelIn(SPRING_APP_KEY, appId).list()
-				.getItems();
 		Build build = (builds.isEmpty()) ? null : Iterables.getLast(builds);
 
-		if (list == null) {
+		Optional<DeploymentPhase> phase = getDeploymentPhase(appId);
+		if (phase.isPresent() && (pods == null || pods.isEmpty())) {
+			statusBuilder.with(new OpenShiftAppInstanceStatus(null,
+					openShiftDeployerProperties, build, phase.get()));
+		}
+		else if (pods == null) {
 			statusBuilder.with(new OpenShiftAppInstanceStatus(null,
 					openShiftDeployerProperties, build));
 		}
-		else if (list.getItems().isEmpty()) {
-			this.client.replicationControllers().withLabelIn(SPRING_APP_KEY, appId).list()
-					.getItems().stream().findFirst().ifPresent(replicationController -> {
+		else if (pods.isEmpty()) {
+			replicationControllers.get().stream().findFirst()
+					.ifPresent(replicationController -> {
 						if (replicationController.getMetadata().getAnnotations()
 								.get("openshift.io/deployment.phase").equals("Failed")) {
 							statusBuilder.generalState(DeploymentState.failed);
@@ -156,7 +365,7 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 					});
 		}
 		else {
-			for (Pod pod : list.getItems()) {
+			for (Pod pod : pods) {
 				statusBuilder.with(new OpenShiftAppInstanceStatus(pod,
 						openShiftDeployerProperties, build));
 			}
@@ -184,18 +393,28 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 				.create(new ContainerConfiguration(createDeploymentId(request), request)
 						.withHostNetwork(false).withExternalPort(externalPort));
 
-		factories.add(getDeploymentConfigFactory(request, labels, container));
+		// each factory gets its own labels, as they may be modified concurrently
 		factories.add(
-				new ServiceWithIndexSupportFactory(getClient(), externalPort, labels));
+				getDeploymentConfigFactory(request, new HashMap<>(labels), container));
+		factories.add(new ServiceWithIndexSupportFactory(getClient(), externalPort,
+				new HashMap<>(labels)));
 
 		if (createRoute(request)) {
 			factories.add(new RouteFactory(getClient(), openShiftDeployerProperties,
-					externalPort, labels));
+					externalPort, new HashMap<>(labels)));
 		}
 
 		return factories;
 	}
 
+	/**
+	 * @param appId
+	 * @return the phase of an asynchronous deployment of the app in progress or failed
+	 */
+	protected Optional<DeploymentPhase> getDeploymentPhase(String appId) {
+		return deploymentProgress.get().getPhase(appId);
+	}
+
 	protected DeploymentConfigFactory getDeploymentConfigFactory(
 			AppDeploymentRequest request, Map<String, String> labels,
 			Container container) {
@@ -249,10 +468,103 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 		return deduceImagePullPolicy(request);
 	}
 
+	protected List<Build> getBuilds(String appId) {
+		return (resourceCache != null) ? resourceCache.getBuilds(appId)
+				: client.builds().withLabelIn(SPRING_APP_KEY, appId).list().getItems();
+	}
+
+	protected List<ReplicationController> getReplicationControllers(String appId) {
+		return (resourceCache != null) ? resourceCache.getReplicationControllers(appId)
+				: client.replicationControllers().withLabelIn(SPRING_APP_KEY, appId)
+						.list().getItems();
+	}
+
 	protected OpenShiftClient getClient() {
 		return client;
 	}
 
+	/**
+	 * @return the scheduler shared by the deployer's components, shut down when the
+	 * deployer is closed
+	 */
+	protected ScheduledExecutorService getScheduledExecutorService() {
+		return scheduledExecutorService;
+	}
+
+	public void setResourceCache(OpenShiftResourceCache resourceCache) {
+		this.resourceCache = resourceCache;
+	}
+
+	/**
+	 * @return the resource cache, or null if the status is resolved from the API server
+	 */
+	protected OpenShiftResourceCache getResourceCache() {
+		return resourceCache;
+	}
+
+	public void setDeploymentProgress(DeploymentProgress deploymentProgress) {
+		this.deploymentProgress.set(deploymentProgress);
+	}
+
+	/**
+	 * Record the operations of the deployer and the objects it adds and applies, see
+	 * {@link DeployerMetrics}.
+	 * @param metrics
+	 */
+	public void setMetrics(DeployerMetrics metrics) {
+		this.metrics = metrics;
+		this.objectFactoryPipeline.setMetrics(metrics);
+	}
+
+	protected DeployerMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Replace the strategy used to scale down the Pods of apps with the given
+	 * <code>scaleDownMode</code> when they are undeployed.
+	 * @param mode
+	 * @param strategy
+	 */
+	public void setScaleDownStrategy(ScaleDownMode mode, ScaleDownStrategy strategy) {
+		scaleDownStrategies.setStrategy(mode, strategy);
+	}
+
+	public void setDeploymentTimeline(DeploymentTimeline deploymentTimeline) {
+		this.deploymentTimeline.set(deploymentTimeline);
+	}
+
+	/**
+	 * @param appId
+	 * @return the timeline of the app's latest deployment
+	 */
+	public Optional<Timeline> getTimeline(String appId) {
+		return deploymentTimeline.get().get(appId);
+	}
+
+	/**
+	 * @param appId
+	 * @return the timeline of the app's latest deployment, or an untracked timeline if
+	 * there is none
+	 */
+	protected Timeline getDeploymentTimeline(String appId) {
+		return deploymentTimeline.get().get(appId)
+				.orElseGet(() -> Timeline.untracked(appId));
+	}
+
+	/**
+	 * Shut down the undeploy, deploy and scheduler thread pools and close the components the
+	 * deployer created itself, see {@link SharedComponent}.
+	 */
+	@Override
+	public void close() {
+		executorService.shutdown();
+		deployExecutorService.shutdown();
+		scheduledExecutorService.shutdownNow();
+		deploymentProgress.close();
+		deploymentTimeline.close();
+	}
+
 	protected KubernetesDeployerProperties getProperties() {
 		return properties;
 	}
@@ -276,6 +588,74 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 				request.getCommandlineArguments());
 	}
 
+	private AppDeploymentRequest prepareDeployment(AppDeploymentRequest request) {
+		logger.info("Deploying application: {}", request.getDefinition());
+
+		AppDeploymentRequest compatibleRequest = enableKubernetesDeployerCompatibility(
+				request);
+		validate(compatibleRequest);
+
+		String appId = createDeploymentId(compatibleRequest);
+		if (deploymentProgress.get().getPhase(appId)
+				.filter(phase -> phase != DeploymentPhase.failed).isPresent()
+				|| !super.status(appId).getState().equals(DeploymentState.unknown)) {
+			throw new IllegalStateException(
+					String.format("App '%s' is already deployed", appId));
+		}
+		deploymentProgress.get().clear(appId);
+
+		return compatibleRequest;
+	}
+
+	private CompletableFuture<String> startDeployment(AppDeploymentRequest request,
+			String appId) {
+		long submitted = TimelineSpan.now();
+		return deploymentProgress.get().submit(appId, () -> {
+			Timeline timeline = deploymentTimeline.get().begin(appId);
+			timeline.start("queue", submitted).end();
+			try {
+				List<ObjectFactory> factories = timeline.record("prepare",
+						() -> populateOpenShiftObjectsForDeployment(request, appId));
+				deploymentProgress.get().setPhase(appId, DeploymentPhase.applying);
+				deployObjects(factories, request, appId, timeline);
+			}
+			catch (RuntimeException e) {
+				timeline.fail(e);
+				throw e;
+			}
+		});
+	}
+
+	/**
+	 * The deployment's timeline ends once any phases that continue after the objects are
+	 * applied, e.g. a build, have ended.
+	 */
+	private void deployObjects(List<ObjectFactory> factories,
+			AppDeploymentRequest request, String appId, Timeline timeline) {
+		TimelineSpan applying = timeline.start("apply");
+		try {
+			objectFactoryPipeline.deploy(factories, request, appId, applying);
+			applying.end();
+		}
+		catch (RuntimeException e) {
+			applying.fail(e);
+			throw e;
+		}
+		timeline.end();
+	}
+
+	private <T extends HasMetadata> Map<String, List<T>> groupByAppId(List<T> resources) {
+		Map<String, List<T>> grouped = new HashMap<>();
+		for (T resource : resources) {
+			Map<String, String> labels = resource.getMetadata().getLabels();
+			if (labels != null && labels.containsKey(SPRING_APP_KEY)) {
+				grouped.computeIfAbsent(labels.get(SPRING_APP_KEY),
+						appId -> new ArrayList<>()).add(resource);
+			}
+		}
+		return grouped;
+	}
+
 	private void validate(AppDeploymentRequest appDeploymentRequest) {
 		if (appDeploymentRequest.getDefinition().getName().length() > 24) {
 			throw new IllegalArgumentException(
@@ -284,25 +664,34 @@ public class OpenShiftAppDeployer extends KubernetesAppDeployer
 	}
 
 	/**
-	 * Scale down the pod first before deleting. If we don't scale down the Pod first, the
-	 * next deployment that requires a Build will result in the previous deployment being
-	 * scaled while the new build is on progress. The new build will trigger a deployment
-	 * of the new app but having the old app deployed for a period of time during the
-	 * build is not desirable.
+	 * Scale down the pods first before deleting. If we don't scale down the Pod first,
+	 * the next deployment that requires a Build will result in the previous deployment
+	 * being scaled while the new build is on progress. The new build will trigger a
+	 * deployment of the new app but having the old app deployed for a period of time
+	 * during the build is not desirable.
+	 * <p>
+	 * All DeploymentConfigs are scaled down concurrently, by submitting each to the
+	 * undeploy pool, with the {@link ScaleDownStrategy} of the app's
+	 * <code>scaleDownMode</code>. Any that have not scaled down within the app's
+	 * <code>scaleDownTimeout</code> are deleted regardless.
 	 */
-	private void scaleDownPod(OpenShiftClient client, DeploymentConfig deploymentConfig) {
-		Future<Object> scaleDownTask = null;
-		try {
-			scaleDownTask = executorService.submit(() -> client.deploymentConfigs()
-					.withName(deploymentConfig.getMetadata().getName()).scale(0, true));
-			// TODO make this a deployer property
-			scaleDownTask.get(30, TimeUnit.SECONDS);
-		}
-		catch (TimeoutException e) {
-			scaleDownTask.cancel(true);
-		}
-		catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException(e);
+	private void scaleDownPods(List<DeploymentConfig> deploymentConfigs) {
+		awaitAll(deploymentConfigs.stream()
+				.map(deploymentConfig -> CompletableFuture
+						.supplyAsync(() -> scaleDownStrategies.scaleDown(deploymentConfig),
+								executorService)
+						.thenCompose(scaledDown -> scaledDown))
+				.collect(Collectors.toList()));
+	}
+
+	private void awaitAll(List<? extends Future<?>> tasks) {
+		for (Future<?> task : tasks) {
+			try {
+				task.get();
+			}
+			catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e);
+			}
 		}
 	}
 
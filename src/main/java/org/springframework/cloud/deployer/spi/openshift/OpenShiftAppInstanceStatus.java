@@ -3,6 +3,9 @@ package org.springframework.cloud.deployer.spi.openshift;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.openshift.api.model.Build;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.cloud.deployer.spi.app.DeploymentState;
 import org.springframework.cloud.deployer.spi.kubernetes.KubernetesAppInstanceStatus;
 import org.springframework.cloud.deployer.spi.kubernetes.KubernetesDeployerProperties;
@@ -11,21 +14,42 @@ public class OpenShiftAppInstanceStatus extends KubernetesAppInstanceStatus {
 
 	private Build build;
 
+	private DeploymentPhase phase;
+
 	public OpenShiftAppInstanceStatus(Pod pod, KubernetesDeployerProperties properties,
 			Build build) {
+		this(pod, properties, build, null);
+	}
+
+	/**
+	 * @param pod
+	 * @param properties
+	 * @param build
+	 * @param phase the phase of an asynchronous deployment in progress, may be null
+	 */
+	public OpenShiftAppInstanceStatus(Pod pod, KubernetesDeployerProperties properties,
+			Build build, DeploymentPhase phase) {
 		super(pod, null, properties);
 		this.build = build;
+		this.phase = phase;
 	}
 
 	/**
-	 * Active Builds are considered a {@link DeploymentState} of "deploying"
+	 * Asynchronous deployments in progress and active Builds are considered a
+	 * {@link DeploymentState} of "deploying"
 	 * @return the state of this application instance deployed in OpenShift
 	 */
 	@Override
 	public DeploymentState getState() {
 		DeploymentState state;
 
-		if (build != null && (build.getStatus().getPhase().equals("New")
+		if (phase == DeploymentPhase.failed) {
+			state = DeploymentState.failed;
+		}
+		else if (phase != null) {
+			state = DeploymentState.deploying;
+		}
+		else if (build != null && (build.getStatus().getPhase().equals("New")
 				|| build.getStatus().getPhase().equals("Pending")
 				|| build.getStatus().getPhase().equals("Running"))) {
 			state = DeploymentState.deploying;
@@ -37,4 +61,21 @@ public class OpenShiftAppInstanceStatus extends KubernetesAppInstanceStatus {
 		return state;
 	}
 
+	/**
+	 * In addition to the Pod attributes, the phase of an asynchronous deployment in
+	 * progress (<code>deployment.phase</code>) and of the Build
+	 * (<code>build.phase</code>) are included.
+	 */
+	@Override
+	public Map<String, String> getAttributes() {
+		Map<String, String> attributes = new HashMap<>(super.getAttributes());
+		if (phase != null) {
+			attributes.put("deployment.phase", phase.name());
+		}
+		if (build != null && build.getStatus() != null) {
+			attributes.put("build.phase", build.getStatus().getPhase());
+		}
+		return attributes;
+	}
+
 }
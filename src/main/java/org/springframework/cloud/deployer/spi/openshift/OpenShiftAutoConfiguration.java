@@ -1,22 +1,39 @@
 package org.springframework.cloud.deployer.spi.openshift;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.openshift.client.DefaultOpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.config.client.ConfigServicePropertySourceLocator;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.kubernetes.ContainerFactory;
+import org.springframework.cloud.deployer.spi.openshift.cache.OpenShiftResourceCache;
+import org.springframework.cloud.deployer.spi.openshift.maven.ImagePrebuilder;
 import org.springframework.cloud.deployer.spi.openshift.maven.MavenOpenShiftAppDeployer;
 import org.springframework.cloud.deployer.spi.openshift.maven.MavenOpenShiftTaskLauncher;
 import org.springframework.cloud.deployer.spi.openshift.maven.MavenResourceJarExtractor;
+import org.springframework.cloud.deployer.spi.openshift.maven.MavenResourceProjectExtractor;
+import org.springframework.cloud.deployer.spi.openshift.metrics.DeployerMetrics;
+import org.springframework.cloud.deployer.spi.openshift.metrics.MicrometerDeployerMetrics;
+import org.springframework.cloud.deployer.spi.openshift.metrics.OpenShiftDeployerMeterBinder;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildIndex;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildScheduler;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategyCache;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildWatcher;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.S2iBinaryUploader;
 import org.springframework.cloud.deployer.spi.openshift.resources.pod.OpenShiftContainerFactory;
 import org.springframework.cloud.deployer.spi.openshift.resources.volumes.VolumeMountConfigServerFactory;
 import org.springframework.cloud.deployer.spi.openshift.resources.volumes.VolumeMountFactory;
+import org.springframework.cloud.deployer.spi.openshift.timeline.DeploymentTimeline;
+import org.springframework.cloud.deployer.spi.openshift.timeline.DeploymentTimelineEndpoint;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,6 +41,15 @@ import org.springframework.core.Ordered;
 
 /**
  * Spring Bean configuration for the OpenShift deployer.
+ * <p>
+ * If Micrometer is on the classpath and a <code>MeterRegistry</code> is available, the
+ * calls to the API server, the operations of the app deployer and task launcher and the
+ * state of the shared build components are recorded in it. Micrometer is optional, see
+ * {@link DeployerMetrics}.
+ * <p>
+ * The timeline of each deployment is recorded in the {@link DeploymentTimeline} and, if
+ * the Spring Boot Actuator is available, exposed by the
+ * <code>deploymentTimelines</code> endpoint.
  *
  * @author Donovan Muller
  */
@@ -35,33 +61,147 @@ public class OpenShiftAutoConfiguration {
 	@Autowired
 	private MavenProperties mavenProperties;
 
-	@Bean
+	@Bean(destroyMethod = "close")
 	public AppDeployer appDeployer(OpenShiftDeployerProperties properties,
 			KubernetesClient kubernetesClient, ContainerFactory containerFactory,
 			MavenResourceJarExtractor mavenResourceJarExtractor,
-			ResourceHash resourceHash) {
-		return new ResourceAwareOpenShiftAppDeployer(
-				new OpenShiftAppDeployer(properties, kubernetesClient, containerFactory),
-				new MavenOpenShiftAppDeployer(properties, kubernetesClient,
-						containerFactory, mavenResourceJarExtractor, mavenProperties,
-						resourceHash));
+			ResourceHash resourceHash, BuildWatcher buildWatcher, BuildIndex buildIndex,
+			S2iBinaryUploader s2iBinaryUploader,
+			MavenResourceProjectExtractor mavenResourceProjectExtractor,
+			BuildStrategyCache buildStrategyCache, BuildScheduler buildScheduler,
+			DeploymentProgress deploymentProgress, ImagePrebuilder imagePrebuilder,
+			DeploymentTimeline deploymentTimeline,
+			ObjectProvider<OpenShiftResourceCache> resourceCache,
+			ObjectProvider<DeployerMetrics> deployerMetrics) {
+		OpenShiftAppDeployer openShiftAppDeployer = new OpenShiftAppDeployer(properties,
+				kubernetesClient, containerFactory);
+		MavenOpenShiftAppDeployer mavenOpenShiftAppDeployer = new MavenOpenShiftAppDeployer(
+				properties, kubernetesClient, containerFactory, mavenResourceJarExtractor,
+				mavenProperties, resourceHash);
+		mavenOpenShiftAppDeployer.setBuildWatcher(buildWatcher);
+		mavenOpenShiftAppDeployer.setBuildIndex(buildIndex);
+		mavenOpenShiftAppDeployer.setS2iBinaryUploader(s2iBinaryUploader);
+		mavenOpenShiftAppDeployer
+				.setMavenResourceProjectExtractor(mavenResourceProjectExtractor);
+		mavenOpenShiftAppDeployer.setBuildStrategyCache(buildStrategyCache);
+		mavenOpenShiftAppDeployer.setBuildScheduler(buildScheduler);
+		mavenOpenShiftAppDeployer.setImagePrebuilder(imagePrebuilder);
+		openShiftAppDeployer.setDeploymentProgress(deploymentProgress);
+		mavenOpenShiftAppDeployer.setDeploymentProgress(deploymentProgress);
+		openShiftAppDeployer.setDeploymentTimeline(deploymentTimeline);
+		mavenOpenShiftAppDeployer.setDeploymentTimeline(deploymentTimeline);
+		openShiftAppDeployer.setResourceCache(resourceCache.getIfAvailable());
+		mavenOpenShiftAppDeployer.setResourceCache(resourceCache.getIfAvailable());
+		if (deployerMetrics.getIfAvailable() != null) {
+			openShiftAppDeployer.setMetrics(deployerMetrics.getIfAvailable());
+			mavenOpenShiftAppDeployer.setMetrics(deployerMetrics.getIfAvailable());
+		}
+
+		return new ResourceAwareOpenShiftAppDeployer(openShiftAppDeployer,
+				mavenOpenShiftAppDeployer);
 	}
 
-	@Bean
+	@Bean(destroyMethod = "close")
 	public TaskLauncher taskDeployer(OpenShiftDeployerProperties properties,
 			KubernetesClient kubernetesClient, ContainerFactory containerFactory,
 			MavenResourceJarExtractor mavenResourceJarExtractor,
-			ResourceHash resourceHash) {
-		return new ResourceAwareOpenShiftTaskLauncher(
-				new OpenShiftTaskLauncher(properties, kubernetesClient, containerFactory),
-				new MavenOpenShiftTaskLauncher(properties, properties, mavenProperties,
-						kubernetesClient, mavenResourceJarExtractor, resourceHash,
-						containerFactory));
+			ResourceHash resourceHash, BuildWatcher buildWatcher, BuildIndex buildIndex,
+			S2iBinaryUploader s2iBinaryUploader,
+			MavenResourceProjectExtractor mavenResourceProjectExtractor,
+			BuildStrategyCache buildStrategyCache, BuildScheduler buildScheduler,
+			ObjectProvider<DeployerMetrics> deployerMetrics) {
+		MavenOpenShiftTaskLauncher mavenOpenShiftTaskLauncher = new MavenOpenShiftTaskLauncher(
+				properties, properties, mavenProperties, kubernetesClient,
+				mavenResourceJarExtractor, resourceHash, containerFactory);
+		mavenOpenShiftTaskLauncher.setBuildWatcher(buildWatcher);
+		mavenOpenShiftTaskLauncher.setBuildIndex(buildIndex);
+		mavenOpenShiftTaskLauncher.setS2iBinaryUploader(s2iBinaryUploader);
+		mavenOpenShiftTaskLauncher
+				.setMavenResourceProjectExtractor(mavenResourceProjectExtractor);
+		mavenOpenShiftTaskLauncher.setBuildStrategyCache(buildStrategyCache);
+		mavenOpenShiftTaskLauncher.setBuildScheduler(buildScheduler);
+
+		OpenShiftTaskLauncher openShiftTaskLauncher = new OpenShiftTaskLauncher(properties,
+				kubernetesClient, containerFactory);
+		if (deployerMetrics.getIfAvailable() != null) {
+			openShiftTaskLauncher.setMetrics(deployerMetrics.getIfAvailable());
+			mavenOpenShiftTaskLauncher.setMetrics(deployerMetrics.getIfAvailable());
+		}
+
+		return new ResourceAwareOpenShiftTaskLauncher(openShiftTaskLauncher,
+				mavenOpenShiftTaskLauncher);
 	}
 
 	@Bean
-	public KubernetesClient kubernetesClient(OpenShiftDeployerProperties properties) {
-		return new DefaultOpenShiftClient().inNamespace(properties.getNamespace());
+	@ConditionalOnMissingBean
+	public OpenShiftClientFactory openShiftClientFactory(
+			OpenShiftDeployerProperties properties,
+			ObjectProvider<DeployerMetrics> deployerMetrics) {
+		OpenShiftClientFactory openShiftClientFactory = new OpenShiftClientFactory(
+				properties);
+		if (deployerMetrics.getIfAvailable() != null) {
+			openShiftClientFactory.setMetrics(deployerMetrics.getIfAvailable());
+		}
+		return openShiftClientFactory;
+	}
+
+	@Bean(destroyMethod = "close")
+	public KubernetesClient kubernetesClient(
+			OpenShiftClientFactory openShiftClientFactory) {
+		return openShiftClientFactory.createClient();
+	}
+
+	@Bean(destroyMethod = "close")
+	public BuildWatcher buildWatcher(KubernetesClient kubernetesClient) {
+		return new BuildWatcher((OpenShiftClient) kubernetesClient);
+	}
+
+	@Bean(destroyMethod = "close")
+	public BuildScheduler buildScheduler(OpenShiftDeployerProperties properties,
+			BuildWatcher buildWatcher) {
+		return new BuildScheduler(buildWatcher, properties.getMaxConcurrentBuilds(),
+				properties.getBuildSlotTimeout());
+	}
+
+	@Bean(destroyMethod = "close")
+	public BuildIndex buildIndex(KubernetesClient kubernetesClient) {
+		return new BuildIndex((OpenShiftClient) kubernetesClient);
+	}
+
+	@Bean(destroyMethod = "close")
+	public DeploymentProgress deploymentProgress(OpenShiftDeployerProperties properties) {
+		return new DeploymentProgress(properties.getAsyncDeployConcurrency());
+	}
+
+	@Bean
+	public DeploymentTimeline deploymentTimeline(OpenShiftDeployerProperties properties) {
+		return new DeploymentTimeline(properties.getDeploymentTimelineHistory());
+	}
+
+	@Bean(destroyMethod = "close")
+	public ImagePrebuilder imagePrebuilder(OpenShiftDeployerProperties properties) {
+		return new ImagePrebuilder(properties.getPrebuildConcurrency());
+	}
+
+	@Bean
+	public BuildStrategyCache buildStrategyCache(OpenShiftDeployerProperties properties) {
+		return new BuildStrategyCache(properties.getBuildStrategyCacheSize());
+	}
+
+	@Bean(destroyMethod = "close")
+	public S2iBinaryUploader s2iBinaryUploader(OpenShiftDeployerProperties properties,
+			KubernetesClient kubernetesClient) {
+		return new S2iBinaryUploader((OpenShiftClient) kubernetesClient,
+				properties.getS2iUploadConcurrency(), properties.getS2iUploadRetries(),
+				properties.getS2iUploadRetryDelay());
+	}
+
+	@Bean(initMethod = "start", destroyMethod = "close")
+	@ConditionalOnProperty(prefix = "spring.cloud.deployer.openshift", name = "resourceCacheEnabled", havingValue = "true")
+	public OpenShiftResourceCache openShiftResourceCache(
+			OpenShiftDeployerProperties properties, KubernetesClient kubernetesClient) {
+		return new OpenShiftResourceCache((OpenShiftClient) kubernetesClient,
+				properties.getResourceCacheResyncPeriod());
 	}
 
 	@Bean
@@ -71,8 +211,15 @@ public class OpenShiftAutoConfiguration {
 	}
 
 	@Bean
-	public MavenResourceJarExtractor mavenResourceJarExtractor() {
-		return new MavenResourceJarExtractor();
+	public MavenResourceJarExtractor mavenResourceJarExtractor(
+			OpenShiftDeployerProperties properties) {
+		return new MavenResourceJarExtractor(properties.getJarIndexCacheSize());
+	}
+
+	@Bean(destroyMethod = "close")
+	public MavenResourceProjectExtractor mavenResourceProjectExtractor(
+			OpenShiftDeployerProperties properties) {
+		return new MavenResourceProjectExtractor(properties.getGitReferenceCacheSize());
 	}
 
 	@Bean
@@ -83,8 +230,11 @@ public class OpenShiftAutoConfiguration {
 	}
 
 	@Bean
-	public ResourceHash resourceHash() {
-		return new ResourceHash();
+	public ResourceHash resourceHash(OpenShiftDeployerProperties properties) {
+		return new ResourceHash(properties.getResourceHashAlgorithm(),
+				properties.isResourceHashMemoryMapped(),
+				properties.getResourceHashCacheSize(),
+				properties.isResourceHashSidecarEnabled());
 	}
 
 	@Bean
@@ -95,4 +245,54 @@ public class OpenShiftAutoConfiguration {
 				openShiftDeployerProperties);
 	}
 
+	@Configuration
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+	static class DeployerMetricsConfiguration {
+
+		@Bean
+		public DeployerMetrics deployerMetrics(
+				ObjectProvider<MeterRegistry> meterRegistry) {
+			return (meterRegistry.getIfAvailable() != null)
+					? new MicrometerDeployerMetrics(meterRegistry.getIfAvailable())
+					: DeployerMetrics.noop();
+		}
+
+		/**
+		 * Bound to the {@link MeterRegistry} here, rather than relying on a metrics
+		 * integration to bind {@link io.micrometer.core.instrument.binder.MeterBinder}
+		 * beans, so that any {@link MeterRegistry} bean is enough.
+		 */
+		@Bean
+		public OpenShiftDeployerMeterBinder openShiftDeployerMeterBinder(
+				BuildWatcher buildWatcher, BuildIndex buildIndex,
+				BuildScheduler buildScheduler, S2iBinaryUploader s2iBinaryUploader,
+				BuildStrategyCache buildStrategyCache, ImagePrebuilder imagePrebuilder,
+				DeploymentProgress deploymentProgress,
+				ObjectProvider<OpenShiftResourceCache> resourceCache,
+				ObjectProvider<MeterRegistry> meterRegistry) {
+			OpenShiftDeployerMeterBinder meterBinder = new OpenShiftDeployerMeterBinder(
+					buildWatcher, buildIndex, buildScheduler, s2iBinaryUploader,
+					buildStrategyCache, imagePrebuilder, deploymentProgress,
+					resourceCache.getIfAvailable());
+			if (meterRegistry.getIfAvailable() != null) {
+				meterBinder.bindTo(meterRegistry.getIfAvailable());
+			}
+			return meterBinder;
+		}
+
+	}
+
+	@Configuration
+	@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.AbstractEndpoint")
+	static class DeploymentTimelineEndpointConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public DeploymentTimelineEndpoint deploymentTimelineEndpoint(
+				DeploymentTimeline deploymentTimeline) {
+			return new DeploymentTimelineEndpoint(deploymentTimeline);
+		}
+
+	}
+
 }
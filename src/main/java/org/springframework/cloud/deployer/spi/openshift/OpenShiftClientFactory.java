@@ -0,0 +1,68 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.deployer.spi.openshift.metrics.DeployerMetrics;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.utils.HttpClientUtils;
+import io.fabric8.openshift.client.DefaultOpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftConfig;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Creates the {@link OpenShiftClient} shared by the app deployer, task launcher and build
+ * strategies. The client is configured from the environment (see
+ * {@link Config#autoConfigure(String)}) with the connection pool and request limits
+ * applied from the {@link OpenShiftDeployerProperties}.
+ * <p>
+ * If {@link DeployerMetrics} are set, every request to the API server is recorded (see
+ * {@link DeployerMetrics#getApiInterceptor()}).
+ * <p>
+ * Closing the client shuts down its connection pool and dispatcher threads.
+ */
+public class OpenShiftClientFactory {
+
+	private final OpenShiftDeployerProperties properties;
+
+	private DeployerMetrics metrics = DeployerMetrics.noop();
+
+	public OpenShiftClientFactory(OpenShiftDeployerProperties properties) {
+		this.properties = properties;
+	}
+
+	public void setMetrics(DeployerMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public OpenShiftClient createClient() {
+		Config config = Config.autoConfigure(null);
+		config.setNamespace(properties.getNamespace());
+		config.setMaxConcurrentRequests(properties.getClientMaxConcurrentRequests());
+		config.setMaxConcurrentRequestsPerHost(
+				properties.getClientMaxConcurrentRequestsPerHost());
+
+		OkHttpClient.Builder httpClientBuilder = HttpClientUtils.createHttpClient(config)
+				.newBuilder()
+				.connectionPool(new ConnectionPool(
+						properties.getClientMaxIdleConnections(),
+						properties.getClientKeepAliveDuration(), TimeUnit.MILLISECONDS))
+				.protocols(properties.isClientHttp2Enabled()
+						? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+						: Collections.singletonList(Protocol.HTTP_1_1));
+		Interceptor apiInterceptor = metrics.getApiInterceptor();
+		if (apiInterceptor != null) {
+			httpClientBuilder.addInterceptor(apiInterceptor);
+		}
+		OkHttpClient httpClient = httpClientBuilder.build();
+
+		return new DefaultOpenShiftClient(httpClient, OpenShiftConfig.wrap(config));
+	}
+
+}
@@ -3,7 +3,9 @@ package org.springframework.cloud.deployer.spi.openshift;
 import io.fabric8.openshift.api.model.Build;
 import io.fabric8.openshift.api.model.DeploymentConfig;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.DeprecatedConfigurationProperty;
 import org.springframework.cloud.deployer.spi.kubernetes.KubernetesDeployerProperties;
+import org.springframework.cloud.deployer.spi.openshift.scale.ScaleDownMode;
 
 @ConfigurationProperties(prefix = "spring.cloud.deployer.openshift")
 public class OpenShiftDeployerProperties extends KubernetesDeployerProperties {
@@ -27,9 +29,18 @@ public class OpenShiftDeployerProperties extends KubernetesDeployerProperties {
 
 	/**
 	 * Delay in milliseconds to wait for resources to be undeployed.
+	 * @deprecated no longer used, undeploy waits for the resources to be deleted, see
+	 * <code>undeployTimeout</code>
 	 */
+	@Deprecated
 	private long undeployDelay = 1000;
 
+	/**
+	 * Maximum time in milliseconds to wait for the DeploymentConfigs, Pods and Services
+	 * of an app to be deleted when undeploying.
+	 */
+	private long undeployTimeout = 30000;
+
 	/**
 	 * When deploying Maven resource apps, use this provided default Dockerfile. Allowable
 	 * values are <code>Dockerfile.artifactory</code> or <code>Dockerfile.nexus</code>.
@@ -62,6 +73,194 @@ public class OpenShiftDeployerProperties extends KubernetesDeployerProperties {
 	 */
 	private String defaultS2iImage = "fabric8/s2i-java:2.2";
 
+	/**
+	 * Resolve app status from a watch driven, in-memory cache of the deployed resources
+	 * instead of listing them from the API server on every status request.
+	 */
+	private boolean resourceCacheEnabled;
+
+	/**
+	 * Period in milliseconds after which closed watches of the resource cache are
+	 * resumed. The resources are only listed again from the API server if a watch can't
+	 * be resumed from the last seen resource version.
+	 */
+	private long resourceCacheResyncPeriod = 30000;
+
+	/**
+	 * Maximum number of idle connections kept in the connection pool of the shared
+	 * OpenShift client.
+	 */
+	private int clientMaxIdleConnections = 5;
+
+	/**
+	 * Time in milliseconds an idle connection of the shared OpenShift client is kept
+	 * alive in the connection pool.
+	 */
+	private long clientKeepAliveDuration = 300000;
+
+	/**
+	 * Maximum number of concurrent requests made by the shared OpenShift client.
+	 */
+	private int clientMaxConcurrentRequests = 64;
+
+	/**
+	 * Maximum number of concurrent requests made by the shared OpenShift client to the
+	 * API server. Note that every open watch holds one of these for as long as it is
+	 * open.
+	 */
+	private int clientMaxConcurrentRequestsPerHost = 32;
+
+	/**
+	 * Negotiate HTTP/2 with the API server, multiplexing requests over a single
+	 * connection. Falls back to HTTP/1.1 if HTTP/2 is not supported by the server or JVM.
+	 */
+	private boolean clientHttp2Enabled;
+
+	/**
+	 * Maximum number of DeploymentConfigs and Pods that are scaled down and deleted
+	 * concurrently when undeploying. Set to 1 to undeploy them one at a time.
+	 */
+	private int undeployParallelism = 4;
+
+	/**
+	 * Maximum time in milliseconds to wait for the DeploymentConfigs of an app to be
+	 * scaled down before they are deleted.
+	 */
+	private long scaleDownTimeout = 30000;
+
+	/**
+	 * How the Pods of an app are scaled down when it is undeployed. Either
+	 * <code>blocking</code>, <code>watch</code>, which completes as soon as watch events
+	 * confirm the Pods are deleted, or <code>drain</code>, which completes once the Pods
+	 * are no longer ready.
+	 */
+	private ScaleDownMode scaleDownMode = ScaleDownMode.watch;
+
+	/**
+	 * Maximum number of independent OpenShift objects (DeploymentConfigs, Services,
+	 * Routes etc.) of an app that are created concurrently when deploying.
+	 */
+	private int deployParallelism = 4;
+
+	/**
+	 * The algorithm used to hash Maven resources to identify their builds, either sha1 or
+	 * the faster, non-cryptographic murmur3_128. Changing the algorithm results in a new
+	 * build of every app.
+	 */
+	private ResourceHash.Algorithm resourceHashAlgorithm = ResourceHash.Algorithm.SHA1;
+
+	/**
+	 * Hash Maven resources by memory mapping the file instead of streaming it.
+	 */
+	private boolean resourceHashMemoryMapped;
+
+	/**
+	 * Maximum number of Maven resource hashes cached in memory.
+	 */
+	private long resourceHashCacheSize = 100;
+
+	/**
+	 * Persist the hash of a Maven resource to a sidecar file next to the resource in the
+	 * local Maven repository, so that the resource is not hashed again after a restart.
+	 */
+	private boolean resourceHashSidecarEnabled;
+
+	/**
+	 * The maximum number of concurrent S2I binary uploads, across all apps.
+	 */
+	private int s2iUploadConcurrency = 2;
+
+	/**
+	 * The number of times a failed S2I binary upload is retried.
+	 */
+	private int s2iUploadRetries = 2;
+
+	/**
+	 * The delay, in milliseconds, before a failed S2I binary upload is retried. The delay
+	 * is doubled for every subsequent retry.
+	 */
+	private long s2iUploadRetryDelay = 5000;
+
+	/**
+	 * Upload Spring Boot fat jars as layers to incremental S2I builds, so that only the
+	 * layers that changed since the last build are uploaded. The jar is reassembled by
+	 * S2I scripts uploaded with the layers, which require <code>bash</code> and the JDK's
+	 * <code>jar</code> tool in the S2I build image.
+	 */
+	private boolean s2iLayeredBinaryInput;
+
+	/**
+	 * The maximum number of SCM Git references, extracted from the POM of Maven
+	 * resources, cached in memory.
+	 */
+	private long gitReferenceCacheSize = 100;
+
+	/**
+	 * The maximum number of jar entry indexes, used to look up files such as a Dockerfile
+	 * in Maven resources, cached in memory.
+	 */
+	private long jarIndexCacheSize = 100;
+
+	/**
+	 * The maximum number of build strategy decisions, keyed by Maven resource hash and
+	 * build related properties, cached in memory.
+	 */
+	private long buildStrategyCacheSize = 100;
+
+	/**
+	 * Deploy apps asynchronously. The deployment request is validated and the app id
+	 * returned immediately, while the OpenShift objects are prepared and applied on a
+	 * bounded executor.
+	 */
+	private boolean asyncDeploy;
+
+	/**
+	 * The maximum number of concurrent asynchronous deployments.
+	 */
+	private int asyncDeployConcurrency = 4;
+
+	/**
+	 * The maximum number of Builds in flight at once, across all apps and tasks deployed
+	 * to the namespace. Further builds are queued and started in the order they were
+	 * requested. 0 for no limit.
+	 */
+	private int maxConcurrentBuilds = 4;
+
+	/**
+	 * The time, in milliseconds, after which the slot of a Build that was not seen to
+	 * finish, e.g. because it was deleted while it was not watched, is given to the next
+	 * queued build. 0 for no timeout.
+	 */
+	private long buildSlotTimeout = 3600000;
+
+	/**
+	 * If true, Maven resources are built into an ImageStream named after the hash of the
+	 * artifact, rather than one per app. The first app deployed from an artifact builds
+	 * the image and all other apps deployed from the same artifact reuse it without a
+	 * build. The image is deleted once the last app deployed from it is undeployed.
+	 */
+	private boolean contentAddressedImages = false;
+
+	/**
+	 * The maximum number of Maven resources prepared for a pre-build at once, see
+	 * MavenOpenShiftAppDeployer#prebuild. The builds themselves are bounded by
+	 * maxConcurrentBuilds.
+	 */
+	private int prebuildConcurrency = 2;
+
+	/**
+	 * The maximum number of deployment timelines, i.e. the timed phases of the latest
+	 * deployment of an app, kept in memory.
+	 */
+	private int deploymentTimelineHistory = 100;
+
+	/**
+	 * The time, in milliseconds, after which the <code>rollout</code> phase of a
+	 * deployment timeline that was not seen to complete or fail is ended as failed. 0 for
+	 * no timeout.
+	 */
+	private long rolloutTimeout = 600000;
+
 	public boolean isForceBuild() {
 		return forceBuild;
 	}
@@ -90,14 +289,25 @@ public class OpenShiftDeployerProperties extends KubernetesDeployerProperties {
 		return getNamespace();
 	}
 
+	@Deprecated
+	@DeprecatedConfigurationProperty(replacement = "spring.cloud.deployer.openshift.undeploy-timeout")
 	public long getUndeployDelay() {
 		return undeployDelay;
 	}
 
+	@Deprecated
 	public void setUndeployDelay(final long undeployDelay) {
 		this.undeployDelay = undeployDelay;
 	}
 
+	public long getUndeployTimeout() {
+		return undeployTimeout;
+	}
+
+	public void setUndeployTimeout(long undeployTimeout) {
+		this.undeployTimeout = undeployTimeout;
+	}
+
 	public String getDefaultDockerfile() {
 		return defaultDockerfile;
 	}
@@ -130,4 +340,245 @@ public class OpenShiftDeployerProperties extends KubernetesDeployerProperties {
 		this.defaultS2iImage = defaultS2iImage;
 	}
 
+	public boolean isResourceCacheEnabled() {
+		return resourceCacheEnabled;
+	}
+
+	public void setResourceCacheEnabled(boolean resourceCacheEnabled) {
+		this.resourceCacheEnabled = resourceCacheEnabled;
+	}
+
+	public long getResourceCacheResyncPeriod() {
+		return resourceCacheResyncPeriod;
+	}
+
+	public void setResourceCacheResyncPeriod(long resourceCacheResyncPeriod) {
+		this.resourceCacheResyncPeriod = resourceCacheResyncPeriod;
+	}
+
+	public int getClientMaxIdleConnections() {
+		return clientMaxIdleConnections;
+	}
+
+	public void setClientMaxIdleConnections(int clientMaxIdleConnections) {
+		this.clientMaxIdleConnections = clientMaxIdleConnections;
+	}
+
+	public long getClientKeepAliveDuration() {
+		return clientKeepAliveDuration;
+	}
+
+	public void setClientKeepAliveDuration(long clientKeepAliveDuration) {
+		this.clientKeepAliveDuration = clientKeepAliveDuration;
+	}
+
+	public int getClientMaxConcurrentRequests() {
+		return clientMaxConcurrentRequests;
+	}
+
+	public void setClientMaxConcurrentRequests(int clientMaxConcurrentRequests) {
+		this.clientMaxConcurrentRequests = clientMaxConcurrentRequests;
+	}
+
+	public int getClientMaxConcurrentRequestsPerHost() {
+		return clientMaxConcurrentRequestsPerHost;
+	}
+
+	public void setClientMaxConcurrentRequestsPerHost(
+			int clientMaxConcurrentRequestsPerHost) {
+		this.clientMaxConcurrentRequestsPerHost = clientMaxConcurrentRequestsPerHost;
+	}
+
+	public boolean isClientHttp2Enabled() {
+		return clientHttp2Enabled;
+	}
+
+	public void setClientHttp2Enabled(boolean clientHttp2Enabled) {
+		this.clientHttp2Enabled = clientHttp2Enabled;
+	}
+
+	public int getUndeployParallelism() {
+		return undeployParallelism;
+	}
+
+	public void setUndeployParallelism(int undeployParallelism) {
+		this.undeployParallelism = undeployParallelism;
+	}
+
+	public long getScaleDownTimeout() {
+		return scaleDownTimeout;
+	}
+
+	public void setScaleDownTimeout(long scaleDownTimeout) {
+		this.scaleDownTimeout = scaleDownTimeout;
+	}
+
+	public ScaleDownMode getScaleDownMode() {
+		return scaleDownMode;
+	}
+
+	public void setScaleDownMode(ScaleDownMode scaleDownMode) {
+		this.scaleDownMode = scaleDownMode;
+	}
+
+	public int getDeployParallelism() {
+		return deployParallelism;
+	}
+
+	public void setDeployParallelism(int deployParallelism) {
+		this.deployParallelism = deployParallelism;
+	}
+
+	public ResourceHash.Algorithm getResourceHashAlgorithm() {
+		return resourceHashAlgorithm;
+	}
+
+	public void setResourceHashAlgorithm(ResourceHash.Algorithm resourceHashAlgorithm) {
+		this.resourceHashAlgorithm = resourceHashAlgorithm;
+	}
+
+	public boolean isResourceHashMemoryMapped() {
+		return resourceHashMemoryMapped;
+	}
+
+	public void setResourceHashMemoryMapped(boolean resourceHashMemoryMapped) {
+		this.resourceHashMemoryMapped = resourceHashMemoryMapped;
+	}
+
+	public long getResourceHashCacheSize() {
+		return resourceHashCacheSize;
+	}
+
+	public void setResourceHashCacheSize(long resourceHashCacheSize) {
+		this.resourceHashCacheSize = resourceHashCacheSize;
+	}
+
+	public boolean isResourceHashSidecarEnabled() {
+		return resourceHashSidecarEnabled;
+	}
+
+	public void setResourceHashSidecarEnabled(boolean resourceHashSidecarEnabled) {
+		this.resourceHashSidecarEnabled = resourceHashSidecarEnabled;
+	}
+
+	public int getS2iUploadConcurrency() {
+		return s2iUploadConcurrency;
+	}
+
+	public void setS2iUploadConcurrency(int s2iUploadConcurrency) {
+		this.s2iUploadConcurrency = s2iUploadConcurrency;
+	}
+
+	public int getS2iUploadRetries() {
+		return s2iUploadRetries;
+	}
+
+	public void setS2iUploadRetries(int s2iUploadRetries) {
+		this.s2iUploadRetries = s2iUploadRetries;
+	}
+
+	public long getS2iUploadRetryDelay() {
+		return s2iUploadRetryDelay;
+	}
+
+	public void setS2iUploadRetryDelay(long s2iUploadRetryDelay) {
+		this.s2iUploadRetryDelay = s2iUploadRetryDelay;
+	}
+
+	public boolean isS2iLayeredBinaryInput() {
+		return s2iLayeredBinaryInput;
+	}
+
+	public void setS2iLayeredBinaryInput(boolean s2iLayeredBinaryInput) {
+		this.s2iLayeredBinaryInput = s2iLayeredBinaryInput;
+	}
+
+	public long getGitReferenceCacheSize() {
+		return gitReferenceCacheSize;
+	}
+
+	public void setGitReferenceCacheSize(long gitReferenceCacheSize) {
+		this.gitReferenceCacheSize = gitReferenceCacheSize;
+	}
+
+	public long getJarIndexCacheSize() {
+		return jarIndexCacheSize;
+	}
+
+	public void setJarIndexCacheSize(long jarIndexCacheSize) {
+		this.jarIndexCacheSize = jarIndexCacheSize;
+	}
+
+	public long getBuildStrategyCacheSize() {
+		return buildStrategyCacheSize;
+	}
+
+	public void setBuildStrategyCacheSize(long buildStrategyCacheSize) {
+		this.buildStrategyCacheSize = buildStrategyCacheSize;
+	}
+
+	public boolean isAsyncDeploy() {
+		return asyncDeploy;
+	}
+
+	public void setAsyncDeploy(boolean asyncDeploy) {
+		this.asyncDeploy = asyncDeploy;
+	}
+
+	public int getAsyncDeployConcurrency() {
+		return asyncDeployConcurrency;
+	}
+
+	public void setAsyncDeployConcurrency(int asyncDeployConcurrency) {
+		this.asyncDeployConcurrency = asyncDeployConcurrency;
+	}
+
+	public int getMaxConcurrentBuilds() {
+		return maxConcurrentBuilds;
+	}
+
+	public void setMaxConcurrentBuilds(int maxConcurrentBuilds) {
+		this.maxConcurrentBuilds = maxConcurrentBuilds;
+	}
+
+	public long getBuildSlotTimeout() {
+		return buildSlotTimeout;
+	}
+
+	public void setBuildSlotTimeout(long buildSlotTimeout) {
+		this.buildSlotTimeout = buildSlotTimeout;
+	}
+
+	public boolean isContentAddressedImages() {
+		return contentAddressedImages;
+	}
+
+	public void setContentAddressedImages(boolean contentAddressedImages) {
+		this.contentAddressedImages = contentAddressedImages;
+	}
+
+	public int getPrebuildConcurrency() {
+		return prebuildConcurrency;
+	}
+
+	public void setPrebuildConcurrency(int prebuildConcurrency) {
+		this.prebuildConcurrency = prebuildConcurrency;
+	}
+
+	public int getDeploymentTimelineHistory() {
+		return deploymentTimelineHistory;
+	}
+
+	public void setDeploymentTimelineHistory(int deploymentTimelineHistory) {
+		this.deploymentTimelineHistory = deploymentTimelineHistory;
+	}
+
+	public long getRolloutTimeout() {
+		return rolloutTimeout;
+	}
+
+	public void setRolloutTimeout(long rolloutTimeout) {
+		this.rolloutTimeout = rolloutTimeout;
+	}
+
 }
@@ -29,6 +29,14 @@ public interface OpenShiftDeploymentPropertyKeys {
 	 */
 	String OPENSHIFT_DEPLOYMENT_IMAGE_NAMESPACE = "spring.cloud.deployer.openshift.image.namespace";
 
+	/**
+	 * The ImageStream used when creating a
+	 * {@link io.fabric8.openshift.api.model.DeploymentConfig} with a
+	 * {@link io.fabric8.openshift.api.model.ImageChangeTrigger} trigger. Defaults to the
+	 * app id, without the instance index if indexed.
+	 */
+	String OPENSHIFT_DEPLOYMENT_IMAGE_NAME = "spring.cloud.deployer.openshift.image.name";
+
 	/**
 	 * An inline Dockerfile that will be used as the build input. This Dockerfile will
 	 * override all other Dockerfile usage strategies. See
@@ -105,4 +113,27 @@ public interface OpenShiftDeploymentPropertyKeys {
 	 */
 	String OPENSHIFT_S2I_BUILD_IMAGE = "spring.cloud.deployer.openshift.s2i.build.image";
 
+	/**
+	 * If true, Spring Boot fat jars are uploaded as layers and only the layers that
+	 * changed since the last build are uploaded, with the S2I scripts that reassemble the
+	 * jar. Requires <code>bash</code> and the JDK's <code>jar</code> tool in the S2I
+	 * build image. See
+	 * {@link org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.LayeredBinaryInput}
+	 */
+	String OPENSHIFT_S2I_LAYERED = "spring.cloud.deployer.openshift.s2i.layered";
+
+	/**
+	 * How the app's Pods are scaled down when it is undeployed, one of
+	 * <code>blocking</code>, <code>watch</code> or <code>drain</code>. Overrides
+	 * {@link OpenShiftDeployerProperties#scaleDownMode}. See
+	 * {@link org.springframework.cloud.deployer.spi.openshift.scale.ScaleDownMode}
+	 */
+	String OPENSHIFT_SCALE_DOWN_MODE = "spring.cloud.deployer.openshift.scaleDown.mode";
+
+	/**
+	 * Maximum time in milliseconds to wait for the app's Pods to be scaled down when it
+	 * is undeployed. Overrides {@link OpenShiftDeployerProperties#scaleDownTimeout}.
+	 */
+	String OPENSHIFT_SCALE_DOWN_TIMEOUT = "spring.cloud.deployer.openshift.scaleDown.timeout";
+
 }
@@ -1,6 +1,5 @@
 package org.springframework.cloud.deployer.spi.openshift;
 
-import org.apache.maven.model.Scm;
 import org.apache.maven.project.MavenProject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,7 +18,8 @@ public class OpenShiftMavenDeploymentRequest extends AppDeploymentRequest {
 	/**
 	 * The {@link org.springframework.cloud.deployer.resource.maven.MavenResource} is used
 	 * to parse and build a {@link MavenProject}. This is used to get the SCM details for
-	 * use with the different build strategies.
+	 * use with the different build strategies. The SCM details are cached by the
+	 * {@link MavenResourceProjectExtractor}, so pass a shared instance.
 	 * @param request
 	 * @param mavenResourceProjectExtractor
 	 * @param mavenProperties
@@ -33,10 +33,9 @@ public class OpenShiftMavenDeploymentRequest extends AppDeploymentRequest {
 				request.getDeploymentProperties(), request.getCommandlineArguments());
 
 		try {
-			MavenProject mavenProject = mavenResourceProjectExtractor
-					.extractMavenProject(this.getResource(), mavenProperties);
-			Scm scm = mavenProject.getScm();
-			this.gitReference = new GitReference(scm.getConnection(), scm.getTag());
+			this.gitReference = mavenResourceProjectExtractor
+					.extractGitReference(this.getResource(), mavenProperties)
+					.orElse(null);
 		}
 		catch (Exception e) {
 			logger.warn(String.format(
@@ -18,6 +18,12 @@ import static java.lang.String.format;
 public interface OpenShiftSupport extends DataflowSupport {
 
 	default String getImage(AppDeploymentRequest request, String appId) {
+		String image = request.getDeploymentProperties()
+				.get(OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_IMAGE_NAME);
+		if (StringUtils.isNotBlank(image)) {
+			return image;
+		}
+
 		return isIndexed(request) ? StringUtils.substringBeforeLast(appId, "-") : appId;
 	}
 
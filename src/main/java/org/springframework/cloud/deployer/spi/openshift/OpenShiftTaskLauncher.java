@@ -1,12 +1,12 @@
 package org.springframework.cloud.deployer.spi.openshift;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.openshift.client.DefaultOpenShiftClient;
 import io.fabric8.openshift.client.OpenShiftClient;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.kubernetes.ContainerFactory;
 import org.springframework.cloud.deployer.spi.kubernetes.KubernetesDeployerProperties;
 import org.springframework.cloud.deployer.spi.kubernetes.KubernetesTaskLauncher;
+import org.springframework.cloud.deployer.spi.openshift.metrics.DeployerMetrics;
 import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.cloud.deployer.spi.task.TaskStatus;
@@ -23,10 +23,11 @@ public class OpenShiftTaskLauncher extends KubernetesTaskLauncher
 
 	private ContainerFactory containerFactory;
 
+	private DeployerMetrics metrics = DeployerMetrics.noop();
+
 	public OpenShiftTaskLauncher(KubernetesDeployerProperties properties,
 			KubernetesClient client, ContainerFactory containerFactory) {
-		super(properties,
-				new DefaultOpenShiftClient().inNamespace(client.getNamespace()));
+		super(properties, client);
 
 		this.properties = properties;
 		this.client = (OpenShiftClient) client;
@@ -35,28 +36,39 @@ public class OpenShiftTaskLauncher extends KubernetesTaskLauncher
 
 	@Override
 	public String launch(AppDeploymentRequest request) {
-		logger.info(String.format("Launching task: '%s'", request.getDefinition()));
+		return metrics.record("task", "launch", () -> {
+			logger.info(String.format("Launching task: '%s'", request.getDefinition()));
+
+			String taskId = createDeploymentId(request);
 
-		String taskId = createDeploymentId(request);
+			List<ObjectFactory> factories = populateOpenShiftObjects(request, taskId);
+			factories.forEach(factory -> metrics.record(DeployerMetrics.kind(factory),
+					"add", () -> factory.addObject(request, taskId)));
+			factories.forEach(factory -> metrics.record(DeployerMetrics.kind(factory),
+					"apply", () -> factory.applyObject(request, taskId)));
 
-		List<ObjectFactory> factories = populateOpenShiftObjects(request, taskId);
-		factories.forEach(factory -> factory.addObject(request, taskId));
-		factories.forEach(factory -> factory.applyObject(request, taskId));
+			return taskId;
+		});
+	}
 
-		return taskId;
+	@Override
+	public void cancel(String id) {
+		metrics.record("task", "cancel", () -> super.cancel(id));
 	}
 
 	@Override
 	public TaskStatus status(String id) {
-		return super.status(id);
+		return metrics.record("task", "status", () -> super.status(id));
 	}
 
 	@Override
 	public void cleanup(String id) {
-		client.builds().list().getItems()
-				.forEach(build -> client.builds().withName(id).cascading(true).delete());
+		metrics.record("task", "cleanup", () -> {
+			client.builds().list().getItems().forEach(
+					build -> client.builds().withName(id).cascading(true).delete());
 
-		super.cleanup(id);
+			super.cleanup(id);
+		});
 	}
 
 	/**
@@ -103,6 +115,19 @@ public class OpenShiftTaskLauncher extends KubernetesTaskLauncher
 		return factories;
 	}
 
+	/**
+	 * Record the operations of the launcher and the objects it adds and applies, see
+	 * {@link DeployerMetrics}.
+	 * @param metrics
+	 */
+	public void setMetrics(DeployerMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	protected DeployerMetrics getMetrics() {
+		return metrics;
+	}
+
 	protected OpenShiftClient getClient() {
 		return client;
 	}
@@ -1,5 +1,12 @@
 package org.springframework.cloud.deployer.spi.openshift;
 
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,9 +15,10 @@ import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.app.AppStatus;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
+import org.springframework.cloud.deployer.spi.openshift.maven.ImagePrebuilder;
 import org.springframework.cloud.deployer.spi.openshift.maven.MavenOpenShiftAppDeployer;
 
-public class ResourceAwareOpenShiftAppDeployer implements AppDeployer {
+public class ResourceAwareOpenShiftAppDeployer implements AppDeployer, Closeable {
 
 	private static final Logger logger = LoggerFactory
 			.getLogger(ResourceAwareOpenShiftAppDeployer.class);
@@ -46,14 +54,67 @@ public class ResourceAwareOpenShiftAppDeployer implements AppDeployer {
 		return appId;
 	}
 
+	/**
+	 * Deploy asynchronously with the deployer for the type of resource. See
+	 * {@link OpenShiftAppDeployer#deployAsync(AppDeploymentRequest)}
+	 * @param request
+	 * @return the app id, completed once the deployment is done
+	 */
+	public CompletableFuture<String> deployAsync(AppDeploymentRequest request) {
+		if (request.getResource() instanceof MavenResource) {
+			return mavenOpenShiftAppDeployer.deployAsync(request);
+		}
+
+		return openShiftAppDeployer.deployAsync(request);
+	}
+
+	/**
+	 * See {@link OpenShiftAppDeployer#getDeployment(String)}
+	 * @param appId
+	 * @return the asynchronous deployment of the app, if it is in progress or failed
+	 */
+	public Optional<CompletableFuture<String>> getDeployment(String appId) {
+		return mavenOpenShiftAppDeployer.getDeployment(appId);
+	}
+
+	/**
+	 * See {@link MavenOpenShiftAppDeployer#prebuild(List)}
+	 * @param mavenResources
+	 * @return the name of each image, completed once it is built
+	 */
+	public List<CompletableFuture<String>> prebuild(List<MavenResource> mavenResources) {
+		return mavenOpenShiftAppDeployer.prebuild(mavenResources);
+	}
+
+	/**
+	 * See {@link MavenOpenShiftAppDeployer#getPrebuilds()}
+	 * @return the state of each pre-built artifact, keyed by its coordinates
+	 */
+	public Map<String, ImagePrebuilder.State> getPrebuilds() {
+		return mavenOpenShiftAppDeployer.getPrebuilds();
+	}
+
+	/**
+	 * Undeploy and resolve the status with the Maven deployer, whatever the type of
+	 * resource, as it also accounts for S2I binary uploads.
+	 */
 	@Override
 	public void undeploy(String appId) {
-		openShiftAppDeployer.undeploy(appId);
+		mavenOpenShiftAppDeployer.undeploy(appId);
 	}
 
 	@Override
 	public AppStatus status(String appId) {
-		return openShiftAppDeployer.status(appId);
+		return mavenOpenShiftAppDeployer.status(appId);
+	}
+
+	/**
+	 * See {@link OpenShiftAppDeployer#statuses(Collection)}
+	 * @param appIds
+	 * @return the status of each app, keyed by app id
+	 */
+	public Map<String, AppStatus> statuses(Collection<String> appIds) {
+		return mavenOpenShiftAppDeployer.statuses(appIds);
 	}
 
 	@Override
@@ -61,4 +122,10 @@ public class ResourceAwareOpenShiftAppDeployer implements AppDeployer {
 		return openShiftAppDeployer.environmentInfo();
 	}
 
+	@Override
+	public void close() {
+		openShiftAppDeployer.close();
+		mavenOpenShiftAppDeployer.close();
+	}
+
 }
@@ -1,5 +1,7 @@
 package org.springframework.cloud.deployer.spi.openshift;
 
+import java.io.Closeable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
@@ -9,7 +11,7 @@ import org.springframework.cloud.deployer.spi.openshift.maven.MavenOpenShiftTask
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.cloud.deployer.spi.task.TaskStatus;
 
-public class ResourceAwareOpenShiftTaskLauncher implements TaskLauncher {
+public class ResourceAwareOpenShiftTaskLauncher implements TaskLauncher, Closeable {
 
 	private static final Logger logger = LoggerFactory
 			.getLogger(ResourceAwareOpenShiftTaskLauncher.class);
@@ -70,4 +72,9 @@ public class ResourceAwareOpenShiftTaskLauncher implements TaskLauncher {
 		return openShiftTaskLauncher.environmentInfo();
 	}
 
+	@Override
+	public void close() {
+		mavenOpenShiftTaskLauncher.close();
+	}
+
 }
@@ -0,0 +1,156 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Confirms the deletion of the DeploymentConfigs, Pods and Services of an app by watching
+ * for their <code>DELETED</code> events. The existing resources are listed and then
+ * watched from the <code>resourceVersion</code> of that list, so that no deletions are
+ * missed between the two. Should a watch be closed by the API server, the resources of
+ * that kind are listed and watched again. This should be created before the resources are
+ * deleted.
+ */
+public class ResourceDeletionWatcher implements Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(ResourceDeletionWatcher.class);
+
+	/**
+	 * See
+	 * {@link org.springframework.cloud.deployer.spi.kubernetes.AbstractKubernetesDeployer#SPRING_APP_KEY}
+	 */
+	private static String SPRING_APP_KEY = "spring-app-id";
+
+	private final String appId;
+
+	private final Set<String> remaining = ConcurrentHashMap.newKeySet();
+
+	private final List<Watch> watches = new CopyOnWriteArrayList<>();
+
+	private volatile boolean closed;
+
+	public ResourceDeletionWatcher(OpenShiftClient client, String appId) {
+		this.appId = appId;
+
+		//@formatter:off
+		this.<DeploymentConfig>watch("DeploymentConfig",
+			() -> client.deploymentConfigs().withLabel(SPRING_APP_KEY, appId).list(),
+			(resourceVersion, watcher) -> client.deploymentConfigs()
+				.withLabel(SPRING_APP_KEY, appId).watch(resourceVersion, watcher));
+		this.<Pod>watch("Pod",
+			() -> client.pods().withLabel(SPRING_APP_KEY, appId).list(),
+			(resourceVersion, watcher) -> client.pods()
+				.withLabel(SPRING_APP_KEY, appId).watch(resourceVersion, watcher));
+		this.<Service>watch("Service",
+			() -> client.services().withLabel(SPRING_APP_KEY, appId).list(),
+			(resourceVersion, watcher) -> client.services()
+				.withLabel(SPRING_APP_KEY, appId).watch(resourceVersion, watcher));
+		//@formatter:on
+	}
+
+	/**
+	 * Wait until all watched resources have been deleted.
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @return <code>true</code> if all resources were deleted within the timeout
+	 */
+	public boolean awaitDeletion(long timeout) {
+		long deadline = System.currentTimeMillis() + timeout;
+		synchronized (remaining) {
+			try {
+				long wait;
+				while (!remaining.isEmpty()
+						&& (wait = deadline - System.currentTimeMillis()) > 0) {
+					remaining.wait(wait);
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			if (!remaining.isEmpty()) {
+				logger.warn("Resources of '{}' not deleted after {}ms: {}", appId,
+						timeout, remaining);
+			}
+			return remaining.isEmpty();
+		}
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		watches.forEach(Watch::close);
+	}
+
+	private <T extends HasMetadata> void watch(String kind,
+			Supplier<KubernetesResourceList> lister,
+			BiFunction<String, Watcher<T>, Watch> watcher) {
+		KubernetesResourceList list = lister.get();
+		Set<String> listed = ((List<?>) list.getItems()).stream()
+				.map(resource -> key(kind, (HasMetadata) resource))
+				.collect(Collectors.toSet());
+		synchronized (remaining) {
+			remaining
+					.removeIf(key -> key.startsWith(kind + "/") && !listed.contains(key));
+			remaining.addAll(listed);
+			remaining.notifyAll();
+		}
+
+		watches.add(
+				watcher.apply(list.getMetadata().getResourceVersion(), new Watcher<T>() {
+
+					@Override
+					public void eventReceived(Action action, T resource) {
+						if (action == Action.DELETED) {
+							logger.trace("Deleted {}", key(kind, resource));
+							deleted(key(kind, resource));
+						}
+					}
+
+					@Override
+					public void onClose(KubernetesClientException cause) {
+						if (cause != null && !closed) {
+							logger.debug("Watch on {} resources of '{}' closed: {}", kind,
+									appId, cause.getMessage());
+							try {
+								watch(kind, lister, watcher);
+							}
+							catch (KubernetesClientException e) {
+								logger.warn("Could not rewatch {} resources of '{}': {}",
+										kind, appId, e.getMessage());
+							}
+						}
+					}
+				}));
+	}
+
+	private void deleted(String key) {
+		synchronized (remaining) {
+			remaining.remove(key);
+			remaining.notifyAll();
+		}
+	}
+
+	private String key(String kind, HasMetadata resource) {
+		return kind + "/" + resource.getMetadata().getName();
+	}
+
+}
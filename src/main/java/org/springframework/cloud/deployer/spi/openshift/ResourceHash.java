@@ -1,25 +1,83 @@
 package org.springframework.cloud.deployer.spi.openshift;
 
-import static com.google.common.hash.Hashing.sha1;
-
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.io.Files;
 
+/**
+ * Hashes resources, typically Maven artifacts, to identify the build of a resource.
+ * <p>
+ * Hashes are cached in memory, keyed by the path, size and last modified time of the
+ * file, so that the same artifact is only hashed once. Optionally, the hash is also
+ * persisted to a sidecar file next to the artifact (i.e. in the local Maven repository),
+ * so that it survives restarts.
+ */
 public class ResourceHash {
 
+	private static Logger logger = LoggerFactory.getLogger(ResourceHash.class);
+
+	private static final String SIDECAR_SUFFIX = ".spring-build-id.";
+
+	private final Algorithm algorithm;
+
+	private final boolean memoryMapped;
+
+	private final boolean sidecarEnabled;
+
+	private final Cache<Key, String> hashes;
+
+	public ResourceHash() {
+		this(Algorithm.SHA1, false, 100, false);
+	}
+
 	/**
-	 * Generates a SHA-1 hash of the provided {@link Resource}
+	 * @param algorithm the hash algorithm. Note that changing the algorithm changes the
+	 * hash of every resource and therefore results in a new build of every app
+	 * @param memoryMapped hash a memory mapped file instead of streaming it
+	 * @param cacheSize the maximum number of hashes cached in memory
+	 * @param sidecarEnabled persist hashes to a sidecar file next to the resource
+	 */
+	public ResourceHash(Algorithm algorithm, boolean memoryMapped, long cacheSize,
+			boolean sidecarEnabled) {
+		this.algorithm = algorithm;
+		this.memoryMapped = memoryMapped;
+		this.sidecarEnabled = sidecarEnabled;
+		this.hashes = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+	}
+
+	/**
+	 * Generates a hash of the provided {@link Resource}
 	 * @param resource
 	 * @return a hash of the {@link Resource}
 	 */
 	public String hashResource(Resource resource) {
 		try {
 			File file = resource.getFile();
-			String hash = Files.hash(file, sha1()).toString();
+			Key key = new Key(file);
+
+			String hash = hashes.getIfPresent(key);
+			if (hash == null) {
+				hash = readSidecar(key);
+				if (hash == null) {
+					hash = hash(file);
+					writeSidecar(key, hash);
+				}
+				hashes.put(key, hash);
+			}
 
 			return hash;
 		}
@@ -28,4 +86,116 @@ public class ResourceHash {
 		}
 	}
 
+	private String hash(File file) throws IOException {
+		logger.debug("Hashing '{}' with {}", file, algorithm);
+
+		if (memoryMapped) {
+			Hasher hasher = algorithm.hashFunction.newHasher();
+			hasher.putBytes(Files.map(file));
+			return hasher.hash().toString();
+		}
+
+		return Files.asByteSource(file).hash(algorithm.hashFunction).toString();
+	}
+
+	private String readSidecar(Key key) {
+		if (!sidecarEnabled) {
+			return null;
+		}
+
+		File sidecar = sidecar(key);
+		try {
+			if (sidecar.isFile()) {
+				// <size> <last modified> <hash>
+				List<String> lines = Files.readLines(sidecar, StandardCharsets.UTF_8);
+				String[] values = lines.isEmpty() ? new String[0]
+						: lines.get(0).split(" ");
+				if (values.length == 3 && values[0].equals(String.valueOf(key.size))
+						&& values[1].equals(String.valueOf(key.lastModified))) {
+					return values[2];
+				}
+			}
+		}
+		catch (IOException e) {
+			logger.debug("Could not read hash from '{}': {}", sidecar, e.getMessage());
+		}
+
+		return null;
+	}
+
+	private void writeSidecar(Key key, String hash) {
+		if (!sidecarEnabled) {
+			return;
+		}
+
+		File sidecar = sidecar(key);
+		try {
+			java.nio.file.Files.write(sidecar.toPath(),
+					String.format("%d %d %s", key.size, key.lastModified, hash)
+							.getBytes(StandardCharsets.UTF_8),
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+		catch (IOException e) {
+			logger.debug("Could not write hash to '{}': {}", sidecar, e.getMessage());
+		}
+	}
+
+	private File sidecar(Key key) {
+		return new File(key.path + SIDECAR_SUFFIX + algorithm.name().toLowerCase());
+	}
+
+	public enum Algorithm {
+
+		/**
+		 * SHA-1, the default.
+		 */
+		SHA1(Hashing.sha1()),
+
+		/**
+		 * Non-cryptographic 128 bit MurmurHash3, considerably faster than SHA-1.
+		 */
+		MURMUR3_128(Hashing.murmur3_128());
+
+		private final HashFunction hashFunction;
+
+		Algorithm(HashFunction hashFunction) {
+			this.hashFunction = hashFunction;
+		}
+
+	}
+
+	private static class Key {
+
+		private final String path;
+
+		private final long size;
+
+		private final long lastModified;
+
+		Key(File file) {
+			this.path = file.getAbsolutePath();
+			this.size = file.length();
+			this.lastModified = file.lastModified();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key key = (Key) o;
+			return size == key.size && lastModified == key.lastModified
+					&& path.equals(key.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(path, size, lastModified);
+		}
+
+	}
+
 }
@@ -0,0 +1,67 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A component, e.g. a {@link DeploymentProgress} or a Build watcher, that the deployers
+ * and launchers share when it is set, so that its resources (watches, thread pools and
+ * caches) exist once and any limits it enforces apply across all of them. The
+ * auto-configuration sets the shared instances.
+ * <p>
+ * If no shared instance is set, e.g. when a deployer is created on its own, one is
+ * created on first use. That instance is owned by the deployer, which closes it when it
+ * is closed. A shared instance is closed by whoever created it.
+ */
+public class SharedComponent<T> implements Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(SharedComponent.class);
+
+	private final Supplier<T> factory;
+
+	private T shared;
+
+	private T owned;
+
+	/**
+	 * @param factory creates the component if none is shared
+	 */
+	public SharedComponent(Supplier<T> factory) {
+		this.factory = factory;
+	}
+
+	public synchronized void set(T shared) {
+		this.shared = shared;
+	}
+
+	public synchronized T get() {
+		if (shared != null) {
+			return shared;
+		}
+		if (owned == null) {
+			owned = factory.get();
+		}
+		return owned;
+	}
+
+	/**
+	 * Close the component if it was created, rather than shared.
+	 */
+	@Override
+	public synchronized void close() {
+		if (owned instanceof Closeable) {
+			try {
+				((Closeable) owned).close();
+			}
+			catch (IOException e) {
+				logger.warn("Could not close {}: {}", owned, e.getMessage());
+			}
+		}
+		owned = null;
+	}
+
+}
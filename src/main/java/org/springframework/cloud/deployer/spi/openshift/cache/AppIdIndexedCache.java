@@ -0,0 +1,213 @@
+package org.springframework.cloud.deployer.spi.openshift.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+
+/**
+ * An in-memory copy of a single kind of resource, indexed by the value of the
+ * <code>spring-app-id</code> label. The cache is populated by a full list and kept up to
+ * date by a watch on the same resources, started from the <code>resourceVersion</code> of
+ * that list. Events are applied on top of the listed state and events that are not newer
+ * than it are ignored, so that no event is lost or applied twice between the list and the
+ * watch. Resources are returned ordered by name, which matches the ordering of a list
+ * from the API server.
+ * <p>
+ * Should the watch be closed, {@link #resync()} resumes it from the last seen
+ * <code>resourceVersion</code>. The resources are only listed again if that
+ * <code>resourceVersion</code> is no longer available (HTTP 410).
+ *
+ * @param <T> the resource kind
+ */
+public class AppIdIndexedCache<T extends HasMetadata> implements Watcher<T> {
+
+	private static Logger logger = LoggerFactory.getLogger(AppIdIndexedCache.class);
+
+	private final String kind;
+
+	private final String labelKey;
+
+	private final Supplier<Listing<T>> lister;
+
+	private final BiFunction<String, Watcher<T>, Watch> watcher;
+
+	private volatile ConcurrentMap<String, ConcurrentSkipListMap<String, T>> resources = new ConcurrentHashMap<>();
+
+	private volatile Watch watch;
+
+	private volatile String resourceVersion;
+
+	private volatile boolean relist = true;
+
+	/**
+	 * @param kind
+	 * @param labelKey
+	 * @param lister lists the resources
+	 * @param watcher watches the resources from the given <code>resourceVersion</code>
+	 */
+	public AppIdIndexedCache(String kind, String labelKey, Supplier<Listing<T>> lister,
+			BiFunction<String, Watcher<T>, Watch> watcher) {
+		this.kind = kind;
+		this.labelKey = labelKey;
+		this.lister = lister;
+		this.watcher = watcher;
+	}
+
+	/**
+	 * @param appId
+	 * @return the cached resources labelled with the given app id, ordered by name
+	 */
+	public List<T> get(String appId) {
+		Map<String, T> byName = resources.get(appId);
+		return (byName == null) ? Collections.emptyList()
+				: new ArrayList<>(byName.values());
+	}
+
+	/**
+	 * Reopen the watch if it was closed, listing the resources first if the cache was
+	 * never populated or the watch can't be resumed. Events received while the resources
+	 * are listed are applied once the listed state is in place.
+	 */
+	public synchronized void resync() {
+		if (watch != null) {
+			return;
+		}
+
+		if (relist) {
+			relist();
+		}
+		try {
+			watch = watcher.apply(resourceVersion, this);
+		}
+		catch (KubernetesClientException e) {
+			logger.warn("Could not watch {} resources, relisting on next resync: {}",
+					kind, e.getMessage());
+			relist = true;
+		}
+	}
+
+	/**
+	 * @return whether the watch is open, it is reopened on the next resync otherwise
+	 */
+	public boolean isWatching() {
+		return watch != null;
+	}
+
+	public void close() {
+		Watch current = watch;
+		watch = null;
+		if (current != null) {
+			current.close();
+		}
+	}
+
+	@Override
+	public synchronized void eventReceived(Action action, T resource) {
+		String version = resource.getMetadata().getResourceVersion();
+		if (action == Action.ERROR || !isNewer(version, resourceVersion)) {
+			return;
+		}
+		if (version != null) {
+			resourceVersion = version;
+		}
+
+		String appId = appId(resource);
+		if (appId == null) {
+			return;
+		}
+
+		String name = resource.getMetadata().getName();
+		if (action == Action.DELETED) {
+			resources.computeIfPresent(appId, (id, byName) -> {
+				byName.remove(name);
+				return byName.isEmpty() ? null : byName;
+			});
+		}
+		else {
+			resources.computeIfAbsent(appId, id -> new ConcurrentSkipListMap<>())
+					.put(name, resource);
+		}
+	}
+
+	@Override
+	public void onClose(KubernetesClientException cause) {
+		if (cause != null && cause.getCode() == 410) {
+			logger.debug("Watch on {} resources closed, relisting on next resync", kind);
+			relist = true;
+		}
+		else {
+			logger.debug(
+					"Watch on {} resources closed, resuming from resource version '{}' on next resync",
+					kind, resourceVersion);
+		}
+		watch = null;
+	}
+
+	private void relist() {
+		Listing<T> listing = lister.get();
+		ConcurrentMap<String, ConcurrentSkipListMap<String, T>> listed = new ConcurrentHashMap<>();
+		for (T resource : listing.items) {
+			String appId = appId(resource);
+			if (appId != null) {
+				listed.computeIfAbsent(appId, id -> new ConcurrentSkipListMap<>())
+						.put(resource.getMetadata().getName(), resource);
+			}
+		}
+		resources = listed;
+		resourceVersion = listing.resourceVersion;
+		relist = false;
+		logger.trace("Listed {} cache with {} apps at resource version '{}'", kind,
+				listed.size(), resourceVersion);
+	}
+
+	/**
+	 * Resource versions are opaque, but are increasing integers with etcd. If they can't
+	 * be compared, the resource is taken to be newer.
+	 */
+	private static boolean isNewer(String resourceVersion, String than) {
+		try {
+			return Long.parseLong(resourceVersion) > Long.parseLong(than);
+		}
+		catch (NumberFormatException e) {
+			return true;
+		}
+	}
+
+	private String appId(T resource) {
+		Map<String, String> labels = resource.getMetadata().getLabels();
+		return (labels == null) ? null : labels.get(labelKey);
+	}
+
+	/**
+	 * The listed resources and the <code>resourceVersion</code> of the list.
+	 *
+	 * @param <T> the resource kind
+	 */
+	public static class Listing<T> {
+
+		private final List<T> items;
+
+		private final String resourceVersion;
+
+		public Listing(List<T> items, String resourceVersion) {
+			this.items = items;
+			this.resourceVersion = resourceVersion;
+		}
+
+	}
+
+}
@@ -0,0 +1,168 @@
+package org.springframework.cloud.deployer.spi.openshift.cache;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.openshift.cache.AppIdIndexedCache.Listing;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ReplicationControllerList;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildList;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentConfigList;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Watch driven, in-memory cache of the Pods, Services, Builds, ReplicationControllers and
+ * DeploymentConfigs created by the deployer, keyed by the <code>spring-app-id</code>
+ * label. This allows the status of an app to be resolved without any round trips to the
+ * API server. Every resync period, any closed watches are resumed, see
+ * {@link AppIdIndexedCache}.
+ */
+public class OpenShiftResourceCache implements Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(OpenShiftResourceCache.class);
+
+	/**
+	 * See
+	 * {@link org.springframework.cloud.deployer.spi.kubernetes.AbstractKubernetesDeployer#SPRING_APP_KEY}
+	 */
+	private static String SPRING_APP_KEY = "spring-app-id";
+
+	private final long resyncPeriod;
+
+	private final AppIdIndexedCache<Pod> pods;
+
+	private final AppIdIndexedCache<Service> services;
+
+	private final AppIdIndexedCache<Build> builds;
+
+	private final AppIdIndexedCache<ReplicationController> replicationControllers;
+
+	private final AppIdIndexedCache<DeploymentConfig> deploymentConfigs;
+
+	private ScheduledExecutorService resyncExecutor;
+
+	public OpenShiftResourceCache(OpenShiftClient client, long resyncPeriod) {
+		this.resyncPeriod = resyncPeriod;
+
+		//@formatter:off
+		this.pods = new AppIdIndexedCache<>("Pod", SPRING_APP_KEY,
+			() -> {
+				PodList list = client.pods().withLabel(SPRING_APP_KEY).list();
+				return listing(list.getItems(), list.getMetadata());
+			},
+			(resourceVersion, watcher) -> client.pods().withLabel(SPRING_APP_KEY).watch(resourceVersion, watcher));
+		this.services = new AppIdIndexedCache<>("Service", SPRING_APP_KEY,
+			() -> {
+				ServiceList list = client.services().withLabel(SPRING_APP_KEY).list();
+				return listing(list.getItems(), list.getMetadata());
+			},
+			(resourceVersion, watcher) -> client.services().withLabel(SPRING_APP_KEY).watch(resourceVersion, watcher));
+		this.builds = new AppIdIndexedCache<>("Build", SPRING_APP_KEY,
+			() -> {
+				BuildList list = client.builds().withLabel(SPRING_APP_KEY).list();
+				return listing(list.getItems(), list.getMetadata());
+			},
+			(resourceVersion, watcher) -> client.builds().withLabel(SPRING_APP_KEY).watch(resourceVersion, watcher));
+		this.replicationControllers = new AppIdIndexedCache<>("ReplicationController", SPRING_APP_KEY,
+			() -> {
+				ReplicationControllerList list = client.replicationControllers().withLabel(SPRING_APP_KEY).list();
+				return listing(list.getItems(), list.getMetadata());
+			},
+			(resourceVersion, watcher) -> client.replicationControllers().withLabel(SPRING_APP_KEY).watch(resourceVersion, watcher));
+		this.deploymentConfigs = new AppIdIndexedCache<>("DeploymentConfig", SPRING_APP_KEY,
+			() -> {
+				DeploymentConfigList list = client.deploymentConfigs().withLabel(SPRING_APP_KEY).list();
+				return listing(list.getItems(), list.getMetadata());
+			},
+			(resourceVersion, watcher) -> client.deploymentConfigs().withLabel(SPRING_APP_KEY).watch(resourceVersion, watcher));
+		//@formatter:on
+	}
+
+	/**
+	 * Populate the cache and schedule the periodic resync.
+	 */
+	public void start() {
+		resync();
+
+		resyncExecutor = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setNameFormat("openshift-resource-cache-%d")
+						.setDaemon(true).build());
+		resyncExecutor.scheduleWithFixedDelay(this::resyncQuietly, resyncPeriod,
+				resyncPeriod, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void close() {
+		if (resyncExecutor != null) {
+			resyncExecutor.shutdownNow();
+		}
+		caches().forEach(AppIdIndexedCache::close);
+	}
+
+	public List<Pod> getPods(String appId) {
+		return pods.get(appId);
+	}
+
+	public List<Service> getServices(String appId) {
+		return services.get(appId);
+	}
+
+	public List<Build> getBuilds(String appId) {
+		return builds.get(appId);
+	}
+
+	public List<ReplicationController> getReplicationControllers(String appId) {
+		return replicationControllers.get(appId);
+	}
+
+	public List<DeploymentConfig> getDeploymentConfigs(String appId) {
+		return deploymentConfigs.get(appId);
+	}
+
+	/**
+	 * @return the number of resource kinds whose watch is open
+	 */
+	public int getOpenWatches() {
+		return (int) caches().filter(AppIdIndexedCache::isWatching).count();
+	}
+
+	void resync() {
+		caches().forEach(AppIdIndexedCache::resync);
+	}
+
+	private void resyncQuietly() {
+		try {
+			resync();
+		}
+		catch (Exception e) {
+			logger.warn("Could not resync OpenShift resource cache", e);
+		}
+	}
+
+	private static <T> Listing<T> listing(List<T> items, ListMeta metadata) {
+		return new Listing<>(items,
+				(metadata != null) ? metadata.getResourceVersion() : null);
+	}
+
+	private Stream<AppIdIndexedCache<?>> caches() {
+		return Stream.of(pods, services, builds, replicationControllers,
+				deploymentConfigs);
+	}
+
+}
@@ -0,0 +1,132 @@
+package org.springframework.cloud.deployer.spi.openshift.maven;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.util.StringUtils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs pre-builds of Maven resources on a bounded executor and tracks which artifacts are
+ * warm, i.e. have an image that deployments can reuse without building. See
+ * {@link MavenOpenShiftAppDeployer#prebuild(MavenResource)}.
+ */
+public class ImagePrebuilder implements Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(ImagePrebuilder.class);
+
+	public enum State {
+
+		/**
+		 * Waiting for a worker, or the image is being built.
+		 */
+		building,
+
+		/**
+		 * The image is built.
+		 */
+		warm,
+
+		/**
+		 * The image could not be built.
+		 */
+		failed
+
+	}
+
+	private final ExecutorService executor;
+
+	private final Map<String, State> states = new ConcurrentHashMap<>();
+
+	private final Map<String, CompletableFuture<String>> prebuilds = new ConcurrentHashMap<>();
+
+	/**
+	 * @param concurrency the maximum number of artifacts prepared for a build at once
+	 */
+	public ImagePrebuilder(int concurrency) {
+		this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+						.setNameFormat("openshift-prebuild-%d").setDaemon(true).build());
+	}
+
+	/**
+	 * Pre-build an artifact on the executor. An artifact that is already being built is
+	 * not built again.
+	 * @param artifact the coordinates of the artifact, see {@link #coordinates}
+	 * @param prebuild starts the build, returning the name of the image once it is built
+	 * @return the name of the image, completed once it is built or exceptionally if the
+	 * build failed
+	 */
+	public CompletableFuture<String> submit(String artifact,
+			Supplier<CompletableFuture<String>> prebuild) {
+		return prebuilds.compute(artifact, (key, existing) -> {
+			if (existing != null && !existing.isDone()) {
+				return existing;
+			}
+
+			states.put(artifact, State.building);
+			return CompletableFuture.supplyAsync(prebuild, executor)
+					.thenCompose(image -> image).whenComplete((image, e) -> {
+						if (e != null) {
+							Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+							logger.warn("Could not pre-build '{}': {}", artifact,
+									cause.getMessage());
+							states.put(artifact, State.failed);
+						}
+						else {
+							logger.info("Pre-built '{}' as '{}'", artifact, image);
+							states.put(artifact, State.warm);
+						}
+					});
+		});
+	}
+
+	/**
+	 * @return the state of each pre-built artifact, keyed by its coordinates
+	 */
+	public Map<String, State> getPrebuilds() {
+		return Collections.unmodifiableMap(new TreeMap<>(states));
+	}
+
+	/**
+	 * @param state
+	 * @return the number of pre-built artifacts in the state
+	 */
+	public long getPrebuilds(State state) {
+		return states.values().stream().filter(state::equals).count();
+	}
+
+	/**
+	 * @param mavenResource
+	 * @return the <code>groupId:artifactId[:extension[:classifier]]:version</code>
+	 * coordinates of the resource
+	 */
+	public static String coordinates(MavenResource mavenResource) {
+		StringBuilder coordinates = new StringBuilder(mavenResource.getGroupId())
+				.append(':').append(mavenResource.getArtifactId());
+		if (StringUtils.hasText(mavenResource.getClassifier())) {
+			coordinates.append(':').append(mavenResource.getExtension()).append(':')
+					.append(mavenResource.getClassifier());
+		}
+		return coordinates.append(':').append(mavenResource.getVersion()).toString();
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,195 @@
+package org.springframework.cloud.deployer.spi.openshift.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.core.io.Resource;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * A Spring Boot fat jar split into layers that change at different rates:
+ *
+ * <ul>
+ * <li><code>dependencies</code>: release dependencies in <code>BOOT-INF/lib</code></li>
+ * <li><code>snapshot-dependencies</code>: snapshot dependencies in
+ * <code>BOOT-INF/lib</code></li>
+ * <li><code>application</code>: everything else, i.e. the application classes and the
+ * Spring Boot loader</li>
+ * </ul>
+ *
+ * The digest of each layer is calculated from the name, size and CRC of its entries, as
+ * recorded in the central directory of the jar, so the jar is not decompressed.
+ * <p>
+ * A layer archive contains the entries of the selected layers, prefixed with the layer
+ * name (e.g. <code>dependencies/BOOT-INF/lib/spring-core-4.3.9.RELEASE.jar</code>), a
+ * directory entry for each of the selected layers, even if empty, and a {@link #MANIFEST}
+ * listing the digest of every layer, including those not in the archive.
+ */
+public class LayeredJar {
+
+	public static final String DEPENDENCIES = "dependencies";
+
+	public static final String SNAPSHOT_DEPENDENCIES = "snapshot-dependencies";
+
+	public static final String APPLICATION = "application";
+
+	/**
+	 * The layers, in the order they are extracted.
+	 */
+	public static final List<String> LAYERS = Collections.unmodifiableList(
+			Arrays.asList(DEPENDENCIES, SNAPSHOT_DEPENDENCIES, APPLICATION));
+
+	/**
+	 * The name of the manifest in a layer archive. Each line is
+	 * <code>&lt;layer&gt;=&lt;digest&gt;</code>.
+	 */
+	public static final String MANIFEST = "layers.manifest";
+
+	private static final String BOOT_INF = "BOOT-INF/";
+
+	private static final String BOOT_INF_LIB = "BOOT-INF/lib/";
+
+	private final File jar;
+
+	private final Map<String, String> digests;
+
+	private LayeredJar(File jar, Map<String, String> digests) {
+		this.jar = jar;
+		this.digests = digests;
+	}
+
+	/**
+	 * @param jar
+	 * @return the layered jar, or empty if the jar is not a Spring Boot fat jar
+	 * @throws IOException
+	 */
+	public static Optional<LayeredJar> of(File jar) throws IOException {
+		try (ZipFile zipFile = new ZipFile(jar)) {
+			List<ZipEntry> entries = new ArrayList<>(Collections.list(zipFile.entries()));
+			if (entries.stream()
+					.noneMatch(entry -> entry.getName().startsWith(BOOT_INF))) {
+				return Optional.empty();
+			}
+
+			entries.sort(Comparator.comparing(ZipEntry::getName));
+			Map<String, Hasher> hashers = new LinkedHashMap<>();
+			LAYERS.forEach(layer -> hashers.put(layer, Hashing.sha1().newHasher()));
+			for (ZipEntry entry : entries) {
+				hashers.get(layer(entry))
+						.putString(entry.getName(), StandardCharsets.UTF_8)
+						.putLong(entry.getSize()).putLong(entry.getCrc());
+			}
+
+			Map<String, String> digests = new LinkedHashMap<>();
+			hashers.forEach(
+					(layer, hasher) -> digests.put(layer, hasher.hash().toString()));
+			return Optional.of(new LayeredJar(jar, digests));
+		}
+	}
+
+	/**
+	 * @return the digest of each layer, keyed by layer name
+	 */
+	public Map<String, String> getDigests() {
+		return Collections.unmodifiableMap(digests);
+	}
+
+	/**
+	 * Write an archive of the given layers.
+	 * @param target the archive to write
+	 * @param layers the layers to include in the archive
+	 * @throws IOException
+	 */
+	public void writeArchive(File target, Collection<String> layers) throws IOException {
+		writeArchive(target, layers, Collections.emptyMap());
+	}
+
+	/**
+	 * Write an archive of the given layers and additional entries.
+	 * @param target the archive to write
+	 * @param layers the layers to include in the archive
+	 * @param entries the additional entries, keyed by name, e.g. build scripts
+	 * @throws IOException
+	 */
+	public void writeArchive(File target, Collection<String> layers,
+			Map<String, Resource> entries) throws IOException {
+		try (ZipFile zipFile = new ZipFile(jar);
+				ZipOutputStream archive = new ZipOutputStream(
+						new FileOutputStream(target))) {
+			archive.putNextEntry(new ZipEntry(MANIFEST));
+			StringBuilder manifest = new StringBuilder();
+			digests.forEach((layer, digest) -> manifest.append(layer).append('=')
+					.append(digest).append('\n'));
+			archive.write(manifest.toString().getBytes(StandardCharsets.UTF_8));
+			archive.closeEntry();
+
+			for (Map.Entry<String, Resource> entry : entries.entrySet()) {
+				archive.putNextEntry(new ZipEntry(entry.getKey()));
+				try (InputStream input = entry.getValue().getInputStream()) {
+					ByteStreams.copy(input, archive);
+				}
+				archive.closeEntry();
+			}
+
+			// a layer without entries is still distinguishable from one not uploaded
+			for (String layer : LAYERS) {
+				if (layers.contains(layer)) {
+					archive.putNextEntry(new ZipEntry(layer + "/"));
+					archive.closeEntry();
+				}
+			}
+
+			for (ZipEntry entry : Collections.list(zipFile.entries())) {
+				String layer = layer(entry);
+				if (!layers.contains(layer)) {
+					continue;
+				}
+
+				ZipEntry layerEntry = new ZipEntry(layer + "/" + entry.getName());
+				layerEntry.setTime(entry.getTime());
+				if (entry.getMethod() == ZipEntry.STORED) {
+					// nested jars are stored uncompressed, keep them that way
+					layerEntry.setMethod(ZipEntry.STORED);
+					layerEntry.setSize(entry.getSize());
+					layerEntry.setCompressedSize(entry.getSize());
+					layerEntry.setCrc(entry.getCrc());
+				}
+				archive.putNextEntry(layerEntry);
+				if (!entry.isDirectory()) {
+					try (InputStream input = zipFile.getInputStream(entry)) {
+						ByteStreams.copy(input, archive);
+					}
+				}
+				archive.closeEntry();
+			}
+		}
+	}
+
+	private static String layer(ZipEntry entry) {
+		String name = entry.getName();
+		if (name.startsWith(BOOT_INF_LIB) && !entry.isDirectory()) {
+			return name.contains("SNAPSHOT") ? SNAPSHOT_DEPENDENCIES : DEPENDENCIES;
+		}
+
+		return APPLICATION;
+	}
+
+}
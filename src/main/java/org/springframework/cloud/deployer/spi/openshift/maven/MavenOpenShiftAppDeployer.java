@@ -2,39 +2,80 @@ package org.springframework.cloud.deployer.spi.openshift.maven;
 
 import com.google.common.collect.ImmutableMap;
 import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.ReplicationController;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.DeploymentConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.kubernetes.ContainerFactory;
+import org.springframework.cloud.deployer.spi.openshift.DeploymentPhase;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftAppDeployer;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerProperties;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
 import org.springframework.cloud.deployer.spi.openshift.ResourceHash;
+import org.springframework.cloud.deployer.spi.openshift.SharedComponent;
+import org.springframework.cloud.deployer.spi.openshift.cache.OpenShiftResourceCache;
 import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
 import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildConfigStrategy;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildIndex;
 import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategies;
-import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.MavenBuildConfigFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.ContentAddressedBuildConfigStrategy;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildScheduler;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategyCache;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildWatcher;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.LayeredBinaryInput;
 import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.S2iBinaryInputBuildConfigStrategy;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.S2iBinaryUploader;
 import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.WatchingBuildConfigStrategy;
 import org.springframework.cloud.deployer.spi.openshift.resources.deploymentConfig.DeploymentConfigFactory;
 import org.springframework.cloud.deployer.spi.openshift.resources.deploymentConfig.DeploymentConfigWithImageChangeTriggerWithIndexSuppportFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.deploymentConfig.RolloutWatcher;
+import org.springframework.cloud.deployer.spi.openshift.resources.imageStream.ContentAddressedImage;
+import org.springframework.cloud.deployer.spi.openshift.resources.imageStream.ContentAddressedImageIndex;
 import org.springframework.cloud.deployer.spi.openshift.resources.imageStream.ImageStreamFactory;
+import org.springframework.cloud.deployer.spi.openshift.timeline.Timeline;
+import org.springframework.cloud.deployer.spi.openshift.timeline.TimelineSpan;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+/**
+ * Deploys apps from Maven resources, building their images on OpenShift first if needed.
+ * The Build watcher, index, uploader and caches are {@link SharedComponent}s, see
+ * {@link OpenShiftAppDeployer}.
+ * <p>
+ * With <code>contentAddressedImages</code>, the Builds and uploads of an app are those of
+ * its {@link ContentAddressedImage}, which it may share with other apps. A shared image
+ * is deleted once the last app deployed from it is undeployed.
+ */
 public class MavenOpenShiftAppDeployer extends OpenShiftAppDeployer {
 
 	private static Logger logger = LoggerFactory
 			.getLogger(MavenOpenShiftAppDeployer.class);
 
+	private static final Set<String> FAILED_BUILD_PHASES = new HashSet<>(
+			Arrays.asList("Failed", "Error", "Cancelled"));
+
 	private OpenShiftDeployerProperties openShiftDeployerProperties;
 
 	private MavenResourceJarExtractor mavenResourceJarExtractor;
@@ -43,6 +84,24 @@ public class MavenOpenShiftAppDeployer extends OpenShiftAppDeployer {
 
 	private ResourceHash resourceHash;
 
+	private final SharedComponent<BuildWatcher> buildWatcher;
+
+	private final SharedComponent<BuildIndex> buildIndex;
+
+	private final SharedComponent<S2iBinaryUploader> s2iBinaryUploader;
+
+	private final SharedComponent<MavenResourceProjectExtractor> mavenResourceProjectExtractor;
+
+	private final SharedComponent<BuildStrategyCache> buildStrategyCache;
+
+	private BuildScheduler buildScheduler;
+
+	private final SharedComponent<ImagePrebuilder> imagePrebuilder;
+
+	private final ContentAddressedImageIndex contentAddressedImages;
+
+	private final RolloutWatcher rolloutWatcher;
+
 	public MavenOpenShiftAppDeployer(
 			OpenShiftDeployerProperties openShiftDeployerProperties,
 			KubernetesClient client, ContainerFactory containerFactory,
@@ -53,25 +112,69 @@ public class MavenOpenShiftAppDeployer extends OpenShiftAppDeployer {
 		this.mavenResourceJarExtractor = mavenResourceJarExtractor;
 		this.mavenProperties = mavenProperties;
 		this.resourceHash = resourceHash;
+		this.buildWatcher = new SharedComponent<>(() -> new BuildWatcher(getClient()));
+		this.buildIndex = new SharedComponent<>(() -> new BuildIndex(getClient()));
+		this.s2iBinaryUploader = new SharedComponent<>(() -> new S2iBinaryUploader(
+				getClient(), openShiftDeployerProperties.getS2iUploadConcurrency(),
+				openShiftDeployerProperties.getS2iUploadRetries(),
+				openShiftDeployerProperties.getS2iUploadRetryDelay()));
+		this.mavenResourceProjectExtractor = new SharedComponent<>(
+				MavenResourceProjectExtractor::new);
+		this.buildStrategyCache = new SharedComponent<>(BuildStrategyCache::new);
+		this.imagePrebuilder = new SharedComponent<>(() -> new ImagePrebuilder(
+				openShiftDeployerProperties.getPrebuildConcurrency()));
+		this.contentAddressedImages = new ContentAddressedImageIndex(getClient());
+		this.rolloutWatcher = new RolloutWatcher(getClient(),
+				getScheduledExecutorService(),
+				openShiftDeployerProperties.getRolloutTimeout());
 	}
 
 	@Override
 	protected List<ObjectFactory> populateOpenShiftObjectsForDeployment(
 			AppDeploymentRequest request, String appId) {
 		List<ObjectFactory> factories = new ArrayList<>();
+		Timeline timeline = getDeploymentTimeline(appId);
+		// a failed upload of a previous deployment no longer applies
+		s2iBinaryUploader.get().clearFailure(appId);
 
 		MavenResource mavenResource = (MavenResource) request.getResource();
-		if (!buildExists(request, appId, mavenResource)) {
+		String buildId = timeline.record("hash",
+				() -> resourceHash.hashResource(mavenResource));
+		String imageName = appId;
+		if (openShiftDeployerProperties.isContentAddressedImages()) {
+			imageName = ContentAddressedImage.name(mavenResource, buildId);
+			contentAddressedImages.put(appId, imageName);
+			request = new AppDeploymentRequest(request.getDefinition(),
+					request.getResource(),
+					ImmutableMap.<String, String>builder()
+							.putAll(request.getDeploymentProperties())
+							.put(OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_IMAGE_NAME,
+									imageName)
+							.build(),
+					request.getCommandlineArguments());
+		}
+
+		AppDeploymentRequest buildRequest = request;
+		String builtImageName = imageName;
+		if (!timeline.record("check-build",
+				() -> buildExists(buildRequest, builtImageName, mavenResource))) {
 			logger.info("Building application '{}' with resource: {}", appId,
 					mavenResource);
 
-			factories.add(new ImageStreamFactory(getClient()));
+			factories.add(new ImageStreamFactory(getClient(), imageName));
+			s2iBinaryUploader.get().clearFailure(imageName);
 
+			Map<String, String> buildLabels = imageName.equals(appId)
+					? BuildIndex.withBuildId(createIdMap(appId, request), buildId)
+					: ContentAddressedImage.labels(imageName, buildId);
 			BuildStrategies buildStrategies = new BuildStrategies(mavenProperties,
 					openShiftDeployerProperties, mavenResourceJarExtractor, resourceHash,
-					getClient());
-			BuildConfigStrategy buildStrategy = buildStrategies.chooseBuildStrategy(
-					request, createIdMap(appId, request), mavenResource);
+					getClient(), s2iBinaryUploader.get(), mavenResourceProjectExtractor.get(),
+					buildStrategyCache.get());
+			buildStrategies.setTimeline(timeline);
+			BuildConfigStrategy buildStrategy = timeline.record("select-strategy",
+					() -> buildStrategies.chooseBuildStrategy(buildRequest, buildLabels,
+							mavenResource));
 			if (buildStrategy instanceof S2iBinaryInputBuildConfigStrategy) {
 				request = new AppDeploymentRequest(request.getDefinition(),
 						request.getResource(),
@@ -86,10 +189,14 @@ public class MavenOpenShiftAppDeployer extends OpenShiftAppDeployer {
 					request.getDeploymentProperties(), request.getCommandlineArguments());
 
 			WatchingBuildConfigStrategy watchingBuildConfigStrategy = new WatchingBuildConfigStrategy(
-					buildStrategy, getClient(), createIdMap(appId, request),
-					(build, watch) -> rolloutDeployment(build, watch, appId,
-							deploymentRequest));
-			factories.add(watchingBuildConfigStrategy);
+					scheduled(buildStrategy, buildId), getClient(), buildLabels,
+					buildWatcher.get(), (build, watch) -> rolloutDeployment(build, watch, appId,
+							builtImageName, deploymentRequest));
+			watchingBuildConfigStrategy.setMetrics(getMetrics());
+			watchingBuildConfigStrategy.setTimeline(timeline);
+			factories.add(imageName.equals(appId) ? watchingBuildConfigStrategy
+					: new ContentAddressedBuildConfigStrategy(watchingBuildConfigStrategy,
+							imageName));
 		}
 
 		factories.addAll(super.populateOpenShiftObjectsForDeployment(request, appId));
@@ -97,6 +204,151 @@ public class MavenOpenShiftAppDeployer extends OpenShiftAppDeployer {
 		return factories;
 	}
 
+	/**
+	 * Build the image of a Maven resource in the background, ahead of any deployment of
+	 * it, so that apps deployed from the resource later reuse the image instead of
+	 * building it. Requires <code>contentAddressedImages</code>, as images are otherwise
+	 * built per app.
+	 * @param mavenResource
+	 * @return the name of the image, completed once it is built or exceptionally if the
+	 * build failed
+	 * @throws IllegalStateException if content addressed images are not enabled
+	 */
+	public CompletableFuture<String> prebuild(MavenResource mavenResource) {
+		if (!openShiftDeployerProperties.isContentAddressedImages()) {
+			throw new IllegalStateException(
+					"Pre-building images requires contentAddressedImages to be enabled");
+		}
+
+		return imagePrebuilder.get().submit(ImagePrebuilder.coordinates(mavenResource),
+				() -> buildImage(mavenResource));
+	}
+
+	/**
+	 * See {@link #prebuild(MavenResource)}
+	 * @param mavenResources
+	 * @return the name of each image, in the order of the resources
+	 */
+	public List<CompletableFuture<String>> prebuild(List<MavenResource> mavenResources) {
+		return mavenResources.stream().map(this::prebuild).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return the state of each pre-built artifact, keyed by its coordinates
+	 */
+	public Map<String, ImagePrebuilder.State> getPrebuilds() {
+		return imagePrebuilder.get().getPrebuilds();
+	}
+
+	@Override
+	public void undeploy(String appId) {
+		Optional<String> imageName = getContentAddressedImage(appId);
+		try {
+			super.undeploy(appId);
+			if (imageName.isPresent()) {
+				contentAddressedImages.remove(appId);
+				if (!contentAddressedImages.isUsed(imageName.get())) {
+					deleteContentAddressedImage(imageName.get());
+				}
+			}
+		}
+		finally {
+			s2iBinaryUploader.get().clearFailure(appId);
+			rolloutWatcher.undeployed(appId);
+		}
+	}
+
+	/**
+	 * An app whose S2I binary upload failed is reported as failed, as no build will ever
+	 * be started for it. The same applies to an app deployed from a
+	 * {@link ContentAddressedImage} whose latest Build failed, as the app is only rolled
+	 * out once the shared image is built. The Builds of such an app are those of its
+	 * image, see {@link #getImageNames(Collection)}.
+	 */
+	@Override
+	protected AppStatus buildAppStatus(String appId, List<Pod> pods, List<Build> builds,
+			Supplier<List<ReplicationController>> replicationControllers) {
+		Optional<String> imageName = getContentAddressedImage(appId);
+		if (s2iBinaryUploader.get().getFailure(appId).isPresent() || imageName
+				.flatMap(image -> s2iBinaryUploader.get().getFailure(image)).isPresent()) {
+			return AppStatus.of(appId).generalState(DeploymentState.failed).build();
+		}
+
+		if (imageName.isPresent()) {
+			Build build = builds.isEmpty() ? null : builds.get(builds.size() - 1);
+			if (build != null && build.getStatus() != null
+					&& FAILED_BUILD_PHASES.contains(build.getStatus().getPhase())) {
+				return AppStatus.of(appId).generalState(DeploymentState.failed).build();
+			}
+		}
+
+		return super.buildAppStatus(appId, pods, builds, replicationControllers);
+	}
+
+	@Override
+	protected Optional<DeploymentPhase> getDeploymentPhase(String appId) {
+		Optional<DeploymentPhase> phase = super.getDeploymentPhase(appId);
+		if (!phase.isPresent() && (s2iBinaryUploader.get().isUploading(appId)
+				|| getContentAddressedImage(appId)
+						.filter(s2iBinaryUploader.get()::isUploading).isPresent())) {
+			phase = Optional.of(DeploymentPhase.uploading);
+		}
+		return phase;
+	}
+
+	/**
+	 * @param appId
+	 * @return the {@link ContentAddressedImage} the app is deployed from, if
+	 * <code>contentAddressedImages</code> is enabled
+	 */
+	protected Optional<String> getContentAddressedImage(String appId) {
+		return Optional.ofNullable(
+				getImageNames(Collections.singleton(appId)).get(appId));
+	}
+
+	/**
+	 * The {@link ContentAddressedImage}s of the apps, resolved from the cached
+	 * DeploymentConfigs if a resource cache is available, or else with a single list of
+	 * the DeploymentConfigs of the apps not seen before.
+	 */
+	@Override
+	protected Map<String, String> getImageNames(Collection<String> appIds) {
+		if (!openShiftDeployerProperties.isContentAddressedImages()) {
+			return Collections.emptyMap();
+		}
+
+		OpenShiftResourceCache resourceCache = getResourceCache();
+		return (resourceCache != null)
+				? contentAddressedImages.getImages(appIds,
+						resourceCache::getDeploymentConfigs)
+				: contentAddressedImages.getImages(appIds);
+	}
+
+	/**
+	 * Delete the BuildConfig, Builds and ImageStream of a {@link ContentAddressedImage}
+	 * that no app is deployed from any longer. Unlike the BuildConfig of an app, which is
+	 * kept for its next deployment, a shared image is only reused by a deployment of the
+	 * same artifact, so the images of previous versions would otherwise accumulate.
+	 * Images that were pre-built but never deployed are not deleted.
+	 */
+	private void deleteContentAddressedImage(String imageName) {
+		logger.info("Deleting image '{}', as no app is deployed from it", imageName);
+		//@formatter:off
+		Boolean deleted = getClient().buildConfigs()
+				.withLabel(SPRING_APP_KEY, imageName)
+				.withLabel(BuildIndex.SPRING_BUILD_ID_KEY)
+				.delete();
+		getClient().builds()
+				.withLabel(SPRING_APP_KEY, imageName)
+				.withLabel(BuildIndex.SPRING_BUILD_ID_KEY)
+				.delete();
+		//@formatter:on
+		if (Boolean.TRUE.equals(deleted)) {
+			getClient().imageStreams().withName(imageName).delete();
+		}
+		s2iBinaryUploader.get().clearFailure(imageName);
+	}
+
 	@Override
 	protected DeploymentConfigFactory getDeploymentConfigFactory(
 			AppDeploymentRequest request, Map<String, String> labels,
@@ -106,6 +358,53 @@ public class MavenOpenShiftAppDeployer extends OpenShiftAppDeployer {
 				getResourceRequirements(request), getImagePullPolicy(request));
 	}
 
+	public void setBuildWatcher(BuildWatcher buildWatcher) {
+		this.buildWatcher.set(buildWatcher);
+	}
+
+	public void setBuildIndex(BuildIndex buildIndex) {
+		this.buildIndex.set(buildIndex);
+	}
+
+	public void setS2iBinaryUploader(S2iBinaryUploader s2iBinaryUploader) {
+		this.s2iBinaryUploader.set(s2iBinaryUploader);
+	}
+
+	public void setMavenResourceProjectExtractor(
+			MavenResourceProjectExtractor mavenResourceProjectExtractor) {
+		this.mavenResourceProjectExtractor.set(mavenResourceProjectExtractor);
+	}
+
+	public void setBuildStrategyCache(BuildStrategyCache buildStrategyCache) {
+		this.buildStrategyCache.set(buildStrategyCache);
+	}
+
+	public void setBuildScheduler(BuildScheduler buildScheduler) {
+		this.buildScheduler = buildScheduler;
+	}
+
+	private BuildConfigStrategy scheduled(BuildConfigStrategy buildStrategy,
+			String buildId) {
+		return (buildScheduler == null) ? buildStrategy
+				: buildScheduler.scheduled(buildStrategy, buildId);
+	}
+
+	public void setImagePrebuilder(ImagePrebuilder imagePrebuilder) {
+		this.imagePrebuilder.set(imagePrebuilder);
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		buildWatcher.close();
+		buildIndex.close();
+		s2iBinaryUploader.close();
+		mavenResourceProjectExtractor.close();
+		buildStrategyCache.close();
+		imagePrebuilder.close();
+		rolloutWatcher.close();
+	}
+
 	protected boolean buildExists(AppDeploymentRequest request, String appId,
 			MavenResource mavenResource) {
 		boolean buildExists;
@@ -117,31 +416,122 @@ public class MavenOpenShiftAppDeployer extends OpenShiftAppDeployer {
 					|| !openShiftDeployerProperties.isForceBuild();
 		}
 		else {
-			buildExists = getClient().builds().withLabelIn(SPRING_APP_KEY, appId).list()
-					.getItems().stream()
-					.filter(build -> !build.getStatus().getPhase().equals("Failed")
-							&& build.getSpec().getStrategy().getDockerStrategy() != null)
-					.flatMap(build -> build.getSpec().getStrategy().getDockerStrategy()
-							.getEnv().stream()
-							.filter(envVar -> envVar.getName().equals(
-									MavenBuildConfigFactory.SPRING_BUILD_ID_ENV_VAR)
-									&& envVar.getValue().equals(
-											resourceHash.hashResource(mavenResource))))
-					.count() > 0;
+			buildExists = buildIndex.get().exists(appId,
+					resourceHash.hashResource(mavenResource));
 		}
 
 		return buildExists;
 	}
 
+	/**
+	 * Build the image, unless a Build of it exists. An existing Build that is not yet
+	 * complete is tracked to completion, so that the image is only considered built once
+	 * it actually is.
+	 */
+	private CompletableFuture<String> buildImage(MavenResource mavenResource) {
+		String buildId = resourceHash.hashResource(mavenResource);
+		String imageName = ContentAddressedImage.name(mavenResource, buildId);
+		CompletableFuture<String> built = new CompletableFuture<>();
+		Watch watch = buildWatcher.get().register(imageName, (build, buildWatch) -> {
+			String phase = (build.getStatus() != null) ? build.getStatus().getPhase()
+					: null;
+			if ("Complete".equals(phase)) {
+				new LayeredBinaryInput(getClient()).promoteDigests(imageName, build);
+				built.complete(imageName);
+				buildWatch.close();
+			}
+			else if ("Failed".equals(phase) || "Error".equals(phase)
+					|| "Cancelled".equals(phase)) {
+				built.completeExceptionally(new IllegalStateException(
+						String.format("Build '%s' of '%s' is %s",
+								build.getMetadata().getName(), imageName, phase)));
+				buildWatch.close();
+			}
+		});
+		if (buildIndex.get().exists(imageName, buildId)) {
+			if (isComplete(imageName, buildId)) {
+				watch.close();
+				built.complete(imageName);
+			}
+			return built;
+		}
+
+		try {
+			AppDeploymentRequest request = new AppDeploymentRequest(
+					new AppDefinition(imageName, null), mavenResource,
+					Collections.singletonMap(
+							OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_IMAGE_NAME,
+							imageName));
+			Map<String, String> buildLabels = ContentAddressedImage.labels(imageName,
+					buildId);
+			BuildStrategies buildStrategies = new BuildStrategies(mavenProperties,
+					openShiftDeployerProperties, mavenResourceJarExtractor, resourceHash,
+					getClient(), s2iBinaryUploader.get(),
+					mavenResourceProjectExtractor.get(), buildStrategyCache.get());
+			BuildConfigStrategy buildStrategy = scheduled(buildStrategies
+					.chooseBuildStrategy(request, buildLabels, mavenResource), buildId);
+
+			new ImageStreamFactory(getClient(), imageName).addObject(request, imageName);
+			buildStrategy.addObject(request, imageName);
+			buildStrategy.startBuild(request, imageName).whenComplete((result, e) -> {
+				if (e != null) {
+					watch.close();
+					built.completeExceptionally(e);
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			watch.close();
+			throw e;
+		}
+
+		return built;
+	}
+
+	private boolean isComplete(String imageName, String buildId) {
+		//@formatter:off
+		return getClient().builds()
+				.withLabel(SPRING_APP_KEY, imageName)
+				.withLabel(BuildIndex.SPRING_BUILD_ID_KEY, buildId)
+				.list()
+				.getItems().stream()
+				.anyMatch(build -> build.getStatus() != null
+						&& "Complete".equals(build.getStatus().getPhase()));
+		//@formatter:on
+	}
+
 	protected void rolloutDeployment(Build build, Watch watch, String appId,
 			AppDeploymentRequest request) {
+		rolloutDeployment(build, watch, appId, appId, request);
+	}
+
+	/**
+	 * Roll out the latest version of the app's DeploymentConfigs once the Build is
+	 * complete. The <code>rollout</code> span ends once the rollout has completed or
+	 * failed, see {@link RolloutWatcher}.
+	 * @param imageName the ImageStream of the build output, which differs from the app id
+	 * for a {@link ContentAddressedImage}
+	 */
+	protected void rolloutDeployment(Build build, Watch watch, String appId,
+			String imageName, AppDeploymentRequest request) {
 		if (build.getStatus().getPhase().equals("Complete")) {
 			logger.info(
 					String.format("Build complete: '%s'", build.getMetadata().getName()));
+			new LayeredBinaryInput(getClient()).promoteDigests(imageName, build);
 
 			withIndexedDeployment(appId, request, (id, deploymentRequest) -> {
 				logger.info(String.format("Rolling out latest deployment of '%s'", id));
-				getClient().deploymentConfigs().withName(id).deployLatest();
+				TimelineSpan rollout = getDeploymentTimeline(appId).start("rollout");
+				try {
+					DeploymentConfig deploymentConfig = getMetrics().record(
+							"DeploymentConfig", "rollout", () -> getClient()
+									.deploymentConfigs().withName(id).deployLatest());
+					rolloutWatcher.watch(appId, deploymentConfig, rollout);
+				}
+				catch (RuntimeException e) {
+					rollout.fail(e);
+					throw e;
+				}
 			});
 
 			watch.close();
@@ -4,7 +4,6 @@ import com.google.common.collect.ImmutableMap;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.openshift.api.model.Build;
-import io.fabric8.openshift.client.DefaultOpenShiftClient;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.cloud.deployer.resource.docker.DockerResource;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
@@ -17,18 +16,32 @@ import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerPropert
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftTaskLauncher;
 import org.springframework.cloud.deployer.spi.openshift.ResourceHash;
+import org.springframework.cloud.deployer.spi.openshift.SharedComponent;
 import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
 import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildConfigStrategy;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildIndex;
 import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategies;
-import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.MavenBuildConfigFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildScheduler;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategyCache;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildWatcher;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.LayeredBinaryInput;
 import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.S2iBinaryInputBuildConfigStrategy;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.S2iBinaryUploader;
 import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.WatchingBuildConfigStrategy;
 import org.springframework.cloud.deployer.spi.openshift.resources.imageStream.ImageStreamFactory;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher {
+/**
+ * Launches tasks from Maven resources, building their images on OpenShift first if
+ * needed. The Build watcher, index, uploader and caches are {@link SharedComponent}s,
+ * created on first use and closed with the launcher unless they are set.
+ */
+public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher
+		implements Closeable {
 
 	private final OpenShiftDeployerProperties openShiftDeployerProperties;
 
@@ -40,6 +53,18 @@ public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher {
 
 	private final ContainerFactory containerFactory;
 
+	private final SharedComponent<BuildWatcher> buildWatcher;
+
+	private final SharedComponent<BuildIndex> buildIndex;
+
+	private final SharedComponent<S2iBinaryUploader> s2iBinaryUploader;
+
+	private final SharedComponent<MavenResourceProjectExtractor> mavenResourceProjectExtractor;
+
+	private final SharedComponent<BuildStrategyCache> buildStrategyCache;
+
+	private BuildScheduler buildScheduler;
+
 	public MavenOpenShiftTaskLauncher(KubernetesDeployerProperties properties,
 			OpenShiftDeployerProperties openShiftDeployerProperties,
 			MavenProperties mavenProperties, KubernetesClient client,
@@ -51,6 +76,15 @@ public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher {
 		this.mavenProperties = mavenProperties;
 		this.resourceHash = resourceHash;
 		this.containerFactory = containerFactory;
+		this.buildWatcher = new SharedComponent<>(() -> new BuildWatcher(getClient()));
+		this.buildIndex = new SharedComponent<>(() -> new BuildIndex(getClient()));
+		this.s2iBinaryUploader = new SharedComponent<>(() -> new S2iBinaryUploader(
+				getClient(), openShiftDeployerProperties.getS2iUploadConcurrency(),
+				openShiftDeployerProperties.getS2iUploadRetries(),
+				openShiftDeployerProperties.getS2iUploadRetryDelay()));
+		this.mavenResourceProjectExtractor = new SharedComponent<>(
+				MavenResourceProjectExtractor::new);
+		this.buildStrategyCache = new SharedComponent<>(BuildStrategyCache::new);
 	}
 
 	@Override
@@ -67,14 +101,18 @@ public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher {
 
 			factories.add(new ImageStreamFactory(getClient()));
 
+			String buildId = resourceHash.hashResource(mavenResource);
+			Map<String, String> buildLabels = BuildIndex
+					.withBuildId(createIdMap(taskId, request), buildId);
 			BuildStrategies buildStrategies = new BuildStrategies(mavenProperties,
 					openShiftDeployerProperties, mavenResourceJarExtractor, resourceHash,
-					getClient());
-			BuildConfigStrategy buildStrategy = buildStrategies.chooseBuildStrategy(
-					request, createIdMap(taskId, request), mavenResource);
+					getClient(), s2iBinaryUploader.get(), mavenResourceProjectExtractor.get(),
+					buildStrategyCache.get());
+			BuildConfigStrategy buildStrategy = buildStrategies
+					.chooseBuildStrategy(request, buildLabels, mavenResource);
 			WatchingBuildConfigStrategy watchingBuildConfigStrategy = new WatchingBuildConfigStrategy(
-					buildStrategy, getClient(), createIdMap(taskId, request),
-					(build, watch) -> {
+					scheduled(buildStrategy, buildId), getClient(), buildLabels,
+					buildWatcher.get(), (build, watch) -> {
 						if (buildStrategy instanceof S2iBinaryInputBuildConfigStrategy) {
 							launchTask(build, watch, taskId, new AppDeploymentRequest(
 									request.getDefinition(), request.getResource(),
@@ -87,11 +125,55 @@ public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher {
 							launchTask(build, watch, taskId, request);
 						}
 					});
+			watchingBuildConfigStrategy.setMetrics(getMetrics());
 			factories.add(watchingBuildConfigStrategy);
 		}
 		return factories;
 	}
 
+	public void setBuildWatcher(BuildWatcher buildWatcher) {
+		this.buildWatcher.set(buildWatcher);
+	}
+
+	public void setBuildIndex(BuildIndex buildIndex) {
+		this.buildIndex.set(buildIndex);
+	}
+
+	public void setS2iBinaryUploader(S2iBinaryUploader s2iBinaryUploader) {
+		this.s2iBinaryUploader.set(s2iBinaryUploader);
+	}
+
+	public void setMavenResourceProjectExtractor(
+			MavenResourceProjectExtractor mavenResourceProjectExtractor) {
+		this.mavenResourceProjectExtractor.set(mavenResourceProjectExtractor);
+	}
+
+	public void setBuildStrategyCache(BuildStrategyCache buildStrategyCache) {
+		this.buildStrategyCache.set(buildStrategyCache);
+	}
+
+	public void setBuildScheduler(BuildScheduler buildScheduler) {
+		this.buildScheduler = buildScheduler;
+	}
+
+	/**
+	 * Close the components the launcher created itself, see {@link SharedComponent}.
+	 */
+	@Override
+	public void close() {
+		buildWatcher.close();
+		buildIndex.close();
+		s2iBinaryUploader.close();
+		mavenResourceProjectExtractor.close();
+		buildStrategyCache.close();
+	}
+
+	private BuildConfigStrategy scheduled(BuildConfigStrategy buildStrategy,
+			String buildId) {
+		return (buildScheduler == null) ? buildStrategy
+				: buildScheduler.scheduled(buildStrategy, buildId);
+	}
+
 	// TODO there is allot of duplication with
 	// org.springframework.cloud.deployer.spi.openshift.maven.MavenOpenShiftAppDeployer
 	// we should probably extract the common functionality
@@ -106,16 +188,8 @@ public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher {
 					|| !openShiftDeployerProperties.isForceBuild();
 		}
 		else {
-			buildExists = getClient().builds().withLabelIn(SPRING_APP_KEY, appId).list()
-					.getItems().stream()
-					.filter(build -> !build.getStatus().getPhase().equals("Failed"))
-					.flatMap(build -> build.getSpec().getStrategy().getDockerStrategy()
-							.getEnv().stream()
-							.filter(envVar -> envVar.getName().equals(
-									MavenBuildConfigFactory.SPRING_BUILD_ID_ENV_VAR)
-									&& envVar.getValue().equals(
-											resourceHash.hashResource(mavenResource))))
-					.count() > 0;
+			buildExists = buildIndex.get().exists(appId,
+					resourceHash.hashResource(mavenResource));
 		}
 
 		return buildExists;
@@ -126,6 +200,7 @@ public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher {
 		if (build.getStatus().getPhase().equals("Complete")) {
 			logger.info(
 					String.format("Build complete: '%s'", build.getMetadata().getName()));
+			new LayeredBinaryInput(getClient()).promoteDigests(taskId, build);
 
 			DockerResource dockerResource = new DockerResource(
 					build.getStatus().getOutputDockerImageReference());
@@ -133,9 +208,7 @@ public class MavenOpenShiftTaskLauncher extends OpenShiftTaskLauncher {
 					request.getDefinition(), dockerResource,
 					request.getDeploymentProperties(), request.getCommandlineArguments());
 
-			new KubernetesTaskLauncher(getProperties(),
-					new DefaultOpenShiftClient().inNamespace(getClient().getNamespace()),
-					containerFactory) {
+			new KubernetesTaskLauncher(getProperties(), getClient(), containerFactory) {
 
 				/**
 				 * Reuse the taskId created in the {@link OpenShiftTaskLauncher},
@@ -4,15 +4,46 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
-import org.zeroturnaround.zip.ZipUtil;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
+/**
+ * Looks up files in zip archives, typically Maven artifact jars.
+ * <p>
+ * The entries of an archive are indexed from its central directory, without inflating any
+ * entry, and the index is cached by the path, size and last modified time of the archive.
+ * Looking up a file that is not in an indexed archive does not open the archive at all.
+ */
 public class MavenResourceJarExtractor {
 
 	private static Logger log = LoggerFactory.getLogger(MavenResourceJarExtractor.class);
 
+	private final Cache<String, Map<String, Long>> indexes;
+
+	public MavenResourceJarExtractor() {
+		this(100);
+	}
+
+	/**
+	 * @param cacheSize the maximum number of archive indexes cached
+	 */
+	public MavenResourceJarExtractor(long cacheSize) {
+		this.indexes = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+	}
+
 	/**
 	 * Extract a single file in the specified {@link Resource} that must be a zip archive.
 	 * This single file will be represented as a {@link Resource}. The reference to the
@@ -30,12 +61,56 @@ public class MavenResourceJarExtractor {
 
 		Optional<Resource> extractedResource = Optional.empty();
 
-		byte[] unpackedEntry = ZipUtil.unpackEntry(resource.getFile(), file);
-		if (unpackedEntry != null) {
-			extractedResource = Optional.of(new ByteArrayResource(unpackedEntry));
+		if (containsEntry(resource, file)) {
+			try (ZipFile zipFile = new ZipFile(resource.getFile())) {
+				ZipEntry entry = zipFile.getEntry(file);
+				if (entry != null) {
+					try (InputStream input = zipFile.getInputStream(entry)) {
+						extractedResource = Optional.of(
+								new ByteArrayResource(ByteStreams.toByteArray(input)));
+					}
+				}
+			}
 		}
 
 		return extractedResource;
 	}
 
+	/**
+	 * Check whether the specified {@link Resource}, that must be a zip archive, contains
+	 * a file, without extracting it. See {@link #extractFile(Resource, String)} for the
+	 * reference to the file.
+	 * @param resource
+	 * @param file
+	 * @return true if the archive contains the file
+	 * @throws IOException
+	 */
+	public boolean containsEntry(Resource resource, String file) throws IOException {
+		return index(resource.getFile()).containsKey(file);
+	}
+
+	private Map<String, Long> index(File archive) throws IOException {
+		String key = String.join(":", archive.getAbsolutePath(),
+				String.valueOf(archive.length()), String.valueOf(archive.lastModified()));
+		try {
+			return indexes.get(key, () -> {
+				log.debug("Indexing entries of [{}]", archive);
+
+				Map<String, Long> index = new HashMap<>();
+				try (ZipFile zipFile = new ZipFile(archive)) {
+					for (ZipEntry entry : Collections.list(zipFile.entries())) {
+						index.put(entry.getName(), entry.getSize());
+					}
+				}
+				return Collections.unmodifiableMap(index);
+			});
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
 }
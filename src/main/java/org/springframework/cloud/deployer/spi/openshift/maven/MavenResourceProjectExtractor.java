@@ -2,9 +2,15 @@ package org.springframework.cloud.deployer.spi.openshift.maven;
 
 import static org.apache.maven.artifact.Artifact.SCOPE_COMPILE;
 
+import java.io.Closeable;
+import java.io.File;
+import java.util.Optional;
+
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.artifact.DefaultArtifact;
 import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.model.Scm;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
@@ -18,26 +24,55 @@ import org.codehaus.plexus.PlexusContainer;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.repository.LocalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
 import org.springframework.core.io.Resource;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * Given a Maven artifact {@link Resource}, use the POM to build a {@link MavenProject}
  * representation.
+ * <p>
+ * The Plexus container, with its {@link ProjectBuilder} and {@link RepositorySystem}, is
+ * created on first use and reused for every subsequent extraction. The {@link Scm}
+ * details extracted as a {@link GitReference} are cached by Maven coordinates. They are
+ * read with a {@link PomScmReader} where possible, only building the Maven project if the
+ * POM cannot simply be parsed. As a SNAPSHOT version can be redeployed, a cached SNAPSHOT
+ * reference is evicted when the POM in the local repository has been modified since it
+ * was extracted.
  */
-public class MavenResourceProjectExtractor {
+public class MavenResourceProjectExtractor implements Closeable {
+
+	private static Logger logger = LoggerFactory
+			.getLogger(MavenResourceProjectExtractor.class);
+
+	private final Cache<String, Extracted> gitReferences;
+
+	private PlexusContainer plexusContainer;
+
+	private ProjectBuilder projectBuilder;
+
+	private RepositorySystem repositorySystem;
+
+	public MavenResourceProjectExtractor() {
+		this(100);
+	}
+
+	/**
+	 * @param cacheSize the maximum number of {@link GitReference}s cached
+	 */
+	public MavenResourceProjectExtractor(long cacheSize) {
+		this.gitReferences = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+	}
 
 	public MavenProject extractMavenProject(Resource mavenArtifactResource,
 			MavenProperties mavenProperties) throws Exception {
-		ContainerConfiguration config = new DefaultContainerConfiguration();
-		config.setAutoWiring(true);
-		config.setClassPathScanning(PlexusConstants.SCANNING_INDEX);
-		PlexusContainer plexusContainer = new DefaultPlexusContainer(config);
-		ProjectBuilder projectBuilder = plexusContainer.lookup(ProjectBuilder.class);
-
-		RepositorySystem repositorySystem = plexusContainer
-				.lookup(RepositorySystem.class);
+		initialize();
+
 		DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
 
 		// only use the local cache to resolve artifacts
@@ -55,6 +90,74 @@ public class MavenResourceProjectExtractor {
 		return result.getProject();
 	}
 
+	/**
+	 * Extract the {@link GitReference} from the <code>&lt;scm&gt;</code> of the POM, from
+	 * the cache if the artifact was extracted before.
+	 * @param mavenArtifactResource
+	 * @param mavenProperties
+	 * @return the {@link GitReference}, or empty if the POM has no SCM details
+	 * @throws Exception if the {@link MavenProject} cannot be built
+	 */
+	public Optional<GitReference> extractGitReference(Resource mavenArtifactResource,
+			MavenProperties mavenProperties) throws Exception {
+		MavenResource mavenResource = (MavenResource) mavenArtifactResource;
+		String key = String.join(":", mavenProperties.getLocalRepository(),
+				mavenResource.getGroupId(), mavenResource.getArtifactId(),
+				mavenResource.getVersion(),
+				String.valueOf(mavenResource.getClassifier()));
+
+		Extracted extracted = gitReferences.getIfPresent(key);
+		if (extracted != null && ArtifactUtils.isSnapshot(mavenResource.getVersion())
+				&& extracted.isStale()) {
+			logger.debug("Evicting Git reference of '{}', the POM was modified", key);
+			gitReferences.invalidate(key);
+			extracted = null;
+		}
+
+		if (extracted == null) {
+			File localRepository = new File(mavenProperties.getLocalRepository());
+			Optional<GitReference> gitReference = new PomScmReader(localRepository).read(
+					mavenResource.getGroupId(), mavenResource.getArtifactId(),
+					mavenResource.getVersion());
+			if (!gitReference.isPresent()) {
+				logger.debug(
+						"Building Maven project of '{}' to extract the Git reference",
+						key);
+				Scm scm = extractMavenProject(mavenArtifactResource, mavenProperties)
+						.getScm();
+				gitReference = Optional.ofNullable(scm != null
+						? new GitReference(scm.getConnection(), scm.getTag()) : null);
+			}
+
+			extracted = new Extracted(gitReference.orElse(null),
+					PomScmReader.pomFile(localRepository, mavenResource.getGroupId(),
+							mavenResource.getArtifactId(), mavenResource.getVersion()));
+			gitReferences.put(key, extracted);
+		}
+
+		return Optional.ofNullable(extracted.gitReference);
+	}
+
+	@Override
+	public synchronized void close() {
+		if (plexusContainer != null) {
+			plexusContainer.dispose();
+			plexusContainer = null;
+		}
+	}
+
+	private synchronized void initialize() throws Exception {
+		if (plexusContainer == null) {
+			ContainerConfiguration config = new DefaultContainerConfiguration();
+			config.setAutoWiring(true);
+			config.setClassPathScanning(PlexusConstants.SCANNING_INDEX);
+			PlexusContainer container = new DefaultPlexusContainer(config);
+			projectBuilder = container.lookup(ProjectBuilder.class);
+			repositorySystem = container.lookup(RepositorySystem.class);
+			plexusContainer = container;
+		}
+	}
+
 	/**
 	 * See
 	 * {@link org.springframework.cloud.deployer.resource.maven.MavenArtifactResolver#toArtifact}
@@ -68,4 +171,24 @@ public class MavenResourceProjectExtractor {
 				new DefaultArtifactHandler());
 	}
 
+	private static class Extracted {
+
+		private final GitReference gitReference;
+
+		private final File pom;
+
+		private final long lastModified;
+
+		Extracted(GitReference gitReference, File pom) {
+			this.gitReference = gitReference;
+			this.pom = pom;
+			this.lastModified = pom.lastModified();
+		}
+
+		boolean isStale() {
+			return pom.lastModified() != lastModified;
+		}
+
+	}
+
 }
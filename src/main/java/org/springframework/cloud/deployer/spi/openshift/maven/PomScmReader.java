@@ -0,0 +1,226 @@
+package org.springframework.cloud.deployer.spi.openshift.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the <code>&lt;scm&gt;</code> connection and tag of an artifact by stream parsing
+ * its POM, and if need be its parent POMs, from the local Maven repository. The POM is
+ * not interpolated or validated, so this is much cheaper than building the Maven project.
+ * <p>
+ * An inherited connection has the artifact id of each inheriting POM appended, as Maven
+ * does, unless the declaring <code>&lt;scm&gt;</code> sets
+ * <code>child.scm.connection.inherit.append.path="false"</code>.
+ * <p>
+ * If the SCM details cannot be read this way, i.e. there is no <code>&lt;scm&gt;</code>,
+ * a POM is missing from the local repository or a value contains a property expression,
+ * nothing is returned and the caller should fall back to building the Maven project.
+ */
+public class PomScmReader {
+
+	private static Logger logger = LoggerFactory.getLogger(PomScmReader.class);
+
+	private static final int MAX_PARENTS = 10;
+
+	private static final String APPEND_PATH_ATTRIBUTE = "child.scm.connection.inherit.append.path";
+
+	private final XMLInputFactory xmlInputFactory;
+
+	private final File localRepository;
+
+	public PomScmReader(File localRepository) {
+		this.localRepository = localRepository;
+		this.xmlInputFactory = XMLInputFactory.newInstance();
+		this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		this.xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+	}
+
+	/**
+	 * @param localRepository
+	 * @param groupId
+	 * @param artifactId
+	 * @param version
+	 * @return the location of the POM in the local repository
+	 */
+	public static File pomFile(File localRepository, String groupId, String artifactId,
+			String version) {
+		return new File(localRepository, String.join("/", groupId.replace('.', '/'),
+				artifactId, version, artifactId + "-" + version + ".pom"));
+	}
+
+	/**
+	 * @param groupId
+	 * @param artifactId
+	 * @param version
+	 * @return the {@link GitReference}, or empty if it could not be read from the POMs
+	 */
+	public Optional<GitReference> read(String groupId, String artifactId,
+			String version) {
+		Deque<String> inheritingArtifactIds = new ArrayDeque<>();
+		String tag = null;
+
+		for (int depth = 0; depth <= MAX_PARENTS; depth++) {
+			File pomFile = pomFile(localRepository, groupId, artifactId, version);
+			if (!pomFile.isFile()) {
+				return Optional.empty();
+			}
+
+			Pom pom;
+			try {
+				pom = parse(pomFile);
+			}
+			catch (IOException | XMLStreamException e) {
+				logger.debug("Could not parse '{}': {}", pomFile, e.getMessage());
+				return Optional.empty();
+			}
+
+			if (pom.scm && tag == null) {
+				// the nearest <scm> determines the tag, which defaults to HEAD
+				tag = (pom.tag != null) ? pom.tag : "HEAD";
+			}
+
+			if (pom.connection != null) {
+				StringBuilder connection = new StringBuilder(pom.connection);
+				if (pom.appendPath) {
+					inheritingArtifactIds.forEach(
+							inheriting -> connection.append('/').append(inheriting));
+				}
+
+				if (connection.indexOf("${") >= 0 || tag.contains("${")) {
+					return Optional.empty();
+				}
+
+				return Optional.of(new GitReference(connection.toString(), tag));
+			}
+
+			if (pom.parentArtifactId == null) {
+				return Optional.empty();
+			}
+
+			inheritingArtifactIds.addFirst(artifactId);
+			groupId = pom.parentGroupId;
+			artifactId = pom.parentArtifactId;
+			version = pom.parentVersion;
+			if (groupId == null || version == null) {
+				return Optional.empty();
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	private Pom parse(File pomFile) throws IOException, XMLStreamException {
+		Pom pom = new Pom();
+
+		try (InputStream input = new FileInputStream(pomFile)) {
+			XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(input);
+			try {
+				Deque<String> path = new ArrayDeque<>();
+				while (reader.hasNext()) {
+					int event = reader.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						path.addLast(reader.getLocalName());
+						String element = String.join("/", path);
+						if (element.equals("project/scm")) {
+							pom.scm = true;
+							pom.appendPath = !"false".equals(reader
+									.getAttributeValue(null, APPEND_PATH_ATTRIBUTE));
+						}
+						else if (path.size() > 1 && !element.equals("project/parent")) {
+							if (Pom.ELEMENTS.contains(element)) {
+								pom.set(element, reader.getElementText().trim());
+							}
+							else {
+								skip(reader);
+							}
+							path.removeLast();
+						}
+					}
+					else if (event == XMLStreamConstants.END_ELEMENT) {
+						path.removeLast();
+						if (path.isEmpty()) {
+							break;
+						}
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+
+		return pom;
+	}
+
+	private void skip(XMLStreamReader reader) throws XMLStreamException {
+		for (int depth = 1; depth > 0;) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private static class Pom {
+
+		private static final Set<String> ELEMENTS = new HashSet<>(Arrays.asList(
+				"project/scm/connection", "project/scm/tag", "project/parent/groupId",
+				"project/parent/artifactId", "project/parent/version"));
+
+		private boolean scm;
+
+		private boolean appendPath = true;
+
+		private String connection;
+
+		private String tag;
+
+		private String parentGroupId;
+
+		private String parentArtifactId;
+
+		private String parentVersion;
+
+		void set(String element, String value) {
+			switch (element) {
+			case "project/scm/connection":
+				connection = value;
+				break;
+			case "project/scm/tag":
+				tag = value;
+				break;
+			case "project/parent/groupId":
+				parentGroupId = value;
+				break;
+			case "project/parent/artifactId":
+				parentArtifactId = value;
+				break;
+			case "project/parent/version":
+				parentVersion = value;
+				break;
+			default:
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.springframework.cloud.deployer.spi.openshift.metrics;
+
+import java.util.function.Supplier;
+
+import org.springframework.cloud.deployer.spi.openshift.resources.AbstractObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.core.ResolvableType;
+
+import okhttp3.Interceptor;
+
+/**
+ * Records the operations of the app deployer and task launcher, the objects they add and
+ * apply, their Builds and their requests to the API server. Micrometer is optional, so
+ * the deployer depends on this rather than on a {@link MicrometerDeployerMetrics}
+ * directly. Unless one is set, nothing is recorded, see {@link #noop()}.
+ */
+public interface DeployerMetrics {
+
+	/**
+	 * @param kind <code>app</code>, <code>task</code> or the kind of object, e.g.
+	 * <code>DeploymentConfig</code>
+	 * @param verb e.g. <code>deploy</code>, <code>status</code> or <code>add</code>
+	 * @param call the operation
+	 * @return the result of the call
+	 */
+	<T> T record(String kind, String verb, Supplier<T> call);
+
+	default void record(String kind, String verb, Runnable call) {
+		record(kind, verb, () -> {
+			call.run();
+			return null;
+		});
+	}
+
+	/**
+	 * @param phase the final phase of the Build, e.g. <code>Complete</code>
+	 * @param duration in milliseconds, from the Build being requested
+	 */
+	void recordBuild(String phase, long duration);
+
+	/**
+	 * @return an interceptor that records the requests of the
+	 * {@link io.fabric8.openshift.client.OpenShiftClient} to the API server, null to not
+	 * record them
+	 */
+	default Interceptor getApiInterceptor() {
+		return null;
+	}
+
+	/**
+	 * @return metrics that are not recorded anywhere
+	 */
+	static DeployerMetrics noop() {
+		return NoopDeployerMetrics.INSTANCE;
+	}
+
+	/**
+	 * @param factory
+	 * @return the simple name of the object type of the factory, e.g.
+	 * <code>Service</code>, or of the factory itself if the type is not declared
+	 */
+	static String kind(ObjectFactory<?> factory) {
+		Class<?> type = ResolvableType.forClass(factory.getClass())
+				.as(ObjectFactory.class).resolveGeneric(0);
+		if (type == null) {
+			type = ResolvableType.forClass(factory.getClass())
+					.as(AbstractObjectFactory.class).resolveGeneric(0);
+		}
+		if (type == null || type == Object.class) {
+			return factory.getClass().getSimpleName().isEmpty() ? "unknown"
+					: factory.getClass().getSimpleName();
+		}
+		return type.getSimpleName();
+	}
+
+	/**
+	 * See {@link DeployerMetrics#noop()}
+	 */
+	final class NoopDeployerMetrics implements DeployerMetrics {
+
+		private static final DeployerMetrics INSTANCE = new NoopDeployerMetrics();
+
+		private NoopDeployerMetrics() {
+		}
+
+		@Override
+		public <T> T record(String kind, String verb, Supplier<T> call) {
+			return call.get();
+		}
+
+		@Override
+		public void recordBuild(String phase, long duration) {
+		}
+
+	}
+
+}
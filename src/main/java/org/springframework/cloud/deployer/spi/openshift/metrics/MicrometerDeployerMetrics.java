@@ -0,0 +1,65 @@
+package org.springframework.cloud.deployer.spi.openshift.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Interceptor;
+
+/**
+ * Times the operations of the app deployer and task launcher, and the objects they add
+ * and apply, as the <code>openshift.deployer.calls</code> timer. Calls are tagged by
+ * <code>kind</code> (<code>app</code>, <code>task</code> or the kind of object, e.g.
+ * <code>DeploymentConfig</code>), <code>verb</code> (e.g. <code>deploy</code>,
+ * <code>status</code> or <code>add</code>) and <code>outcome</code>
+ * (<code>success</code> or <code>failure</code>).
+ * <p>
+ * The time from requesting a Build to its completion is recorded as the
+ * <code>openshift.deployer.builds</code> timer, tagged by the final <code>phase</code>.
+ * The requests to the API server are timed by {@link OpenShiftApiMetrics}.
+ */
+public class MicrometerDeployerMetrics implements DeployerMetrics {
+
+	public static final String CALLS = "openshift.deployer.calls";
+
+	public static final String BUILDS = "openshift.deployer.builds";
+
+	private final MeterRegistry registry;
+
+	public MicrometerDeployerMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public <T> T record(String kind, String verb, Supplier<T> call) {
+		long start = System.nanoTime();
+		String outcome = "failure";
+		try {
+			T result = call.get();
+			outcome = "success";
+			return result;
+		}
+		finally {
+			timer(kind, verb, outcome).record(System.nanoTime() - start,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public void recordBuild(String phase, long duration) {
+		Timer.builder(BUILDS).tag("phase", phase).register(registry).record(duration,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Interceptor getApiInterceptor() {
+		return new OpenShiftApiMetrics(registry);
+	}
+
+	private Timer timer(String kind, String verb, String outcome) {
+		return Timer.builder(CALLS).tag("kind", kind).tag("verb", verb)
+				.tag("outcome", outcome).register(registry);
+	}
+
+}
@@ -0,0 +1,116 @@
+package org.springframework.cloud.deployer.spi.openshift.metrics;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Times every request the {@link io.fabric8.openshift.client.OpenShiftClient} makes to
+ * the API server, as the <code>openshift.api.requests</code> timer. Requests are tagged
+ * by:
+ * <ul>
+ * <li><code>kind</code>: the resource, and subresource if any, e.g.
+ * <code>deploymentconfigs</code> or <code>buildconfigs/instantiatebinary</code></li>
+ * <li><code>verb</code>: <code>get</code>, <code>list</code>, <code>watch</code>,
+ * <code>create</code>, <code>update</code>, <code>patch</code>, <code>delete</code> or
+ * <code>deletecollection</code></li>
+ * <li><code>outcome</code>: <code>success</code>, <code>client_error</code>,
+ * <code>server_error</code> or <code>io_error</code></li>
+ * </ul>
+ * The time of a watch is the time taken to open it.
+ */
+public class OpenShiftApiMetrics implements Interceptor {
+
+	public static final String REQUESTS = "openshift.api.requests";
+
+	private final MeterRegistry registry;
+
+	public OpenShiftApiMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		long start = System.nanoTime();
+		String outcome = "io_error";
+		try {
+			Response response = chain.proceed(request);
+			outcome = outcome(response.code());
+			return response;
+		}
+		finally {
+			timer(request, outcome).record(System.nanoTime() - start,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private Timer timer(Request request, String outcome) {
+		List<String> resource = resource(request.url());
+		String kind = resource.isEmpty() ? "none"
+				: (resource.size() > 2) ? resource.get(0) + "/" + resource.get(2)
+						: resource.get(0);
+		return Timer.builder(REQUESTS).tag("kind", kind)
+				.tag("verb", verb(request, resource.size() > 1)).tag("outcome", outcome)
+				.register(registry);
+	}
+
+	/**
+	 * @return the resource, name and subresource segments of the path, without the API
+	 * group, version and namespace
+	 */
+	static List<String> resource(HttpUrl url) {
+		List<String> segments = url.pathSegments();
+		int start;
+		if (segments.get(0).equals("api") || segments.get(0).equals("oapi")) {
+			start = 2;
+		}
+		else if (segments.get(0).equals("apis")) {
+			start = 3;
+		}
+		else {
+			return Arrays.asList(segments.get(0));
+		}
+
+		if (segments.size() > start + 2 && segments.get(start).equals("namespaces")) {
+			start += 2;
+		}
+		return segments.subList(Math.min(start, segments.size()), segments.size());
+	}
+
+	private static String verb(Request request, boolean named) {
+		switch (request.method()) {
+		case "GET":
+			if ("true".equals(request.url().queryParameter("watch"))) {
+				return "watch";
+			}
+			return named ? "get" : "list";
+		case "POST":
+			return "create";
+		case "PUT":
+			return "update";
+		case "PATCH":
+			return "patch";
+		case "DELETE":
+			return named ? "delete" : "deletecollection";
+		default:
+			return request.method().toLowerCase();
+		}
+	}
+
+	private static String outcome(int status) {
+		if (status >= 500) {
+			return "server_error";
+		}
+		return (status >= 400) ? "client_error" : "success";
+	}
+
+}
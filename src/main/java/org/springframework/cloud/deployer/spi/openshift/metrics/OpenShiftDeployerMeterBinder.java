@@ -0,0 +1,138 @@
+package org.springframework.cloud.deployer.spi.openshift.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.deployer.spi.openshift.DeploymentProgress;
+import org.springframework.cloud.deployer.spi.openshift.cache.OpenShiftResourceCache;
+import org.springframework.cloud.deployer.spi.openshift.maven.ImagePrebuilder;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildIndex;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildScheduler;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategyCache;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategyCache.Strategy;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildWatcher;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.S2iBinaryUploader;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Binds the state of the components shared by the app deployer and task launcher:
+ * <ul>
+ * <li><code>openshift.deployer.watches.open</code>: the open watches, tagged by
+ * <code>watcher</code></li>
+ * <li><code>openshift.deployer.builds.in.flight</code> and
+ * <code>openshift.deployer.builds.queued</code>: the Builds running and waiting for a
+ * slot in the {@link BuildScheduler}</li>
+ * <li><code>openshift.deployer.builds.started</code>,
+ * <code>openshift.deployer.builds.deduplicated</code> and
+ * <code>openshift.deployer.builds.reclaimed</code></li>
+ * <li><code>openshift.deployer.builds.wait</code>: the time started builds spent
+ * queued</li>
+ * <li><code>openshift.deployer.uploads</code>, <code>.uploads.failed</code> and
+ * <code>.uploads.bytes</code>: the S2I binary uploads</li>
+ * <li><code>openshift.deployer.build.strategy.evaluations</code>: the evaluations of
+ * each candidate build strategy, tagged by <code>strategy</code>, and
+ * <code>openshift.deployer.build.strategy.cache.hit.ratio</code></li>
+ * <li><code>openshift.deployer.prebuilds</code>: the pre-built artifacts, tagged by
+ * <code>state</code></li>
+ * <li><code>openshift.deployer.deployments.async</code>: the asynchronous deployments,
+ * tagged by <code>state</code> (<code>in_progress</code> or <code>failed</code>)</li>
+ * </ul>
+ * The {@link OpenShiftResourceCache} is optional.
+ */
+public class OpenShiftDeployerMeterBinder implements MeterBinder {
+
+	private final BuildWatcher buildWatcher;
+
+	private final BuildIndex buildIndex;
+
+	private final BuildScheduler buildScheduler;
+
+	private final S2iBinaryUploader s2iBinaryUploader;
+
+	private final BuildStrategyCache buildStrategyCache;
+
+	private final ImagePrebuilder imagePrebuilder;
+
+	private final DeploymentProgress deploymentProgress;
+
+	private final OpenShiftResourceCache resourceCache;
+
+	public OpenShiftDeployerMeterBinder(BuildWatcher buildWatcher, BuildIndex buildIndex,
+			BuildScheduler buildScheduler, S2iBinaryUploader s2iBinaryUploader,
+			BuildStrategyCache buildStrategyCache, ImagePrebuilder imagePrebuilder,
+			DeploymentProgress deploymentProgress, OpenShiftResourceCache resourceCache) {
+		this.buildWatcher = buildWatcher;
+		this.buildIndex = buildIndex;
+		this.buildScheduler = buildScheduler;
+		this.s2iBinaryUploader = s2iBinaryUploader;
+		this.buildStrategyCache = buildStrategyCache;
+		this.imagePrebuilder = imagePrebuilder;
+		this.deploymentProgress = deploymentProgress;
+		this.resourceCache = resourceCache;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("openshift.deployer.watches.open", buildWatcher,
+				watcher -> watcher.isWatching() ? 1 : 0).tag("watcher", "build")
+				.register(registry);
+		Gauge.builder("openshift.deployer.watches.open", buildIndex,
+				index -> index.isWatching() ? 1 : 0).tag("watcher", "build-index")
+				.register(registry);
+		if (resourceCache != null) {
+			Gauge.builder("openshift.deployer.watches.open", resourceCache,
+					OpenShiftResourceCache::getOpenWatches)
+					.tag("watcher", "resource-cache").register(registry);
+		}
+
+		Gauge.builder("openshift.deployer.builds.in.flight", buildScheduler,
+				BuildScheduler::getInFlight).register(registry);
+		Gauge.builder("openshift.deployer.builds.queued", buildScheduler,
+				BuildScheduler::getQueueDepth).register(registry);
+		FunctionCounter.builder("openshift.deployer.builds.started", buildScheduler,
+				BuildScheduler::getStartedBuilds).register(registry);
+		FunctionCounter.builder("openshift.deployer.builds.deduplicated",
+				buildScheduler, BuildScheduler::getDeduplicatedBuilds)
+				.register(registry);
+		FunctionTimer.builder("openshift.deployer.builds.wait", buildScheduler,
+				BuildScheduler::getStartedBuilds, BuildScheduler::getWaitTime,
+				TimeUnit.MILLISECONDS).register(registry);
+		FunctionCounter.builder("openshift.deployer.builds.reclaimed", buildScheduler,
+				BuildScheduler::getReclaimedSlots).register(registry);
+
+		FunctionTimer.builder("openshift.deployer.uploads", s2iBinaryUploader,
+				S2iBinaryUploader::getUploads, S2iBinaryUploader::getUploadTime,
+				TimeUnit.MILLISECONDS).register(registry);
+		FunctionCounter.builder("openshift.deployer.uploads.failed", s2iBinaryUploader,
+				S2iBinaryUploader::getFailedUploads).register(registry);
+		FunctionCounter.builder("openshift.deployer.uploads.bytes", s2iBinaryUploader,
+				S2iBinaryUploader::getUploadedBytes).baseUnit("bytes")
+				.register(registry);
+
+		for (Strategy strategy : Strategy.values()) {
+			FunctionTimer.builder("openshift.deployer.build.strategy.evaluations",
+					buildStrategyCache, cache -> cache.getEvaluations(strategy),
+					cache -> cache.getEvaluationTime(strategy), TimeUnit.MILLISECONDS)
+					.tag("strategy", strategy.name().toLowerCase()).register(registry);
+		}
+		Gauge.builder("openshift.deployer.build.strategy.cache.hit.ratio",
+				buildStrategyCache, BuildStrategyCache::getHitRate).register(registry);
+
+		for (ImagePrebuilder.State state : ImagePrebuilder.State.values()) {
+			Gauge.builder("openshift.deployer.prebuilds", imagePrebuilder,
+					prebuilder -> prebuilder.getPrebuilds(state))
+					.tag("state", state.name()).register(registry);
+		}
+
+		Gauge.builder("openshift.deployer.deployments.async", deploymentProgress,
+				DeploymentProgress::getInProgress).tag("state", "in_progress")
+				.register(registry);
+		Gauge.builder("openshift.deployer.deployments.async", deploymentProgress,
+				DeploymentProgress::getFailed).tag("state", "failed").register(registry);
+	}
+
+}
@@ -6,9 +6,13 @@ import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 
 public abstract class AbstractObjectFactory<T> implements ObjectFactory {
 
+	/**
+	 * Create the object, returning the existing object if it already exists.
+	 */
 	@Override
 	public T addObject(AppDeploymentRequest request, String appId) {
-		return getExisting(appId).orElseGet(() -> createObject(request, appId));
+		return OptimisticCreate.create(() -> createObject(request, appId),
+				() -> getExisting(appId).orElseGet(() -> createObject(request, appId)));
 	}
 
 	protected abstract T createObject(AppDeploymentRequest request, String appId);
@@ -1,5 +1,8 @@
 package org.springframework.cloud.deployer.spi.openshift.resources;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 
 public interface ObjectFactory<T> {
@@ -8,4 +11,14 @@ public interface ObjectFactory<T> {
 
 	void applyObject(AppDeploymentRequest request, String appId);
 
+	/**
+	 * The types of factories whose objects must be added before the object of this
+	 * factory can be added. Factories without dependencies on each other may have their
+	 * objects added concurrently (see {@link ObjectFactoryPipeline}).
+	 * @return the factory types this factory depends on
+	 */
+	default Set<Class<? extends ObjectFactory>> getDependencies() {
+		return Collections.emptySet();
+	}
+
 }
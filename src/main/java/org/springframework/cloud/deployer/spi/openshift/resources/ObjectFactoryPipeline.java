@@ -0,0 +1,124 @@
+package org.springframework.cloud.deployer.spi.openshift.resources;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.metrics.DeployerMetrics;
+import org.springframework.cloud.deployer.spi.openshift.timeline.Timeline;
+import org.springframework.cloud.deployer.spi.openshift.timeline.TimelineSpan;
+
+/**
+ * Adds the objects of a list of {@link ObjectFactory}'s concurrently, respecting the
+ * {@link ObjectFactory#getDependencies()} of each factory. Once all objects have been
+ * added, they are applied sequentially in the order of the list, as the applying of an
+ * object (starting a build for example) might rely on the previous object having been
+ * applied.
+ * <p>
+ * Adding and applying each object is timed with the {@link DeployerMetrics}, tagged by
+ * the kind of object, and recorded as a span of the deployment's timeline.
+ */
+public class ObjectFactoryPipeline {
+
+	private final Executor executor;
+
+	private DeployerMetrics metrics = DeployerMetrics.noop();
+
+	public ObjectFactoryPipeline(Executor executor) {
+		this.executor = executor;
+	}
+
+	public void setMetrics(DeployerMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Add and apply the objects of the factories.
+	 * @param factories
+	 * @param request
+	 * @param appId
+	 */
+	public void deploy(List<ObjectFactory> factories, AppDeploymentRequest request,
+			String appId) {
+		deploy(factories, request, appId,
+				Timeline.untracked(appId).start("apply"));
+	}
+
+	/**
+	 * Add and apply the objects of the factories, recording the adding and applying of
+	 * each object as a span nested in the given span.
+	 * @param factories
+	 * @param request
+	 * @param appId
+	 * @param span the phase of the deployment the objects are deployed in
+	 */
+	public void deploy(List<ObjectFactory> factories, AppDeploymentRequest request,
+			String appId, TimelineSpan span) {
+		Map<ObjectFactory, CompletableFuture<Void>> added = new IdentityHashMap<>();
+		for (ObjectFactory factory : factories) {
+			add(factory, factories, added, new HashSet<>(), span, request, appId);
+		}
+
+		try {
+			CompletableFuture.allOf(added.values().toArray(new CompletableFuture[0]))
+					.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+
+		factories.forEach(factory -> record(span, DeployerMetrics.kind(factory), "apply",
+				() -> factory.applyObject(request, appId)));
+	}
+
+	private CompletableFuture<Void> add(ObjectFactory factory,
+			List<ObjectFactory> factories,
+			Map<ObjectFactory, CompletableFuture<Void>> added,
+			Set<ObjectFactory> visiting, TimelineSpan span, AppDeploymentRequest request,
+			String appId) {
+		if (added.containsKey(factory)) {
+			return added.get(factory);
+		}
+		if (!visiting.add(factory)) {
+			throw new IllegalStateException(String.format(
+					"Circular dependency between object factories of '%s': %s", appId,
+					factory.getClass().getSimpleName()));
+		}
+
+		CompletableFuture<?>[] dependencies = factories.stream()
+				.filter(other -> other != factory)
+				.filter(other -> factory.getDependencies().stream()
+						.anyMatch(type -> ((Class<?>) type).isInstance(other)))
+				.map(other -> add(other, factories, added, visiting, span, request,
+						appId))
+				.toArray(CompletableFuture[]::new);
+
+		CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+				.thenRunAsync(() -> record(span, DeployerMetrics.kind(factory), "add",
+						() -> factory.addObject(request, appId)), executor);
+		added.put(factory, future);
+		return future;
+	}
+
+	private void record(TimelineSpan span, String kind, String verb, Runnable call) {
+		TimelineSpan child = span.child(verb + " " + kind);
+		try {
+			metrics.record(kind, verb, call);
+			child.end();
+		}
+		catch (RuntimeException e) {
+			child.fail(e);
+			throw e;
+		}
+	}
+
+}
@@ -0,0 +1,37 @@
+package org.springframework.cloud.deployer.spi.openshift.resources;
+
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+/**
+ * Creates an object without first checking whether it already exists. Only if the create
+ * is rejected with a <code>409 Conflict</code>, because the object does exist, is the
+ * fallback used to update or return the existing object. This saves a round trip for
+ * every object in the common case of a first deployment.
+ */
+public final class OptimisticCreate {
+
+	private static final int CONFLICT = 409;
+
+	private OptimisticCreate() {
+	}
+
+	/**
+	 * @param create creates the object
+	 * @param onConflict invoked if the object already exists
+	 * @return the created object or the result of the fallback
+	 */
+	public static <T> T create(Supplier<T> create, Supplier<T> onConflict) {
+		try {
+			return create.get();
+		}
+		catch (KubernetesClientException e) {
+			if (e.getCode() == CONFLICT) {
+				return onConflict.get();
+			}
+			throw e;
+		}
+	}
+
+}
@@ -1,10 +1,11 @@
 package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
 
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.OptimisticCreate;
 
 import io.fabric8.openshift.api.model.BuildConfig;
 import io.fabric8.openshift.client.OpenShiftClient;
@@ -35,7 +36,6 @@ public abstract class BuildConfigStrategy implements ObjectFactory<BuildConfig>
 		 * issues. Need to investigate if there is a clean way around it. For now, delete
 		 * and recreate...
 		 */
-		buildConfig = client.buildConfigs().createOrReplace(buildConfig);
 		// client.buildConfigs().withName(appId).delete();
 		// client.builds().withLabelIn("spring-app-id", appId).delete();
 		// buildConfig = client.buildConfigs().create(buildConfig);
@@ -44,7 +44,8 @@ public abstract class BuildConfigStrategy implements ObjectFactory<BuildConfig>
 		// buildConfig = client.buildConfigs().create(buildConfig);
 		// }
 
-		return buildConfig;
+		return OptimisticCreate.create(() -> client.buildConfigs().create(buildConfig),
+				() -> client.buildConfigs().createOrReplace(buildConfig));
 	}
 
 	@Override
@@ -53,18 +54,20 @@ public abstract class BuildConfigStrategy implements ObjectFactory<BuildConfig>
 				.instantiate(buildConfigFactory.buildBuildRequest(request, appId));
 	}
 
+	/**
+	 * Start a build of the BuildConfig. By default the build is started synchronously by
+	 * {@link #applyObject(AppDeploymentRequest, String)}. Strategies that start builds
+	 * asynchronously return a future that completes once the build has been started.
+	 * @param request
+	 * @param appId
+	 * @return a future that completes once the build has been started
+	 */
+	public CompletableFuture<?> startBuild(AppDeploymentRequest request, String appId) {
+		applyObject(request, appId);
+		return CompletableFuture.completedFuture(null);
+	}
+
 	protected abstract BuildConfig buildBuildConfig(AppDeploymentRequest request,
 			String appId, Map<String, String> labels);
 
-	protected Optional<BuildConfig> getExisting(String name) {
-		//@formatter:off
-		BuildConfig value = client.buildConfigs()
-                .withName(name)
-                .fromServer()
-                .get();
-
-		return Optional.ofNullable(value);
-		//@formatter:on
-	}
-
 }
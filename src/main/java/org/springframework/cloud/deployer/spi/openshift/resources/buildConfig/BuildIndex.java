@@ -0,0 +1,219 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildList;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * An index of the Builds of each app by their build id, i.e. the hash of the resource
+ * that was built. Builds are identified by the {@link #SPRING_BUILD_ID_KEY} label, which
+ * is added to the BuildConfig (and therefore copied to every Build of that BuildConfig)
+ * regardless of the build strategy.
+ * <p>
+ * The index is populated by listing all labelled Builds on first use and kept up to date
+ * by a watch on the same Builds. Should the watch be closed, the index is populated again
+ * on the next lookup. If the Builds cannot be listed or watched, lookups fall back to a
+ * label selector query for the specific app and build id.
+ */
+public class BuildIndex implements Watcher<Build>, Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(BuildIndex.class);
+
+	/**
+	 * The label containing the hash of the resource that was built.
+	 */
+	public static final String SPRING_BUILD_ID_KEY = "spring-build-id";
+
+	/**
+	 * See
+	 * {@link org.springframework.cloud.deployer.spi.kubernetes.AbstractKubernetesDeployer#SPRING_APP_KEY}
+	 */
+	private static String SPRING_APP_KEY = "spring-app-id";
+
+	/**
+	 * Phases of Builds that did not, and will not, produce an image.
+	 */
+	private static final List<String> UNSUCCESSFUL_PHASES = Arrays.asList("Failed",
+			"Error", "Cancelled");
+
+	private final OpenShiftClient client;
+
+	private volatile ConcurrentMap<Key, Set<String>> builds;
+
+	private Watch watch;
+
+	public BuildIndex(OpenShiftClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * Add the {@link #SPRING_BUILD_ID_KEY} label to the labels of a BuildConfig.
+	 * @param labels the labels of the BuildConfig
+	 * @param buildId the hash of the resource to build
+	 * @return a copy of the labels including the build id
+	 */
+	public static Map<String, String> withBuildId(Map<String, String> labels,
+			String buildId) {
+		Map<String, String> buildLabels = new HashMap<>(labels);
+		buildLabels.put(SPRING_BUILD_ID_KEY, buildId);
+		return buildLabels;
+	}
+
+	/**
+	 * @param appId
+	 * @param buildId the hash of the resource
+	 * @return whether there is a Build of the app for the given build id that is not
+	 * failed, errored or cancelled
+	 */
+	public boolean exists(String appId, String buildId) {
+		ConcurrentMap<Key, Set<String>> index = index();
+		if (index == null) {
+			//@formatter:off
+			return client.builds()
+				.withLabel(SPRING_APP_KEY, appId)
+				.withLabel(SPRING_BUILD_ID_KEY, buildId)
+				.list()
+				.getItems().stream()
+				.anyMatch(this::isSuccessful);
+			//@formatter:on
+		}
+
+		Set<String> names = index.get(new Key(appId, buildId));
+		return names != null && !names.isEmpty();
+	}
+
+	/**
+	 * @return whether the index is populated and kept up to date by a watch
+	 */
+	public synchronized boolean isWatching() {
+		return watch != null;
+	}
+
+	@Override
+	public void eventReceived(Action action, Build build) {
+		ConcurrentMap<Key, Set<String>> index = builds;
+		Key key = key(build);
+		if (index == null || key == null) {
+			return;
+		}
+
+		String name = build.getMetadata().getName();
+		if (action == Action.DELETED || !isSuccessful(build)) {
+			index.computeIfPresent(key, (k, names) -> {
+				names.remove(name);
+				return names.isEmpty() ? null : names;
+			});
+		}
+		else {
+			index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(name);
+		}
+	}
+
+	@Override
+	public synchronized void onClose(KubernetesClientException cause) {
+		logger.debug("Build index watch closed, it will be repopulated on next lookup");
+		watch = null;
+		builds = null;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (watch != null) {
+			Watch current = watch;
+			watch = null;
+			current.close();
+		}
+		builds = null;
+	}
+
+	private synchronized ConcurrentMap<Key, Set<String>> index() {
+		if (builds != null) {
+			return builds;
+		}
+
+		try {
+			BuildList buildList = client.builds().withLabel(SPRING_BUILD_ID_KEY).list();
+			ConcurrentMap<Key, Set<String>> index = new ConcurrentHashMap<>();
+			buildList.getItems().stream()
+					.filter(build -> isSuccessful(build) && key(build) != null)
+					.forEach(build -> index
+							.computeIfAbsent(key(build),
+									k -> ConcurrentHashMap.newKeySet())
+							.add(build.getMetadata().getName()));
+			builds = index;
+
+			watch = client.builds().withLabel(SPRING_BUILD_ID_KEY)
+					.watch(buildList.getMetadata().getResourceVersion(), this);
+			logger.trace("Indexed {} builds", buildList.getItems().size());
+		}
+		catch (KubernetesClientException e) {
+			logger.warn("Could not index builds, querying builds instead: {}",
+					e.getMessage());
+			builds = null;
+		}
+
+		return builds;
+	}
+
+	private boolean isSuccessful(Build build) {
+		return build.getStatus() == null
+				|| !UNSUCCESSFUL_PHASES.contains(build.getStatus().getPhase());
+	}
+
+	private Key key(Build build) {
+		Map<String, String> labels = build.getMetadata().getLabels();
+		if (labels == null || !labels.containsKey(SPRING_APP_KEY)
+				|| !labels.containsKey(SPRING_BUILD_ID_KEY)) {
+			return null;
+		}
+
+		return new Key(labels.get(SPRING_APP_KEY), labels.get(SPRING_BUILD_ID_KEY));
+	}
+
+	private static class Key {
+
+		private final String appId;
+
+		private final String buildId;
+
+		Key(String appId, String buildId) {
+			this.appId = appId;
+			this.buildId = buildId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key key = (Key) o;
+			return appId.equals(key.appId) && buildId.equals(key.buildId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(appId, buildId);
+		}
+
+	}
+
+}
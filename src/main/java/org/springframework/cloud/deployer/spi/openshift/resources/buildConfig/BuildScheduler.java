@@ -0,0 +1,383 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.WatchingBuildConfigStrategy.OnCompletedCallback;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildConfig;
+
+/**
+ * Caps the number of Builds in flight, across all apps and tasks deployed to the
+ * namespace of the {@link BuildWatcher}'s client. Builds beyond the cap are queued and
+ * started in the order they were scheduled, as in-flight Builds complete, fail or are
+ * cancelled, or are deleted.
+ * <p>
+ * Should a Build never be seen to finish, e.g. because it was deleted while the watch was
+ * down, its slot is reclaimed once it has been held for the build slot timeout, so that
+ * queued builds are not blocked forever.
+ * <p>
+ * A build that is scheduled while an identical build, i.e. of the same app and artifact,
+ * is already queued or in flight is not started again. Instead, the caller shares the
+ * outcome of the first. With content addressed images, the "app" is the shared image, so
+ * apps deployed from the same artifact share a single build.
+ * <p>
+ * The queue depth, number of in-flight Builds and time spent queued are recorded.
+ */
+public class BuildScheduler implements Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(BuildScheduler.class);
+
+	private static final Set<String> TERMINAL_PHASES = new HashSet<>(
+			Arrays.asList("Complete", "Failed", "Error", "Cancelled"));
+
+	private final BuildWatcher buildWatcher;
+
+	private final int maxConcurrentBuilds;
+
+	private final long buildSlotTimeout;
+
+	private final ScheduledExecutorService timeoutExecutor;
+
+	private final Queue<ScheduledBuild> queue = new ArrayDeque<>();
+
+	private final Map<String, ScheduledBuild> scheduled = new HashMap<>();
+
+	private int inFlight;
+
+	private final AtomicLong startedBuilds = new AtomicLong();
+
+	private final AtomicLong deduplicatedBuilds = new AtomicLong();
+
+	private final AtomicLong waitTime = new AtomicLong();
+
+	private final AtomicLong reclaimedSlots = new AtomicLong();
+
+	/**
+	 * @param buildWatcher used to detect when in-flight Builds are done
+	 * @param maxConcurrentBuilds the maximum number of Builds in flight, 0 for no limit
+	 */
+	public BuildScheduler(BuildWatcher buildWatcher, int maxConcurrentBuilds) {
+		this(buildWatcher, maxConcurrentBuilds, 0);
+	}
+
+	/**
+	 * @param buildWatcher used to detect when in-flight Builds are done
+	 * @param maxConcurrentBuilds the maximum number of Builds in flight, 0 for no limit
+	 * @param buildSlotTimeout the time, in milliseconds, after which the slot of a Build
+	 * that was not seen to finish is reclaimed, 0 for no timeout
+	 */
+	public BuildScheduler(BuildWatcher buildWatcher, int maxConcurrentBuilds,
+			long buildSlotTimeout) {
+		this.buildWatcher = buildWatcher;
+		this.maxConcurrentBuilds = maxConcurrentBuilds;
+		this.buildSlotTimeout = buildSlotTimeout;
+		this.timeoutExecutor = (buildSlotTimeout > 0)
+				? Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+						.setNameFormat("openshift-build-slot-timeout-%d").setDaemon(true)
+						.build())
+				: null;
+	}
+
+	/**
+	 * Schedule a build of the app. The build is started by the supplier, once there is
+	 * capacity.
+	 * @param appId the app (BuildConfig) to build
+	 * @param buildId the <code>spring-build-id</code> label of the Builds of the app, see
+	 * {@link BuildIndex#SPRING_BUILD_ID_KEY}
+	 * @param startBuild starts the build, see
+	 * {@link BuildConfigStrategy#startBuild(AppDeploymentRequest, String)}
+	 * @return a future that completes once the build has been started
+	 */
+	public CompletableFuture<?> schedule(String appId, String buildId,
+			Supplier<CompletableFuture<?>> startBuild) {
+		List<ScheduledBuild> startable;
+		ScheduledBuild scheduledBuild;
+		synchronized (this) {
+			String key = appId + ":" + buildId;
+			ScheduledBuild existing = scheduled.get(key);
+			if (existing != null) {
+				logger.debug("Build '{}' of '{}' is already scheduled", buildId, appId);
+				deduplicatedBuilds.incrementAndGet();
+				return existing.started;
+			}
+
+			scheduledBuild = new ScheduledBuild(key, appId, buildId, startBuild);
+			scheduled.put(key, scheduledBuild);
+			queue.add(scheduledBuild);
+			startable = dequeue();
+		}
+
+		if (!startable.contains(scheduledBuild)) {
+			logger.info("Build of '{}' queued, {} builds already in flight", appId,
+					maxConcurrentBuilds);
+		}
+		startable.forEach(this::start);
+		return scheduledBuild.started;
+	}
+
+	/**
+	 * Wrap a build strategy, so that its builds are scheduled rather than started
+	 * immediately.
+	 * @param buildConfigStrategy
+	 * @param buildId
+	 * @return the scheduled build strategy
+	 */
+	public BuildConfigStrategy scheduled(BuildConfigStrategy buildConfigStrategy,
+			String buildId) {
+		return new ScheduledBuildConfigStrategy(buildConfigStrategy, buildId);
+	}
+
+	/**
+	 * @return the number of builds waiting to be started
+	 */
+	public synchronized int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * @return the number of Builds started and not yet done
+	 */
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * @return the number of builds started
+	 */
+	public long getStartedBuilds() {
+		return startedBuilds.get();
+	}
+
+	/**
+	 * @return the number of builds not started because an identical build was already
+	 * scheduled
+	 */
+	public long getDeduplicatedBuilds() {
+		return deduplicatedBuilds.get();
+	}
+
+	/**
+	 * @return the total time, in milliseconds, started builds spent queued
+	 */
+	public long getWaitTime() {
+		return waitTime.get();
+	}
+
+	/**
+	 * @return the number of slots reclaimed because their Build was not seen to finish
+	 * within the build slot timeout
+	 */
+	public long getReclaimedSlots() {
+		return reclaimedSlots.get();
+	}
+
+	@Override
+	public void close() {
+		if (timeoutExecutor != null) {
+			timeoutExecutor.shutdownNow();
+		}
+	}
+
+	private List<ScheduledBuild> dequeue() {
+		List<ScheduledBuild> startable = new ArrayList<>();
+		while (!queue.isEmpty()
+				&& (maxConcurrentBuilds <= 0 || inFlight < maxConcurrentBuilds)) {
+			ScheduledBuild scheduledBuild = queue.poll();
+			inFlight++;
+			startable.add(scheduledBuild);
+		}
+		return startable;
+	}
+
+	private void start(ScheduledBuild scheduledBuild) {
+		startedBuilds.incrementAndGet();
+		waitTime.addAndGet(System.currentTimeMillis() - scheduledBuild.scheduledAt);
+
+		scheduledBuild.watch = buildWatcher.register(scheduledBuild.appId,
+				new OnCompletedCallback<Build>() {
+
+					@Override
+					public void callback(Build build, Watch watch) {
+						if (scheduledBuild.isDone(build)) {
+							release(scheduledBuild);
+						}
+					}
+
+					@Override
+					public void deleted(Build build, Watch watch) {
+						if (scheduledBuild.isBuild(build)) {
+							logger.info("Build '{}' of '{}' was deleted, releasing its slot",
+									build.getMetadata().getName(), scheduledBuild.appId);
+							release(scheduledBuild);
+						}
+					}
+
+				});
+		if (timeoutExecutor != null) {
+			scheduledBuild.timeout = timeoutExecutor.schedule(() -> reclaim(scheduledBuild),
+					buildSlotTimeout, TimeUnit.MILLISECONDS);
+		}
+
+		CompletableFuture<?> started;
+		try {
+			started = scheduledBuild.startBuild.get();
+		}
+		catch (RuntimeException e) {
+			started = new CompletableFuture<>();
+			started.completeExceptionally(e);
+		}
+
+		started.whenComplete((result, e) -> {
+			if (e != null) {
+				release(scheduledBuild);
+				scheduledBuild.started.completeExceptionally(e);
+			}
+			else {
+				scheduledBuild.started.complete(result);
+			}
+		});
+	}
+
+	private void reclaim(ScheduledBuild scheduledBuild) {
+		synchronized (this) {
+			if (scheduledBuild.released) {
+				return;
+			}
+		}
+
+		logger.warn("Build '{}' of '{}' not seen to finish within {}ms, reclaiming its slot",
+				scheduledBuild.buildId, scheduledBuild.appId, buildSlotTimeout);
+		reclaimedSlots.incrementAndGet();
+		release(scheduledBuild);
+	}
+
+	private void release(ScheduledBuild scheduledBuild) {
+		List<ScheduledBuild> startable;
+		synchronized (this) {
+			if (scheduledBuild.released) {
+				return;
+			}
+
+			scheduledBuild.released = true;
+			inFlight--;
+			scheduled.remove(scheduledBuild.key, scheduledBuild);
+			startable = dequeue();
+		}
+
+		if (scheduledBuild.timeout != null) {
+			scheduledBuild.timeout.cancel(false);
+		}
+		scheduledBuild.watch.close();
+		startable.forEach(this::start);
+	}
+
+	private static class ScheduledBuild {
+
+		private final String key;
+
+		private final String appId;
+
+		private final String buildId;
+
+		private final Supplier<CompletableFuture<?>> startBuild;
+
+		private final long scheduledAt = System.currentTimeMillis();
+
+		private final CompletableFuture<Object> started = new CompletableFuture<>();
+
+		private volatile Watch watch;
+
+		private volatile ScheduledFuture<?> timeout;
+
+		private boolean released;
+
+		ScheduledBuild(String key, String appId, String buildId,
+				Supplier<CompletableFuture<?>> startBuild) {
+			this.key = key;
+			this.appId = appId;
+			this.buildId = buildId;
+			this.startBuild = startBuild;
+		}
+
+		boolean isBuild(Build build) {
+			Map<String, String> labels = build.getMetadata().getLabels();
+			return labels != null
+					&& buildId.equals(labels.get(BuildIndex.SPRING_BUILD_ID_KEY));
+		}
+
+		boolean isDone(Build build) {
+			return build.getStatus() != null
+					&& TERMINAL_PHASES.contains(build.getStatus().getPhase())
+					&& isBuild(build);
+		}
+
+	}
+
+	private class ScheduledBuildConfigStrategy extends BuildConfigStrategy {
+
+		private final BuildConfigStrategy buildConfigStrategy;
+
+		private final String buildId;
+
+		ScheduledBuildConfigStrategy(BuildConfigStrategy buildConfigStrategy,
+				String buildId) {
+			super(null, null, null);
+			this.buildConfigStrategy = buildConfigStrategy;
+			this.buildId = buildId;
+		}
+
+		@Override
+		public BuildConfig addObject(AppDeploymentRequest request, String appId) {
+			return buildConfigStrategy.addObject(request, appId);
+		}
+
+		@Override
+		public void applyObject(AppDeploymentRequest request, String appId) {
+			startBuild(request, appId);
+		}
+
+		@Override
+		public CompletableFuture<?> startBuild(AppDeploymentRequest request,
+				String appId) {
+			return schedule(appId, buildId,
+					() -> buildConfigStrategy.startBuild(request, appId));
+		}
+
+		@Override
+		protected BuildConfig buildBuildConfig(AppDeploymentRequest request, String appId,
+				Map<String, String> labels) {
+			return buildConfigStrategy.buildBuildConfig(request, appId, labels);
+		}
+
+		@Override
+		public Set<Class<? extends ObjectFactory>> getDependencies() {
+			return buildConfigStrategy.getDependencies();
+		}
+
+	}
+
+}
@@ -13,12 +13,18 @@ import org.springframework.cloud.deployer.spi.openshift.OpenShiftMavenDeployment
 import org.springframework.cloud.deployer.spi.openshift.ResourceHash;
 import org.springframework.cloud.deployer.spi.openshift.maven.GitReference;
 import org.springframework.cloud.deployer.spi.openshift.maven.MavenResourceJarExtractor;
+import org.springframework.cloud.deployer.spi.openshift.maven.MavenResourceProjectExtractor;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategyCache.Decision;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategyCache.Strategy;
+import org.springframework.cloud.deployer.spi.openshift.timeline.Timeline;
 import org.springframework.core.io.Resource;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
 
 public class BuildStrategies {
 
@@ -34,105 +40,222 @@ public class BuildStrategies {
 
 	private OpenShiftClient client;
 
+	private S2iBinaryUploader s2iBinaryUploader;
+
+	private MavenResourceProjectExtractor mavenResourceProjectExtractor;
+
+	private BuildStrategyCache buildStrategyCache;
+
+	private Timeline timeline;
+
 	public BuildStrategies(MavenProperties mavenProperties,
 			OpenShiftDeployerProperties deployerProperties,
 			MavenResourceJarExtractor mavenResourceJarExtractor,
 			ResourceHash resourceHash, OpenShiftClient client) {
+		this(mavenProperties, deployerProperties, mavenResourceJarExtractor, resourceHash,
+				client, null);
+	}
+
+	public BuildStrategies(MavenProperties mavenProperties,
+			OpenShiftDeployerProperties deployerProperties,
+			MavenResourceJarExtractor mavenResourceJarExtractor,
+			ResourceHash resourceHash, OpenShiftClient client,
+			S2iBinaryUploader s2iBinaryUploader) {
+		this(mavenProperties, deployerProperties, mavenResourceJarExtractor, resourceHash,
+				client, s2iBinaryUploader, new MavenResourceProjectExtractor());
+	}
+
+	public BuildStrategies(MavenProperties mavenProperties,
+			OpenShiftDeployerProperties deployerProperties,
+			MavenResourceJarExtractor mavenResourceJarExtractor,
+			ResourceHash resourceHash, OpenShiftClient client,
+			S2iBinaryUploader s2iBinaryUploader,
+			MavenResourceProjectExtractor mavenResourceProjectExtractor) {
+		this(mavenProperties, deployerProperties, mavenResourceJarExtractor, resourceHash,
+				client, s2iBinaryUploader, mavenResourceProjectExtractor, null);
+	}
+
+	/**
+	 * @param buildStrategyCache remembers the strategy chosen per artifact, may be null
+	 */
+	public BuildStrategies(MavenProperties mavenProperties,
+			OpenShiftDeployerProperties deployerProperties,
+			MavenResourceJarExtractor mavenResourceJarExtractor,
+			ResourceHash resourceHash, OpenShiftClient client,
+			S2iBinaryUploader s2iBinaryUploader,
+			MavenResourceProjectExtractor mavenResourceProjectExtractor,
+			BuildStrategyCache buildStrategyCache) {
 		this.mavenProperties = mavenProperties;
 		this.deployerProperties = deployerProperties;
 		this.mavenResourceJarExtractor = mavenResourceJarExtractor;
 		this.resourceHash = resourceHash;
 		this.client = client;
+		this.s2iBinaryUploader = s2iBinaryUploader;
+		this.mavenResourceProjectExtractor = mavenResourceProjectExtractor;
+		this.buildStrategyCache = buildStrategyCache;
 	}
 
+	/**
+	 * Choose the first applicable build strategy. The candidates are evaluated lazily, in
+	 * the order of {@link Strategy}, so that the more expensive probing of the artifact
+	 * is only done if the preceding candidates don't apply. If a
+	 * {@link BuildStrategyCache} is provided and the same artifact was deployed before
+	 * with the same build related properties, the strategy is created from the cached
+	 * {@link Decision} without evaluating any candidate.
+	 */
 	public BuildConfigStrategy chooseBuildStrategy(AppDeploymentRequest request,
 			Map<String, String> labels, MavenResource mavenResource) {
-		Map<String, String> applicationProperties = request.getDefinition()
-				.getProperties();
+		if (buildStrategyCache == null) {
+			return Arrays.stream(Strategy.values())
+					.map(strategy -> decide(strategy, request, mavenResource))
+					.filter(Optional::isPresent).findFirst().get()
+					.map(decision -> create(decision, request, labels, mavenResource))
+					.get();
+		}
+
+		List<String> key = decisionKey(request, mavenResource);
+		Optional<Decision> cached = buildStrategyCache.get(key);
+		if (cached.isPresent()) {
+			return create(cached.get(), request, labels, mavenResource);
+		}
 
-		return Stream.of(
-				dockerfileFromProvidedGitRepoBuildConfig(applicationProperties, labels),
-				dockerfileFromRemoteGitRepoBuildConfig(
-						new OpenShiftMavenDeploymentRequest(request, mavenProperties),
-						mavenResource, request, labels),
-				dockerfileBuildConfig(request, labels)).filter(Optional::isPresent)
-				.findFirst().orElse(Optional.of(new S2iBinaryInputBuildConfigStrategy(
-						deployerProperties, client, labels, mavenResource)))
-				.get();
+		for (Strategy strategy : Strategy.values()) {
+			Optional<Decision> decision = buildStrategyCache.evaluate(strategy,
+					() -> decide(strategy, request, mavenResource));
+			if (decision.isPresent()) {
+				buildStrategyCache.put(key, decision.get());
+				return create(decision.get(), request, labels, mavenResource);
+			}
+		}
+
+		throw new IllegalStateException("No build strategy applies");
 	}
 
-	private Optional<BuildConfigStrategy> dockerfileFromProvidedGitRepoBuildConfig(
-			Map<String, String> applicationProperties, Map<String, String> labels) {
-		Optional<BuildConfigStrategy> buildConfigFactory = Optional.empty();
+	/**
+	 * @param timeline records the extraction of the POM and the upload of the binary
+	 * input, may be null
+	 */
+	public void setTimeline(Timeline timeline) {
+		this.timeline = timeline;
+	}
 
-		if (applicationProperties.containsKey(
+	/**
+	 * @return the decision to use the strategy, if it applies to the request
+	 */
+	private Optional<Decision> decide(Strategy strategy, AppDeploymentRequest request,
+			MavenResource mavenResource) {
+		switch (strategy) {
+		case PROVIDED_GIT:
+			return providedGitReference(request.getDefinition().getProperties())
+					.map(gitReference -> new Decision(strategy, gitReference));
+		case REMOTE_GIT:
+			return remoteGitReference(mavenResource, request)
+					.map(gitReference -> new Decision(strategy, gitReference));
+		case DOCKERFILE:
+			return request.getDeploymentProperties().containsKey(
+					OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_DOCKERFILE)
+							? Optional.of(new Decision(strategy, null))
+							: Optional.empty();
+		default:
+			return Optional.of(new Decision(strategy, null));
+		}
+	}
+
+	private BuildConfigStrategy create(Decision decision, AppDeploymentRequest request,
+			Map<String, String> labels, MavenResource mavenResource) {
+		switch (decision.getStrategy()) {
+		case PROVIDED_GIT:
+		case REMOTE_GIT:
+			return new GitWithDockerBuildConfigStrategy(
+					new MavenBuildConfigFactory(deployerProperties, resourceHash,
+							mavenProperties),
+					decision.getGitReference(), deployerProperties, client, labels);
+		case DOCKERFILE:
+			return new MavenDockerfileWithDockerBuildConfigStrategy(
+					new MavenBuildConfigFactory(deployerProperties, resourceHash,
+							mavenProperties),
+					deployerProperties, client, labels);
+		default:
+			S2iBinaryInputBuildConfigStrategy s2iStrategy = new S2iBinaryInputBuildConfigStrategy(
+					deployerProperties, client, labels, mavenResource, s2iBinaryUploader,
+					isLayered(request) ? new LayeredBinaryInput(client) : null);
+			s2iStrategy.setTimeline(timeline);
+			return s2iStrategy;
+		}
+	}
+
+	private Optional<GitReference> providedGitReference(
+			Map<String, String> applicationProperties) {
+		if (!applicationProperties.containsKey(
 				OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_URI_PROPERTY)) {
-			String gitUri = applicationProperties.get(
-					OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_URI_PROPERTY);
-			String gitReferenceProperty = applicationProperties.getOrDefault(
-					OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_REF_PROPERTY,
-					"master");
-			GitReference gitReference = new GitReference(gitUri, gitReferenceProperty);
-			MavenBuildConfigFactory mavenBuildConfigFactory = new MavenBuildConfigFactory(
-					deployerProperties, resourceHash, mavenProperties);
-			buildConfigFactory = Optional
-					.of(new GitWithDockerBuildConfigStrategy(mavenBuildConfigFactory,
-							gitReference, deployerProperties, client, labels));
+			return Optional.empty();
 		}
 
-		return buildConfigFactory;
+		String gitUri = applicationProperties
+				.get(OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_URI_PROPERTY);
+		String gitReferenceProperty = applicationProperties.getOrDefault(
+				OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_REF_PROPERTY,
+				"master");
+		return Optional.of(new GitReference(gitUri, gitReferenceProperty));
 	}
 
 	/**
 	 * check the Maven artifact Jar for the presence of `src/main/docker/Dockerfile`, if
 	 * it exists, it is an indication/assumption that the Dockerfile is present in a
 	 * remote Git repository. OpenShift will use the actual remote repository as a Git
-	 * Repository source.
+	 * Repository source. The jar is checked before the POM, as that is cheaper.
 	 */
-	private Optional<BuildConfigStrategy> dockerfileFromRemoteGitRepoBuildConfig(
-			OpenShiftMavenDeploymentRequest openShiftRequest, Resource mavenResource,
-			AppDeploymentRequest request, Map<String, String> labels) {
-		Optional<BuildConfigStrategy> buildConfigFactory = Optional.empty();
-
-		GitReference gitReference = openShiftRequest.getGitReference();
+	private Optional<GitReference> remoteGitReference(Resource mavenResource,
+			AppDeploymentRequest request) {
 		try {
-			if (openShiftRequest.isMavenProjectExtractable() && mavenResourceJarExtractor
-					.extractFile(mavenResource, dockerfileLocation(request))
-					.isPresent()) {
-				/**
-				 * extract Git URI and ref from <scm><connection>...</connection></scm>
-				 * and <scm><tag>...</tag></scm> by parsing the Maven POM and use those
-				 * values (as a {@link GitReference}) with Git Repository source strategy:
-				 * https://docs.openshift.org/latest/dev_guide/builds.html#source-code
-				 */
-				MavenBuildConfigFactory mavenBuildConfigFactory = new MavenBuildConfigFactory(
-						deployerProperties, resourceHash, mavenProperties);
-				buildConfigFactory = Optional
-						.of(new GitWithDockerBuildConfigStrategy(mavenBuildConfigFactory,
-								gitReference, deployerProperties, client, labels));
+			if (mavenResourceJarExtractor.containsEntry(mavenResource,
+					dockerfileLocation(request))) {
+				Supplier<OpenShiftMavenDeploymentRequest> extractPom = () -> new OpenShiftMavenDeploymentRequest(
+						request, mavenResourceProjectExtractor, mavenProperties);
+				OpenShiftMavenDeploymentRequest openShiftRequest = (timeline != null)
+						? timeline.record("extract-pom", extractPom) : extractPom.get();
+				if (openShiftRequest.isMavenProjectExtractable()) {
+					/**
+					 * extract Git URI and ref from
+					 * <scm><connection>...</connection></scm> and
+					 * <scm><tag>...</tag></scm> by parsing the Maven POM and use those
+					 * values (as a {@link GitReference}) with Git Repository source
+					 * strategy:
+					 * https://docs.openshift.org/latest/dev_guide/builds.html#source-code
+					 */
+					return Optional.of(openShiftRequest.getGitReference());
+				}
 			}
 		}
 		catch (IOException e) {
 			logger.error("Could not extract Git URI from Maven artifact", e);
 		}
 
-		return buildConfigFactory;
+		return Optional.empty();
 	}
 
-	private Optional<BuildConfigStrategy> dockerfileBuildConfig(
-			AppDeploymentRequest request, Map<String, String> labels) {
-		Optional<BuildConfigStrategy> buildConfigFactory = Optional.empty();
-
-		if (request.getDeploymentProperties().containsKey(
-				OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_DOCKERFILE)) {
-			MavenBuildConfigFactory mavenBuildConfigFactory = new MavenBuildConfigFactory(
-					deployerProperties, resourceHash, mavenProperties);
-			buildConfigFactory = Optional
-					.of(new MavenDockerfileWithDockerBuildConfigStrategy(
-							mavenBuildConfigFactory, deployerProperties, client, labels));
-		}
+	/**
+	 * The artifact hash and the values of the properties that determine which strategy
+	 * applies.
+	 */
+	private List<String> decisionKey(AppDeploymentRequest request,
+			MavenResource mavenResource) {
+		Map<String, String> applicationProperties = request.getDefinition()
+				.getProperties();
+		return Arrays.asList(resourceHash.hashResource(mavenResource),
+				applicationProperties.get(
+						OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_URI_PROPERTY),
+				applicationProperties.get(
+						OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_REF_PROPERTY),
+				dockerfileLocation(request), request.getDeploymentProperties().get(
+						OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_DOCKERFILE));
+	}
 
-		return buildConfigFactory;
+	private boolean isLayered(AppDeploymentRequest request) {
+		String layered = request.getDeploymentProperties()
+				.get(OpenShiftDeploymentPropertyKeys.OPENSHIFT_S2I_LAYERED);
+		return (layered != null) ? Boolean.parseBoolean(layered)
+				: deployerProperties.isS2iLayeredBinaryInput();
 	}
 
 	/**
@@ -0,0 +1,157 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.cloud.deployer.spi.openshift.maven.GitReference;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Remembers which build strategy was chosen for an artifact, along with what probing the
+ * artifact found, so that redeploying the same artifact, with the same build related
+ * properties, creates that strategy without probing any candidate.
+ * <p>
+ * The number of evaluations of, and the total time spent evaluating, each strategy are
+ * recorded, along with the hit rate of the cache.
+ */
+public class BuildStrategyCache {
+
+	/**
+	 * The candidate build strategies, in the order they are evaluated.
+	 */
+	public enum Strategy {
+
+		/**
+		 * A Dockerfile in a Git repository provided as an application property.
+		 */
+		PROVIDED_GIT,
+
+		/**
+		 * A Dockerfile in the Git repository referenced by the SCM details in the POM.
+		 */
+		REMOTE_GIT,
+
+		/**
+		 * A Dockerfile provided as a deployment property.
+		 */
+		DOCKERFILE,
+
+		/**
+		 * An S2I build with the artifact as binary input.
+		 */
+		S2I_BINARY
+
+	}
+
+	/**
+	 * A chosen strategy and the Git repository it builds from, if any.
+	 */
+	public static class Decision {
+
+		private final Strategy strategy;
+
+		private final GitReference gitReference;
+
+		public Decision(Strategy strategy, GitReference gitReference) {
+			this.strategy = strategy;
+			this.gitReference = gitReference;
+		}
+
+		public Strategy getStrategy() {
+			return strategy;
+		}
+
+		/**
+		 * @return the Git repository of the {@link Strategy#PROVIDED_GIT} and
+		 * {@link Strategy#REMOTE_GIT} strategies, otherwise null
+		 */
+		public GitReference getGitReference() {
+			return gitReference;
+		}
+
+	}
+
+	private final Cache<List<String>, Decision> decisions;
+
+	private final Map<Strategy, AtomicLong> evaluations = new EnumMap<>(Strategy.class);
+
+	private final Map<Strategy, AtomicLong> evaluationTimes = new EnumMap<>(
+			Strategy.class);
+
+	public BuildStrategyCache() {
+		this(100);
+	}
+
+	/**
+	 * @param cacheSize the maximum number of decisions cached
+	 */
+	public BuildStrategyCache(long cacheSize) {
+		this.decisions = CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats()
+				.build();
+		for (Strategy strategy : Strategy.values()) {
+			evaluations.put(strategy, new AtomicLong());
+			evaluationTimes.put(strategy, new AtomicLong());
+		}
+	}
+
+	/**
+	 * @param key the artifact hash and the values of the build related properties
+	 * @return the decision made for the key, if any
+	 */
+	public Optional<Decision> get(List<String> key) {
+		return Optional.ofNullable(decisions.getIfPresent(key));
+	}
+
+	public void put(List<String> key, Decision decision) {
+		decisions.put(key, decision);
+	}
+
+	/**
+	 * Evaluate a candidate strategy, recording the time taken.
+	 * @param strategy
+	 * @param candidate
+	 * @return the decision to use the strategy, if the candidate applies
+	 */
+	public Optional<Decision> evaluate(Strategy strategy,
+			Supplier<Optional<Decision>> candidate) {
+		long start = System.nanoTime();
+		try {
+			return candidate.get();
+		}
+		finally {
+			evaluations.get(strategy).incrementAndGet();
+			evaluationTimes.get(strategy).addAndGet(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * @return the ratio of lookups that found a decision, or 1.0 if there were no lookups
+	 */
+	public double getHitRate() {
+		return decisions.stats().hitRate();
+	}
+
+	/**
+	 * @param strategy
+	 * @return the number of times the strategy was evaluated
+	 */
+	public long getEvaluations(Strategy strategy) {
+		return evaluations.get(strategy).get();
+	}
+
+	/**
+	 * @param strategy
+	 * @return the total time, in milliseconds, spent evaluating the strategy
+	 */
+	public long getEvaluationTime(Strategy strategy) {
+		return TimeUnit.NANOSECONDS.toMillis(evaluationTimes.get(strategy).get());
+	}
+
+}
@@ -0,0 +1,282 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.WatchingBuildConfigStrategy.OnCompletedCallback;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildList;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * A single, namespace level watch on all Builds created by the deployer. Build events are
+ * dispatched to the {@link OnCompletedCallback}s registered for the app, identified by
+ * the <code>spring-app-id</code> label, of that Build. This avoids opening a watch per
+ * deployment.
+ * <p>
+ * The watch is opened when the first callback is registered and closed again once all
+ * registrations have been closed. Should the watch be closed by the API server, it is
+ * reopened from the last seen <code>resourceVersion</code>, so that no events are lost.
+ * If that <code>resourceVersion</code> is no longer available (HTTP 410), the Builds are
+ * listed again before watching resumes. Only the listed Builds that a callback has not
+ * seen in their current phase, and which changed after the callback was registered, are
+ * dispatched to it, so that a callback never acts on a stale, e.g. a previously completed,
+ * Build. Builds a callback has seen that are no longer listed are dispatched as deleted.
+ * <p>
+ * Deleted Builds are dispatched to {@link OnCompletedCallback#deleted(Build, Watch)},
+ * rather than as a state change.
+ */
+public class BuildWatcher implements Watcher<Build>, Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(BuildWatcher.class);
+
+	/**
+	 * See
+	 * {@link org.springframework.cloud.deployer.spi.kubernetes.AbstractKubernetesDeployer#SPRING_APP_KEY}
+	 */
+	private static String SPRING_APP_KEY = "spring-app-id";
+
+	private static final long RECONNECT_DELAY = 1000;
+
+	private final OpenShiftClient client;
+
+	private final ConcurrentMap<String, Set<Registration>> registrations = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService reconnectExecutor;
+
+	private Watch watch;
+
+	private volatile String resourceVersion;
+
+	public BuildWatcher(OpenShiftClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * Register a callback for the Build events of the given app.
+	 * @param appId the value of the <code>spring-app-id</code> label
+	 * @param callback invoked for every event of a Build of the app
+	 * @return a {@link Watch} that is passed to the callback and which unregisters the
+	 * callback when closed
+	 */
+	public Watch register(String appId, OnCompletedCallback<Build> callback) {
+		Registration registration;
+		synchronized (this) {
+			if (watch == null) {
+				resourceVersion = list().getMetadata().getResourceVersion();
+			}
+			registration = new Registration(appId, callback, resourceVersion);
+			registrations.computeIfAbsent(appId, id -> new CopyOnWriteArraySet<>())
+					.add(registration);
+			if (watch == null) {
+				connect();
+			}
+		}
+
+		return registration;
+	}
+
+	/**
+	 * @return whether the watch is open, which it is while callbacks are registered
+	 */
+	public synchronized boolean isWatching() {
+		return watch != null;
+	}
+
+	@Override
+	public void eventReceived(Action action, Build build) {
+		logger.trace("Received event '{}' for build: '{}'", action,
+				build.getMetadata().getName());
+
+		resourceVersion = build.getMetadata().getResourceVersion();
+		if (action == Action.DELETED) {
+			forEachRegistration(build, registration -> registration.deleted(build));
+		}
+		else if (action != Action.ERROR) {
+			forEachRegistration(build, registration -> registration.dispatch(build));
+		}
+	}
+
+	@Override
+	public void onClose(KubernetesClientException cause) {
+		if (cause == null) {
+			return;
+		}
+
+		logger.debug("Build watch closed, reconnecting from resource version '{}': {}",
+				resourceVersion, cause.getMessage());
+		scheduleReconnect(cause.getCode() == 410);
+	}
+
+	@Override
+	public synchronized void close() {
+		registrations.clear();
+		disconnect();
+		if (reconnectExecutor != null) {
+			reconnectExecutor.shutdownNow();
+		}
+	}
+
+	private synchronized void reconnect(boolean relist) {
+		if (registrations.isEmpty()) {
+			watch = null;
+			return;
+		}
+
+		try {
+			if (relist) {
+				BuildList builds = list();
+				registrations.values().forEach(appRegistrations -> appRegistrations
+						.forEach(registration -> registration.relisted(builds)));
+				resourceVersion = builds.getMetadata().getResourceVersion();
+			}
+			connect();
+		}
+		catch (KubernetesClientException e) {
+			logger.warn("Could not reconnect build watch, retrying: {}", e.getMessage());
+			scheduleReconnect(true);
+		}
+	}
+
+	private synchronized void scheduleReconnect(boolean relist) {
+		if (reconnectExecutor == null) {
+			reconnectExecutor = Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryBuilder().setNameFormat("openshift-build-watcher-%d")
+							.setDaemon(true).build());
+		}
+		reconnectExecutor.schedule(() -> reconnect(relist), RECONNECT_DELAY,
+				TimeUnit.MILLISECONDS);
+	}
+
+	private void connect() {
+		watch = client.builds().withLabel(SPRING_APP_KEY).watch(resourceVersion, this);
+	}
+
+	private synchronized void disconnect() {
+		if (watch != null) {
+			watch.close();
+			watch = null;
+		}
+	}
+
+	private BuildList list() {
+		return client.builds().withLabel(SPRING_APP_KEY).list();
+	}
+
+	private void forEachRegistration(Build build,
+			Consumer<Registration> action) {
+		String appId = build.getMetadata().getLabels().get(SPRING_APP_KEY);
+		Set<Registration> appRegistrations = registrations.get(appId);
+		if (appRegistrations != null) {
+			appRegistrations.forEach(action);
+		}
+	}
+
+	/**
+	 * Resource versions are opaque, but are increasing integers with etcd. If they can't
+	 * be compared, the Build is taken to be newer.
+	 */
+	static boolean isNewer(String resourceVersion, String than) {
+		try {
+			return Long.parseLong(resourceVersion) > Long.parseLong(than);
+		}
+		catch (NumberFormatException e) {
+			return true;
+		}
+	}
+
+	private synchronized void unregister(Registration registration) {
+		registrations.computeIfPresent(registration.appId, (id, appRegistrations) -> {
+			appRegistrations.remove(registration);
+			return appRegistrations.isEmpty() ? null : appRegistrations;
+		});
+
+		if (registrations.isEmpty()) {
+			disconnect();
+		}
+	}
+
+	private class Registration implements Watch {
+
+		private final String appId;
+
+		private final OnCompletedCallback<Build> callback;
+
+		private final String registeredVersion;
+
+		/**
+		 * The last dispatched state of each Build, by name
+		 */
+		private final Map<String, Build> seen = new ConcurrentHashMap<>();
+
+		Registration(String appId, OnCompletedCallback<Build> callback,
+				String registeredVersion) {
+			this.appId = appId;
+			this.callback = callback;
+			this.registeredVersion = registeredVersion;
+		}
+
+		void dispatch(Build build) {
+			seen.put(build.getMetadata().getName(), build);
+			callback.callback(build, this);
+		}
+
+		void deleted(Build build) {
+			seen.remove(build.getMetadata().getName());
+			callback.deleted(build, this);
+		}
+
+		void relisted(BuildList builds) {
+			Map<String, Build> listed = new ConcurrentHashMap<>();
+			builds.getItems().stream()
+					.filter(build -> appId.equals(
+							build.getMetadata().getLabels().get(SPRING_APP_KEY)))
+					.forEach(build -> listed.put(build.getMetadata().getName(), build));
+
+			seen.entrySet().stream().filter(entry -> !listed.containsKey(entry.getKey()))
+					.map(Map.Entry::getValue).collect(Collectors.toList())
+					.forEach(this::deleted);
+			listed.values().stream().filter(this::isChanged)
+					.forEach(this::dispatch);
+		}
+
+		private boolean isChanged(Build build) {
+			Build previous = seen.get(build.getMetadata().getName());
+			if (previous != null) {
+				return !Objects.equals(phase(previous), phase(build));
+			}
+			return registeredVersion == null || isNewer(
+					build.getMetadata().getResourceVersion(), registeredVersion);
+		}
+
+		private String phase(Build build) {
+			return (build.getStatus() != null) ? build.getStatus().getPhase() : null;
+		}
+
+		@Override
+		public void close() {
+			logger.trace(String.format("Closing watcher for build: '%s'", appId));
+			unregister(this);
+		}
+
+	}
+
+}
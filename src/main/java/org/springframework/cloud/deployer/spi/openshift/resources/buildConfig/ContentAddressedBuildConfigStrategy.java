@@ -0,0 +1,60 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.imageStream.ContentAddressedImage;
+
+import io.fabric8.openshift.api.model.BuildConfig;
+
+/**
+ * Adds and starts the BuildConfig of a {@link ContentAddressedImage}, named after the
+ * image instead of the app being deployed.
+ */
+public class ContentAddressedBuildConfigStrategy extends BuildConfigStrategy {
+
+	private final BuildConfigStrategy buildConfigStrategy;
+
+	private final String imageName;
+
+	/**
+	 * @param buildConfigStrategy
+	 * @param imageName see {@link ContentAddressedImage#name}
+	 */
+	public ContentAddressedBuildConfigStrategy(BuildConfigStrategy buildConfigStrategy,
+			String imageName) {
+		super(null, null, null);
+		this.buildConfigStrategy = buildConfigStrategy;
+		this.imageName = imageName;
+	}
+
+	@Override
+	public BuildConfig addObject(AppDeploymentRequest request, String appId) {
+		return buildConfigStrategy.addObject(request, imageName);
+	}
+
+	@Override
+	public void applyObject(AppDeploymentRequest request, String appId) {
+		buildConfigStrategy.applyObject(request, imageName);
+	}
+
+	@Override
+	public CompletableFuture<?> startBuild(AppDeploymentRequest request, String appId) {
+		return buildConfigStrategy.startBuild(request, imageName);
+	}
+
+	@Override
+	protected BuildConfig buildBuildConfig(AppDeploymentRequest request, String appId,
+			Map<String, String> labels) {
+		return buildConfigStrategy.buildBuildConfig(request, imageName, labels);
+	}
+
+	@Override
+	public Set<Class<? extends ObjectFactory>> getDependencies() {
+		return buildConfigStrategy.getDependencies();
+	}
+
+}
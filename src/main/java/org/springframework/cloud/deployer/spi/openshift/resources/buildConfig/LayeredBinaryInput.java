@@ -0,0 +1,166 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.openshift.maven.LayeredJar;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.ImageStream;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Prepares the binary input of an incremental S2I build from a {@link LayeredJar}, so
+ * that only the layers that changed since the last image was built are uploaded.
+ * <p>
+ * The archive of the changed layers also carries the S2I <code>assemble</code> and
+ * <code>save-artifacts</code> scripts, in <code>.s2i/bin</code>, which take precedence
+ * over those of the builder image. <code>save-artifacts</code> saves the layers of the
+ * previous image and <code>assemble</code> restores those that were not uploaded before
+ * reassembling the jar. The builder image must provide <code>bash</code> and the JDK's
+ * <code>jar</code> tool, as the default <code>fabric8/s2i-java</code> image does.
+ * <p>
+ * The digests of the layers of the last image built for an app are kept in the
+ * {@link #LAYER_DIGESTS_ANNOTATION} annotation of the app's ImageStream. The digests of
+ * the uploaded layers are set as the {@link #LAYER_DIGESTS_ENV} environment variable of
+ * the BuildConfig, before the build is started, so that every Build carries the digests
+ * of its own layers however quickly it completes. Only once the Build has completed are
+ * they promoted to the ImageStream. A failed build therefore never causes the layers of
+ * an image that does not exist to be skipped, and <code>assemble</code> fails a Build
+ * whose uploaded layers are not those of its digests.
+ */
+public class LayeredBinaryInput {
+
+	private static Logger logger = LoggerFactory.getLogger(LayeredBinaryInput.class);
+
+	public static final String LAYER_DIGESTS_ANNOTATION = "spring.cloud.deployer.openshift/layer-digests";
+
+	public static final String LAYER_DIGESTS_ENV = "LAYER_DIGESTS";
+
+	public static final String ARCHIVE_NAME = "layers.zip";
+
+	private static final String SCRIPTS_LOCATION = "s2i/layered/";
+
+	private static final List<String> SCRIPTS = Arrays.asList("assemble",
+			"save-artifacts");
+
+	private final OpenShiftClient client;
+
+	public LayeredBinaryInput(OpenShiftClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * Write an archive of the layers that changed since the last image of the app and of
+	 * the S2I scripts that reassemble the jar.
+	 * @param appId
+	 * @param layeredJar
+	 * @return the archive, which should be deleted once uploaded
+	 * @throws IOException
+	 */
+	public File prepare(String appId, LayeredJar layeredJar) throws IOException {
+		Map<String, String> previousDigests = getDigests(appId);
+		List<String> changedLayers = layeredJar.getDigests().entrySet().stream().filter(
+				layer -> !layer.getValue().equals(previousDigests.get(layer.getKey())))
+				.map(Map.Entry::getKey).collect(Collectors.toList());
+		logger.debug("Uploading layers {} of '{}'", changedLayers, appId);
+
+		File archive = File.createTempFile(appId + "-", "-" + ARCHIVE_NAME);
+		try {
+			Map<String, Resource> scripts = new LinkedHashMap<>();
+			SCRIPTS.forEach(script -> scripts.put(".s2i/bin/" + script,
+					new ClassPathResource(SCRIPTS_LOCATION + script)));
+			layeredJar.writeArchive(archive, changedLayers, scripts);
+		}
+		catch (IOException e) {
+			archive.delete();
+			throw e;
+		}
+		return archive;
+	}
+
+	/**
+	 * @param layeredJar
+	 * @return the {@link #LAYER_DIGESTS_ENV} environment variable of the BuildConfig
+	 */
+	public static EnvVar digests(LayeredJar layeredJar) {
+		return new EnvVar(LAYER_DIGESTS_ENV, format(layeredJar.getDigests()), null);
+	}
+
+	/**
+	 * Promote the layer digests of a completed Build to the app's ImageStream. Builds
+	 * without layer digests are ignored.
+	 * @param appId
+	 * @param build
+	 */
+	public void promoteDigests(String appId, Build build) {
+		if (build.getSpec() == null || build.getSpec().getStrategy() == null
+				|| build.getSpec().getStrategy().getSourceStrategy() == null
+				|| build.getSpec().getStrategy().getSourceStrategy().getEnv() == null) {
+			return;
+		}
+
+		Optional<String> digests = build.getSpec().getStrategy().getSourceStrategy()
+				.getEnv().stream().filter(env -> LAYER_DIGESTS_ENV.equals(env.getName()))
+				.map(EnvVar::getValue).findFirst();
+		if (!digests.isPresent()) {
+			return;
+		}
+
+		try {
+			//@formatter:off
+			client.imageStreams().withName(appId)
+				.edit()
+					.editMetadata()
+						.addToAnnotations(LAYER_DIGESTS_ANNOTATION, digests.get())
+					.endMetadata()
+				.done();
+			//@formatter:on
+		}
+		catch (KubernetesClientException e) {
+			// the next build will upload all layers
+			logger.warn("Could not record layer digests of '{}': {}", appId,
+					e.getMessage());
+		}
+	}
+
+	private Map<String, String> getDigests(String appId) {
+		Map<String, String> digests = new LinkedHashMap<>();
+		ImageStream imageStream = client.imageStreams().withName(appId).get();
+		if (imageStream == null || imageStream.getMetadata().getAnnotations() == null) {
+			return digests;
+		}
+
+		String value = imageStream.getMetadata().getAnnotations()
+				.get(LAYER_DIGESTS_ANNOTATION);
+		if (StringUtils.hasText(value)) {
+			for (String layer : value.split(",")) {
+				String[] digest = layer.split("=", 2);
+				if (digest.length == 2) {
+					digests.put(digest[0], digest[1]);
+				}
+			}
+		}
+		return digests;
+	}
+
+	private static String format(Map<String, String> digests) {
+		return digests.entrySet().stream()
+				.map(digest -> digest.getKey() + "=" + digest.getValue())
+				.collect(Collectors.joining(","));
+	}
+
+}
@@ -1,44 +1,98 @@
 package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
 
+import io.fabric8.openshift.api.model.Build;
 import io.fabric8.openshift.api.model.BuildConfig;
 import io.fabric8.openshift.api.model.BuildConfigBuilder;
 import io.fabric8.openshift.client.OpenShiftClient;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
-import org.springframework.cloud.deployer.spi.openshift.OpenShiftAppDeployer;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerProperties;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftSupport;
+import org.springframework.cloud.deployer.spi.openshift.maven.LayeredJar;
+import org.springframework.cloud.deployer.spi.openshift.timeline.Timeline;
+import org.springframework.cloud.deployer.spi.openshift.timeline.TimelineSpan;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class S2iBinaryInputBuildConfigStrategy extends BuildConfigStrategy
 		implements OpenShiftSupport {
 
-	private static Logger logger = LoggerFactory.getLogger(OpenShiftAppDeployer.class);
-
 	private OpenShiftClient client;
 
 	private final OpenShiftDeployerProperties openShiftDeployerProperties;
 
 	private final MavenResource mavenResource;
 
+	private final S2iBinaryUploader s2iBinaryUploader;
+
+	private final LayeredBinaryInput layeredBinaryInput;
+
+	private Optional<LayeredJar> layeredJar;
+
+	private Timeline timeline;
+
+	/**
+	 * @deprecated use
+	 * {@link #S2iBinaryInputBuildConfigStrategy(OpenShiftDeployerProperties, OpenShiftClient, Map, MavenResource, S2iBinaryUploader)}
+	 * to upload the binary input asynchronously
+	 */
+	@Deprecated
 	public S2iBinaryInputBuildConfigStrategy(
 			OpenShiftDeployerProperties openShiftDeployerProperties,
 			OpenShiftClient client, Map<String, String> labels,
 			MavenResource mavenResource) {
+		this(openShiftDeployerProperties, client, labels, mavenResource, null);
+	}
+
+	/**
+	 * @param s2iBinaryUploader uploads the Maven artifact asynchronously. If
+	 * <code>null</code>, the artifact is uploaded synchronously when the object is
+	 * applied
+	 */
+	public S2iBinaryInputBuildConfigStrategy(
+			OpenShiftDeployerProperties openShiftDeployerProperties,
+			OpenShiftClient client, Map<String, String> labels,
+			MavenResource mavenResource, S2iBinaryUploader s2iBinaryUploader) {
+		this(openShiftDeployerProperties, client, labels, mavenResource,
+				s2iBinaryUploader, null);
+	}
+
+	/**
+	 * @param s2iBinaryUploader uploads the Maven artifact asynchronously. If
+	 * <code>null</code>, the artifact is uploaded synchronously when the object is
+	 * applied
+	 * @param layeredBinaryInput if not <code>null</code>, Spring Boot fat jars are
+	 * uploaded as layers to an incremental build, see {@link LayeredBinaryInput}
+	 */
+	public S2iBinaryInputBuildConfigStrategy(
+			OpenShiftDeployerProperties openShiftDeployerProperties,
+			OpenShiftClient client, Map<String, String> labels,
+			MavenResource mavenResource, S2iBinaryUploader s2iBinaryUploader,
+			LayeredBinaryInput layeredBinaryInput) {
 		super(null, client, labels);
 		this.client = client;
 		this.openShiftDeployerProperties = openShiftDeployerProperties;
 		this.mavenResource = mavenResource;
+		this.s2iBinaryUploader = s2iBinaryUploader;
+		this.layeredBinaryInput = layeredBinaryInput;
 	}
 
+	/**
+	 * A layered build is incremental and carries the digests of its layers, see
+	 * {@link LayeredBinaryInput}.
+	 */
 	@Override
 	protected BuildConfig buildBuildConfig(AppDeploymentRequest request, String appId,
 			Map<String, String> labels) {
+		Optional<LayeredJar> layeredJar = getLayeredJar();
 		//@formatter:off
 		return new BuildConfigBuilder()
 			.withNewMetadata()
@@ -51,6 +105,10 @@ public class S2iBinaryInputBuildConfigStrategy extends BuildConfigStrategy
 				.endSource()
 				.withNewStrategy()
 					.withNewSourceStrategy()
+						.withIncremental(layeredJar.isPresent() ? true : null)
+						.withEnv(layeredJar.map(LayeredBinaryInput::digests)
+							.map(Collections::singletonList)
+							.orElse(Collections.emptyList()))
 						.withNewFrom()
 							.withKind("DockerImage")
 							.withName(request.getDeploymentProperties().getOrDefault(
@@ -72,15 +130,118 @@ public class S2iBinaryInputBuildConfigStrategy extends BuildConfigStrategy
 
 	@Override
 	public void applyObject(AppDeploymentRequest request, String appId) {
+		startBuild(request, appId);
+	}
+
+	/**
+	 * The upload of the binary input, until the Build is instantiated, is recorded as the
+	 * <code>upload</code> phase.
+	 */
+	@Override
+	public CompletableFuture<?> startBuild(AppDeploymentRequest request, String appId) {
+		TimelineSpan uploading = ((timeline != null) ? timeline
+				: Timeline.untracked(appId)).start("upload");
 		try {
-			client.buildConfigs().withName(appId).instantiateBinary()
-					.asFile(mavenResource.getFilename())
-					.fromFile(mavenResource.getFile());
+			CompletableFuture<?> started = upload(appId);
+			started.whenComplete((build, e) -> {
+				if (e != null) {
+					uploading.fail(e);
+				}
+				else {
+					uploading.end();
+				}
+			});
+			return started;
+		}
+		catch (RuntimeException e) {
+			uploading.fail(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * @param timeline records the upload of the binary input, may be null
+	 */
+	public void setTimeline(Timeline timeline) {
+		this.timeline = timeline;
+	}
+
+	private CompletableFuture<?> upload(String appId) {
+		try {
+			Optional<LayeredJar> layeredJar = getLayeredJar();
+			if (layeredJar.isPresent()) {
+				return startLayeredBuild(appId, layeredJar.get());
+			}
+
+			if (s2iBinaryUploader != null) {
+				return s2iBinaryUploader.upload(appId, mavenResource);
+			}
+
+			return CompletableFuture.completedFuture(instantiateBinary(appId,
+					mavenResource.getFile(), mavenResource.getFilename()));
 		}
 		catch (IOException e) {
-			logger.error(String.format("Could not access Maven artifact: %s",
-					mavenResource.getFilename()), e);
+			throw new UncheckedIOException(
+					String.format("Could not access Maven artifact: %s",
+							mavenResource.getFilename()),
+					e);
 		}
 	}
 
+	/**
+	 * The archive of the changed layers is uploaded to be extracted, so that its S2I
+	 * scripts are found. With a {@link S2iBinaryUploader}, it is written on the upload
+	 * thread, once for all attempts, rather than on the deploying thread.
+	 */
+	private CompletableFuture<?> startLayeredBuild(String appId, LayeredJar layeredJar)
+			throws IOException {
+		if (s2iBinaryUploader == null) {
+			File archive = layeredBinaryInput.prepare(appId, layeredJar);
+			try {
+				return CompletableFuture.completedFuture(client.buildConfigs()
+						.withName(appId).instantiateBinary().fromFile(archive));
+			}
+			finally {
+				archive.delete();
+			}
+		}
+
+		AtomicReference<File> archive = new AtomicReference<>();
+		return s2iBinaryUploader.uploadArchive(appId, () -> {
+			if (archive.get() == null) {
+				archive.set(layeredBinaryInput.prepare(appId, layeredJar));
+			}
+			return archive.get();
+		}, LayeredBinaryInput.ARCHIVE_NAME).whenComplete((started, e) -> {
+			if (archive.get() != null) {
+				archive.get().delete();
+			}
+		});
+	}
+
+	/**
+	 * @return the Maven artifact as a layered jar, or empty if it is not a Spring Boot
+	 * fat jar or layered binary input is not enabled
+	 */
+	private synchronized Optional<LayeredJar> getLayeredJar() {
+		if (layeredJar == null) {
+			try {
+				layeredJar = (layeredBinaryInput != null)
+						? LayeredJar.of(mavenResource.getFile()) : Optional.empty();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(
+						String.format("Could not access Maven artifact: %s",
+								mavenResource.getFilename()),
+						e);
+			}
+		}
+		return layeredJar;
+	}
+
+	private Build instantiateBinary(String appId, File file, String filename) {
+		return client.buildConfigs().withName(appId).instantiateBinary().asFile(filename)
+				.fromFile(file);
+	}
+
 }
@@ -0,0 +1,257 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.dsl.buildconfig.CommitterAuthorMessageAsFileTimeoutInputStreamable;
+
+/**
+ * Uploads Maven artifacts as the binary input of S2I builds, off the deploy thread. The
+ * number of concurrent uploads across all apps is bounded, so that a number of large
+ * artifacts don't saturate the link to the API server.
+ * <p>
+ * The artifact is streamed from a {@link FileChannel} with a chunked request body. A
+ * failed upload is retried, with an exponential backoff, by instantiating a new binary
+ * build. If all attempts fail, the failure is recorded against the app so that the
+ * deployment can be reported as failed.
+ */
+public class S2iBinaryUploader implements Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(S2iBinaryUploader.class);
+
+	private final OpenShiftClient client;
+
+	private final int retries;
+
+	private final long retryDelay;
+
+	private final ExecutorService executor;
+
+	private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+	private final Set<String> uploading = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong uploads = new AtomicLong();
+
+	private final AtomicLong failedUploads = new AtomicLong();
+
+	private final AtomicLong uploadedBytes = new AtomicLong();
+
+	private final AtomicLong uploadTime = new AtomicLong();
+
+	/**
+	 * @param client
+	 * @param concurrency the maximum number of concurrent uploads
+	 * @param retries the number of times a failed upload is retried
+	 * @param retryDelay the delay, in milliseconds, before the first retry. The delay is
+	 * doubled for every subsequent retry
+	 */
+	public S2iBinaryUploader(OpenShiftClient client, int concurrency, int retries,
+			long retryDelay) {
+		this.client = client;
+		this.retries = retries;
+		this.retryDelay = retryDelay;
+		this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				new ThreadFactoryBuilder().setNameFormat("openshift-s2i-upload-%d")
+						.setDaemon(true).build());
+	}
+
+	/**
+	 * Upload the artifact as the binary input of a new build of the app's BuildConfig.
+	 * Any previously recorded failure for the app is cleared.
+	 * @param appId the name of the BuildConfig
+	 * @param mavenResource the artifact to upload
+	 * @return the started Build, completed exceptionally if all attempts failed
+	 */
+	public CompletableFuture<Build> upload(String appId, MavenResource mavenResource) {
+		return upload(appId, mavenResource::getFile, mavenResource.getFilename());
+	}
+
+	/**
+	 * Upload a file as the binary input of a new build of the app's BuildConfig. Any
+	 * previously recorded failure for the app is cleared.
+	 * @param appId the name of the BuildConfig
+	 * @param file the file to upload, resolved on the upload thread
+	 * @param filename the name of the file in the build
+	 * @return the started Build, completed exceptionally if all attempts failed
+	 */
+	public CompletableFuture<Build> upload(String appId, Callable<File> file,
+			String filename) {
+		return upload(appId, file, filename, false);
+	}
+
+	/**
+	 * Upload an archive as the binary input of a new build of the app's BuildConfig. The
+	 * archive is extracted into the source directory of the build. Any previously
+	 * recorded failure for the app is cleared.
+	 * @param appId the name of the BuildConfig
+	 * @param archive the archive to upload, resolved on the upload thread
+	 * @param filename the name of the archive, as logged
+	 * @return the started Build, completed exceptionally if all attempts failed
+	 */
+	public CompletableFuture<Build> uploadArchive(String appId, Callable<File> archive,
+			String filename) {
+		return upload(appId, archive, filename, true);
+	}
+
+	private CompletableFuture<Build> upload(String appId, Callable<File> file,
+			String filename, boolean extract) {
+		failures.remove(appId);
+		uploading.add(appId);
+
+		// the failure is recorded before the returned future completes
+		return CompletableFuture
+				.supplyAsync(() -> uploadWithRetries(appId, file, filename, extract),
+						executor)
+				.whenComplete((build, e) -> {
+					uploading.remove(appId);
+					if (e != null) {
+						Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+						logger.error(String.format("Could not upload '%s' for '%s'",
+								filename, appId), cause);
+						failedUploads.incrementAndGet();
+						failures.put(appId, cause);
+					}
+				});
+	}
+
+	/**
+	 * @param appId
+	 * @return true if an upload for the app is queued or in progress
+	 */
+	public boolean isUploading(String appId) {
+		return uploading.contains(appId);
+	}
+
+	/**
+	 * @param appId
+	 * @return the cause of the last failed upload of the app, if any
+	 */
+	public Optional<Throwable> getFailure(String appId) {
+		return Optional.ofNullable(failures.get(appId));
+	}
+
+	public void clearFailure(String appId) {
+		failures.remove(appId);
+	}
+
+	/**
+	 * @return the number of successful uploads
+	 */
+	public long getUploads() {
+		return uploads.get();
+	}
+
+	/**
+	 * @return the number of uploads that failed after all retries
+	 */
+	public long getFailedUploads() {
+		return failedUploads.get();
+	}
+
+	/**
+	 * @return the total number of bytes of successful uploads
+	 */
+	public long getUploadedBytes() {
+		return uploadedBytes.get();
+	}
+
+	/**
+	 * @return the total time, in milliseconds, taken by successful uploads
+	 */
+	public long getUploadTime() {
+		return uploadTime.get();
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private Build uploadWithRetries(String appId, Callable<File> file, String filename,
+			boolean extract) {
+		for (int attempt = 0;; attempt++) {
+			try {
+				return uploadOnce(appId, file, filename, extract);
+			}
+			catch (KubernetesClientException | UncheckedIOException e) {
+				if (attempt >= retries) {
+					throw e;
+				}
+
+				long delay = retryDelay << attempt;
+				logger.warn("Upload of '{}' for '{}' failed, retrying in {}ms: {}",
+						filename, appId, delay, e.getMessage());
+				try {
+					Thread.sleep(delay);
+				}
+				catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	private Build uploadOnce(String appId, Callable<File> file, String filename,
+			boolean extract) {
+		long start = System.currentTimeMillis();
+		try (FileChannel channel = FileChannel.open(file.call().toPath(),
+				StandardOpenOption.READ);
+				CountingInputStream input = new CountingInputStream(
+						Channels.newInputStream(channel))) {
+			CommitterAuthorMessageAsFileTimeoutInputStreamable<Build> binary = client
+					.buildConfigs().withName(appId).instantiateBinary();
+			Build build = extract ? binary.fromInputStream(input)
+					: binary.asFile(filename).fromInputStream(input);
+
+			long elapsed = Math.max(1, System.currentTimeMillis() - start);
+			uploads.incrementAndGet();
+			uploadedBytes.addAndGet(input.getCount());
+			uploadTime.addAndGet(elapsed);
+			logger.info("Uploaded {} bytes of '{}' for '{}' in {}ms ({} KB/s)",
+					input.getCount(), filename, appId, elapsed,
+					input.getCount() * 1000 / 1024 / elapsed);
+
+			return build;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		catch (KubernetesClientException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(
+					String.format("Could not resolve '%s' to upload", filename), e);
+		}
+	}
+
+}
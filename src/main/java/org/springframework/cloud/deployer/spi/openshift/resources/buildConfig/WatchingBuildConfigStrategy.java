@@ -1,16 +1,24 @@
 package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
-import io.fabric8.openshift.api.model.BuildStrategy;
-import io.fabric8.openshift.client.DefaultOpenShiftClient;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.metrics.DeployerMetrics;
+import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.imageStream.ImageStreamFactory;
+import org.springframework.cloud.deployer.spi.openshift.timeline.Timeline;
+import org.springframework.cloud.deployer.spi.openshift.timeline.TimelineSpan;
 
-import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
-import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.openshift.api.model.Build;
 import io.fabric8.openshift.api.model.BuildConfig;
 import io.fabric8.openshift.client.OpenShiftClient;
@@ -19,33 +27,44 @@ import io.fabric8.openshift.client.OpenShiftClient;
  * Provides the ability to watch an object. Whilst watching this object, the events for
  * that object are passed to a callback method. It is the responsibility of the callback
  * implementer to call the <code>watch.close()</code>
+ * <p>
+ * Events are received through a shared {@link BuildWatcher}, rather than a watch per
+ * deployment.
+ * <p>
+ * The time from requesting a build to its completion is recorded with the
+ * {@link DeployerMetrics}, and as the <code>build</code> phase of the deployment's
+ * {@link Timeline}. The phase includes a <code>run</code> span from the Build running to
+ * its completion and, if reported by the cluster, a span per stage of the Build, e.g.
+ * <code>PushImage</code>.
  */
 public class WatchingBuildConfigStrategy extends BuildConfigStrategy {
 
-	private static Logger logger = LoggerFactory
-			.getLogger(WatchingBuildConfigStrategy.class);
-
-	/**
-	 * See
-	 * {@link org.springframework.cloud.deployer.spi.kubernetes.AbstractKubernetesDeployer#SPRING_APP_KEY}
-	 */
-	private static String SPRING_APP_KEY = "spring-app-id";
-
-	private OpenShiftClient client;
+	private static final Set<String> TERMINAL_PHASES = new HashSet<>(
+			Arrays.asList("Complete", "Failed", "Error", "Cancelled"));
 
 	private BuildConfigStrategy buildConfigStrategy;
 
+	private BuildWatcher buildWatcher;
+
 	private OnCompletedCallback<Build> callback;
 
-	private Watch watch;
+	private DeployerMetrics metrics = DeployerMetrics.noop();
+
+	private Timeline timeline;
 
+	/**
+	 * @param buildConfigStrategy
+	 * @param client
+	 * @param labels
+	 * @param buildWatcher shared across deployments and owned, i.e. closed, by the caller
+	 * @param callback
+	 */
 	public WatchingBuildConfigStrategy(BuildConfigStrategy buildConfigStrategy,
-			OpenShiftClient client, Map<String, String> labels,
+			OpenShiftClient client, Map<String, String> labels, BuildWatcher buildWatcher,
 			OnCompletedCallback<Build> callback) {
-		super(null, new DefaultOpenShiftClient().inNamespace(client.getNamespace()),
-				labels);
+		super(null, client, labels);
 		this.buildConfigStrategy = buildConfigStrategy;
-		this.client = new DefaultOpenShiftClient().inNamespace(client.getNamespace());
+		this.buildWatcher = buildWatcher;
 		this.callback = callback;
 	}
 
@@ -62,25 +81,117 @@ public class WatchingBuildConfigStrategy extends BuildConfigStrategy {
 
 	@Override
 	public void applyObject(AppDeploymentRequest request, String appId) {
-		buildConfigStrategy.applyObject(request, appId);
+		long requested = System.currentTimeMillis();
+		AtomicBoolean recorded = new AtomicBoolean();
+		TimelineSpan building = ((timeline != null) ? timeline
+				: Timeline.untracked(appId)).start("build");
+		AtomicReference<TimelineSpan> running = new AtomicReference<>();
+
+		// register before the build is started so that no events are missed
+		Watch watch = buildWatcher.register(appId, (build, buildWatch) -> {
+			String phase = (build.getStatus() != null) ? build.getStatus().getPhase()
+					: null;
+			if ("Running".equals(phase)) {
+				running.compareAndSet(null, building.child("run"));
+			}
+			if (TERMINAL_PHASES.contains(phase) && recorded.compareAndSet(false, true)) {
+				long observed = TimelineSpan.now();
+				metrics.recordBuild(phase, System.currentTimeMillis() - requested);
+				recordStages(building, build);
+				try {
+					// phases that follow the build, e.g. the rollout, are started first
+					callback.callback(build, buildWatch);
+				}
+				finally {
+					endBuild(building, running.get(), phase, observed);
+				}
+				return;
+			}
+			callback.callback(build, buildWatch);
+		});
+		try {
+			buildConfigStrategy.startBuild(request, appId).whenComplete((build, e) -> {
+				if (e != null) {
+					watch.close();
+					building.fail(e);
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			watch.close();
+			building.fail(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * @param timeline records the <code>build</code> phase, may be null
+	 */
+	public void setTimeline(Timeline timeline) {
+		this.timeline = timeline;
+	}
 
-		watch = client.builds().withLabelIn(SPRING_APP_KEY, appId)
-				.watch(new Watcher<Build>() {
+	public void setMetrics(DeployerMetrics metrics) {
+		this.metrics = metrics;
+	}
 
-					@Override
-					public void eventReceived(Action action, Build resource) {
-						logger.trace("Received event '{}' for build: '{}'", action,
-								resource);
+	private void endBuild(TimelineSpan building, TimelineSpan running, String phase,
+			long observed) {
+		for (TimelineSpan span : Arrays.asList(running, building)) {
+			if (span == null) {
+				continue;
+			}
+			if ("Complete".equals(phase)) {
+				span.end(observed);
+			}
+			else {
+				span.fail(String.format("Build is %s", phase));
+			}
+		}
+	}
 
-						callback.callback(resource, watch);
-					}
+	/**
+	 * Builds report their stages, e.g. <code>FetchInputs</code> or
+	 * <code>PushImage</code>, in <code>status.stages</code> from OpenShift 3.7, which the
+	 * client model does not map.
+	 */
+	@SuppressWarnings("unchecked")
+	private void recordStages(TimelineSpan building, Build build) {
+		Object stages = build.getStatus().getAdditionalProperties().get("stages");
+		if (!(stages instanceof List)) {
+			return;
+		}
+
+		for (Object stage : (List<Object>) stages) {
+			if (!(stage instanceof Map)) {
+				continue;
+			}
+			Map<String, Object> properties = (Map<String, Object>) stage;
+			Object name = properties.get("name");
+			Object startTime = properties.get("startTime");
+			Object duration = properties.get("durationMilliseconds");
+			if (name == null || startTime == null || !(duration instanceof Number)) {
+				continue;
+			}
+			try {
+				long start = TimeUnit.MILLISECONDS
+						.toNanos(Instant.parse(startTime.toString()).toEpochMilli());
+				long end = start + TimeUnit.MILLISECONDS
+						.toNanos(((Number) duration).longValue());
+				building.child(String.valueOf(name), start).end(end);
+			}
+			catch (RuntimeException e) {
+				// not a stage that can be recorded
+			}
+		}
+	}
 
-					@Override
-					public void onClose(KubernetesClientException cause) {
-						logger.trace(
-								String.format("Closing watcher for build: '%s'", appId));
-					}
-				});
+	/**
+	 * The Build's output references the ImageStream, so it must exist first.
+	 */
+	@Override
+	public Set<Class<? extends ObjectFactory>> getDependencies() {
+		return Collections.singleton(ImageStreamFactory.class);
 	}
 
 	@FunctionalInterface
@@ -88,6 +199,13 @@ public class WatchingBuildConfigStrategy extends BuildConfigStrategy {
 
 		void callback(R r, Watch watch);
 
+		/**
+		 * Invoked when a Build of the app is deleted, e.g. out of band, in which case no
+		 * further events of it will follow.
+		 */
+		default void deleted(R r, Watch watch) {
+		}
+
 	}
 
 }
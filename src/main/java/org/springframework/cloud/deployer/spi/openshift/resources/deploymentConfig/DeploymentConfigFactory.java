@@ -14,10 +14,11 @@ import org.springframework.cloud.deployer.spi.openshift.DataflowSupport;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftSupport;
 import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.OptimisticCreate;
 import org.springframework.cloud.deployer.spi.openshift.resources.volumes.VolumeFactory;
+import org.springframework.cloud.deployer.spi.openshift.scale.ScaleDownStrategies;
 
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class DeploymentConfigFactory
@@ -51,26 +52,17 @@ public class DeploymentConfigFactory
 		DeploymentConfig deploymentConfig = build(request, appId, container, labels,
 				resourceRequirements, imagePullPolicy);
 
-		if (getExisting(appId).isPresent()) {
-			deploymentConfig = this.client.deploymentConfigs()
-					.createOrReplace(deploymentConfig);
-		}
-		else {
-			deploymentConfig = this.client.deploymentConfigs().create(deploymentConfig);
-		}
-
-		return deploymentConfig;
+		return OptimisticCreate.create(
+				() -> this.client.deploymentConfigs().create(deploymentConfig),
+				() -> this.client.deploymentConfigs()
+						.withName(deploymentConfig.getMetadata().getName())
+						.replace(deploymentConfig));
 	}
 
 	@Override
 	public void applyObject(AppDeploymentRequest request, String appId) {
 	}
 
-	protected Optional<DeploymentConfig> getExisting(String name) {
-		return Optional
-				.ofNullable(client.deploymentConfigs().withName(name).fromServer().get());
-	}
-
 	protected DeploymentConfig build(AppDeploymentRequest request, String appId,
 			Container container, Map<String, String> labels,
 			ResourceRequirements resourceRequirements, ImagePullPolicy imagePullPolicy) {
@@ -82,6 +74,7 @@ public class DeploymentConfigFactory
             .withNewMetadata()
                 .withName(appId)
                 .withLabels(labels)
+                .withAnnotations(ScaleDownStrategies.annotations(request))
             .endMetadata()
             .withNewSpec()
                 .withTriggers(ImmutableList.of(
@@ -10,8 +10,12 @@ import io.fabric8.openshift.client.OpenShiftClient;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.kubernetes.ImagePullPolicy;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerProperties;
+import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.imageStream.ImageStreamFactory;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 public class DeploymentConfigWithImageChangeTriggerWithIndexSuppportFactory
 		extends DeploymentConfigWithIndexSuppportFactory {
@@ -31,6 +35,14 @@ public class DeploymentConfigWithImageChangeTriggerWithIndexSuppportFactory
 		this.openShiftDeployerProperties = openShiftDeployerProperties;
 	}
 
+	/**
+	 * The image change trigger references the ImageStream, so it must exist first.
+	 */
+	@Override
+	public Set<Class<? extends ObjectFactory>> getDependencies() {
+		return Collections.singleton(ImageStreamFactory.class);
+	}
+
 	@Override
 	public void applyObject(AppDeploymentRequest request, String appId) {
 		withIndexedDeployment(appId, request, (id, deploymentRequest) -> {
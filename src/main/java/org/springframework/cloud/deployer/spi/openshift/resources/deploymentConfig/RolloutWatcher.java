@@ -0,0 +1,371 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.deploymentConfig;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.openshift.timeline.TimelineSpan;
+
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ReplicationControllerList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Ends the <code>rollout</code> span of a DeploymentConfig once the rollout of its latest
+ * version has completed or failed, rather than once it was requested. OpenShift records
+ * the outcome in the <code>openshift.io/deployment.phase</code> annotation of the
+ * ReplicationController of that version.
+ * <p>
+ * A single, namespace level watch on the ReplicationControllers created by the deployer
+ * serves all rollouts, rather than a watch per deployment. The watch is opened, from a
+ * list of the ReplicationControllers, when the first rollout is watched and closed again
+ * once no rollout is in progress. The phase of every ReplicationController listed or seen
+ * since is kept, so that a rollout that ended before it was watched is ended at once.
+ * Should the watch be closed by the API server, it is reopened from the last seen
+ * <code>resourceVersion</code>, or from a new list if that is no longer available (HTTP
+ * 410).
+ * <p>
+ * A rollout still in progress is failed when its app is undeployed, when a newer version
+ * of the DeploymentConfig is rolled out or once the rollout timeout has passed, so that
+ * no span is left open.
+ */
+public class RolloutWatcher implements Watcher<ReplicationController>, Closeable {
+
+	private static Logger logger = LoggerFactory.getLogger(RolloutWatcher.class);
+
+	/**
+	 * See
+	 * {@link org.springframework.cloud.deployer.spi.kubernetes.AbstractKubernetesDeployer#SPRING_APP_KEY}
+	 */
+	private static final String SPRING_APP_KEY = "spring-app-id";
+
+	private static final String DEPLOYMENT_PHASE_KEY = "openshift.io/deployment.phase";
+
+	private static final long RECONNECT_DELAY = 1000;
+
+	private final OpenShiftClient client;
+
+	private final ScheduledExecutorService scheduledExecutorService;
+
+	private final long rolloutTimeout;
+
+	/**
+	 * The rollouts in progress, by DeploymentConfig name
+	 */
+	private final ConcurrentMap<String, Rollout> rollouts = new ConcurrentHashMap<>();
+
+	/**
+	 * The last seen phase of each ReplicationController, by name
+	 */
+	private final ConcurrentMap<String, String> phases = new ConcurrentHashMap<>();
+
+	private Watch watch;
+
+	private boolean reconnecting;
+
+	private volatile String resourceVersion;
+
+	/**
+	 * @param client
+	 * @param scheduledExecutorService schedules the rollout timeouts and watch reconnects,
+	 * owned by the caller
+	 * @param rolloutTimeout the time, in milliseconds, after which a rollout that was not
+	 * seen to complete or fail is failed. 0 for no timeout.
+	 */
+	public RolloutWatcher(OpenShiftClient client,
+			ScheduledExecutorService scheduledExecutorService, long rolloutTimeout) {
+		this.client = client;
+		this.scheduledExecutorService = scheduledExecutorService;
+		this.rolloutTimeout = rolloutTimeout;
+	}
+
+	/**
+	 * Watch the rollout of the latest version of a DeploymentConfig, ending the span once
+	 * it has completed or failed.
+	 * @param appId the value of the <code>spring-app-id</code> label
+	 * @param deploymentConfig as returned when its latest version was rolled out
+	 * @param span the <code>rollout</code> span
+	 */
+	public void watch(String appId, DeploymentConfig deploymentConfig, TimelineSpan span) {
+		String name = deploymentConfig.getMetadata().getName();
+		if (deploymentConfig.getStatus() == null
+				|| deploymentConfig.getStatus().getLatestVersion() == null) {
+			span.fail(String.format("No version of '%s' to watch", name));
+			return;
+		}
+
+		long version = deploymentConfig.getStatus().getLatestVersion();
+		Rollout rollout = new Rollout(name, appId, name + "-" + version, span);
+		Rollout superseded;
+		synchronized (this) {
+			superseded = rollouts.put(name, rollout);
+			if (watch == null && !reconnecting) {
+				try {
+					connect(true);
+				}
+				catch (KubernetesClientException e) {
+					logger.warn("Could not watch rollouts, retrying: {}", e.getMessage());
+					scheduleReconnect(true);
+				}
+			}
+		}
+		if (superseded != null) {
+			superseded.fail(String.format("Superseded by version %d", version));
+		}
+
+		if (rolloutTimeout > 0) {
+			rollout.setTimeout(scheduledExecutorService.schedule(
+					() -> rollout.fail(String.format("Not rolled out within %dms",
+							rolloutTimeout)),
+					rolloutTimeout, TimeUnit.MILLISECONDS));
+		}
+
+		// the rollout may have ended before it was watched
+		String phase = phases.get(rollout.replicationController);
+		if (phase != null) {
+			rollout.phaseChanged(phase);
+		}
+	}
+
+	/**
+	 * Fail the rollouts of an undeployed app that are still in progress.
+	 * @param appId
+	 */
+	public void undeployed(String appId) {
+		rollouts.values().stream().filter(rollout -> rollout.appId.equals(appId))
+				.forEach(rollout -> rollout.fail("Undeployed"));
+	}
+
+	/**
+	 * @return the names of the DeploymentConfigs with a rollout in progress
+	 */
+	public Set<String> getRollouts() {
+		return Collections.unmodifiableSet(rollouts.keySet());
+	}
+
+	/**
+	 * @return whether the watch is open, which it is while rollouts are in progress
+	 */
+	public synchronized boolean isWatching() {
+		return watch != null;
+	}
+
+	@Override
+	public void eventReceived(Action action, ReplicationController replicationController) {
+		if (action == Action.ERROR) {
+			return;
+		}
+
+		String name = replicationController.getMetadata().getName();
+		resourceVersion = replicationController.getMetadata().getResourceVersion();
+		if (action == Action.DELETED) {
+			phases.remove(name);
+		}
+		else {
+			phases.put(name, phase(replicationController));
+		}
+
+		Rollout rollout = rollouts.get(deploymentConfig(name));
+		if (rollout != null && rollout.replicationController.equals(name)) {
+			if (action == Action.DELETED) {
+				rollout.fail("ReplicationController deleted");
+			}
+			else {
+				rollout.phaseChanged(phase(replicationController));
+			}
+		}
+	}
+
+	@Override
+	public void onClose(KubernetesClientException cause) {
+		if (cause == null) {
+			return;
+		}
+
+		logger.debug("Rollout watch closed, reconnecting from resource version '{}': {}",
+				resourceVersion, cause.getMessage());
+		scheduleReconnect(cause.getCode() == 410);
+	}
+
+	/**
+	 * Close the watch and cancel the timeouts of the rollouts in progress, leaving their
+	 * spans open.
+	 */
+	@Override
+	public void close() {
+		rollouts.values().forEach(Rollout::close);
+		rollouts.clear();
+		disconnect();
+	}
+
+	private synchronized void connect(boolean relist) {
+		if (relist) {
+			ReplicationControllerList replicationControllers = client
+					.replicationControllers().withLabel(SPRING_APP_KEY).list();
+			phases.clear();
+			replicationControllers.getItems().forEach(replicationController -> phases.put(
+					replicationController.getMetadata().getName(),
+					phase(replicationController)));
+			resourceVersion = replicationControllers.getMetadata().getResourceVersion();
+		}
+		watch = client.replicationControllers().withLabel(SPRING_APP_KEY)
+				.watch(resourceVersion, this);
+	}
+
+	private synchronized void reconnect(boolean relist) {
+		reconnecting = false;
+		if (rollouts.isEmpty()) {
+			watch = null;
+			return;
+		}
+
+		try {
+			connect(relist);
+			if (relist) {
+				// rollouts that ended while the watch was closed
+				rollouts.values().forEach(rollout -> {
+					String phase = phases.get(rollout.replicationController);
+					if (phase != null) {
+						rollout.phaseChanged(phase);
+					}
+				});
+			}
+		}
+		catch (KubernetesClientException e) {
+			logger.warn("Could not reconnect rollout watch, retrying: {}",
+					e.getMessage());
+			scheduleReconnect(true);
+		}
+	}
+
+	private synchronized void scheduleReconnect(boolean relist) {
+		if (!scheduledExecutorService.isShutdown()) {
+			reconnecting = true;
+			scheduledExecutorService.schedule(() -> reconnect(relist), RECONNECT_DELAY,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private synchronized void disconnect() {
+		if (watch != null) {
+			watch.close();
+			watch = null;
+		}
+		phases.clear();
+	}
+
+	private synchronized void ended(Rollout rollout) {
+		rollouts.remove(rollout.deploymentConfig, rollout);
+		if (rollouts.isEmpty()) {
+			disconnect();
+		}
+	}
+
+	private static String phase(ReplicationController replicationController) {
+		Map<String, String> annotations = replicationController.getMetadata()
+				.getAnnotations();
+		String phase = (annotations != null) ? annotations.get(DEPLOYMENT_PHASE_KEY)
+				: null;
+		return (phase != null) ? phase : "";
+	}
+
+	/**
+	 * @param replicationController named after the DeploymentConfig and the version, e.g.
+	 * <code>testapp-source-2</code>
+	 * @return the name of the DeploymentConfig
+	 */
+	private static String deploymentConfig(String replicationController) {
+		int separator = replicationController.lastIndexOf('-');
+		return (separator < 0) ? replicationController
+				: replicationController.substring(0, separator);
+	}
+
+	/**
+	 * The rollout of a version of a DeploymentConfig, i.e. its ReplicationController.
+	 */
+	private class Rollout {
+
+		private final String deploymentConfig;
+
+		private final String appId;
+
+		private final String replicationController;
+
+		private final TimelineSpan span;
+
+		private ScheduledFuture<?> timeout;
+
+		private boolean ended;
+
+		Rollout(String deploymentConfig, String appId, String replicationController,
+				TimelineSpan span) {
+			this.deploymentConfig = deploymentConfig;
+			this.appId = appId;
+			this.replicationController = replicationController;
+			this.span = span;
+		}
+
+		void phaseChanged(String phase) {
+			logger.trace("Rollout of '{}' is '{}'", replicationController, phase);
+			if ("Complete".equals(phase)) {
+				if (end()) {
+					span.end();
+				}
+			}
+			else if ("Failed".equals(phase)) {
+				fail("Rollout failed");
+			}
+		}
+
+		void fail(String message) {
+			if (end()) {
+				span.fail(message);
+			}
+		}
+
+		synchronized void setTimeout(ScheduledFuture<?> timeout) {
+			if (ended) {
+				timeout.cancel(false);
+			}
+			else {
+				this.timeout = timeout;
+			}
+		}
+
+		/**
+		 * @return whether the rollout was in progress, and the span is to be ended
+		 */
+		private boolean end() {
+			synchronized (this) {
+				if (ended) {
+					return false;
+				}
+				ended = true;
+			}
+			close();
+			ended(this);
+			return true;
+		}
+
+		private synchronized void close() {
+			if (timeout != null) {
+				timeout.cancel(false);
+				timeout = null;
+			}
+		}
+
+	}
+
+}
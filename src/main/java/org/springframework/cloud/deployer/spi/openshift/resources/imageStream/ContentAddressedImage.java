@@ -0,0 +1,61 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.imageStream;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildIndex;
+
+/**
+ * Names an ImageStream, and the BuildConfig that builds it, after the hash of the built
+ * artifact rather than the app. All apps deployed from the same artifact therefore share
+ * one ImageStream, which is built by the first deployment and reused by every other.
+ */
+public final class ContentAddressedImage {
+
+	/**
+	 * See
+	 * {@link org.springframework.cloud.deployer.spi.kubernetes.AbstractKubernetesDeployer#SPRING_APP_KEY}
+	 */
+	private static final String SPRING_APP_KEY = "spring-app-id";
+
+	private static final int MAX_ARTIFACT_ID_LENGTH = 40;
+
+	private static final int HASH_LENGTH = 12;
+
+	private ContentAddressedImage() {
+	}
+
+	/**
+	 * @param resource the built artifact
+	 * @param buildId the hash of the artifact
+	 * @return the artifact id followed by the start of the hash, i.e.
+	 * <code>log-sink-rabbit-3f2a9c81d0e4</code>
+	 */
+	public static String name(MavenResource resource, String buildId) {
+		String artifactId = resource.getArtifactId().toLowerCase(Locale.ROOT)
+				.replaceAll("[^a-z0-9-]", "-");
+		if (artifactId.length() > MAX_ARTIFACT_ID_LENGTH) {
+			artifactId = artifactId.substring(0, MAX_ARTIFACT_ID_LENGTH);
+		}
+		artifactId = artifactId.replaceAll("^-+|-+$", "");
+
+		return String.format("%s-%s", artifactId,
+				buildId.substring(0, Math.min(HASH_LENGTH, buildId.length())));
+	}
+
+	/**
+	 * The labels of a shared BuildConfig, which identify the image rather than any app
+	 * that uses it, so that undeploying an app leaves the image to the others.
+	 * @param name the name of the image, see {@link #name(MavenResource, String)}
+	 * @param buildId the hash of the artifact
+	 * @return the labels of the BuildConfig
+	 */
+	public static Map<String, String> labels(String name, String buildId) {
+		Map<String, String> labels = new HashMap<>();
+		labels.put(SPRING_APP_KEY, name);
+		return BuildIndex.withBuildId(labels, buildId);
+	}
+
+}
@@ -0,0 +1,152 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.imageStream;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentTriggerPolicy;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * The apps deployed from each {@link ContentAddressedImage}. The Builds of a shared image
+ * are labelled with the image rather than with any app, so this is what relates them to
+ * the apps, e.g. to resolve the status of an app from the Builds of its image.
+ * <p>
+ * Apps are added as they are deployed. The image of an app deployed before, e.g. by a
+ * previous instance of the deployer, is resolved from the ImageChange trigger of its
+ * DeploymentConfig. The images of many apps are resolved with a single list of their
+ * DeploymentConfigs, see {@link #getImages(Collection)}.
+ */
+public class ContentAddressedImageIndex {
+
+	/**
+	 * See
+	 * {@link org.springframework.cloud.deployer.spi.kubernetes.AbstractKubernetesDeployer#SPRING_APP_KEY}
+	 */
+	private static final String SPRING_APP_KEY = "spring-app-id";
+
+	private final OpenShiftClient client;
+
+	private final ConcurrentMap<String, Optional<String>> images = new ConcurrentHashMap<>();
+
+	public ContentAddressedImageIndex(OpenShiftClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * @param appId
+	 * @param imageName see {@link ContentAddressedImage#name}
+	 */
+	public void put(String appId, String imageName) {
+		images.put(appId, Optional.of(imageName));
+	}
+
+	/**
+	 * @param appId
+	 * @return the shared image the app is deployed from, if any
+	 */
+	public Optional<String> getImage(String appId) {
+		return Optional.ofNullable(getImages(Collections.singleton(appId)).get(appId));
+	}
+
+	/**
+	 * @param appIds
+	 * @return the shared image of each of the apps deployed from one. The images of apps
+	 * that are not known are resolved from a single list of their DeploymentConfigs.
+	 */
+	public Map<String, String> getImages(Collection<String> appIds) {
+		String[] unknown = appIds.stream().filter(appId -> !images.containsKey(appId))
+				.toArray(String[]::new);
+		Map<String, List<DeploymentConfig>> deploymentConfigs = (unknown.length == 0)
+				? Collections.emptyMap()
+				: client.deploymentConfigs().withLabelIn(SPRING_APP_KEY, unknown).list()
+						.getItems().stream()
+						.filter(deploymentConfig -> deploymentConfig.getMetadata()
+								.getLabels() != null)
+						.collect(Collectors.groupingBy(deploymentConfig -> deploymentConfig
+								.getMetadata().getLabels().get(SPRING_APP_KEY)));
+
+		return getImages(appIds, appId -> deploymentConfigs.getOrDefault(appId,
+				Collections.emptyList()));
+	}
+
+	/**
+	 * @param appIds
+	 * @param deploymentConfigs the DeploymentConfigs of an app, e.g. from a cache, to
+	 * resolve the image of an app that is not known from
+	 * @return the shared image of each of the apps deployed from one
+	 */
+	public Map<String, String> getImages(Collection<String> appIds,
+			Function<String, List<DeploymentConfig>> deploymentConfigs) {
+		Map<String, String> appImages = new HashMap<>();
+		for (String appId : appIds) {
+			images.computeIfAbsent(appId,
+					id -> resolveImage(id, deploymentConfigs.apply(id)))
+					.ifPresent(imageName -> appImages.put(appId, imageName));
+		}
+		return appImages;
+	}
+
+	/**
+	 * @param imageName
+	 * @return the apps known to be deployed from the image
+	 */
+	public Set<String> getApps(String imageName) {
+		return images.entrySet().stream()
+				.filter(entry -> entry.getValue().filter(imageName::equals).isPresent())
+				.map(Map.Entry::getKey).collect(Collectors.toSet());
+	}
+
+	/**
+	 * @param appId the undeployed app
+	 */
+	public void remove(String appId) {
+		images.remove(appId);
+	}
+
+	/**
+	 * @param imageName
+	 * @return whether any app is deployed from the image, i.e. is known to be or has a
+	 * DeploymentConfig triggered by it
+	 */
+	public boolean isUsed(String imageName) {
+		if (!getApps(imageName).isEmpty()) {
+			return true;
+		}
+
+		return client.deploymentConfigs().list().getItems().stream()
+				.flatMap(this::imageNames).anyMatch(imageName::equals);
+	}
+
+	private Optional<String> resolveImage(String appId,
+			List<DeploymentConfig> deploymentConfigs) {
+		return deploymentConfigs.stream().flatMap(this::imageNames)
+				.filter(imageName -> !imageName.equals(appId)).findFirst();
+	}
+
+	private Stream<String> imageNames(DeploymentConfig deploymentConfig) {
+		if (deploymentConfig.getSpec() == null
+				|| deploymentConfig.getSpec().getTriggers() == null) {
+			return Stream.empty();
+		}
+
+		return deploymentConfig.getSpec().getTriggers().stream()
+				.map(DeploymentTriggerPolicy::getImageChangeParams)
+				.filter(Objects::nonNull)
+				.filter(params -> params.getFrom() != null
+						&& "ImageStreamTag".equals(params.getFrom().getKind()))
+				.map(params -> params.getFrom().getName().split(":")[0]);
+	}
+
+}
@@ -12,8 +12,24 @@ public class ImageStreamFactory extends AbstractObjectFactory<ImageStream> {
 
 	private OpenShiftClient client;
 
+	private String name;
+
 	public ImageStreamFactory(OpenShiftClient client) {
+		this(client, null);
+	}
+
+	/**
+	 * @param client
+	 * @param name the name of the ImageStream, instead of the app id
+	 */
+	public ImageStreamFactory(OpenShiftClient client, String name) {
 		this.client = client;
+		this.name = name;
+	}
+
+	@Override
+	public ImageStream addObject(AppDeploymentRequest request, String appId) {
+		return super.addObject(request, (name != null) ? name : appId);
 	}
 
 	@Override
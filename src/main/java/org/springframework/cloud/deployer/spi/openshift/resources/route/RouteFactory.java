@@ -3,12 +3,12 @@ package org.springframework.cloud.deployer.spi.openshift.resources.route;
 import static java.lang.String.format;
 
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerProperties;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
 import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.OptimisticCreate;
 
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteBuilder;
@@ -37,14 +37,9 @@ public class RouteFactory implements ObjectFactory<Route> {
 	public Route addObject(AppDeploymentRequest request, String appId) {
 		Route route = build(request, appId, port, labels);
 
-		if (getExisting(appId).isPresent()) {
-			route = this.client.routes().createOrReplace(route);
-		}
-		else {
-			route = this.client.routes().create(route);
-		}
-
-		return route;
+		return OptimisticCreate.create(() -> this.client.routes().create(route),
+				() -> this.client.routes().withName(route.getMetadata().getName())
+						.replace(route));
 	}
 
 	@Override
@@ -52,10 +47,6 @@ public class RouteFactory implements ObjectFactory<Route> {
 		// do nothing
 	}
 
-	protected Optional<Route> getExisting(String name) {
-		return Optional.ofNullable(client.routes().withName(name).fromServer().get());
-	}
-
 	protected Route build(AppDeploymentRequest request, String appId, Integer port,
 			Map<String, String> labels) {
 		String serviceNameOrAppId = request.getDeploymentProperties().getOrDefault(
@@ -1,12 +1,12 @@
 package org.springframework.cloud.deployer.spi.openshift.resources.service;
 
 import java.util.Map;
-import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
 import org.springframework.cloud.deployer.spi.openshift.resources.ObjectFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.OptimisticCreate;
 
 import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServiceBuilder;
@@ -16,6 +16,10 @@ import io.fabric8.openshift.client.OpenShiftClient;
 
 public class ServiceFactory implements ObjectFactory<Service> {
 
+	private static final String CLUSTER_IP = "ClusterIP";
+
+	private static final String NODE_PORT = "NodePort";
+
 	private OpenShiftClient client;
 
 	private Integer port;
@@ -33,16 +37,25 @@ public class ServiceFactory implements ObjectFactory<Service> {
 	public Service addObject(AppDeploymentRequest request, String appId) {
 		Service service = build(request, appId, port, labels);
 
-		if (getExisting(appId).isPresent()) {
-			// cannot patch a Service. Delete it, then recreate
-			this.client.services().delete(service);
-			service = this.client.services().create(service);
-		}
-		else {
-			service = this.client.services().create(service);
-		}
-
-		return service;
+		// patch an existing Service rather than recreating it, which would leave the
+		// app without endpoints and could change its cluster IP. The type is patched as
+		// well, as createNodePort may have changed, and the ports are replaced, which
+		// clears the node port of a Service switched back to ClusterIP
+		//@formatter:off
+		return OptimisticCreate.create(() -> this.client.services().create(service),
+			() -> this.client.services()
+				.withName(service.getMetadata().getName())
+				.edit()
+					.editMetadata()
+						.withLabels(service.getMetadata().getLabels())
+					.endMetadata()
+					.editSpec()
+						.withType(service.getSpec().getType())
+						.withPorts(service.getSpec().getPorts())
+						.withSelector(service.getSpec().getSelector())
+					.endSpec()
+				.done());
+		//@formatter:on
 	}
 
 	@Override
@@ -50,15 +63,6 @@ public class ServiceFactory implements ObjectFactory<Service> {
 		// do nothing
 	}
 
-	protected Optional<Service> getExisting(String name) {
-		//@formatter:off
-		return Optional.ofNullable(client.services()
-			.withName(name)
-			.fromServer()
-			.get());
-		//@formatter:on
-	}
-
 	protected Service build(AppDeploymentRequest request, String appId, Integer port,
 			Map<String, String> labels) {
 		boolean createNodePort = StringUtils.isNotBlank(request.getDeploymentProperties()
@@ -74,6 +78,7 @@ public class ServiceFactory implements ObjectFactory<Service> {
 				.withLabels(labels)
 			.endMetadata()
 			.withNewSpec()
+				.withType(createNodePort ? NODE_PORT : CLUSTER_IP)
 				.withPorts(createNodePort ? buildServiceNodePort(request) : buildServicePort())
 				.withSelector(labels)
 			.endSpec()
@@ -0,0 +1,67 @@
+package org.springframework.cloud.deployer.spi.openshift.scale;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * See {@link ScaleDownMode#blocking}. The scale is cancelled if it has not completed
+ * within the timeout.
+ */
+public class BlockingScaleDownStrategy implements ScaleDownStrategy {
+
+	private static Logger logger = LoggerFactory
+			.getLogger(BlockingScaleDownStrategy.class);
+
+	private final OpenShiftClient client;
+
+	private final ExecutorService executor;
+
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * @param client
+	 * @param executor runs the blocking scale of each DeploymentConfig
+	 * @param scheduler times out scales that don't complete in time
+	 */
+	public BlockingScaleDownStrategy(OpenShiftClient client, ExecutorService executor,
+			ScheduledExecutorService scheduler) {
+		this.client = client;
+		this.executor = executor;
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> scaleDown(DeploymentConfig deploymentConfig,
+			long timeout) {
+		String name = deploymentConfig.getMetadata().getName();
+		CompletableFuture<Boolean> scaledDown = new CompletableFuture<>();
+		Future<?> scale = executor.submit(() -> {
+			try {
+				client.deploymentConfigs().withName(name).scale(0, true);
+				scaledDown.complete(true);
+			}
+			catch (RuntimeException e) {
+				scaledDown.completeExceptionally(e);
+			}
+		});
+
+		scheduler.schedule(() -> {
+			if (scaledDown.complete(false)) {
+				logger.warn("DeploymentConfig '{}' not scaled down after {}ms", name,
+						timeout);
+				scale.cancel(true);
+			}
+		}, timeout, TimeUnit.MILLISECONDS);
+		return scaledDown;
+	}
+
+}
@@ -0,0 +1,29 @@
+package org.springframework.cloud.deployer.spi.openshift.scale;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * See {@link ScaleDownMode#drain}. A Pod is drained once its <code>Ready</code>
+ * condition is <code>False</code>. This relies on the app failing its readiness probe
+ * only once it has stopped consuming and finished its in-flight messages after being
+ * asked to stop.
+ */
+public class DrainingScaleDownStrategy extends WatchingScaleDownStrategy {
+
+	public DrainingScaleDownStrategy(OpenShiftClient client,
+			ScheduledExecutorService scheduler) {
+		super(client, scheduler);
+	}
+
+	@Override
+	protected boolean isScaledDown(Pod pod) {
+		return pod.getStatus() != null && pod.getStatus().getConditions() != null
+				&& pod.getStatus().getConditions().stream()
+						.anyMatch(condition -> "Ready".equals(condition.getType())
+								&& "False".equals(condition.getStatus()));
+	}
+
+}
@@ -0,0 +1,27 @@
+package org.springframework.cloud.deployer.spi.openshift.scale;
+
+/**
+ * How the Pods of an app are scaled down when it is undeployed.
+ */
+public enum ScaleDownMode {
+
+	/**
+	 * Scale down with the client's blocking scale, holding an undeploy thread per
+	 * DeploymentConfig until the replicas are reported as zero or the timeout elapses.
+	 */
+	blocking,
+
+	/**
+	 * Scale down without blocking and complete once watch events confirm that every Pod
+	 * of the DeploymentConfig is deleted.
+	 */
+	watch,
+
+	/**
+	 * As {@link #watch}, but complete once every Pod is no longer ready, i.e. its
+	 * readiness probe fails once the app has stopped taking work and finished any
+	 * in-flight messages, rather than waiting for the Pods to terminate.
+	 */
+	drain
+
+}
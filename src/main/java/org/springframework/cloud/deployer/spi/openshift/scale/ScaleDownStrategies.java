@@ -0,0 +1,116 @@
+package org.springframework.cloud.deployer.spi.openshift.scale;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerProperties;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
+
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Chooses the {@link ScaleDownStrategy} and timeout for each DeploymentConfig. The
+ * <code>scaleDownMode</code> and <code>scaleDownTimeout</code> deployer properties can
+ * be overridden per app with the {@link OpenShiftDeploymentPropertyKeys#OPENSHIFT_SCALE_DOWN_MODE}
+ * and {@link OpenShiftDeploymentPropertyKeys#OPENSHIFT_SCALE_DOWN_TIMEOUT} deployment
+ * properties. As an app is undeployed by its id alone, these are recorded as annotations
+ * of the DeploymentConfig when it is deployed, see {@link #annotations(AppDeploymentRequest)}.
+ */
+public class ScaleDownStrategies {
+
+	private static Logger logger = LoggerFactory.getLogger(ScaleDownStrategies.class);
+
+	private final OpenShiftDeployerProperties properties;
+
+	private final Map<ScaleDownMode, ScaleDownStrategy> strategies = new EnumMap<>(
+			ScaleDownMode.class);
+
+	/**
+	 * @param properties
+	 * @param client
+	 * @param executor runs blocking scales, see {@link ScaleDownMode#blocking}
+	 * @param scheduler times out scale downs that don't complete in time, owned by the
+	 * caller
+	 */
+	public ScaleDownStrategies(OpenShiftDeployerProperties properties,
+			OpenShiftClient client, ExecutorService executor,
+			ScheduledExecutorService scheduler) {
+		this.properties = properties;
+
+		strategies.put(ScaleDownMode.blocking,
+				new BlockingScaleDownStrategy(client, executor, scheduler));
+		strategies.put(ScaleDownMode.watch,
+				new WatchingScaleDownStrategy(client, scheduler));
+		strategies.put(ScaleDownMode.drain,
+				new DrainingScaleDownStrategy(client, scheduler));
+	}
+
+	/**
+	 * Scale down the DeploymentConfig with the strategy and timeout of its app.
+	 * @param deploymentConfig
+	 * @return see {@link ScaleDownStrategy#scaleDown(DeploymentConfig, long)}
+	 */
+	public CompletableFuture<Boolean> scaleDown(DeploymentConfig deploymentConfig) {
+		Map<String, String> annotations = Optional
+				.ofNullable(deploymentConfig.getMetadata().getAnnotations())
+				.orElse(new HashMap<>());
+
+		ScaleDownMode mode = properties.getScaleDownMode();
+		long timeout = properties.getScaleDownTimeout();
+		try {
+			String appMode = annotations
+					.get(OpenShiftDeploymentPropertyKeys.OPENSHIFT_SCALE_DOWN_MODE);
+			if (appMode != null) {
+				mode = ScaleDownMode.valueOf(appMode);
+			}
+			String appTimeout = annotations
+					.get(OpenShiftDeploymentPropertyKeys.OPENSHIFT_SCALE_DOWN_TIMEOUT);
+			if (appTimeout != null) {
+				timeout = Long.parseLong(appTimeout);
+			}
+		}
+		catch (IllegalArgumentException e) {
+			logger.warn("Invalid scale down annotations of DeploymentConfig '{}': {}",
+					deploymentConfig.getMetadata().getName(), e.getMessage());
+		}
+
+		return strategies.get(mode).scaleDown(deploymentConfig, timeout);
+	}
+
+	/**
+	 * Replace the strategy used for a mode, e.g. to drain Pods differently.
+	 * @param mode
+	 * @param strategy
+	 */
+	public void setStrategy(ScaleDownMode mode, ScaleDownStrategy strategy) {
+		strategies.put(mode, strategy);
+	}
+
+	/**
+	 * @param request
+	 * @return the scale down deployment properties of the request, to be added to the
+	 * annotations of the app's DeploymentConfig
+	 */
+	public static Map<String, String> annotations(AppDeploymentRequest request) {
+		Map<String, String> annotations = new HashMap<>();
+		for (String key : new String[] {
+				OpenShiftDeploymentPropertyKeys.OPENSHIFT_SCALE_DOWN_MODE,
+				OpenShiftDeploymentPropertyKeys.OPENSHIFT_SCALE_DOWN_TIMEOUT }) {
+			String value = request.getDeploymentProperties().get(key);
+			if (value != null) {
+				annotations.put(key, value);
+			}
+		}
+		return annotations;
+	}
+
+}
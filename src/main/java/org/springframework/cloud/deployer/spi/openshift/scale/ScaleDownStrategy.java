@@ -0,0 +1,25 @@
+package org.springframework.cloud.deployer.spi.openshift.scale;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.fabric8.openshift.api.model.DeploymentConfig;
+
+/**
+ * Scales a DeploymentConfig down to zero replicas before it is deleted, so that the
+ * deletion does not race a rollout of the app. See {@link ScaleDownMode} for the
+ * provided strategies.
+ */
+@FunctionalInterface
+public interface ScaleDownStrategy {
+
+	/**
+	 * @param deploymentConfig
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @return completed with <code>true</code> once the Pods of the DeploymentConfig are
+	 * scaled down, or with <code>false</code> if the timeout elapsed first, after which
+	 * the DeploymentConfig is deleted regardless
+	 */
+	CompletableFuture<Boolean> scaleDown(DeploymentConfig deploymentConfig,
+			long timeout);
+
+}
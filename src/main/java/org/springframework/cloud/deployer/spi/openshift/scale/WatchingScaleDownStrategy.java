@@ -0,0 +1,128 @@
+package org.springframework.cloud.deployer.spi.openshift.scale;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * See {@link ScaleDownMode#watch}. The Pods selected by the DeploymentConfig are listed
+ * and then watched from the <code>resourceVersion</code> of that list, before the
+ * DeploymentConfig is scaled down, so that no events are missed. No thread is held while
+ * waiting, so an app whose Pods stop quickly is deleted as soon as they have stopped.
+ */
+public class WatchingScaleDownStrategy implements ScaleDownStrategy {
+
+	private static Logger logger = LoggerFactory
+			.getLogger(WatchingScaleDownStrategy.class);
+
+	private final OpenShiftClient client;
+
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * @param client
+	 * @param scheduler times out scale downs that don't complete in time
+	 */
+	public WatchingScaleDownStrategy(OpenShiftClient client,
+			ScheduledExecutorService scheduler) {
+		this.client = client;
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> scaleDown(DeploymentConfig deploymentConfig,
+			long timeout) {
+		String name = deploymentConfig.getMetadata().getName();
+		Map<String, String> selector = selector(deploymentConfig);
+		CompletableFuture<Boolean> scaledDown = new CompletableFuture<>();
+		Set<String> remaining = ConcurrentHashMap.newKeySet();
+
+		PodList pods = client.pods().withLabels(selector).list();
+		pods.getItems().stream().filter(pod -> !isScaledDown(pod))
+				.forEach(pod -> remaining.add(pod.getMetadata().getName()));
+		Watch watch = client.pods().withLabels(selector)
+				.watch(pods.getMetadata().getResourceVersion(), new Watcher<Pod>() {
+
+					@Override
+					public void eventReceived(Action action, Pod pod) {
+						String podName = pod.getMetadata().getName();
+						if (action == Action.DELETED || isScaledDown(pod)) {
+							remaining.remove(podName);
+						}
+						else if (action == Action.ADDED) {
+							remaining.add(podName);
+						}
+
+						if (remaining.isEmpty()) {
+							scaledDown.complete(true);
+						}
+					}
+
+					@Override
+					public void onClose(KubernetesClientException cause) {
+						if (cause != null && scaledDown.complete(false)) {
+							logger.warn("Watch on Pods of DeploymentConfig '{}' closed: {}",
+									name, cause.getMessage());
+						}
+					}
+				});
+		scaledDown.whenComplete((result, e) -> watch.close());
+
+		try {
+			client.deploymentConfigs().withName(name).scale(0);
+		}
+		catch (RuntimeException e) {
+			scaledDown.completeExceptionally(e);
+			return scaledDown;
+		}
+
+		if (remaining.isEmpty()) {
+			scaledDown.complete(true);
+		}
+		scheduler.schedule(() -> {
+			if (scaledDown.complete(false)) {
+				logger.warn("Pods of DeploymentConfig '{}' not scaled down after {}ms: {}",
+						name, timeout, remaining);
+			}
+		}, timeout, TimeUnit.MILLISECONDS);
+		return scaledDown;
+	}
+
+	/**
+	 * @param pod
+	 * @return <code>true</code> if the Pod no longer needs to be waited for, other than
+	 * for its deletion
+	 */
+	protected boolean isScaledDown(Pod pod) {
+		return false;
+	}
+
+	/**
+	 * The Pods of the DeploymentConfig, falling back to the label OpenShift adds to the
+	 * Pods of every DeploymentConfig if it has no selector.
+	 */
+	private Map<String, String> selector(DeploymentConfig deploymentConfig) {
+		Map<String, String> selector = (deploymentConfig.getSpec() != null)
+				? deploymentConfig.getSpec().getSelector() : null;
+		return (selector == null || selector.isEmpty())
+				? Collections.singletonMap("deploymentconfig",
+						deploymentConfig.getMetadata().getName())
+				: selector;
+	}
+
+}
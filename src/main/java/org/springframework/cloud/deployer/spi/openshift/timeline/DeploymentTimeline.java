@@ -0,0 +1,76 @@
+package org.springframework.cloud.deployer.spi.openshift.timeline;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Records a {@link Timeline} of the phases of each deployment, keyed by app id, from
+ * preparing the OpenShift objects through building the image to rolling out the
+ * deployment. Deploying an app again replaces its timeline. The timelines of the most
+ * recently deployed apps are kept, up to the configured history.
+ * <p>
+ * Listeners are notified of every span as it ends, e.g. to export the spans to an
+ * OpenTelemetry collector.
+ */
+public class DeploymentTimeline {
+
+	private final Map<String, Timeline> timelines;
+
+	private final List<Consumer<TimelineSpan>> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * @param history the maximum number of timelines kept
+	 */
+	public DeploymentTimeline(int history) {
+		this.timelines = new LinkedHashMap<String, Timeline>() {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Timeline> eldest) {
+				return size() > history;
+			}
+
+		};
+	}
+
+	/**
+	 * Start the timeline of a new deployment of the app.
+	 * @param appId
+	 * @return the timeline, which the deployment records its phases in
+	 */
+	public Timeline begin(String appId) {
+		Timeline timeline = new Timeline(appId, listeners);
+		synchronized (timelines) {
+			timelines.remove(appId);
+			timelines.put(appId, timeline);
+		}
+		return timeline;
+	}
+
+	/**
+	 * @param appId
+	 * @return the timeline of the app's latest deployment, if it is still kept
+	 */
+	public Optional<Timeline> get(String appId) {
+		synchronized (timelines) {
+			return Optional.ofNullable(timelines.get(appId));
+		}
+	}
+
+	/**
+	 * @return the kept timelines, keyed by app id, in the order they were started
+	 */
+	public Map<String, Timeline> getTimelines() {
+		synchronized (timelines) {
+			return new LinkedHashMap<>(timelines);
+		}
+	}
+
+	public void addListener(Consumer<TimelineSpan> listener) {
+		listeners.add(listener);
+	}
+
+}
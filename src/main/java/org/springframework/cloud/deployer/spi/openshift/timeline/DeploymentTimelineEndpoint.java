@@ -0,0 +1,25 @@
+package org.springframework.cloud.deployer.spi.openshift.timeline;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+
+/**
+ * Exposes the {@link Timeline} of each recently deployed app, keyed by app id, as the
+ * <code>deploymentTimelines</code> actuator endpoint.
+ */
+public class DeploymentTimelineEndpoint extends AbstractEndpoint<Map<String, Timeline>> {
+
+	private final DeploymentTimeline deploymentTimeline;
+
+	public DeploymentTimelineEndpoint(DeploymentTimeline deploymentTimeline) {
+		super("deploymentTimelines");
+		this.deploymentTimeline = deploymentTimeline;
+	}
+
+	@Override
+	public Map<String, Timeline> invoke() {
+		return deploymentTimeline.getTimelines();
+	}
+
+}
@@ -0,0 +1,181 @@
+package org.springframework.cloud.deployer.spi.openshift.timeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The phases of a single deployment of an app, as a trace of {@link TimelineSpan}s. The
+ * root <code>deploy</code> span is ended once {@link #end()} has been called and every
+ * phase has ended, as phases such as the build continue after the deployer has applied
+ * the OpenShift objects. Should any phase fail, the deployment is reported as failed.
+ */
+public class Timeline {
+
+	private static Logger logger = LoggerFactory.getLogger(Timeline.class);
+
+	private final String appId;
+
+	private final String traceId = randomId(16);
+
+	private final TimelineSpan root;
+
+	private final List<TimelineSpan> spans = new CopyOnWriteArrayList<>();
+
+	private final List<Consumer<TimelineSpan>> listeners;
+
+	private final AtomicInteger openSpans = new AtomicInteger();
+
+	private volatile boolean endRequested;
+
+	private volatile String failedPhase;
+
+	Timeline(String appId, List<Consumer<TimelineSpan>> listeners) {
+		this.appId = appId;
+		this.listeners = listeners;
+		this.root = new TimelineSpan(this, null, "deploy", TimelineSpan.now());
+		this.root.setAttribute("app.id", appId);
+		this.spans.add(root);
+	}
+
+	/**
+	 * @param appId
+	 * @return a timeline that is not tracked by a {@link DeploymentTimeline}, for phases
+	 * outside of a deployment
+	 */
+	public static Timeline untracked(String appId) {
+		return new Timeline(appId, Collections.emptyList());
+	}
+
+	/**
+	 * Start a phase of the deployment.
+	 * @param name
+	 * @return the started span
+	 */
+	public TimelineSpan start(String name) {
+		return root.child(name);
+	}
+
+	/**
+	 * Start a phase of the deployment that started before it was recorded.
+	 * @param name
+	 * @param startTimeUnixNano the time the phase started
+	 * @return the started span
+	 */
+	public TimelineSpan start(String name, long startTimeUnixNano) {
+		return root.child(name, startTimeUnixNano);
+	}
+
+	public <T> T record(String name, Supplier<T> phase) {
+		TimelineSpan span = start(name);
+		try {
+			T result = phase.get();
+			span.end();
+			return result;
+		}
+		catch (RuntimeException e) {
+			span.fail(e);
+			throw e;
+		}
+	}
+
+	public void record(String name, Runnable phase) {
+		record(name, () -> {
+			phase.run();
+			return null;
+		});
+	}
+
+	/**
+	 * End the deployment once all phases in progress have ended.
+	 */
+	public void end() {
+		endRequested = true;
+		if (openSpans.get() == 0) {
+			endRoot();
+		}
+	}
+
+	/**
+	 * End the deployment as failed, regardless of any phases in progress.
+	 * @param cause
+	 */
+	public void fail(Throwable cause) {
+		root.fail(cause);
+	}
+
+	public String getAppId() {
+		return appId;
+	}
+
+	public String getTraceId() {
+		return traceId;
+	}
+
+	/**
+	 * @return the root <code>deploy</code> span, followed by the phases in the order they
+	 * started
+	 */
+	public List<TimelineSpan> getSpans() {
+		return new ArrayList<>(spans);
+	}
+
+	public boolean isEnded() {
+		return root.isEnded();
+	}
+
+	TimelineSpan start(TimelineSpan parent, String name, long startTimeUnixNano) {
+		TimelineSpan span = new TimelineSpan(this, parent.getSpanId(), name,
+				startTimeUnixNano);
+		openSpans.incrementAndGet();
+		spans.add(span);
+		return span;
+	}
+
+	void ended(TimelineSpan span) {
+		listeners.forEach(listener -> listener.accept(span));
+		if (span == root) {
+			logger.info("Deployment of '{}' {} in {}ms: {}", appId,
+					(root.getStatusCode() == TimelineSpan.StatusCode.ERROR) ? "failed"
+							: "completed",
+					root.getDurationMillis(),
+					spans.stream().filter(phase -> phase != root).map(String::valueOf)
+							.collect(Collectors.joining(", ")));
+			return;
+		}
+
+		if (span.getStatusCode() == TimelineSpan.StatusCode.ERROR) {
+			failedPhase = span.getName();
+		}
+		if (openSpans.decrementAndGet() == 0 && endRequested) {
+			endRoot();
+		}
+	}
+
+	static String randomId(int bytes) {
+		StringBuilder id = new StringBuilder(bytes * 2);
+		for (int i = 0; i < bytes; i++) {
+			id.append(String.format("%02x", ThreadLocalRandom.current().nextInt(256)));
+		}
+		return id.toString();
+	}
+
+	private void endRoot() {
+		if (failedPhase != null) {
+			root.fail(String.format("Phase '%s' failed", failedPhase));
+		}
+		else {
+			root.end();
+		}
+	}
+
+}
@@ -0,0 +1,174 @@
+package org.springframework.cloud.deployer.spi.openshift.timeline;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timed phase of a deployment. The fields follow the span data model of OpenTelemetry
+ * (OTLP), so that spans can be exported to a tracing backend as they are: hex encoded
+ * trace and span ids, start and end times in nanoseconds since the epoch, string
+ * attributes and a status code of <code>UNSET</code>, <code>OK</code> or
+ * <code>ERROR</code>.
+ */
+public class TimelineSpan {
+
+	public enum StatusCode {
+
+		UNSET, OK, ERROR
+
+	}
+
+	private final Timeline timeline;
+
+	private final String spanId;
+
+	private final String parentSpanId;
+
+	private final String name;
+
+	private final long startTimeUnixNano;
+
+	private final Map<String, String> attributes = new TreeMap<>();
+
+	private volatile long endTimeUnixNano;
+
+	private volatile StatusCode statusCode = StatusCode.UNSET;
+
+	private volatile String statusMessage;
+
+	TimelineSpan(Timeline timeline, String parentSpanId, String name,
+			long startTimeUnixNano) {
+		this.timeline = timeline;
+		this.spanId = Timeline.randomId(8);
+		this.parentSpanId = parentSpanId;
+		this.name = name;
+		this.startTimeUnixNano = startTimeUnixNano;
+	}
+
+	/**
+	 * Start a span nested in this one.
+	 * @param name
+	 * @return the started span
+	 */
+	public TimelineSpan child(String name) {
+		return child(name, now());
+	}
+
+	/**
+	 * Start a span nested in this one, for a phase reported by OpenShift rather than
+	 * observed by the deployer, e.g. a stage of a Build.
+	 * @param name
+	 * @param startTimeUnixNano the time the phase started
+	 * @return the started span
+	 */
+	public TimelineSpan child(String name, long startTimeUnixNano) {
+		return timeline.start(this, name, startTimeUnixNano);
+	}
+
+	public TimelineSpan setAttribute(String key, String value) {
+		synchronized (attributes) {
+			attributes.put(key, value);
+		}
+		return this;
+	}
+
+	public void end() {
+		end(now());
+	}
+
+	/**
+	 * @param endTimeUnixNano the time the phase ended, if it was observed before the span
+	 * could be ended
+	 */
+	public void end(long endTimeUnixNano) {
+		end(StatusCode.OK, null, endTimeUnixNano);
+	}
+
+	public void fail(String message) {
+		end(StatusCode.ERROR, message, now());
+	}
+
+	public void fail(Throwable cause) {
+		fail(String.valueOf(cause.getMessage()));
+	}
+
+	public String getTraceId() {
+		return timeline.getTraceId();
+	}
+
+	public String getSpanId() {
+		return spanId;
+	}
+
+	public String getParentSpanId() {
+		return parentSpanId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getStartTimeUnixNano() {
+		return startTimeUnixNano;
+	}
+
+	/**
+	 * @return the end time, or 0 while the span is in progress
+	 */
+	public long getEndTimeUnixNano() {
+		return endTimeUnixNano;
+	}
+
+	/**
+	 * @return the duration in milliseconds, up to now while the span is in progress
+	 */
+	public long getDurationMillis() {
+		long end = isEnded() ? endTimeUnixNano : now();
+		return TimeUnit.NANOSECONDS.toMillis(end - startTimeUnixNano);
+	}
+
+	public boolean isEnded() {
+		return endTimeUnixNano != 0;
+	}
+
+	public Map<String, String> getAttributes() {
+		synchronized (attributes) {
+			return Collections.unmodifiableMap(new TreeMap<>(attributes));
+		}
+	}
+
+	public StatusCode getStatusCode() {
+		return statusCode;
+	}
+
+	public String getStatusMessage() {
+		return statusMessage;
+	}
+
+	private void end(StatusCode statusCode, String statusMessage, long endTimeUnixNano) {
+		synchronized (this) {
+			if (isEnded()) {
+				return;
+			}
+			this.statusCode = statusCode;
+			this.statusMessage = statusMessage;
+			this.endTimeUnixNano = Math.max(startTimeUnixNano, endTimeUnixNano);
+		}
+		timeline.ended(this);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s (%dms, %s)", name, getDurationMillis(), statusCode);
+	}
+
+	/**
+	 * @return the current time in nanoseconds since the epoch, with millisecond precision
+	 */
+	public static long now() {
+		return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+	}
+
+}
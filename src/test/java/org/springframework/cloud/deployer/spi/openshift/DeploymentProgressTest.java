@@ -0,0 +1,75 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class DeploymentProgressTest {
+
+	private DeploymentProgress deploymentProgress = new DeploymentProgress(2);
+
+	@After
+	public void tearDown() {
+		deploymentProgress.close();
+	}
+
+	@Test
+	public void deploymentTrackedUntilComplete() throws InterruptedException {
+		CountDownLatch applying = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+
+		CompletableFuture<String> deployment = deploymentProgress.submit("testapp-source",
+				() -> {
+					deploymentProgress.setPhase("testapp-source",
+							DeploymentPhase.applying);
+					applying.countDown();
+					await(done);
+				});
+		applying.await();
+
+		assertThat(deploymentProgress.getPhase("testapp-source"))
+				.contains(DeploymentPhase.applying);
+		assertThatThrownBy(() -> deploymentProgress.submit("testapp-source", () -> {
+		})).isInstanceOf(IllegalStateException.class);
+
+		done.countDown();
+
+		assertThat(deployment.join()).isEqualTo("testapp-source");
+		assertThat(deploymentProgress.getPhase("testapp-source")).isNotPresent();
+		assertThat(deploymentProgress.getDeployment("testapp-source")).isNotPresent();
+	}
+
+	@Test
+	public void failedDeploymentTrackedUntilCleared() {
+		CompletableFuture<String> deployment = deploymentProgress.submit("testapp-source",
+				() -> {
+					throw new IllegalArgumentException("Invalid");
+				});
+
+		assertThatThrownBy(deployment::join).isInstanceOf(CompletionException.class)
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+		assertThat(deploymentProgress.getPhase("testapp-source"))
+				.contains(DeploymentPhase.failed);
+		assertThat(deploymentProgress.getFailure("testapp-source")).isPresent();
+
+		deploymentProgress.clear("testapp-source");
+
+		assertThat(deploymentProgress.getPhase("testapp-source")).isNotPresent();
+	}
+
+	private void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
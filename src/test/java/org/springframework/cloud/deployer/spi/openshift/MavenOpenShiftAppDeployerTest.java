@@ -0,0 +1,306 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.resource.maven.MavenProperties;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.maven.ImagePrebuilder;
+import org.springframework.cloud.deployer.spi.openshift.maven.MavenOpenShiftAppDeployer;
+import org.springframework.cloud.deployer.spi.openshift.maven.MavenResourceJarExtractor;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildIndex;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildWatcher;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.S2iBinaryUploader;
+import org.springframework.cloud.deployer.spi.openshift.resources.imageStream.ContentAddressedImage;
+import org.springframework.cloud.deployer.spi.openshift.resources.pod.OpenShiftContainerFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.volumes.VolumeMountFactory;
+import org.springframework.cloud.deployer.spi.openshift.scale.ScaleDownMode;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.server.mock.OpenShiftMockServer;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Deploys Maven resources against the in-memory OpenShift mock server of
+ * {@link RecordingCrudDispatcher}.
+ */
+public class MavenOpenShiftAppDeployerTest {
+
+	private OpenShiftMockServer server;
+
+	private RecordingCrudDispatcher dispatcher = new RecordingCrudDispatcher();
+
+	private OpenShiftClient client;
+
+	private OpenShiftDeployerProperties properties = new OpenShiftDeployerProperties();
+
+	private MavenProperties mavenProperties;
+
+	private MavenOpenShiftAppDeployer deployer;
+
+	private BuildIndex buildIndex;
+
+	private BuildWatcher buildWatcher;
+
+	@Before
+	public void setup() throws IOException {
+		server = new OpenShiftMockServer(new Context(), new MockWebServer(),
+				new HashMap<>(), dispatcher, false);
+		server.init();
+		client = server.createOpenShiftClient();
+		mavenProperties = installTestApp();
+	}
+
+	@After
+	public void tearDown() {
+		if (deployer != null) {
+			deployer.close();
+		}
+		if (buildIndex != null) {
+			buildIndex.close();
+		}
+		if (buildWatcher != null) {
+			buildWatcher.close();
+		}
+		server.destroy();
+	}
+
+	@Test
+	public void redeployAfterFailedUpload() throws Exception {
+		deployer = deployer();
+		S2iBinaryUploader uploader = new S2iBinaryUploader(client, 1, 0, 0);
+		deployer.setS2iBinaryUploader(uploader);
+		try {
+			uploader.upload("testapp-source", () -> {
+				throw new IOException("Artifact not available");
+			}, "test-app-1.0-SNAPSHOT.jar").get(10, TimeUnit.SECONDS);
+			fail("Expected the upload to fail");
+		}
+		catch (ExecutionException e) {
+			assertThat(deployer.status("testapp-source").getState())
+					.isEqualTo(DeploymentState.failed);
+		}
+		finally {
+			uploader.close();
+		}
+
+		String appId = deployer.deploy(request("testapp-source"));
+
+		assertThat(deployer.status(appId).getState()).isIn(DeploymentState.deployed,
+				DeploymentState.deploying);
+	}
+
+	@Test
+	public void appsDeployedFromSameArtifactShareBuild() throws Exception {
+		properties.setContentAddressedImages(true);
+		deployer = deployer();
+		buildIndex = new BuildIndex(client);
+		deployer.setBuildIndex(buildIndex);
+		MavenResource resource = MavenResource.parse("org.test:test-app:1.0-SNAPSHOT",
+				mavenProperties);
+		String buildId = new ResourceHash().hashResource(resource);
+		String imageName = ContentAddressedImage.name(resource, buildId);
+
+		String source = deployer.deploy(request("testapp-source"));
+		awaitBuild(imageName, buildId);
+		String sink = deployer.deploy(request("testapp-sink"));
+
+		assertThat(client.buildConfigs().list().getItems()).extracting("metadata.name")
+				.containsExactly(imageName);
+		assertThat(client.builds().list().getItems()).hasSize(1);
+		DeploymentConfig deploymentConfig = client.deploymentConfigs().withName(sink)
+				.get();
+		assertThat(deploymentConfig.getSpec().getTriggers())
+				.extracting("imageChangeParams.from.name")
+				.contains(imageName + ":" + properties.getDefaultImageTag());
+		assertThat(deployer.status(source).getState())
+				.isEqualTo(DeploymentState.deploying);
+		assertThat(deployer.status(sink).getState()).isEqualTo(DeploymentState.deploying);
+
+		Build build = client.builds().list().getItems().get(0);
+		//@formatter:off
+		client.builds().withName(build.getMetadata().getName()).edit()
+			.editStatus()
+				.withPhase("Failed")
+			.endStatus()
+			.done();
+		//@formatter:on
+
+		assertThat(deployer.status(source).getState()).isEqualTo(DeploymentState.failed);
+		assertThat(deployer.status(sink).getState()).isEqualTo(DeploymentState.failed);
+	}
+
+	@Test
+	public void sharedImageIsDeletedWithLastApp() throws Exception {
+		properties.setContentAddressedImages(true);
+		deployer = deployer();
+		// the mock server has no controller to scale down the Pods
+		deployer.setScaleDownStrategy(ScaleDownMode.watch,
+				(deploymentConfig, timeout) -> CompletableFuture.completedFuture(true));
+		buildIndex = new BuildIndex(client);
+		deployer.setBuildIndex(buildIndex);
+		MavenResource resource = MavenResource.parse("org.test:test-app:1.0-SNAPSHOT",
+				mavenProperties);
+		String buildId = new ResourceHash().hashResource(resource);
+		String imageName = ContentAddressedImage.name(resource, buildId);
+
+		String source = deployer.deploy(request("testapp-source"));
+		awaitBuild(imageName, buildId);
+		String sink = deployer.deploy(request("testapp-sink"));
+
+		deployer.undeploy(source);
+		assertThat(client.buildConfigs().withName(imageName).get()).isNotNull();
+		assertThat(client.imageStreams().withName(imageName).get()).isNotNull();
+
+		deployer.undeploy(sink);
+		assertThat(client.buildConfigs().withName(imageName).get()).isNull();
+		assertThat(client.builds().list().getItems()).isEmpty();
+		assertThat(client.imageStreams().withName(imageName).get()).isNull();
+	}
+
+	@Test
+	public void statusesOfAppsOnSharedImageAreListedOnce() throws Exception {
+		properties.setContentAddressedImages(true);
+		deployer = deployer();
+		buildIndex = new BuildIndex(client);
+		deployer.setBuildIndex(buildIndex);
+		MavenResource resource = MavenResource.parse("org.test:test-app:1.0-SNAPSHOT",
+				mavenProperties);
+		String buildId = new ResourceHash().hashResource(resource);
+		String imageName = ContentAddressedImage.name(resource, buildId);
+
+		String source = deployer.deploy(request("testapp-source"));
+		awaitBuild(imageName, buildId);
+		String sink = deployer.deploy(request("testapp-sink"));
+
+		// a deployer that has not seen the apps resolves their image first
+		MavenOpenShiftAppDeployer statusDeployer = deployer();
+		try {
+			dispatcher.setOperation("statuses");
+			Map<String, AppStatus> statuses = statusDeployer
+					.statuses(Arrays.asList(source, sink));
+			dispatcher.setOperation(null);
+
+			assertThat(statuses.get(source).getState())
+					.isEqualTo(DeploymentState.deploying);
+			assertThat(statuses.get(sink).getState())
+					.isEqualTo(DeploymentState.deploying);
+			assertThat(dispatcher.getUsage("statuses").getRequestsByType())
+					.containsEntry("GET deploymentconfigs", 1L)
+					.containsEntry("GET builds", 1L);
+		}
+		finally {
+			statusDeployer.close();
+		}
+	}
+
+	@Test
+	public void prebuildTracksRunningBuildToCompletion() throws Exception {
+		properties.setContentAddressedImages(true);
+		deployer = deployer();
+		buildWatcher = new BuildWatcher(client);
+		deployer.setBuildWatcher(buildWatcher);
+		MavenResource resource = MavenResource.parse("org.test:test-app:1.0-SNAPSHOT",
+				mavenProperties);
+		String buildId = new ResourceHash().hashResource(resource);
+		String imageName = ContentAddressedImage.name(resource, buildId);
+		//@formatter:off
+		client.builds().create(new BuildBuilder()
+				.withNewMetadata()
+					.withName(imageName + "-1")
+					.withLabels(ContentAddressedImage.labels(imageName, buildId))
+				.endMetadata()
+				.withNewStatus()
+					.withPhase("Running")
+				.endStatus()
+				.build());
+		//@formatter:on
+
+		CompletableFuture<String> prebuild = deployer.prebuild(resource);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!buildWatcher.isWatching() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertThat(prebuild.isDone()).isFalse();
+		assertThat(deployer.getPrebuilds()).containsEntry(
+				ImagePrebuilder.coordinates(resource), ImagePrebuilder.State.building);
+
+		//@formatter:off
+		client.builds().withName(imageName + "-1").edit()
+			.editStatus()
+				.withPhase("Complete")
+			.endStatus()
+			.done();
+		//@formatter:on
+
+		assertThat(prebuild.get(5, TimeUnit.SECONDS)).isEqualTo(imageName);
+		assertThat(deployer.getPrebuilds()).containsEntry(
+				ImagePrebuilder.coordinates(resource), ImagePrebuilder.State.warm);
+	}
+
+	private void awaitBuild(String imageName, String buildId)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!buildIndex.exists(imageName, buildId)
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(buildIndex.exists(imageName, buildId)).isTrue();
+	}
+
+	private MavenOpenShiftAppDeployer deployer() {
+		return new MavenOpenShiftAppDeployer(properties, client,
+				new OpenShiftContainerFactory(properties,
+						new VolumeMountFactory(properties)),
+				new MavenResourceJarExtractor(), mavenProperties, new ResourceHash());
+	}
+
+	private AppDeploymentRequest request(String name) {
+		return new AppDeploymentRequest(
+				new AppDefinition(name, ImmutableMap.of(
+						OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_URI_PROPERTY,
+						"https://github.com/test/app.git")),
+				MavenResource.parse("org.test:test-app:1.0-SNAPSHOT", mavenProperties));
+	}
+
+	private MavenProperties installTestApp() throws IOException {
+		Path repository = Paths
+				.get("target/.m2/repository/org/test/test-app/1.0-SNAPSHOT");
+		Files.createDirectories(repository);
+		for (String file : new String[] { "test-app-1.0-SNAPSHOT.pom",
+				"test-app-1.0-SNAPSHOT.jar" }) {
+			Files.copy(Paths.get("src/test/resources", file), repository.resolve(file),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+		MavenProperties mavenProperties = new MavenProperties();
+		mavenProperties.setLocalRepository("target/.m2/repository");
+		return mavenProperties;
+	}
+
+}
@@ -3,16 +3,51 @@ package org.springframework.cloud.deployer.spi.openshift;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.Rule;
 import org.junit.Test;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
 import org.springframework.cloud.deployer.spi.core.AppDefinition;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.resources.pod.OpenShiftContainerFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.volumes.VolumeMountFactory;
+import org.springframework.cloud.deployer.spi.openshift.scale.ScaleDownMode;
 import org.springframework.core.io.Resource;
 
 import com.google.common.collect.ImmutableMap;
 
+import io.fabric8.kubernetes.api.model.ContainerStatusBuilder;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationControllerBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationControllerListBuilder;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.BuildListBuilder;
+import io.fabric8.openshift.client.server.mock.OpenShiftMockServer;
+import io.fabric8.openshift.client.server.mock.OpenShiftServer;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
 public class OpenShiftAppDeployerTest {
 
+	@Rule
+	public OpenShiftServer server = new OpenShiftServer(false, false);
+
 	@Test
 	public void enableKubernetedDeployerCompatibility() {
 		AppDeploymentRequest openShiftRequest = new AppDeploymentRequest(
@@ -27,4 +62,128 @@ public class OpenShiftAppDeployerTest {
 				new ImmutablePair<>("spring.cloud.deployer.openshift.memory", "8Mi"));
 	}
 
+	@Test
+	public void statuses() {
+		server.expect().get().withPath("/version").andReturn(200,
+				"{\"major\": \"1\", \"minor\": \"7\", \"gitVersion\": \"v1.7.6\"}")
+				.once();
+		OpenShiftAppDeployer deployer = new OpenShiftAppDeployer(
+				new OpenShiftDeployerProperties(), server.getOpenshiftClient(), null);
+		int requestCount = server.getMockServer().getRequestCount();
+
+		//@formatter:off
+		server.expect().get()
+			.withPath("/api/v1/namespaces/test/pods?labelSelector=spring-app-id%20in%20(testapp-source,testapp-processor,testapp-sink)")
+			.andReturn(200, new PodListBuilder()
+				.addToItems(new PodBuilder()
+					.withNewMetadata()
+						.withName("testapp-source-1")
+						.addToLabels("spring-app-id", "testapp-source")
+					.endMetadata()
+					.withNewStatus()
+						.withPhase("Running")
+						.withContainerStatuses(new ContainerStatusBuilder().withReady(true).build())
+					.endStatus()
+					.build())
+				.build())
+			.once();
+		server.expect().get()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id%20in%20(testapp-source,testapp-processor,testapp-sink)")
+			.andReturn(200, new BuildListBuilder()
+				.addToItems(new BuildBuilder()
+					.withNewMetadata()
+						.withName("testapp-processor-1")
+						.addToLabels("spring-app-id", "testapp-processor")
+					.endMetadata()
+					.withNewStatus()
+						.withPhase("Running")
+					.endStatus()
+					.build())
+				.build())
+			.once();
+		server.expect().get()
+			.withPath("/api/v1/namespaces/test/replicationcontrollers?labelSelector=spring-app-id%20in%20(testapp-processor,testapp-sink)")
+			.andReturn(200, new ReplicationControllerListBuilder()
+				.addToItems(new ReplicationControllerBuilder()
+					.withNewMetadata()
+						.withName("testapp-sink-1")
+						.addToLabels("spring-app-id", "testapp-sink")
+						.addToAnnotations("openshift.io/deployment.phase", "Failed")
+					.endMetadata()
+					.build())
+				.build())
+			.once();
+		//@formatter:on
+
+		Map<String, AppStatus> statuses = deployer.statuses(
+				Arrays.asList("testapp-source", "testapp-processor", "testapp-sink"));
+
+		assertThat(statuses.get("testapp-source").getState())
+				.isEqualTo(DeploymentState.deployed);
+		assertThat(statuses.get("testapp-processor").getState())
+				.isEqualTo(DeploymentState.unknown);
+		assertThat(statuses.get("testapp-sink").getState())
+				.isEqualTo(DeploymentState.failed);
+		assertThat(server.getMockServer().getRequestCount() - requestCount).isEqualTo(3);
+	}
+
+	@Test
+	public void undeployDeletesPodsInParallel() throws Exception {
+		AtomicInteger deleting = new AtomicInteger();
+		AtomicInteger maxDeleting = new AtomicInteger();
+		// the first two deletes only proceed once both are in flight
+		CountDownLatch inFlight = new CountDownLatch(2);
+		AtomicBoolean parallel = new AtomicBoolean(true);
+		RecordingCrudDispatcher crudDispatcher = new RecordingCrudDispatcher();
+		OpenShiftMockServer crudServer = new OpenShiftMockServer(new Context(),
+				new MockWebServer(), new HashMap<>(), new Dispatcher() {
+
+					@Override
+					public MockResponse dispatch(RecordedRequest request)
+							throws InterruptedException {
+						if (!request.getMethod().equals("DELETE")
+								|| !request.getPath().contains("/pods/")) {
+							return crudDispatcher.dispatch(request);
+						}
+
+						maxDeleting.accumulateAndGet(deleting.incrementAndGet(), Math::max);
+						try {
+							inFlight.countDown();
+							if (!inFlight.await(10, TimeUnit.SECONDS)) {
+								parallel.set(false);
+							}
+							return crudDispatcher.dispatch(request);
+						}
+						finally {
+							deleting.decrementAndGet();
+						}
+					}
+
+				}, false);
+		crudServer.init();
+		OpenShiftDeployerProperties properties = new OpenShiftDeployerProperties();
+		properties.setUndeployParallelism(2);
+		OpenShiftAppDeployer deployer = new OpenShiftAppDeployer(properties,
+				crudServer.createOpenShiftClient(), new OpenShiftContainerFactory(
+						properties, new VolumeMountFactory(properties)));
+		// the mock server has no controller to scale down the Pods
+		deployer.setScaleDownStrategy(ScaleDownMode.watch,
+				(deploymentConfig, timeout) -> CompletableFuture.completedFuture(true));
+		try {
+			String appId = deployer.deploy(new AppDeploymentRequest(
+					new AppDefinition("testapp-source", null),
+					new DockerResource("docker:test/app:latest"),
+					ImmutableMap.of(AppDeployer.COUNT_PROPERTY_KEY, "4")));
+
+			deployer.undeploy(appId);
+
+			assertThat(parallel.get()).isTrue();
+			assertThat(maxDeleting.get()).isLessThanOrEqualTo(2);
+		}
+		finally {
+			deployer.close();
+			crudServer.destroy();
+		}
+	}
+
 }
@@ -39,4 +39,19 @@ public class OpenShiftAppInstanceStatusTest {
 		assertThat(state).isEqualTo(DeploymentState.deploying);
 	}
 
+	@Test
+	public void getStateWithDeploymentPhase() {
+		appInstanceStatus = new OpenShiftAppInstanceStatus(null, null, null,
+				DeploymentPhase.uploading);
+
+		assertThat(appInstanceStatus.getState()).isEqualTo(DeploymentState.deploying);
+		assertThat(appInstanceStatus.getAttributes()).containsEntry("deployment.phase",
+				"uploading");
+
+		appInstanceStatus = new OpenShiftAppInstanceStatus(null, null, null,
+				DeploymentPhase.failed);
+
+		assertThat(appInstanceStatus.getState()).isEqualTo(DeploymentState.failed);
+	}
+
 }
@@ -0,0 +1,45 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import io.fabric8.kubernetes.client.HttpClientAware;
+import io.fabric8.openshift.client.OpenShiftClient;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+public class OpenShiftClientFactoryTest {
+
+	@Test
+	public void createClient() {
+		OpenShiftDeployerProperties properties = new OpenShiftDeployerProperties();
+		properties.setNamespace("test");
+		properties.setClientMaxConcurrentRequests(10);
+		properties.setClientMaxConcurrentRequestsPerHost(8);
+
+		OpenShiftClient client = new OpenShiftClientFactory(properties).createClient();
+		OkHttpClient httpClient = ((HttpClientAware) client).getHttpClient();
+
+		assertThat(client.getNamespace()).isEqualTo("test");
+		assertThat(httpClient.dispatcher().getMaxRequests()).isEqualTo(10);
+		assertThat(httpClient.dispatcher().getMaxRequestsPerHost()).isEqualTo(8);
+		assertThat(httpClient.protocols()).containsExactly(Protocol.HTTP_1_1);
+
+		client.close();
+	}
+
+	@Test
+	public void createClientWithHttp2() {
+		OpenShiftDeployerProperties properties = new OpenShiftDeployerProperties();
+		properties.setClientHttp2Enabled(true);
+
+		OpenShiftClient client = new OpenShiftClientFactory(properties).createClient();
+
+		assertThat(((HttpClientAware) client).getHttpClient().protocols())
+				.containsExactly(Protocol.HTTP_2, Protocol.HTTP_1_1);
+
+		client.close();
+	}
+
+}
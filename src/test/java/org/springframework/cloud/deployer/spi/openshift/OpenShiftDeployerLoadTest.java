@@ -0,0 +1,221 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.resource.maven.MavenProperties;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.RecordingCrudDispatcher.ApiUsage;
+import org.springframework.cloud.deployer.spi.openshift.maven.MavenOpenShiftAppDeployer;
+import org.springframework.cloud.deployer.spi.openshift.maven.MavenResourceJarExtractor;
+import org.springframework.cloud.deployer.spi.openshift.resources.pod.OpenShiftContainerFactory;
+import org.springframework.cloud.deployer.spi.openshift.resources.volumes.VolumeMountFactory;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.server.mock.OpenShiftMockServer;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Deploys, polls the status of and undeploys a number of synthetic apps, half of them
+ * Docker and half Maven resources, concurrently against an in-memory OpenShift mock
+ * server. The API requests, bytes transferred and latencies of each operation are
+ * reported and the requests per app are asserted against a budget, as a guard against API
+ * call amplification.
+ * <p>
+ * The number of apps and the concurrency default to 10 and can be set with the
+ * <code>openshift.load.apps</code> and <code>openshift.load.concurrency</code> system
+ * properties.
+ * <p>
+ * Not part of the default build, run it with <code>mvn test -Pload-tests</code>.
+ */
+public class OpenShiftDeployerLoadTest {
+
+	private static Logger logger = LoggerFactory
+			.getLogger(OpenShiftDeployerLoadTest.class);
+
+	private static final int APPS = Integer.getInteger("openshift.load.apps", 10);
+
+	private static final int CONCURRENCY = Integer
+			.getInteger("openshift.load.concurrency", 10);
+
+	private RecordingCrudDispatcher dispatcher = new RecordingCrudDispatcher();
+
+	private OpenShiftMockServer server;
+
+	private ResourceAwareOpenShiftAppDeployer deployer;
+
+	private Map<String, List<Long>> latencies = new LinkedHashMap<>();
+
+	@Before
+	public void setup() throws IOException {
+		server = new OpenShiftMockServer(new Context(), new MockWebServer(),
+				new HashMap<>(), dispatcher, false);
+		server.init();
+		OpenShiftClient client = server.createOpenShiftClient();
+
+		OpenShiftDeployerProperties properties = new OpenShiftDeployerProperties();
+		OpenShiftContainerFactory containerFactory = new OpenShiftContainerFactory(
+				properties, new VolumeMountFactory(properties));
+		deployer = new ResourceAwareOpenShiftAppDeployer(
+				new OpenShiftAppDeployer(properties, client, containerFactory),
+				new MavenOpenShiftAppDeployer(properties, client, containerFactory,
+						new MavenResourceJarExtractor(), installTestApp(),
+						new ResourceHash()));
+	}
+
+	@After
+	public void tearDown() {
+		deployer.close();
+		server.destroy();
+	}
+
+	@Test
+	public void deployStatusAndUndeploy() throws Exception {
+		List<AppDeploymentRequest> dockerRequests = new ArrayList<>();
+		List<AppDeploymentRequest> mavenRequests = new ArrayList<>();
+		MavenProperties mavenProperties = installTestApp();
+		for (int i = 0; i < APPS; i++) {
+			if (i % 2 == 0) {
+				dockerRequests.add(new AppDeploymentRequest(
+						new AppDefinition("docker-app-" + i, null),
+						new DockerResource("docker:test/app:latest")));
+			}
+			else {
+				mavenRequests.add(new AppDeploymentRequest(
+						new AppDefinition("maven-app-" + i, ImmutableMap.of(
+								OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_URI_PROPERTY,
+								"https://github.com/test/app.git")),
+						MavenResource.parse("org.test:test-app:1.0-SNAPSHOT",
+								mavenProperties)));
+			}
+		}
+		List<String> appIds = new CopyOnWriteArrayList<>();
+
+		run("deploy docker", dockerRequests,
+				request -> appIds.add(deployer.deploy(request)));
+		run("deploy maven", mavenRequests,
+				request -> appIds.add(deployer.deploy(request)));
+		run("status", appIds, appId -> assertThat(deployer.status(appId).getState())
+				.isIn(DeploymentState.deployed, DeploymentState.deploying));
+		run("statuses", Collections.singleton(appIds), ids -> {
+			Map<String, AppStatus> statuses = deployer.statuses(ids);
+			assertThat(statuses).hasSize(APPS);
+		});
+		run("undeploy", appIds, deployer::undeploy);
+
+		logger.info(report());
+		assertThat(appIds).hasSize(APPS);
+		assertRequestsPerCall("deploy docker", 7);
+		assertRequestsPerCall("deploy maven", 12);
+		assertRequestsPerCall("status", 4);
+		assertRequestsPerCall("statuses", 3);
+		assertRequestsPerCall("undeploy", 20);
+	}
+
+	private <T> void run(String operation, Collection<T> calls, Consumer<T> call)
+			throws Exception {
+		List<Long> operationLatencies = new CopyOnWriteArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+		dispatcher.setOperation(operation);
+		try {
+			List<Future<?>> futures = calls.stream().map(input -> executor.submit(() -> {
+				long start = System.nanoTime();
+				call.accept(input);
+				operationLatencies.add(System.nanoTime() - start);
+			})).collect(Collectors.toList());
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			dispatcher.setOperation(null);
+			executor.shutdown();
+		}
+		latencies.put(operation, operationLatencies);
+	}
+
+	private void assertRequestsPerCall(String operation, int budget) {
+		ApiUsage usage = dispatcher.getUsage(operation);
+		assertThat(usage.getRequests())
+				.as("API requests of '%s': %s", operation, usage.getRequestsByType())
+				.isLessThanOrEqualTo((long) budget * latencies.get(operation).size());
+	}
+
+	private String report() {
+		StringBuilder report = new StringBuilder(String.format(
+				"%d apps, %d concurrent%n%-14s %6s %9s %10s %10s %8s %8s %8s%n", APPS,
+				CONCURRENCY, "operation", "calls", "requests", "sent", "received",
+				"p50 ms", "p90 ms", "p99 ms"));
+		latencies.forEach((operation, operationLatencies) -> {
+			ApiUsage usage = dispatcher.getUsage(operation);
+			List<Long> sorted = new ArrayList<>(operationLatencies);
+			Collections.sort(sorted);
+			report.append(String.format("%-14s %6d %9d %10d %10d %8.1f %8.1f %8.1f%n",
+					operation, sorted.size(), usage.getRequests(),
+					usage.getRequestBytes(), usage.getResponseBytes(),
+					percentile(sorted, 50), percentile(sorted, 90),
+					percentile(sorted, 99)));
+			usage.getRequestsByType().forEach((type, requests) -> report
+					.append(String.format("    %-40s %6d%n", type, requests)));
+		});
+		return report.toString();
+	}
+
+	/**
+	 * @return the nearest-rank percentile of the sorted latencies, in milliseconds
+	 */
+	private static double percentile(List<Long> sorted, int percentile) {
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+		return sorted.get(Math.max(0, rank - 1)) / 1_000_000.0;
+	}
+
+	private MavenProperties installTestApp() throws IOException {
+		Path repository = Paths
+				.get("target/.m2/repository/org/test/test-app/1.0-SNAPSHOT");
+		Files.createDirectories(repository);
+		for (String file : new String[] { "test-app-1.0-SNAPSHOT.pom",
+				"test-app-1.0-SNAPSHOT.jar" }) {
+			Files.copy(Paths.get("src/test/resources", file), repository.resolve(file),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+		MavenProperties mavenProperties = new MavenProperties();
+		mavenProperties.setLocalRepository("target/.m2/repository");
+		return mavenProperties;
+	}
+
+}
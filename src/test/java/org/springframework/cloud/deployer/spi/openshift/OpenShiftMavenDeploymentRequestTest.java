@@ -5,8 +5,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
-import org.apache.maven.model.Scm;
-import org.apache.maven.project.MavenProject;
+import java.util.Optional;
+
 import org.junit.Test;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
@@ -21,13 +21,10 @@ public class OpenShiftMavenDeploymentRequestTest {
 	public void contructOpenShiftMavenDeploymentRequest() throws Exception {
 		MavenResourceProjectExtractor mavenResourceProjectExtractor = mock(
 				MavenResourceProjectExtractor.class);
-		MavenProject mavenProject = new MavenProject();
-		Scm scm = new Scm();
-		scm.setConnection("ssh://git@github.com/spring-cloud/spring-cloud-deployer.git");
-		scm.setTag("HEAD");
-		mavenProject.setScm(scm);
-		when(mavenResourceProjectExtractor.extractMavenProject(any(), any()))
-				.thenReturn(mavenProject);
+		when(mavenResourceProjectExtractor.extractGitReference(any(), any()))
+				.thenReturn(Optional.of(new GitReference(
+						"ssh://git@github.com/spring-cloud/spring-cloud-deployer.git",
+						"HEAD")));
 
 		AppDeploymentRequest request = new AppDeploymentRequest(
 				new AppDefinition("testapp-source", null),
@@ -0,0 +1,463 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerStatusBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.BuildConfig;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Serves the deployer from an in-memory store, as the CRUD mode of the OpenShift mock
+ * server does, and records the API requests and bytes transferred per operation, e.g.
+ * "deploy" or "status".
+ * <p>
+ * The CRUD dispatcher of the mock server is extended with what the deployer depends on
+ * but it does not support: the version endpoint, OpenShift (<code>/oapi</code>)
+ * resources, label selectors, watch events and Build instantiation. As there are no
+ * controllers, the Pods of a DeploymentConfig are created, running and ready, along with
+ * it.
+ */
+class RecordingCrudDispatcher extends Dispatcher {
+
+	private static final Pattern RESOURCE_PATH = Pattern
+			.compile("/namespaces/(?<namespace>[^/]+)/(?<resource>[^/?]+)"
+					+ "(/(?<name>[^/?]+))?(/(?<subresource>[^/?]+))?");
+
+	private static final Pattern LABEL_SELECTOR = Pattern
+			.compile("([?&])labelSelector=([^&]*)&?");
+
+	private static final Pattern LABEL_REQUIREMENT = Pattern
+			.compile("(?<not>!)?(?<key>[^=!\\s]+)\\s*"
+					+ "((?<operator>==|=|!=|\\s+in\\s+|\\s+notin\\s+)\\s*(?<values>.*))?");
+
+	private final KubernetesCrudDispatcher crudDispatcher = new KubernetesCrudDispatcher();
+
+	private final ObjectMapper mapper = Serialization.jsonMapper();
+
+	private final AtomicInteger buildNumber = new AtomicInteger();
+
+	private final Map<String, ApiUsage> usage = new ConcurrentHashMap<>();
+
+	private final List<ResourceWatch> watches = new CopyOnWriteArrayList<>();
+
+	private volatile String operation;
+
+	/**
+	 * @param operation the operation subsequent requests are recorded for, null to not
+	 * record them
+	 */
+	public void setOperation(String operation) {
+		this.operation = operation;
+	}
+
+	/**
+	 * @param operation
+	 * @return the API usage recorded for the operation
+	 */
+	public ApiUsage getUsage(String operation) {
+		return usage.computeIfAbsent(operation, op -> new ApiUsage());
+	}
+
+	@Override
+	public MockResponse dispatch(RecordedRequest request) {
+		MockResponse response = handle(request.getMethod(), request.getPath(),
+				request.getBody().readUtf8());
+
+		String currentOperation = operation;
+		if (currentOperation != null) {
+			getUsage(currentOperation).record(
+					request.getMethod() + " " + resourceType(request.getPath()),
+					request.getBodySize(),
+					(response.getBody() == null) ? 0 : response.getBody().size());
+		}
+		return response;
+	}
+
+	private MockResponse handle(String method, String path, String body) {
+		if (path.equals("/version")) {
+			return new MockResponse().setResponseCode(200).setBody(
+					"{\"major\": \"1\", \"minor\": \"7\", \"gitVersion\": \"v1.7.6\"}");
+		}
+
+		// the CRUD dispatcher only recognises /api and /apis paths
+		String crudPath = path.replaceFirst("^/oapi/", "/apis/");
+		if (crudPath.contains("watch=true")) {
+			return watch(crudPath);
+		}
+
+		switch (method) {
+		case "GET":
+			return get(crudPath);
+		case "POST":
+			if (crudPath.endsWith("/instantiate")) {
+				return instantiate(crudPath);
+			}
+			MockResponse created = create(crudPath, body);
+			if (crudPath.endsWith("/deploymentconfigs")) {
+				createPods(crudPath, unmarshal(body, DeploymentConfig.class));
+			}
+			return created;
+		case "PUT":
+			return notify("MODIFIED", crudPath,
+					crudDispatcher.handleUpdate(crudPath, body));
+		case "PATCH":
+			return notify("MODIFIED", crudPath,
+					crudDispatcher.handlePatch(crudPath, body));
+		case "DELETE":
+			MockResponse existing = crudDispatcher.handleGet(crudPath);
+			MockResponse response = crudDispatcher.handleDelete(crudPath);
+			if (response.getStatus().contains(" 200 ") && existing.getBody() != null) {
+				notify("DELETED", crudPath,
+						new MockResponse().setBody(existing.getBody().readUtf8()));
+			}
+			return response;
+		default:
+			return new MockResponse().setResponseCode(405);
+		}
+	}
+
+	private MockResponse create(String path, String body) {
+		return notify("ADDED", path, crudDispatcher.handleCreate(path, body));
+	}
+
+	/**
+	 * Watches are kept open, and sent the events of the resources they select, until the
+	 * client closes them.
+	 */
+	private MockResponse watch(String path) {
+		Matcher matcher = RESOURCE_PATH.matcher(path);
+		matcher.find();
+		Matcher selector = LABEL_SELECTOR.matcher(path);
+		Predicate<JsonNode> labels = selector.find()
+				? labelSelector(decode(selector.group(2))) : anyLabels -> true;
+		ResourceWatch resourceWatch = new ResourceWatch(matcher.group("namespace"),
+				matcher.group("resource"), labels);
+
+		return new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+
+			@Override
+			public void onOpen(WebSocket webSocket, Response response) {
+				resourceWatch.webSocket = webSocket;
+				watches.add(resourceWatch);
+			}
+
+			@Override
+			public void onClosing(WebSocket webSocket, int code, String reason) {
+				watches.remove(resourceWatch);
+				webSocket.close(code, reason);
+			}
+
+			@Override
+			public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+				watches.remove(resourceWatch);
+			}
+
+		});
+	}
+
+	private MockResponse notify(String type, String path, MockResponse response) {
+		if (response.getBody() == null || watches.isEmpty()) {
+			return response;
+		}
+
+		Matcher matcher = RESOURCE_PATH.matcher(path);
+		matcher.find();
+		String json = response.getBody().clone().readUtf8();
+		try {
+			JsonNode resource = mapper.readTree(json);
+			ObjectNode event = mapper.createObjectNode();
+			event.put("type", type);
+			event.set("object", resource);
+			String message = mapper.writeValueAsString(event);
+			watches.stream()
+					.filter(watch -> watch.namespace.equals(matcher.group("namespace"))
+							&& watch.resource.equals(matcher.group("resource"))
+							&& watch.labels
+									.test(resource.path("metadata").path("labels")))
+					.forEach(watch -> watch.webSocket.send(message));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return response;
+	}
+
+	private MockResponse get(String path) {
+		Matcher selector = LABEL_SELECTOR.matcher(path);
+		if (!selector.find()) {
+			return crudDispatcher.handleGet(path);
+		}
+
+		String unselectedPath = selector.replaceFirst("$1").replaceFirst("[?&]$", "");
+		MockResponse response = crudDispatcher.handleGet(unselectedPath);
+		if (response.getBody() == null) {
+			return response;
+		}
+
+		Predicate<JsonNode> matches = labelSelector(decode(selector.group(2)));
+		try {
+			JsonNode list = mapper.readTree(response.getBody().readUtf8());
+			Iterator<JsonNode> items = list.path("items").iterator();
+			while (items.hasNext()) {
+				if (!matches.test(items.next().path("metadata").path("labels"))) {
+					items.remove();
+				}
+			}
+			return response.setBody(mapper.writeValueAsString(list));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private MockResponse instantiate(String path) {
+		Matcher matcher = RESOURCE_PATH.matcher(path);
+		matcher.find();
+		String namespace = matcher.group("namespace");
+		String name = matcher.group("name");
+
+		MockResponse buildConfigResponse = crudDispatcher.handleGet(
+				String.format("/apis/v1/namespaces/%s/buildconfigs/%s", namespace, name));
+		if (buildConfigResponse.getBody() == null) {
+			return buildConfigResponse;
+		}
+		BuildConfig buildConfig = unmarshal(buildConfigResponse.getBody().readUtf8(),
+				BuildConfig.class);
+
+		Map<String, String> labels = new HashMap<>();
+		if (buildConfig.getMetadata().getLabels() != null) {
+			labels.putAll(buildConfig.getMetadata().getLabels());
+		}
+		labels.put("openshift.io/build-config.name", name);
+		//@formatter:off
+		Build build = new BuildBuilder()
+				.withNewMetadata()
+					.withName(name + "-" + buildNumber.incrementAndGet())
+					.withNamespace(namespace)
+					.withLabels(labels)
+				.endMetadata()
+				.withNewStatus()
+					.withPhase("New")
+				.endStatus()
+				.build();
+		//@formatter:on
+		return create(String.format("/apis/v1/namespaces/%s/builds", namespace),
+				Serialization.asJson(build));
+	}
+
+	private void createPods(String path, DeploymentConfig deploymentConfig) {
+		Matcher matcher = RESOURCE_PATH.matcher(path);
+		matcher.find();
+		String namespace = matcher.group("namespace");
+		int replicas = (deploymentConfig.getSpec().getReplicas() == null) ? 1
+				: deploymentConfig.getSpec().getReplicas();
+		List<Container> containers = deploymentConfig.getSpec().getTemplate().getSpec()
+				.getContainers();
+		for (int i = 0; i < replicas; i++) {
+			//@formatter:off
+			Pod pod = new PodBuilder()
+					.withNewMetadata()
+						.withName(deploymentConfig.getMetadata().getName() + "-1-" + i)
+						.withNamespace(namespace)
+						.withLabels(deploymentConfig.getSpec().getTemplate().getMetadata()
+								.getLabels())
+					.endMetadata()
+					.withNewStatus()
+						.withPhase("Running")
+						.withPodIP("10.0.0." + i)
+						.withHostIP("192.168.0.1")
+						.withContainerStatuses(new ContainerStatusBuilder()
+							.withName(containers.get(0).getName())
+							.withReady(true)
+							.withRestartCount(0)
+							.withNewState()
+								.withNewRunning()
+								.endRunning()
+							.endState()
+							.build())
+					.endStatus()
+					.build();
+			//@formatter:on
+			create(String.format("/api/v1/namespaces/%s/pods", namespace),
+					Serialization.asJson(pod));
+		}
+	}
+
+	private static String decode(String value) {
+		try {
+			return URLDecoder.decode(value, "UTF-8");
+		}
+		catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private <T> T unmarshal(String json, Class<T> type) {
+		try {
+			return mapper.readValue(json, type);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Supports the equality and set based requirements of a label selector, separated by
+	 * commas.
+	 */
+	private Predicate<JsonNode> labelSelector(String selector) {
+		Predicate<JsonNode> matches = labels -> true;
+		for (String requirement : splitRequirements(selector)) {
+			Matcher matcher = LABEL_REQUIREMENT.matcher(requirement.trim());
+			if (!matcher.matches()) {
+				throw new IllegalArgumentException(
+						"Unsupported label selector: " + selector);
+			}
+
+			String key = matcher.group("key");
+			String operator = (matcher.group("operator") == null) ? ""
+					: matcher.group("operator").trim();
+			List<String> values = (matcher.group("values") == null) ? new ArrayList<>()
+					: Arrays.asList(
+							matcher.group("values").replaceAll("[()\\s]", "").split(","));
+			boolean negated = matcher.group("not") != null || operator.equals("!=")
+					|| operator.equals("notin");
+
+			Predicate<JsonNode> requirementMatches = labels -> {
+				boolean present = labels.hasNonNull(key);
+				boolean matched = operator.isEmpty() ? present
+						: present && values.contains(labels.get(key).asText());
+				return matched != negated;
+			};
+			matches = matches.and(requirementMatches);
+		}
+		return matches;
+	}
+
+	private List<String> splitRequirements(String selector) {
+		List<String> requirements = new ArrayList<>();
+		int depth = 0;
+		int start = 0;
+		for (int i = 0; i < selector.length(); i++) {
+			char c = selector.charAt(i);
+			if (c == '(') {
+				depth++;
+			}
+			else if (c == ')') {
+				depth--;
+			}
+			else if (c == ',' && depth == 0) {
+				requirements.add(selector.substring(start, i));
+				start = i + 1;
+			}
+		}
+		requirements.add(selector.substring(start));
+		return requirements;
+	}
+
+	private static String resourceType(String path) {
+		Matcher matcher = RESOURCE_PATH.matcher(path);
+		if (!matcher.find()) {
+			return path.replaceFirst("\\?.*", "");
+		}
+
+		return (matcher.group("subresource") == null) ? matcher.group("resource")
+				: matcher.group("resource") + "/" + matcher.group("subresource");
+	}
+
+	private static class ResourceWatch {
+
+		private final String namespace;
+
+		private final String resource;
+
+		private final Predicate<JsonNode> labels;
+
+		private volatile WebSocket webSocket;
+
+		ResourceWatch(String namespace, String resource, Predicate<JsonNode> labels) {
+			this.namespace = namespace;
+			this.resource = resource;
+			this.labels = labels;
+		}
+
+	}
+
+	/**
+	 * The API requests of an operation, and the bytes transferred with them.
+	 */
+	static class ApiUsage {
+
+		private final AtomicLong requests = new AtomicLong();
+
+		private final AtomicLong requestBytes = new AtomicLong();
+
+		private final AtomicLong responseBytes = new AtomicLong();
+
+		private final Map<String, AtomicLong> requestsByType = new ConcurrentHashMap<>();
+
+		void record(String type, long requestSize, long responseSize) {
+			requests.incrementAndGet();
+			requestBytes.addAndGet(requestSize);
+			responseBytes.addAndGet(responseSize);
+			requestsByType.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+		}
+
+		long getRequests() {
+			return requests.get();
+		}
+
+		long getRequestBytes() {
+			return requestBytes.get();
+		}
+
+		long getResponseBytes() {
+			return responseBytes.get();
+		}
+
+		/**
+		 * @return the number of requests, keyed by method and resource, e.g. "GET pods"
+		 */
+		Map<String, Long> getRequestsByType() {
+			Map<String, Long> byType = new TreeMap<>();
+			requestsByType.forEach((type, count) -> byType.put(type, count.get()));
+			return byType;
+		}
+
+	}
+
+}
@@ -0,0 +1,121 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.openshift.api.model.DeploymentConfigListBuilder;
+import io.fabric8.openshift.client.server.mock.OpenShiftServer;
+
+public class ResourceDeletionWatcherTest {
+
+	private static final String LABEL_SELECTOR = "labelSelector=spring-app-id%3Dtestapp-source";
+
+	@Rule
+	public OpenShiftServer server = new OpenShiftServer(false, false);
+
+	@Test
+	public void deletionConfirmedByWatchEvents() {
+		expectNoDeploymentConfigsOrServices();
+		//@formatter:off
+		server.expect()
+			.withPath("/api/v1/namespaces/test/pods?" + LABEL_SELECTOR)
+			.andReturn(200, new PodListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.withItems(pod("testapp-source-1-abcde", "1"))
+				.build())
+			.once();
+		server.expect()
+			.withPath("/api/v1/namespaces/test/pods?" + LABEL_SELECTOR + "&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(pod("testapp-source-1-abcde", "2"), "DELETED"))
+				.done()
+			.once();
+		//@formatter:on
+
+		ResourceDeletionWatcher deletionWatcher = new ResourceDeletionWatcher(
+				server.getOpenshiftClient(), "testapp-source");
+
+		assertThat(deletionWatcher.awaitDeletion(10000)).isTrue();
+
+		deletionWatcher.close();
+	}
+
+	@Test
+	public void deletionTimesOut() {
+		expectNoDeploymentConfigsOrServices();
+		//@formatter:off
+		server.expect()
+			.withPath("/api/v1/namespaces/test/pods?" + LABEL_SELECTOR)
+			.andReturn(200, new PodListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.withItems(pod("testapp-source-1-abcde", "1"))
+				.build())
+			.once();
+		server.expect()
+			.withPath("/api/v1/namespaces/test/pods?" + LABEL_SELECTOR + "&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.done()
+			.once();
+		//@formatter:on
+
+		ResourceDeletionWatcher deletionWatcher = new ResourceDeletionWatcher(
+				server.getOpenshiftClient(), "testapp-source");
+
+		assertThat(deletionWatcher.awaitDeletion(200)).isFalse();
+
+		deletionWatcher.close();
+	}
+
+	private void expectNoDeploymentConfigsOrServices() {
+		//@formatter:off
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/deploymentconfigs?" + LABEL_SELECTOR)
+			.andReturn(200, new DeploymentConfigListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.build())
+			.once();
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/deploymentconfigs?" + LABEL_SELECTOR + "&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.done()
+			.once();
+		server.expect()
+			.withPath("/api/v1/namespaces/test/services?" + LABEL_SELECTOR)
+			.andReturn(200, new ServiceListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.build())
+			.once();
+		server.expect()
+			.withPath("/api/v1/namespaces/test/services?" + LABEL_SELECTOR + "&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.done()
+			.once();
+		//@formatter:on
+	}
+
+	private Pod pod(String name, String resourceVersion) {
+		return new PodBuilder().withNewMetadata().withName(name)
+				.withResourceVersion(resourceVersion)
+				.addToLabels("spring-app-id", "testapp-source").endMetadata().build();
+	}
+
+}
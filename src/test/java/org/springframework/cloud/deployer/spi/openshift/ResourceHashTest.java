@@ -0,0 +1,74 @@
+package org.springframework.cloud.deployer.spi.openshift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.FileSystemResource;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+public class ResourceHashTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void hashResource() throws IOException {
+		File jar = jar("app.jar", "content");
+
+		String hash = new ResourceHash().hashResource(new FileSystemResource(jar));
+
+		assertThat(hash)
+				.isEqualTo(Files.asByteSource(jar).hash(Hashing.sha1()).toString());
+	}
+
+	@Test
+	public void modifiedResourceIsHashedAgain() throws IOException {
+		File jar = jar("app.jar", "content");
+		ResourceHash resourceHash = new ResourceHash();
+		String hash = resourceHash.hashResource(new FileSystemResource(jar));
+
+		Files.write("modified content", jar, StandardCharsets.UTF_8);
+		jar.setLastModified(jar.lastModified() + 1000);
+
+		assertThat(resourceHash.hashResource(new FileSystemResource(jar)))
+				.isNotEqualTo(hash);
+	}
+
+	@Test
+	public void hashResourceWithSidecar() throws IOException {
+		File jar = jar("app.jar", "content");
+		ResourceHash resourceHash = new ResourceHash(ResourceHash.Algorithm.MURMUR3_128,
+				true, 100, true);
+
+		String hash = resourceHash.hashResource(new FileSystemResource(jar));
+
+		File sidecar = new File(jar.getPath() + ".spring-build-id.murmur3_128");
+		assertThat(hash).isEqualTo(
+				Files.asByteSource(jar).hash(Hashing.murmur3_128()).toString());
+		assertThat(sidecar).hasContent(
+				String.format("%d %d %s", jar.length(), jar.lastModified(), hash));
+
+		// a new instance reads the hash from the sidecar rather than the resource
+		Files.write(String.format("%d %d %s", jar.length(), jar.lastModified(), "1"),
+				sidecar, StandardCharsets.UTF_8);
+
+		assertThat(new ResourceHash(ResourceHash.Algorithm.MURMUR3_128, true, 100, true)
+				.hashResource(new FileSystemResource(jar))).isEqualTo("1");
+	}
+
+	private File jar(String name, String content) throws IOException {
+		File jar = folder.newFile(name);
+		Files.write(content, jar, StandardCharsets.UTF_8);
+		return jar;
+	}
+
+}
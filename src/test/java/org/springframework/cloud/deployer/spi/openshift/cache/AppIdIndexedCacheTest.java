@@ -0,0 +1,127 @@
+package org.springframework.cloud.deployer.spi.openshift.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.openshift.cache.AppIdIndexedCache.Listing;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watcher;
+
+public class AppIdIndexedCacheTest {
+
+	private List<Pod> pods = new ArrayList<>();
+
+	private String listedVersion = "10";
+
+	private int lists;
+
+	private List<String> watches = new ArrayList<>();
+
+	private AppIdIndexedCache<Pod> cache;
+
+	@Before
+	public void setup() {
+		cache = new AppIdIndexedCache<>("Pod", "spring-app-id", () -> {
+			lists++;
+			return new Listing<>(new ArrayList<>(pods), listedVersion);
+		}, (resourceVersion, watcher) -> {
+			watches.add(resourceVersion);
+			return () -> {
+			};
+		});
+	}
+
+	@Test
+	public void resyncIndexesByAppId() {
+		pods.add(pod("testapp-source-2", "testapp-source", "3"));
+		pods.add(pod("testapp-source-1", "testapp-source", "2"));
+		pods.add(pod("testapp-sink-1", "testapp-sink", "1"));
+
+		cache.resync();
+
+		assertThat(cache.get("testapp-source")).extracting("metadata.name")
+				.containsExactly("testapp-source-1", "testapp-source-2");
+		assertThat(cache.get("testapp-sink")).hasSize(1);
+		assertThat(cache.get("testapp-processor")).isEmpty();
+		assertThat(watches).containsExactly("10");
+	}
+
+	@Test
+	public void eventsUpdateCache() {
+		cache.resync();
+
+		cache.eventReceived(Watcher.Action.ADDED,
+				pod("testapp-source-1", "testapp-source", "11"));
+		cache.eventReceived(Watcher.Action.ADDED,
+				pod("testapp-source-2", "testapp-source", "12"));
+		cache.eventReceived(Watcher.Action.DELETED,
+				pod("testapp-source-1", "testapp-source", "13"));
+
+		assertThat(cache.get("testapp-source")).extracting("metadata.name")
+				.containsExactly("testapp-source-2");
+
+		cache.eventReceived(Watcher.Action.DELETED,
+				pod("testapp-source-2", "testapp-source", "14"));
+
+		assertThat(cache.get("testapp-source")).isEmpty();
+	}
+
+	@Test
+	public void eventsNotNewerThanListAreIgnored() {
+		pods.add(pod("testapp-source-1", "testapp-source", "9"));
+		cache.resync();
+
+		// deleted before the list, but delivered after it
+		cache.eventReceived(Watcher.Action.ADDED,
+				pod("testapp-source-2", "testapp-source", "8"));
+		cache.eventReceived(Watcher.Action.DELETED,
+				pod("testapp-source-2", "testapp-source", "10"));
+
+		assertThat(cache.get("testapp-source")).extracting("metadata.name")
+				.containsExactly("testapp-source-1");
+	}
+
+	@Test
+	public void closedWatchIsResumedWithoutRelist() {
+		cache.resync();
+		cache.eventReceived(Watcher.Action.ADDED,
+				pod("testapp-source-1", "testapp-source", "11"));
+		cache.onClose(null);
+		cache.resync();
+
+		assertThat(lists).isEqualTo(1);
+		assertThat(watches).containsExactly("10", "11");
+		assertThat(cache.get("testapp-source")).hasSize(1);
+	}
+
+	@Test
+	public void goneWatchRelists() {
+		pods.add(pod("testapp-source-1", "testapp-source", "9"));
+		cache.resync();
+		cache.onClose(new KubernetesClientException(
+				new StatusBuilder().withCode(410).withMessage("too old resource version")
+						.build()));
+		pods.clear();
+		listedVersion = "20";
+		cache.resync();
+
+		assertThat(lists).isEqualTo(2);
+		assertThat(watches).containsExactly("10", "20");
+		assertThat(cache.get("testapp-source")).isEmpty();
+	}
+
+	private Pod pod(String name, String appId, String resourceVersion) {
+		return new PodBuilder().withNewMetadata().withName(name)
+				.withResourceVersion(resourceVersion).addToLabels("spring-app-id", appId)
+				.endMetadata().build();
+	}
+
+}
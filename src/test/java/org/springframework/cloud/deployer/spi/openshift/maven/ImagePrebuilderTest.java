@@ -0,0 +1,72 @@
+package org.springframework.cloud.deployer.spi.openshift.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.openshift.maven.ImagePrebuilder.State;
+
+public class ImagePrebuilderTest {
+
+	private ImagePrebuilder imagePrebuilder = new ImagePrebuilder(2);
+
+	@After
+	public void tearDown() {
+		imagePrebuilder.close();
+	}
+
+	@Test
+	public void reportsWarmAndFailedArtifacts() throws Exception {
+		CompletableFuture<String> built = new CompletableFuture<>();
+		AtomicInteger builds = new AtomicInteger();
+
+		CompletableFuture<String> prebuild = imagePrebuilder
+				.submit("org.test:log-sink:1.0", () -> {
+					builds.incrementAndGet();
+					return built;
+				});
+		CompletableFuture<String> duplicate = imagePrebuilder
+				.submit("org.test:log-sink:1.0", () -> {
+					builds.incrementAndGet();
+					return built;
+				});
+		CompletableFuture<String> failed = imagePrebuilder
+				.submit("org.test:time-source:1.0", () -> {
+					throw new IllegalStateException("No build strategy");
+				});
+
+		assertThat(duplicate).isSameAs(prebuild);
+		assertThat(imagePrebuilder.getPrebuilds()).containsEntry("org.test:log-sink:1.0",
+				State.building);
+
+		built.complete("log-sink-3f2a9c81d0e4");
+		assertThat(prebuild.get(5, TimeUnit.SECONDS)).isEqualTo("log-sink-3f2a9c81d0e4");
+		try {
+			failed.get(5, TimeUnit.SECONDS);
+		}
+		catch (Exception e) {
+			// expected
+		}
+
+		assertThat(builds.get()).isEqualTo(1);
+		assertThat(imagePrebuilder.getPrebuilds())
+				.containsEntry("org.test:log-sink:1.0", State.warm)
+				.containsEntry("org.test:time-source:1.0", State.failed);
+	}
+
+	@Test
+	public void coordinates() {
+		assertThat(ImagePrebuilder
+				.coordinates(MavenResource.parse("org.test:log-sink:1.0.0.RELEASE")))
+						.isEqualTo("org.test:log-sink:1.0.0.RELEASE");
+		assertThat(ImagePrebuilder
+				.coordinates(MavenResource.parse("org.test:log-sink:jar:exec:1.0.0")))
+						.isEqualTo("org.test:log-sink:jar:exec:1.0.0");
+	}
+
+}
@@ -0,0 +1,93 @@
+package org.springframework.cloud.deployer.spi.openshift.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LayeredJarTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void onlyChangedLayerHasNewDigest() throws IOException {
+		LayeredJar layeredJar = LayeredJar.of(bootJar("app.jar", "classes")).get();
+		LayeredJar changedJar = LayeredJar.of(bootJar("changed.jar", "changed classes"))
+				.get();
+
+		assertThat(layeredJar.getDigests().keySet())
+				.containsExactlyElementsOf(LayeredJar.LAYERS);
+		assertThat(changedJar.getDigests().get(LayeredJar.DEPENDENCIES))
+				.isEqualTo(layeredJar.getDigests().get(LayeredJar.DEPENDENCIES));
+		assertThat(changedJar.getDigests().get(LayeredJar.SNAPSHOT_DEPENDENCIES))
+				.isEqualTo(layeredJar.getDigests().get(LayeredJar.SNAPSHOT_DEPENDENCIES));
+		assertThat(changedJar.getDigests().get(LayeredJar.APPLICATION))
+				.isNotEqualTo(layeredJar.getDigests().get(LayeredJar.APPLICATION));
+	}
+
+	@Test
+	public void archiveContainsSelectedLayers() throws IOException {
+		LayeredJar layeredJar = LayeredJar.of(bootJar("app.jar", "classes")).get();
+		File archive = folder.newFile("layers.zip");
+
+		layeredJar.writeArchive(archive,
+				Collections.singletonList(LayeredJar.APPLICATION));
+
+		try (ZipFile zipFile = new ZipFile(archive)) {
+			assertThat(Collections.list(zipFile.entries())).extracting(ZipEntry::getName)
+					.containsExactly(LayeredJar.MANIFEST, "application/",
+							"application/BOOT-INF/classes/App.class");
+		}
+	}
+
+	@Test
+	public void plainJarIsNotLayered() throws IOException {
+		File jar = folder.newFile("plain.jar");
+		try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar))) {
+			output.putNextEntry(new ZipEntry("App.class"));
+			output.closeEntry();
+		}
+
+		assertThat(LayeredJar.of(jar)).isNotPresent();
+	}
+
+	private File bootJar(String name, String classes) throws IOException {
+		File jar = folder.newFile(name);
+		try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar))) {
+			write(output, "BOOT-INF/classes/App.class", classes, false);
+			write(output, "BOOT-INF/lib/spring-core-4.3.9.RELEASE.jar", "release", true);
+			write(output, "BOOT-INF/lib/app-core-1.0.0.BUILD-SNAPSHOT.jar", "snapshot",
+					true);
+		}
+		return jar;
+	}
+
+	private void write(ZipOutputStream output, String name, String content,
+			boolean stored) throws IOException {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		ZipEntry entry = new ZipEntry(name);
+		if (stored) {
+			CRC32 crc = new CRC32();
+			crc.update(bytes);
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(bytes.length);
+			entry.setCrc(crc.getValue());
+		}
+		output.putNextEntry(entry);
+		output.write(bytes);
+		output.closeEntry();
+	}
+
+}
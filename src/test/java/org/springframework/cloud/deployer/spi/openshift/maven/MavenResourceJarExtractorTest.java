@@ -32,4 +32,14 @@ public class MavenResourceJarExtractorTest {
 		assertThat(resource).isNotPresent();
 	}
 
+	@Test
+	public void containsEntry() throws IOException {
+		assertThat(mavenResourceJarExtractor.containsEntry(
+				new ClassPathResource("test.war"), "on/the/path/to/war/test-file.txt"))
+						.isTrue();
+		assertThat(mavenResourceJarExtractor
+				.containsEntry(new ClassPathResource("test.war"), "existence.false"))
+						.isFalse();
+	}
+
 }
@@ -1,5 +1,6 @@
 package org.springframework.cloud.deployer.spi.openshift.maven;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.File;
@@ -9,6 +10,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 
 import org.apache.maven.project.MavenProject;
+import org.junit.After;
 import org.junit.Test;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
@@ -19,16 +21,59 @@ public class MavenResourceProjectExtractorTest {
 
 	@Test
 	public void extractMavenProject() throws Exception {
+		MavenProperties mavenProperties = installTestApp();
+		MavenProject mavenProject = mavenResourceProjectExtractor.extractMavenProject(
+				MavenResource.parse("org.test:test-app:1.0-SNAPSHOT"), mavenProperties);
+
+		assertNotNull(mavenProject);
+	}
+
+	@Test
+	public void gitReferenceCached() throws Exception {
+		MavenProperties mavenProperties = installTestApp();
+		MavenResource mavenResource = MavenResource
+				.parse("org.test:test-app:1.0-SNAPSHOT");
+
+		GitReference gitReference = mavenResourceProjectExtractor
+				.extractGitReference(mavenResource, mavenProperties).get();
+
+		assertThat(gitReference)
+				.isEqualTo(new GitReference("scm:git:git@test.com/test.git", "HEAD"));
+		assertThat(mavenResourceProjectExtractor
+				.extractGitReference(mavenResource, mavenProperties).get())
+						.isSameAs(gitReference);
+	}
+
+	@Test
+	public void snapshotGitReferenceEvictedWhenPomModified() throws Exception {
+		MavenProperties mavenProperties = installTestApp();
+		MavenResource mavenResource = MavenResource
+				.parse("org.test:test-app:1.0-SNAPSHOT");
+		GitReference gitReference = mavenResourceProjectExtractor
+				.extractGitReference(mavenResource, mavenProperties).get();
+
+		File pom = new File(
+				"target/.m2/repository/org/test/test-app/1.0-SNAPSHOT/test-app-1.0-SNAPSHOT.pom");
+		pom.setLastModified(pom.lastModified() - 60000);
+
+		assertThat(mavenResourceProjectExtractor
+				.extractGitReference(mavenResource, mavenProperties).get())
+						.isNotSameAs(gitReference).isEqualTo(gitReference);
+	}
+
+	@After
+	public void tearDown() {
+		mavenResourceProjectExtractor.close();
+	}
+
+	private MavenProperties installTestApp() throws IOException {
 		copy("src/test/resources/test-app-1.0-SNAPSHOT.pom",
 				"target/.m2/repository/org/test/test-app/1.0-SNAPSHOT");
 		copy("src/test/resources/test-app-1.0-SNAPSHOT.jar",
 				"target/.m2/repository/org/test/test-app/1.0-SNAPSHOT");
 		MavenProperties mavenProperties = new MavenProperties();
 		mavenProperties.setLocalRepository("target/.m2/repository");
-		MavenProject mavenProject = mavenResourceProjectExtractor.extractMavenProject(
-				MavenResource.parse("org.test:test-app:1.0-SNAPSHOT"), mavenProperties);
-
-		assertNotNull(mavenProject);
+		return mavenProperties;
 	}
 
 	private void copy(String from, String to) throws IOException {
@@ -0,0 +1,96 @@
+package org.springframework.cloud.deployer.spi.openshift.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+
+public class PomScmReaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private PomScmReader pomScmReader;
+
+	@Before
+	public void setup() {
+		pomScmReader = new PomScmReader(folder.getRoot());
+	}
+
+	@Test
+	public void readScm() throws IOException {
+		pom("test-app",
+				"<build><plugins><plugin><artifactId>test</artifactId>"
+						+ "<configuration><scm><connection>ignored</connection></scm>"
+						+ "</configuration></plugin></plugins></build>"
+						+ "<scm><connection>scm:git:git@test.com/test.git</connection>"
+						+ "<tag>v1.0</tag></scm>");
+
+		assertThat(pomScmReader.read("org.test", "test-app", "1.0"))
+				.contains(new GitReference("scm:git:git@test.com/test.git", "v1.0"));
+		assertThat(pomScmReader.read("org.test", "test-app", "1.0").get().getBranch())
+				.isEqualTo("v1.0");
+	}
+
+	@Test
+	public void readScmInheritedFromParent() throws IOException {
+		pom("test-parent",
+				"<scm><connection>scm:git:git@test.com/test.git</connection></scm>");
+		pom("test-app", parent("test-parent"));
+
+		GitReference gitReference = pomScmReader.read("org.test", "test-app", "1.0")
+				.get();
+
+		assertThat(gitReference.getUri())
+				.isEqualTo("scm:git:git@test.com/test.git/test-app");
+		assertThat(gitReference.getBranch()).isEqualTo("HEAD");
+	}
+
+	@Test
+	public void readScmInheritedFromParentWithoutAppendedPath() throws IOException {
+		pom("test-parent", "<scm child.scm.connection.inherit.append.path=\"false\">"
+				+ "<connection>scm:git:git@test.com/test.git</connection></scm>");
+		pom("test-app", parent("test-parent") + "<scm><tag>v1.0</tag></scm>");
+
+		assertThat(pomScmReader.read("org.test", "test-app", "1.0"))
+				.contains(new GitReference("scm:git:git@test.com/test.git", "v1.0"));
+	}
+
+	@Test
+	public void noScmWhenUnresolvable() throws IOException {
+		pom("test-app", "<scm><connection>${scm.connection}</connection></scm>");
+		pom("test-child", parent("test-missing"));
+		pom("test-none", "");
+
+		assertThat(pomScmReader.read("org.test", "test-app", "1.0")).isNotPresent();
+		assertThat(pomScmReader.read("org.test", "test-child", "1.0")).isNotPresent();
+		assertThat(pomScmReader.read("org.test", "test-none", "1.0")).isNotPresent();
+		assertThat(pomScmReader.read("org.test", "test-absent", "1.0")).isNotPresent();
+	}
+
+	private String parent(String artifactId) {
+		return "<parent><groupId>org.test</groupId><artifactId>" + artifactId
+				+ "</artifactId><version>1.0</version></parent>";
+	}
+
+	private void pom(String artifactId, String content) throws IOException {
+		File pom = PomScmReader.pomFile(folder.getRoot(), "org.test", artifactId, "1.0");
+		pom.getParentFile().mkdirs();
+		Files.write(
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+						+ "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+						+ "<modelVersion>4.0.0</modelVersion><groupId>org.test</groupId>"
+						+ "<artifactId>" + artifactId
+						+ "</artifactId><version>1.0</version>" + content + "</project>",
+				pom, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,109 @@
+package org.springframework.cloud.deployer.spi.openshift.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+public class OpenShiftApiMetricsTest {
+
+	private MockWebServer server = new MockWebServer();
+
+	private SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private OkHttpClient client = new OkHttpClient.Builder()
+			.addInterceptor(new OpenShiftApiMetrics(registry)).build();
+
+	@Before
+	public void setup() throws IOException {
+		server.start();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	public void resource() {
+		assertThat(OpenShiftApiMetrics.resource(url("/api/v1/namespaces/test/pods")))
+				.containsExactly("pods");
+		assertThat(OpenShiftApiMetrics
+				.resource(url("/oapi/v1/namespaces/test/buildconfigs/app/instantiate")))
+						.containsExactly("buildconfigs", "app", "instantiate");
+		assertThat(OpenShiftApiMetrics.resource(
+				url("/apis/extensions/v1beta1/namespaces/test/deployments/app")))
+						.containsExactly("deployments", "app");
+		assertThat(OpenShiftApiMetrics.resource(url("/api/v1/namespaces/test")))
+				.containsExactly("namespaces", "test");
+		assertThat(OpenShiftApiMetrics.resource(url("/version")))
+				.containsExactly("version");
+	}
+
+	@Test
+	public void requestsAreTimedByKindVerbAndOutcome() throws IOException {
+		server.enqueue(new MockResponse().setBody("{}"));
+		server.enqueue(new MockResponse().setBody("{}"));
+		server.enqueue(new MockResponse().setResponseCode(409));
+		server.enqueue(new MockResponse().setResponseCode(500));
+
+		execute(new Request.Builder()
+				.url(server.url("/oapi/v1/namespaces/test/deploymentconfigs")).build());
+		execute(new Request.Builder()
+				.url(server.url("/oapi/v1/namespaces/test/deploymentconfigs/app"))
+				.build());
+		execute(new Request.Builder()
+				.url(server.url("/api/v1/namespaces/test/services"))
+				.post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+				.build());
+		execute(new Request.Builder()
+				.url(server.url("/api/v1/namespaces/test/pods/app-1")).delete().build());
+
+		assertThat(timer("deploymentconfigs", "list", "success").count()).isEqualTo(1);
+		assertThat(timer("deploymentconfigs", "get", "success").count()).isEqualTo(1);
+		assertThat(timer("services", "create", "client_error").count()).isEqualTo(1);
+		assertThat(timer("pods", "delete", "server_error").count()).isEqualTo(1);
+	}
+
+	@Test
+	public void failedRequestsAreTimedAsIoErrors() throws IOException {
+		HttpUrl url = server.url("/api/v1/namespaces/test/pods?watch=true");
+		server.shutdown();
+
+		try {
+			execute(new Request.Builder().url(url).build());
+		}
+		catch (IOException e) {
+			// expected
+		}
+
+		assertThat(timer("pods", "watch", "io_error").count()).isEqualTo(1);
+	}
+
+	private void execute(Request request) throws IOException {
+		client.newCall(request).execute().close();
+	}
+
+	private Timer timer(String kind, String verb, String outcome) {
+		return registry.find(OpenShiftApiMetrics.REQUESTS).tag("kind", kind)
+				.tag("verb", verb).tag("outcome", outcome).timer();
+	}
+
+	private HttpUrl url(String path) {
+		return HttpUrl.parse("https://openshift.test" + path);
+	}
+
+}
@@ -0,0 +1,138 @@
+package org.springframework.cloud.deployer.spi.openshift.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.core.io.Resource;
+
+public class ObjectFactoryPipelineTest {
+
+	private ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private ObjectFactoryPipeline pipeline = new ObjectFactoryPipeline(executor);
+
+	private AppDeploymentRequest request = new AppDeploymentRequest(
+			new AppDefinition("testapp-source", null), mock(Resource.class));
+
+	private List<String> events = new CopyOnWriteArrayList<>();
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void independentObjectsAddedConcurrently() {
+		// each factory only completes once the other has started
+		CountDownLatch started = new CountDownLatch(2);
+		RecordingFactory service = new RecordingFactory("service", started);
+		RecordingFactory route = new RecordingFactory("route", started);
+
+		pipeline.deploy(Arrays.asList(service, route), request, "testapp-source");
+
+		assertThat(events.subList(0, 2)).containsOnly("add service", "add route");
+		assertThat(events.subList(2, 4)).containsExactly("apply service", "apply route");
+	}
+
+	@Test
+	public void dependenciesAddedFirst() {
+		RecordingFactory deploymentConfig = new DependentFactory("deploymentConfig");
+		RecordingFactory imageStream = new RecordingFactory("imageStream", null);
+
+		pipeline.deploy(Arrays.asList(deploymentConfig, imageStream), request,
+				"testapp-source");
+
+		assertThat(events).containsExactly("add imageStream", "add deploymentConfig",
+				"apply deploymentConfig", "apply imageStream");
+	}
+
+	@Test
+	public void failureSkipsApply() {
+		ObjectFactory failing = new RecordingFactory("failing", null) {
+
+			@Override
+			public Object addObject(AppDeploymentRequest request, String appId) {
+				throw new IllegalStateException("failed");
+			}
+		};
+
+		try {
+			pipeline.deploy(Collections.singletonList(failing), request,
+					"testapp-source");
+			fail("Expected the failure to be thrown");
+		}
+		catch (IllegalStateException e) {
+			assertThat(e).hasMessage("failed");
+		}
+		assertThat(events).isEmpty();
+	}
+
+	private class RecordingFactory implements ObjectFactory<Object> {
+
+		private final String name;
+
+		private final CountDownLatch started;
+
+		RecordingFactory(String name, CountDownLatch started) {
+			this.name = name;
+			this.started = started;
+		}
+
+		@Override
+		public Object addObject(AppDeploymentRequest request, String appId) {
+			if (started != null) {
+				started.countDown();
+				try {
+					assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+				}
+				catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			events.add("add " + name);
+			return null;
+		}
+
+		@Override
+		public void applyObject(AppDeploymentRequest request, String appId) {
+			events.add("apply " + name);
+		}
+
+	}
+
+	private class DependentFactory extends RecordingFactory {
+
+		DependentFactory(String name) {
+			super(name, null);
+		}
+
+		@Override
+		public Object addObject(AppDeploymentRequest request, String appId) {
+			assertThat(events).contains("add imageStream");
+			return super.addObject(request, appId);
+		}
+
+		@Override
+		public Set<Class<? extends ObjectFactory>> getDependencies() {
+			return Collections.singleton(RecordingFactory.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,115 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.BuildListBuilder;
+import io.fabric8.openshift.client.server.mock.OpenShiftServer;
+
+public class BuildIndexTest {
+
+	@Rule
+	public OpenShiftServer server = new OpenShiftServer(false, false);
+
+	private BuildIndex buildIndex;
+
+	@After
+	public void tearDown() {
+		if (buildIndex != null) {
+			buildIndex.close();
+		}
+	}
+
+	@Test
+	public void buildsIndexedByBuildId() throws InterruptedException {
+		//@formatter:off
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-build-id")
+			.andReturn(200, new BuildListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.withItems(
+					build("testapp-source-1", "testapp-source", "abc", "Complete", "1"),
+					build("testapp-source-2", "testapp-source", "def", "Failed", "1"))
+				.build())
+			.once();
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-build-id&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(
+					build("testapp-source-3", "testapp-source", "ghi", "New", "2"), "ADDED"))
+				.waitFor(100).andEmit(new WatchEvent(
+					build("testapp-source-1", "testapp-source", "abc", "Cancelled", "3"), "MODIFIED"))
+				.done()
+			.once();
+		//@formatter:on
+
+		CountDownLatch received = new CountDownLatch(2);
+		buildIndex = new BuildIndex(server.getOpenshiftClient()) {
+
+			@Override
+			public void eventReceived(Action action, Build build) {
+				super.eventReceived(action, build);
+				received.countDown();
+			}
+		};
+
+		assertThat(buildIndex.exists("testapp-source", "abc")).isTrue();
+		assertThat(buildIndex.exists("testapp-source", "def")).isFalse();
+		assertThat(buildIndex.exists("testapp-sink", "abc")).isFalse();
+
+		assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(buildIndex.exists("testapp-source", "ghi")).isTrue();
+		assertThat(buildIndex.exists("testapp-source", "abc")).isFalse();
+	}
+
+	@Test
+	public void buildsQueriedWhenIndexUnavailable() {
+		//@formatter:off
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-build-id")
+			.andReturn(500, "Internal Server Error")
+			.once();
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id%3Dtestapp-source,spring-build-id%3Dabc")
+			.andReturn(200, new BuildListBuilder()
+				.withItems(build("testapp-source-1", "testapp-source", "abc", "Running", "1"))
+				.build())
+			.once();
+		//@formatter:on
+
+		buildIndex = new BuildIndex(server.getOpenshiftClient());
+
+		assertThat(buildIndex.exists("testapp-source", "abc")).isTrue();
+	}
+
+	private Build build(String name, String appId, String buildId, String phase,
+			String resourceVersion) {
+		//@formatter:off
+		return new BuildBuilder()
+			.withNewMetadata()
+				.withName(name)
+				.withResourceVersion(resourceVersion)
+				.addToLabels("spring-app-id", appId)
+				.addToLabels(BuildIndex.SPRING_BUILD_ID_KEY, buildId)
+			.endMetadata()
+			.withNewStatus()
+				.withPhase(phase)
+			.endStatus()
+			.build();
+		//@formatter:on
+	}
+
+}
@@ -0,0 +1,162 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.WatchingBuildConfigStrategy.OnCompletedCallback;
+
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+
+public class BuildSchedulerTest {
+
+	private BuildWatcher buildWatcher = mock(BuildWatcher.class);
+
+	private Watch watch = mock(Watch.class);
+
+	private BuildScheduler buildScheduler;
+
+	private List<String> started = new CopyOnWriteArrayList<>();
+
+	@Before
+	public void setup() {
+		when(buildWatcher.register(any(), any())).thenReturn(watch);
+		buildScheduler = new BuildScheduler(buildWatcher, 2);
+	}
+
+	@Test
+	public void buildsBeyondLimitAreQueuedInOrder() {
+		schedule("app1", "abc");
+		schedule("app2", "def");
+		schedule("app3", "ghi");
+		schedule("app4", "jkl");
+
+		assertThat(started).containsExactly("app1", "app2");
+		assertThat(buildScheduler.getQueueDepth()).isEqualTo(2);
+		assertThat(buildScheduler.getInFlight()).isEqualTo(2);
+
+		complete("app2", "def", "Running");
+		assertThat(started).containsExactly("app1", "app2");
+
+		complete("app2", "def", "Complete");
+		assertThat(started).containsExactly("app1", "app2", "app3");
+		verify(watch).close();
+
+		complete("app1", "abc", "Failed");
+		assertThat(started).containsExactly("app1", "app2", "app3", "app4");
+		assertThat(buildScheduler.getQueueDepth()).isZero();
+		assertThat(buildScheduler.getStartedBuilds()).isEqualTo(4);
+	}
+
+	@Test
+	public void identicalBuildIsDeduplicated() {
+		CompletableFuture<?> first = schedule("app1", "abc");
+		CompletableFuture<?> second = schedule("app1", "abc");
+
+		assertThat(second).isSameAs(first);
+		assertThat(started).containsExactly("app1");
+		assertThat(buildScheduler.getDeduplicatedBuilds()).isEqualTo(1);
+
+		complete("app1", "abc", "Complete");
+		schedule("app1", "abc");
+		assertThat(started).containsExactly("app1", "app1");
+	}
+
+	@Test
+	public void failedStartReleasesSlot() {
+		CompletableFuture<?> failed = buildScheduler.schedule("app1", "abc", () -> {
+			throw new IllegalStateException("instantiate failed");
+		});
+		schedule("app2", "def");
+		schedule("app3", "ghi");
+
+		assertThat(failed).isCompletedExceptionally();
+		assertThat(started).containsExactly("app2", "app3");
+	}
+
+	@Test
+	public void deletedBuildReleasesSlot() {
+		schedule("app1", "abc");
+		schedule("app2", "def");
+		schedule("app3", "ghi");
+
+		delete("app1", "other");
+		assertThat(started).containsExactly("app1", "app2");
+
+		delete("app1", "abc");
+		assertThat(started).containsExactly("app1", "app2", "app3");
+		assertThat(buildScheduler.getInFlight()).isEqualTo(2);
+	}
+
+	@Test
+	public void slotIsReclaimedAfterTimeout() throws InterruptedException {
+		buildScheduler = new BuildScheduler(buildWatcher, 1, 100);
+		try {
+			schedule("app1", "abc");
+			schedule("app2", "def");
+			assertThat(started).containsExactly("app1");
+
+			long deadline = System.currentTimeMillis() + 5000;
+			while (started.size() < 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+
+			assertThat(started).containsExactly("app1", "app2");
+			assertThat(buildScheduler.getReclaimedSlots()).isEqualTo(1);
+		}
+		finally {
+			buildScheduler.close();
+		}
+	}
+
+	private CompletableFuture<?> schedule(String appId, String buildId) {
+		return buildScheduler.schedule(appId, buildId, () -> {
+			started.add(appId);
+			return CompletableFuture.completedFuture(null);
+		});
+	}
+
+	private void complete(String appId, String buildId, String phase) {
+		callback(appId).callback(build(appId, buildId, phase), watch);
+	}
+
+	private void delete(String appId, String buildId) {
+		callback(appId).deleted(build(appId, buildId, "Running"), watch);
+	}
+
+	@SuppressWarnings("unchecked")
+	private OnCompletedCallback<Build> callback(String appId) {
+		ArgumentCaptor<OnCompletedCallback> callback = ArgumentCaptor
+				.forClass(OnCompletedCallback.class);
+		verify(buildWatcher, atLeastOnce()).register(eq(appId), callback.capture());
+		return callback.getValue();
+	}
+
+	private Build build(String appId, String buildId, String phase) {
+		//@formatter:off
+		return new BuildBuilder()
+				.withNewMetadata()
+					.withName(appId + "-1")
+					.addToLabels(BuildIndex.SPRING_BUILD_ID_KEY, buildId)
+				.endMetadata()
+				.withNewStatus()
+					.withPhase(phase)
+				.endStatus()
+				.build();
+		//@formatter:on
+	}
+
+}
@@ -0,0 +1,109 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.resource.maven.MavenProperties;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftApplicationPropertyKeys;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerProperties;
+import org.springframework.cloud.deployer.spi.openshift.ResourceHash;
+import org.springframework.cloud.deployer.spi.openshift.maven.GitReference;
+import org.springframework.cloud.deployer.spi.openshift.maven.MavenResourceJarExtractor;
+import org.springframework.cloud.deployer.spi.openshift.maven.MavenResourceProjectExtractor;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildStrategyCache.Strategy;
+
+import io.fabric8.openshift.client.OpenShiftClient;
+
+public class BuildStrategiesTest {
+
+	private MavenResource mavenResource = MavenResource
+			.parse("org.test:testapp-source:1.0-SNAPSHOT");
+
+	private MavenResourceJarExtractor mavenResourceJarExtractor = mock(
+			MavenResourceJarExtractor.class);
+
+	private MavenResourceProjectExtractor mavenResourceProjectExtractor = mock(
+			MavenResourceProjectExtractor.class);
+
+	private ResourceHash resourceHash = mock(ResourceHash.class);
+
+	private BuildStrategyCache buildStrategyCache = new BuildStrategyCache();
+
+	private BuildStrategies buildStrategies;
+
+	@Before
+	public void setup() {
+		when(resourceHash.hashResource(any())).thenReturn("abc");
+		buildStrategies = new BuildStrategies(new MavenProperties(),
+				new OpenShiftDeployerProperties(), mavenResourceJarExtractor,
+				resourceHash, mock(OpenShiftClient.class), null,
+				mavenResourceProjectExtractor, buildStrategyCache);
+	}
+
+	@Test
+	public void providedGitRepositoryShortCircuits() throws Exception {
+		AppDeploymentRequest request = new AppDeploymentRequest(
+				new AppDefinition("testapp-source", Collections.singletonMap(
+						OpenShiftApplicationPropertyKeys.OPENSHIFT_BUILD_GIT_URI_PROPERTY,
+						"https://github.com/spring-cloud/spring-cloud-deployer.git")),
+				mavenResource);
+
+		BuildConfigStrategy buildStrategy = buildStrategies.chooseBuildStrategy(request,
+				Collections.emptyMap(), mavenResource);
+
+		assertThat(buildStrategy).isInstanceOf(GitWithDockerBuildConfigStrategy.class);
+		verify(mavenResourceJarExtractor, never()).containsEntry(any(), anyString());
+		verify(mavenResourceProjectExtractor, never()).extractGitReference(any(), any());
+		assertThat(buildStrategyCache.getEvaluations(Strategy.REMOTE_GIT)).isZero();
+	}
+
+	@Test
+	public void redeployUsesCachedDecision() throws Exception {
+		when(mavenResourceJarExtractor.containsEntry(any(), anyString()))
+				.thenReturn(true);
+		when(mavenResourceProjectExtractor.extractGitReference(any(), any())).thenReturn(
+				Optional.of(new GitReference("scm:git:git@test.com/test.git", "HEAD")));
+		AppDeploymentRequest request = new AppDeploymentRequest(
+				new AppDefinition("testapp-source", null), mavenResource);
+
+		assertThat(buildStrategies.chooseBuildStrategy(request, Collections.emptyMap(),
+				mavenResource)).isInstanceOf(GitWithDockerBuildConfigStrategy.class);
+		assertThat(buildStrategies.chooseBuildStrategy(request, Collections.emptyMap(),
+				mavenResource)).isInstanceOf(GitWithDockerBuildConfigStrategy.class);
+
+		assertThat(buildStrategyCache.getEvaluations(Strategy.PROVIDED_GIT)).isEqualTo(1);
+		assertThat(buildStrategyCache.getEvaluations(Strategy.REMOTE_GIT)).isEqualTo(1);
+		assertThat(buildStrategyCache.getHitRate()).isEqualTo(0.5);
+		// the cached Git repository is reused without probing the artifact again
+		verify(mavenResourceJarExtractor, times(1)).containsEntry(any(), anyString());
+		verify(mavenResourceProjectExtractor, times(1)).extractGitReference(any(), any());
+	}
+
+	@Test
+	public void s2iBinaryWhenNothingElseApplies() throws IOException {
+		AppDeploymentRequest request = new AppDeploymentRequest(
+				new AppDefinition("testapp-source", null), mavenResource);
+
+		BuildConfigStrategy buildStrategy = buildStrategies.chooseBuildStrategy(request,
+				Collections.emptyMap(), mavenResource);
+
+		assertThat(buildStrategy).isInstanceOf(S2iBinaryInputBuildConfigStrategy.class);
+		verify(mavenResourceJarExtractor, times(1)).containsEntry(any(), anyString());
+	}
+
+}
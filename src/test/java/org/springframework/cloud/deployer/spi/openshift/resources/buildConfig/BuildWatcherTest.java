@@ -0,0 +1,197 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.BuildListBuilder;
+import io.fabric8.openshift.client.server.mock.OpenShiftServer;
+
+public class BuildWatcherTest {
+
+	@Rule
+	public OpenShiftServer server = new OpenShiftServer(false, false);
+
+	private BuildWatcher buildWatcher;
+
+	@After
+	public void tearDown() {
+		if (buildWatcher != null) {
+			buildWatcher.close();
+		}
+	}
+
+	@Test
+	public void eventsDispatchedByAppId() throws InterruptedException {
+		//@formatter:off
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id")
+			.andReturn(200, new BuildListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.build())
+			.once();
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(build("testapp-sink-1", "testapp-sink", "2"), "MODIFIED"))
+				.waitFor(100).andEmit(new WatchEvent(build("testapp-source-1", "testapp-source", "3"), "MODIFIED"))
+				.done()
+			.once();
+		//@formatter:on
+
+		buildWatcher = new BuildWatcher(server.getOpenshiftClient());
+
+		List<String> builds = new CopyOnWriteArrayList<>();
+		CountDownLatch completed = new CountDownLatch(1);
+		Watch registration = buildWatcher.register("testapp-source", (build, watch) -> {
+			builds.add(build.getMetadata().getName());
+			watch.close();
+			completed.countDown();
+		});
+
+		assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(builds).containsExactly("testapp-source-1");
+
+		registration.close();
+	}
+
+	@Test
+	public void relistAfterGoneDispatchesOnlyChangedBuilds() throws InterruptedException {
+		//@formatter:off
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id")
+			.andReturn(200, new BuildListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("5")
+				.endMetadata()
+				.withItems(build("testapp-source-1", "testapp-source", "4", "Complete"))
+				.build())
+			.once();
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id&resourceVersion=5&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(build("testapp-source-2", "testapp-source", "6", "Running"), "ADDED"))
+				.waitFor(100).andEmit(new WatchEvent(new StatusBuilder().withCode(410).withMessage("too old resource version").build(), "ERROR"))
+				.done()
+			.once();
+		// the old, completed build is listed again, but was completed before registering
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id")
+			.andReturn(200, new BuildListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("9")
+				.endMetadata()
+				.withItems(build("testapp-source-1", "testapp-source", "4", "Complete"),
+					build("testapp-source-2", "testapp-source", "8", "Complete"))
+				.build())
+			.once();
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id&resourceVersion=9&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.done()
+			.once();
+		//@formatter:on
+
+		buildWatcher = new BuildWatcher(server.getOpenshiftClient());
+
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch completed = new CountDownLatch(1);
+		Watch registration = buildWatcher.register("testapp-source", (build, watch) -> {
+			events.add(build.getMetadata().getName() + " "
+					+ build.getStatus().getPhase());
+			if ("Complete".equals(build.getStatus().getPhase())) {
+				completed.countDown();
+			}
+		});
+
+		assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(events).containsExactly("testapp-source-2 Running",
+				"testapp-source-2 Complete");
+
+		registration.close();
+	}
+
+	@Test
+	public void deletedBuildsAreNotDispatchedAsStateChanges() throws InterruptedException {
+		//@formatter:off
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id")
+			.andReturn(200, new BuildListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.build())
+			.once();
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/builds?labelSelector=spring-app-id&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(build("testapp-source-1", "testapp-source", "2", "Complete"), "DELETED"))
+				.done()
+			.once();
+		//@formatter:on
+
+		buildWatcher = new BuildWatcher(server.getOpenshiftClient());
+
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch deleted = new CountDownLatch(1);
+		Watch registration = buildWatcher.register("testapp-source",
+				new WatchingBuildConfigStrategy.OnCompletedCallback<Build>() {
+
+					@Override
+					public void callback(Build build, Watch watch) {
+						events.add("callback " + build.getMetadata().getName());
+					}
+
+					@Override
+					public void deleted(Build build, Watch watch) {
+						events.add("deleted " + build.getMetadata().getName());
+						deleted.countDown();
+					}
+
+				});
+
+		assertThat(deleted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(events).containsExactly("deleted testapp-source-1");
+
+		registration.close();
+	}
+
+	private Build build(String name, String appId, String resourceVersion) {
+		return build(name, appId, resourceVersion, "Complete");
+	}
+
+	private Build build(String name, String appId, String resourceVersion,
+			String phase) {
+		//@formatter:off
+		return new BuildBuilder()
+			.withNewMetadata()
+				.withName(name)
+				.withResourceVersion(resourceVersion)
+				.addToLabels("spring-app-id", appId)
+			.endMetadata()
+			.withNewStatus()
+				.withPhase(phase)
+			.endStatus()
+			.build();
+		//@formatter:on
+	}
+
+}
@@ -0,0 +1,116 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.cloud.deployer.spi.openshift.maven.LayeredJar;
+
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.ImageStreamBuilder;
+import io.fabric8.openshift.client.server.mock.OpenShiftServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class LayeredBinaryInputTest {
+
+	private static final String IMAGE_STREAM_PATH = "/oapi/v1/namespaces/test/imagestreams/testapp";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Rule
+	public OpenShiftServer server = new OpenShiftServer(false, false);
+
+	@Test
+	public void archiveCarriesScripts() throws IOException {
+		LayeredJar layeredJar = LayeredJar.of(bootJar()).get();
+
+		File archive = new LayeredBinaryInput(server.getOpenshiftClient())
+				.prepare("testapp", layeredJar);
+
+		try (ZipFile zipFile = new ZipFile(archive)) {
+			assertThat(Collections.list(zipFile.entries())).extracting(ZipEntry::getName)
+					.contains(LayeredJar.MANIFEST, ".s2i/bin/assemble",
+							".s2i/bin/save-artifacts", "dependencies/",
+							"snapshot-dependencies/", "application/");
+		}
+		finally {
+			archive.delete();
+		}
+	}
+
+	@Test
+	public void digestsOfBuildArePromoted() throws InterruptedException {
+		//@formatter:off
+		server.expect()
+			.withPath(IMAGE_STREAM_PATH)
+			.andReturn(200, new ImageStreamBuilder()
+				.withNewMetadata()
+					.withName("testapp")
+				.endMetadata()
+				.build())
+			.always();
+		//@formatter:on
+
+		new LayeredBinaryInput(server.getOpenshiftClient()).promoteDigests("testapp",
+				build(new EnvVar(LayeredBinaryInput.LAYER_DIGESTS_ENV,
+						"dependencies=d1,snapshot-dependencies=s1,application=a1",
+						null)));
+
+		RecordedRequest request;
+		do {
+			request = server.getMockServer().takeRequest();
+		}
+		while (!"PATCH".equals(request.getMethod()));
+		assertThat(request.getBody().readUtf8()).contains(
+				"dependencies=d1,snapshot-dependencies=s1,application=a1");
+	}
+
+	@Test
+	public void buildWithoutDigestsIsIgnored() {
+		int requestCount = server.getMockServer().getRequestCount();
+
+		new LayeredBinaryInput(server.getOpenshiftClient()).promoteDigests("testapp",
+				build(new EnvVar("JAVA_OPTIONS", "-Xmx256m", null)));
+
+		assertThat(server.getMockServer().getRequestCount()).isEqualTo(requestCount);
+	}
+
+	private Build build(EnvVar env) {
+		//@formatter:off
+		return new BuildBuilder()
+			.withNewMetadata()
+				.withName("testapp-1")
+			.endMetadata()
+			.withNewSpec()
+				.withNewStrategy()
+					.withNewSourceStrategy()
+						.withEnv(env)
+					.endSourceStrategy()
+				.endStrategy()
+			.endSpec()
+			.build();
+		//@formatter:on
+	}
+
+	private File bootJar() throws IOException {
+		File jar = folder.newFile("app.jar");
+		try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar))) {
+			output.putNextEntry(new ZipEntry("BOOT-INF/classes/App.class"));
+			output.closeEntry();
+		}
+		return jar;
+	}
+
+}
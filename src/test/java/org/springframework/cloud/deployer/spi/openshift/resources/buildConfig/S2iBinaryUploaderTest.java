@@ -0,0 +1,142 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.buildConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.stubbing.Answer;
+
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.dsl.BuildConfigResource;
+import io.fabric8.openshift.client.dsl.TimeoutInputStreamable;
+import io.fabric8.openshift.client.dsl.buildconfig.CommitterAuthorMessageAsFileTimeoutInputStreamable;
+
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class S2iBinaryUploaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private OpenShiftClient client = mock(OpenShiftClient.class);
+
+	private TimeoutInputStreamable<Build> binaryBuild = mock(
+			TimeoutInputStreamable.class);
+
+	private CommitterAuthorMessageAsFileTimeoutInputStreamable<Build> binary = mock(
+			CommitterAuthorMessageAsFileTimeoutInputStreamable.class);
+
+	private MavenResource mavenResource = mock(MavenResource.class);
+
+	private S2iBinaryUploader uploader;
+
+	@Before
+	public void setup() throws IOException {
+		File jar = folder.newFile("app.jar");
+		Files.write("content", jar, StandardCharsets.UTF_8);
+		when(mavenResource.getFile()).thenReturn(jar);
+		when(mavenResource.getFilename()).thenReturn("app.jar");
+		MixedOperation buildConfigs = mock(MixedOperation.class);
+		BuildConfigResource buildConfig = mock(BuildConfigResource.class);
+		when(client.buildConfigs()).thenReturn(buildConfigs);
+		when(buildConfigs.withName("testapp-source")).thenReturn(buildConfig);
+		when(buildConfig.instantiateBinary()).thenReturn(binary);
+		when(binary.asFile("app.jar")).thenReturn(binaryBuild);
+
+		uploader = new S2iBinaryUploader(client, 2, 1, 10);
+	}
+
+	@After
+	public void tearDown() {
+		uploader.close();
+	}
+
+	@Test
+	public void upload() {
+		when(binaryBuild.fromInputStream(any(InputStream.class)))
+				.thenAnswer(uploaded("testapp-source-1"));
+
+		Build build = uploader.upload("testapp-source", mavenResource).join();
+
+		assertThat(build.getMetadata().getName()).isEqualTo("testapp-source-1");
+		assertThat(uploader.getUploads()).isEqualTo(1);
+		assertThat(uploader.getUploadedBytes()).isEqualTo(7);
+		assertThat(uploader.getFailure("testapp-source")).isNotPresent();
+	}
+
+	@Test
+	public void failedUploadRetried() {
+		when(binaryBuild.fromInputStream(any(InputStream.class)))
+				.thenThrow(new KubernetesClientException("Internal Server Error"))
+				.thenAnswer(uploaded("testapp-source-2"));
+
+		Build build = uploader.upload("testapp-source", mavenResource).join();
+
+		assertThat(build.getMetadata().getName()).isEqualTo("testapp-source-2");
+		assertThat(uploader.getFailedUploads()).isEqualTo(0);
+	}
+
+	@Test
+	public void failureRecordedOnceRetriesExhausted() {
+		when(binaryBuild.fromInputStream(any(InputStream.class)))
+				.thenThrow(new KubernetesClientException("Internal Server Error"));
+
+		assertThatThrownBy(() -> uploader.upload("testapp-source", mavenResource).join())
+				.isInstanceOf(CompletionException.class);
+		verify(binaryBuild, times(2)).fromInputStream(any(InputStream.class));
+		assertThat(uploader.getFailure("testapp-source")).isPresent();
+		assertThat(uploader.getFailedUploads()).isEqualTo(1);
+
+		uploader.clearFailure("testapp-source");
+
+		assertThat(uploader.getFailure("testapp-source")).isNotPresent();
+	}
+
+	@Test
+	public void archiveUploadedForExtraction() throws IOException {
+		File archive = folder.newFile("layers.zip");
+		Files.write("layers", archive, StandardCharsets.UTF_8);
+		when(binary.fromInputStream(any(InputStream.class)))
+				.thenAnswer(uploaded("testapp-source-1"));
+
+		Build build = uploader
+				.uploadArchive("testapp-source", () -> archive, "layers.zip").join();
+
+		assertThat(build.getMetadata().getName()).isEqualTo("testapp-source-1");
+		verify(binary, never()).asFile(any(String.class));
+		assertThat(uploader.getUploadedBytes()).isEqualTo(6);
+	}
+
+	private Answer<Build> uploaded(String name) {
+		return invocation -> {
+			ByteStreams.exhaust((InputStream) invocation.getArguments()[0]);
+			return new BuildBuilder().withNewMetadata().withName(name).endMetadata()
+					.build();
+		};
+	}
+
+}
@@ -0,0 +1,216 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.deploymentConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.openshift.timeline.Timeline;
+import org.springframework.cloud.deployer.spi.openshift.timeline.TimelineSpan;
+
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ReplicationControllerBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationControllerListBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
+import io.fabric8.openshift.client.server.mock.OpenShiftServer;
+
+public class RolloutWatcherTest {
+
+	private static final String LIST_PATH = "/api/v1/namespaces/test/replicationcontrollers?labelSelector=spring-app-id";
+
+	private static final String WATCH_PATH = LIST_PATH
+			+ "&resourceVersion=1&watch=true";
+
+	@Rule
+	public OpenShiftServer server = new OpenShiftServer(false, false);
+
+	private ScheduledExecutorService scheduledExecutorService = Executors
+			.newSingleThreadScheduledExecutor();
+
+	private RolloutWatcher rolloutWatcher;
+
+	private TimelineSpan source = Timeline.untracked("testapp-source").start("rollout");
+
+	private TimelineSpan sink = Timeline.untracked("testapp-sink").start("rollout");
+
+	@After
+	public void tearDown() {
+		if (rolloutWatcher != null) {
+			rolloutWatcher.close();
+		}
+		scheduledExecutorService.shutdownNow();
+	}
+
+	@Test
+	public void rolloutsShareOneWatch() throws InterruptedException {
+		expectList();
+		//@formatter:off
+		server.expect()
+			.withPath(WATCH_PATH)
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(replicationController("testapp-source-1", "testapp-source", "Complete"), "MODIFIED"))
+				.waitFor(100).andEmit(new WatchEvent(replicationController("testapp-source-2", "testapp-source", "Running"), "ADDED"))
+				.waitFor(100).andEmit(new WatchEvent(replicationController("testapp-sink-1", "testapp-sink", "Complete"), "ADDED"))
+				.waitFor(100).andEmit(new WatchEvent(replicationController("testapp-source-2", "testapp-source", "Complete"), "MODIFIED"))
+				.done()
+			.once();
+		//@formatter:on
+		int requestCount = server.getMockServer().getRequestCount();
+
+		rolloutWatcher = new RolloutWatcher(server.getOpenshiftClient(),
+				scheduledExecutorService, 0);
+		rolloutWatcher.watch("testapp-source", deploymentConfig("testapp-source", 2),
+				source);
+		rolloutWatcher.watch("testapp-sink", deploymentConfig("testapp-sink", 1), sink);
+
+		awaitEnd(source);
+		awaitEnd(sink);
+		assertThat(source.getStatusCode()).isEqualTo(TimelineSpan.StatusCode.OK);
+		assertThat(sink.getStatusCode()).isEqualTo(TimelineSpan.StatusCode.OK);
+		assertThat(rolloutWatcher.getRollouts()).isEmpty();
+		assertThat(rolloutWatcher.isWatching()).isFalse();
+		// one list and one watch
+		assertThat(server.getMockServer().getRequestCount() - requestCount)
+				.isEqualTo(2);
+	}
+
+	@Test
+	public void spanFailsWhenRolloutFails() throws InterruptedException {
+		expectList();
+		//@formatter:off
+		server.expect()
+			.withPath(WATCH_PATH)
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(replicationController("testapp-source-2", "testapp-source", "Failed"), "MODIFIED"))
+				.done()
+			.once();
+		//@formatter:on
+
+		rolloutWatcher = new RolloutWatcher(server.getOpenshiftClient(),
+				scheduledExecutorService, 0);
+		rolloutWatcher.watch("testapp-source", deploymentConfig("testapp-source", 2),
+				source);
+
+		awaitEnd(source);
+		assertThat(source.getStatusCode()).isEqualTo(TimelineSpan.StatusCode.ERROR);
+		assertThat(source.getStatusMessage()).isEqualTo("Rollout failed");
+	}
+
+	@Test
+	public void rolloutCompletedBeforeWatchingEndsSpan() {
+		expectList(replicationController("testapp-source-2", "testapp-source",
+				"Complete"));
+		expectWatch();
+
+		rolloutWatcher = new RolloutWatcher(server.getOpenshiftClient(),
+				scheduledExecutorService, 0);
+		rolloutWatcher.watch("testapp-source", deploymentConfig("testapp-source", 2),
+				source);
+
+		assertThat(source.isEnded()).isTrue();
+		assertThat(source.getStatusCode()).isEqualTo(TimelineSpan.StatusCode.OK);
+		assertThat(rolloutWatcher.isWatching()).isFalse();
+	}
+
+	@Test
+	public void spanFailsWhenUndeployed() {
+		expectList();
+		expectWatch();
+
+		rolloutWatcher = new RolloutWatcher(server.getOpenshiftClient(),
+				scheduledExecutorService, 0);
+		rolloutWatcher.watch("testapp-source", deploymentConfig("testapp-source", 2),
+				source);
+		assertThat(rolloutWatcher.getRollouts()).containsExactly("testapp-source");
+
+		rolloutWatcher.undeployed("testapp-source");
+
+		assertThat(source.getStatusCode()).isEqualTo(TimelineSpan.StatusCode.ERROR);
+		assertThat(source.getStatusMessage()).isEqualTo("Undeployed");
+		assertThat(rolloutWatcher.getRollouts()).isEmpty();
+		assertThat(rolloutWatcher.isWatching()).isFalse();
+	}
+
+	@Test
+	public void spanFailsAfterTimeout() throws InterruptedException {
+		expectList();
+		expectWatch();
+
+		rolloutWatcher = new RolloutWatcher(server.getOpenshiftClient(),
+				scheduledExecutorService, 100);
+		rolloutWatcher.watch("testapp-source", deploymentConfig("testapp-source", 2),
+				source);
+
+		awaitEnd(source);
+		assertThat(source.getStatusCode()).isEqualTo(TimelineSpan.StatusCode.ERROR);
+		assertThat(source.getStatusMessage()).isEqualTo("Not rolled out within 100ms");
+		assertThat(rolloutWatcher.getRollouts()).isEmpty();
+	}
+
+	private void expectList(ReplicationController... replicationControllers) {
+		//@formatter:off
+		server.expect()
+			.withPath(LIST_PATH)
+			.andReturn(200, new ReplicationControllerListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.withItems(replicationControllers)
+				.build())
+			.once();
+		//@formatter:on
+	}
+
+	private void expectWatch() {
+		//@formatter:off
+		server.expect()
+			.withPath(WATCH_PATH)
+			.andUpgradeToWebSocket()
+				.open()
+				.done()
+			.once();
+		//@formatter:on
+	}
+
+	private void awaitEnd(TimelineSpan span) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!span.isEnded() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(span.isEnded()).isTrue();
+	}
+
+	private DeploymentConfig deploymentConfig(String name, long latestVersion) {
+		//@formatter:off
+		return new DeploymentConfigBuilder()
+			.withNewMetadata()
+				.withName(name)
+			.endMetadata()
+			.withNewStatus()
+				.withLatestVersion(latestVersion)
+			.endStatus()
+			.build();
+		//@formatter:on
+	}
+
+	private ReplicationController replicationController(String name, String appId,
+			String phase) {
+		//@formatter:off
+		return new ReplicationControllerBuilder()
+			.withNewMetadata()
+				.withName(name)
+				.addToLabels("spring-app-id", appId)
+				.addToAnnotations("openshift.io/deployment.phase", phase)
+			.endMetadata()
+			.build();
+		//@formatter:on
+	}
+
+}
@@ -0,0 +1,51 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.imageStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.cloud.deployer.resource.maven.MavenResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerProperties;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftSupport;
+import org.springframework.cloud.deployer.spi.openshift.resources.buildConfig.BuildIndex;
+
+public class ContentAddressedImageTest {
+
+	private static final String HASH = "3f2a9c81d0e4b7a65c1e2d3f4a5b6c7d";
+
+	@Test
+	public void nameIsDerivedFromArtifactAndHash() {
+		assertThat(ContentAddressedImage
+				.name(MavenResource.parse("org.test:Log_Sink.Rabbit:1.0.0"), HASH))
+						.isEqualTo("log-sink-rabbit-3f2a9c81d0e4");
+		assertThat(ContentAddressedImage.name(MavenResource.parse(
+				"org.test:a-very-long-artifact-id-that-exceeds-the-limit-of-names:1.0.0"),
+				HASH)).hasSize(53).endsWith("-3f2a9c81d0e4");
+	}
+
+	@Test
+	public void labelsIdentifyImage() {
+		assertThat(ContentAddressedImage.labels("log-sink-3f2a9c81d0e4", HASH))
+				.containsEntry("spring-app-id", "log-sink-3f2a9c81d0e4")
+				.containsEntry(BuildIndex.SPRING_BUILD_ID_KEY, HASH).hasSize(2);
+	}
+
+	@Test
+	public void imageChangeTriggerReferencesSharedImage() {
+		AppDeploymentRequest request = new AppDeploymentRequest(
+				new AppDefinition("log-sink", null),
+				MavenResource.parse("org.test:log-sink:1.0.0"),
+				Collections.singletonMap(
+						OpenShiftDeploymentPropertyKeys.OPENSHIFT_DEPLOYMENT_IMAGE_NAME,
+						"log-sink-3f2a9c81d0e4"));
+
+		assertThat(new OpenShiftSupport() {
+		}.getIndexedImageTag(request, new OpenShiftDeployerProperties(), "log-sink"))
+				.isEqualTo("log-sink-3f2a9c81d0e4:latest");
+	}
+
+}
@@ -0,0 +1,149 @@
+package org.springframework.cloud.deployer.spi.openshift.resources.service;
+
+import com.google.common.collect.ImmutableMap;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.ServicePortBuilder;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.openshift.client.server.mock.OpenShiftMockServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The Service is created without checking whether it exists and only patched if the
+ * create conflicts with an existing Service.
+ */
+public class ServiceFactoryConflictTest {
+
+	public OpenShiftMockServer server = new OpenShiftMockServer();
+
+	private ServiceFactory serviceFactory;
+
+	private AppDeploymentRequest request = new AppDeploymentRequest(
+			new AppDefinition("testapp-source", null), mock(Resource.class));
+
+	@Before
+	public void setup() {
+		server.init();
+		serviceFactory = new ServiceFactory(server.createOpenShiftClient(), 8080,
+				ImmutableMap.of());
+	}
+
+	@After
+	public void tearDown() {
+		server.destroy();
+	}
+
+	@Test
+	public void addServiceWithoutExistingCheck() {
+		//@formatter:off
+		server.expect().post()
+			.withPath("/api/v1/namespaces/test/services")
+			.andReturn(201, new ServiceBuilder()
+				.withNewMetadata()
+					.withName("testapp-source")
+				.endMetadata()
+				.build())
+			.once();
+		//@formatter:on
+
+		Service service = serviceFactory.addObject(request, "testapp-source");
+
+		assertThat(service.getMetadata().getName()).isEqualTo("testapp-source");
+		assertThat(server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void addExistingServicePatchesIt() {
+		//@formatter:off
+		Service existing = new ServiceBuilder()
+			.withNewMetadata()
+				.withName("testapp-source")
+			.endMetadata()
+			.withNewSpec()
+				.withClusterIP("172.30.0.1")
+				.withPorts(new ServicePortBuilder().withPort(7777).build())
+			.endSpec()
+			.build();
+		server.expect().post()
+			.withPath("/api/v1/namespaces/test/services")
+			.andReturn(409, new StatusBuilder()
+				.withCode(409)
+				.withReason("AlreadyExists")
+				.build())
+			.once();
+		server.expect().get()
+			.withPath("/api/v1/namespaces/test/services/testapp-source")
+			.andReturn(200, existing)
+			.always();
+		server.expect().patch()
+			.withPath("/api/v1/namespaces/test/services/testapp-source")
+			.andReturn(200, new ServiceBuilder(existing)
+				.editSpec()
+					.withPorts(new ServicePortBuilder().withPort(8080).build())
+				.endSpec()
+				.build())
+			.once();
+		//@formatter:on
+
+		Service service = serviceFactory.addObject(request, "testapp-source");
+
+		assertThat(service.getSpec().getClusterIP()).isEqualTo("172.30.0.1");
+		assertThat(service.getSpec().getPorts()).extracting("port")
+				.containsExactly(8080);
+	}
+
+	@Test
+	public void redeployWithoutNodePortPatchesType() throws InterruptedException {
+		//@formatter:off
+		Service existing = new ServiceBuilder()
+			.withNewMetadata()
+				.withName("testapp-source")
+			.endMetadata()
+			.withNewSpec()
+				.withType("NodePort")
+				.withPorts(new ServicePortBuilder().withPort(8080).withNodePort(30000).build())
+			.endSpec()
+			.build();
+		server.expect().post()
+			.withPath("/api/v1/namespaces/test/services")
+			.andReturn(409, new StatusBuilder()
+				.withCode(409)
+				.withReason("AlreadyExists")
+				.build())
+			.once();
+		server.expect().get()
+			.withPath("/api/v1/namespaces/test/services/testapp-source")
+			.andReturn(200, existing)
+			.always();
+		server.expect().patch()
+			.withPath("/api/v1/namespaces/test/services/testapp-source")
+			.andReturn(200, existing)
+			.once();
+		//@formatter:on
+
+		serviceFactory.addObject(request, "testapp-source");
+
+		String patch = takePatch().getBody().readUtf8();
+		assertThat(patch).contains("/spec/type", "ClusterIP", "/spec/ports")
+				.doesNotContain("30000");
+	}
+
+	private RecordedRequest takePatch() throws InterruptedException {
+		RecordedRequest recorded;
+		do {
+			recorded = server.takeRequest();
+		}
+		while (!"PATCH".equals(recorded.getMethod()));
+		return recorded;
+	}
+
+}
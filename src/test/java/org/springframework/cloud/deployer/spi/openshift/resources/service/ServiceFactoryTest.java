@@ -45,6 +45,7 @@ public class ServiceFactoryTest {
 
 		assertThat(service.getSpec().getPorts()).first().isEqualTo(
 				new ServicePortBuilder().withNewTargetPort(8080).withPort(8080).build());
+		assertThat(service.getSpec().getType()).isEqualTo("ClusterIP");
 	}
 
 	@Test
@@ -87,6 +88,7 @@ public class ServiceFactoryTest {
 
 		assertThat(service.getSpec().getPorts()).first().isEqualTo(
 				new ServicePortBuilder().withNodePort(30000).withPort(8080).build());
+		assertThat(service.getSpec().getType()).isEqualTo("NodePort");
 	}
 
 }
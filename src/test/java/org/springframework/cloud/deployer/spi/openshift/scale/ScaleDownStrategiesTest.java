@@ -0,0 +1,193 @@
+package org.springframework.cloud.deployer.spi.openshift.scale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeployerProperties;
+import org.springframework.cloud.deployer.spi.openshift.OpenShiftDeploymentPropertyKeys;
+import org.springframework.core.io.Resource;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.server.mock.OpenShiftServer;
+
+public class ScaleDownStrategiesTest {
+
+	private static final String LABEL_SELECTOR = "labelSelector=spring-app-id%3Dtestapp-source";
+
+	@Rule
+	public OpenShiftServer server = new OpenShiftServer(false, false);
+
+	private ScheduledExecutorService scheduler = Executors
+			.newSingleThreadScheduledExecutor();
+
+	@After
+	public void tearDown() {
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	public void watchCompletesOncePodsAreDeleted() throws Exception {
+		expectScale();
+		//@formatter:off
+		server.expect()
+			.withPath("/api/v1/namespaces/test/pods?" + LABEL_SELECTOR + "&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(pod("testapp-source-1-abcde", "False"), "MODIFIED"))
+				.waitFor(100).andEmit(new WatchEvent(pod("testapp-source-1-abcde", "False"), "DELETED"))
+				.done()
+			.once();
+		//@formatter:on
+
+		CompletableFuture<Boolean> scaledDown = new WatchingScaleDownStrategy(
+				server.getOpenshiftClient(), scheduler).scaleDown(deploymentConfig(),
+						10000);
+
+		assertThat(scaledDown.get(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void drainCompletesOncePodsAreNotReady() throws Exception {
+		expectScale();
+		//@formatter:off
+		server.expect()
+			.withPath("/api/v1/namespaces/test/pods?" + LABEL_SELECTOR + "&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.waitFor(100).andEmit(new WatchEvent(pod("testapp-source-1-abcde", "False"), "MODIFIED"))
+				.done()
+			.once();
+		//@formatter:on
+
+		CompletableFuture<Boolean> scaledDown = new DrainingScaleDownStrategy(
+				server.getOpenshiftClient(), scheduler).scaleDown(deploymentConfig(),
+						10000);
+
+		assertThat(scaledDown.get(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void watchTimesOut() throws Exception {
+		expectScale();
+		//@formatter:off
+		server.expect()
+			.withPath("/api/v1/namespaces/test/pods?" + LABEL_SELECTOR + "&resourceVersion=1&watch=true")
+			.andUpgradeToWebSocket()
+				.open()
+				.done()
+			.once();
+		//@formatter:on
+
+		CompletableFuture<Boolean> scaledDown = new WatchingScaleDownStrategy(
+				server.getOpenshiftClient(), scheduler).scaleDown(deploymentConfig(),
+						200);
+
+		assertThat(scaledDown.get(10, TimeUnit.SECONDS)).isFalse();
+	}
+
+	@Test
+	public void modeAndTimeoutCanBeSetPerApp() {
+		OpenShiftDeployerProperties properties = new OpenShiftDeployerProperties();
+		ScaleDownStrategies strategies = new ScaleDownStrategies(properties,
+				mock(OpenShiftClient.class), null, scheduler);
+		AtomicLong watchTimeout = new AtomicLong();
+		AtomicLong drainTimeout = new AtomicLong();
+		strategies.setStrategy(ScaleDownMode.watch, (deploymentConfig, timeout) -> {
+			watchTimeout.set(timeout);
+			return CompletableFuture.completedFuture(true);
+		});
+		strategies.setStrategy(ScaleDownMode.drain, (deploymentConfig, timeout) -> {
+			drainTimeout.set(timeout);
+			return CompletableFuture.completedFuture(true);
+		});
+
+		Map<String, String> annotations = ScaleDownStrategies
+				.annotations(new AppDeploymentRequest(
+						new AppDefinition("testapp-source", null), mock(Resource.class),
+						ImmutableMap.of(
+								OpenShiftDeploymentPropertyKeys.OPENSHIFT_SCALE_DOWN_MODE,
+								"drain",
+								OpenShiftDeploymentPropertyKeys.OPENSHIFT_SCALE_DOWN_TIMEOUT,
+								"5000", "spring.cloud.deployer.openshift.memory", "8Mi")));
+		assertThat(annotations).containsOnlyKeys(
+				OpenShiftDeploymentPropertyKeys.OPENSHIFT_SCALE_DOWN_MODE,
+				OpenShiftDeploymentPropertyKeys.OPENSHIFT_SCALE_DOWN_TIMEOUT);
+
+		strategies.scaleDown(new DeploymentConfigBuilder(deploymentConfig())
+				.editMetadata().withAnnotations(annotations).endMetadata().build());
+		strategies.scaleDown(deploymentConfig());
+
+		assertThat(drainTimeout.get()).isEqualTo(5000);
+		assertThat(watchTimeout.get()).isEqualTo(properties.getScaleDownTimeout());
+	}
+
+	private void expectScale() {
+		//@formatter:off
+		server.expect()
+			.withPath("/oapi/v1/namespaces/test/deploymentconfigs/testapp-source")
+			.andReturn(200, deploymentConfig())
+			.always();
+		server.expect()
+			.withPath("/api/v1/namespaces/test/pods?" + LABEL_SELECTOR)
+			.andReturn(200, new PodListBuilder()
+				.withNewMetadata()
+					.withResourceVersion("1")
+				.endMetadata()
+				.withItems(pod("testapp-source-1-abcde", "True"))
+				.build())
+			.once();
+		//@formatter:on
+	}
+
+	private DeploymentConfig deploymentConfig() {
+		//@formatter:off
+		return new DeploymentConfigBuilder()
+			.withNewMetadata()
+				.withName("testapp-source")
+			.endMetadata()
+			.withNewSpec()
+				.withReplicas(1)
+				.addToSelector("spring-app-id", "testapp-source")
+			.endSpec()
+			.build();
+		//@formatter:on
+	}
+
+	private Pod pod(String name, String ready) {
+		//@formatter:off
+		return new PodBuilder()
+			.withNewMetadata()
+				.withName(name)
+				.addToLabels("spring-app-id", "testapp-source")
+			.endMetadata()
+			.withNewStatus()
+				.addNewCondition()
+					.withType("Ready")
+					.withStatus(ready)
+				.endCondition()
+			.endStatus()
+			.build();
+		//@formatter:on
+	}
+
+}
@@ -0,0 +1,100 @@
+package org.springframework.cloud.deployer.spi.openshift.timeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DeploymentTimelineTest {
+
+	private DeploymentTimeline deploymentTimeline = new DeploymentTimeline(2);
+
+	@Test
+	public void rootEndsOnceAllPhasesHaveEnded() {
+		Timeline timeline = deploymentTimeline.begin("app");
+		timeline.record("prepare", () -> {
+		});
+		TimelineSpan build = timeline.start("build");
+		timeline.end();
+
+		assertThat(timeline.isEnded()).isFalse();
+
+		TimelineSpan rollout = timeline.start("rollout");
+		build.end();
+		assertThat(timeline.isEnded()).isFalse();
+
+		rollout.end();
+		assertThat(timeline.isEnded()).isTrue();
+		assertThat(timeline.getSpans()).extracting(TimelineSpan::getName)
+				.containsExactly("deploy", "prepare", "build", "rollout");
+		assertThat(timeline.getSpans().get(0).getStatusCode())
+				.isEqualTo(TimelineSpan.StatusCode.OK);
+	}
+
+	@Test
+	public void spansShareTheTraceAndNestUnderTheirParent() {
+		Timeline timeline = deploymentTimeline.begin("app");
+		TimelineSpan build = timeline.start("build");
+		TimelineSpan run = build.child("run");
+
+		TimelineSpan root = timeline.getSpans().get(0);
+		assertThat(root.getParentSpanId()).isNull();
+		assertThat(root.getAttributes()).containsEntry("app.id", "app");
+		assertThat(build.getParentSpanId()).isEqualTo(root.getSpanId());
+		assertThat(run.getParentSpanId()).isEqualTo(build.getSpanId());
+		assertThat(run.getTraceId()).isEqualTo(timeline.getTraceId()).hasSize(32);
+		assertThat(run.getSpanId()).hasSize(16);
+	}
+
+	@Test
+	public void failedPhaseFailsTheDeployment() {
+		Timeline timeline = deploymentTimeline.begin("app");
+
+		try {
+			timeline.record("prepare", () -> {
+				throw new IllegalStateException("no strategy");
+			});
+			fail("Expected the phase to fail");
+		}
+		catch (IllegalStateException e) {
+			// expected
+		}
+		timeline.end();
+
+		TimelineSpan root = timeline.getSpans().get(0);
+		assertThat(timeline.getSpans().get(1).getStatusMessage())
+				.isEqualTo("no strategy");
+		assertThat(root.isEnded()).isTrue();
+		assertThat(root.getStatusCode()).isEqualTo(TimelineSpan.StatusCode.ERROR);
+		assertThat(root.getStatusMessage()).isEqualTo("Phase 'prepare' failed");
+	}
+
+	@Test
+	public void listenersAreNotifiedOfEndedSpans() {
+		List<String> ended = new ArrayList<>();
+		deploymentTimeline.addListener(span -> ended.add(span.getName()));
+
+		Timeline timeline = deploymentTimeline.begin("app");
+		timeline.record("hash", () -> "hash");
+		timeline.end();
+
+		assertThat(ended).containsExactly("hash", "deploy");
+	}
+
+	@Test
+	public void latestTimelinesAreKept() {
+		Timeline first = deploymentTimeline.begin("app-1");
+		deploymentTimeline.begin("app-2");
+		Timeline redeployed = deploymentTimeline.begin("app-1");
+		deploymentTimeline.begin("app-3");
+
+		assertThat(deploymentTimeline.getTimelines()).containsOnlyKeys("app-1", "app-3");
+		assertThat(deploymentTimeline.get("app-1").get()).isSameAs(redeployed)
+				.isNotSameAs(first);
+		assertThat(deploymentTimeline.get("app-2").isPresent()).isFalse();
+	}
+
+}